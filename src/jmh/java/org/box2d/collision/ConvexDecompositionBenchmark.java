@@ -0,0 +1,70 @@
+package org.box2d.collision;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to decompose wavy outlines of increasing vertex count, with and without a hole, and a batch of them in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvexDecompositionBenchmark {
+    @Param({"64", "256", "1024", "4096"})
+    public int vertices;
+
+    private float[] outline;
+    private float[] hole;
+    private List<float[][]> batch;
+
+    private static float[] wavyCircle(int count, float radius, float amplitude) {
+        float[] xy = new float[2 * count];
+        for (int i = 0; i < count; i++) {
+            double t = 2.0 * Math.PI * i / count;
+            double r = radius + amplitude * Math.sin(12.0 * t);
+            xy[2 * i] = (float) (r * Math.cos(t));
+            xy[2 * i + 1] = (float) (r * Math.sin(t));
+        }
+        return xy;
+    }
+
+    @Setup
+    public void setup() {
+        outline = wavyCircle(vertices, 10.0f, 2.0f);
+        hole = wavyCircle(Math.max(8, vertices / 12), 3.0f, 0.0f);
+        batch = new ArrayList<>();
+        for (int i = 0; i < 64; i++) batch.add(new float[][]{outline});
+    }
+
+    @Benchmark
+    public List<float[]> decompose() {
+        return ConvexDecomposition.decompose(outline);
+    }
+
+    @Benchmark
+    public List<float[]> decomposeWithHole() {
+        return ConvexDecomposition.decompose(outline, hole);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<List<float[]>> decomposeAll64() {
+        return ConvexDecomposition.decomposeAll(batch);
+    }
+}
@@ -0,0 +1,77 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2WorldDef;
+import org.box2d.internal.nBox2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time distribution of a quiet and a 10x busier pile, stepped with fixed sub-steps and workers or by an {@link AdaptiveStepController}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptiveStepControllerBenchmark {
+    private static final float TimeStep = 1.0f / 60.0f;
+
+    @Param({"400", "4000"})
+    public int bodies;
+
+    @Param({"fixed", "adaptive"})
+    public String stepping;
+
+    @Param({"4"})
+    public float budgetMillis;
+
+    private TaskSystem tasks;
+    private World world;
+    private AdaptiveStepController controller;
+
+    // A fresh pile per iteration, kept awake, so every iteration sees the same load.
+    @Setup(Level.Iteration)
+    public void setup() {
+        tasks = new TaskSystem(Runtime.getRuntime().availableProcessors());
+        MemorySegment def = tasks.install(nBox2D.nDefaultWorldDef());
+        b2WorldDef.enableSleep(def, false);
+        world = new World(def);
+        WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+        WorldCommandBuffer.Producer producer = buffer.producer(0);
+        producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                .createBox(-1, WorldCommandBuffer.LastBody, 200.0f, 1.0f, 0.0f);
+        for (int i = 0; i < bodies; i++) {
+            producer.createBody(i, WorldCommandBuffer.DynamicBody, (i % 100) * 1.1f - 55.0f, 2.0f + (i / 100) * 1.1f, 0.0f)
+                    .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+        }
+        buffer.drain();
+        controller = new AdaptiveStepController(world, tasks).subSteps(1, 4).budgetMillis(budgetMillis);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        world.close();
+        tasks.close();
+    }
+
+    @Benchmark
+    public void step() {
+        if (stepping.equals("adaptive")) controller.step(TimeStep);
+        else world.step(TimeStep, 4);
+    }
+}
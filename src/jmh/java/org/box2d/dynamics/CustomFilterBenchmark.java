@@ -0,0 +1,104 @@
+package org.box2d.dynamics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the custom filter per candidate pair, as step time of a settling pile and as lookups over prepared pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomFilterBenchmark {
+    private static final int Pairs = 4096;
+    private static final CustomFilter Filter = (shapeIdA, shapeIdB) -> ((shapeIdA ^ shapeIdB) & 7L) != 7L;
+
+    @Param({"none", "direct", "cached"})
+    public String filter;
+
+    @Param({"1000", "4000"})
+    public int bodies;
+
+    private World world;
+    private final long[] shapeIdsA = new long[Pairs];
+    private final long[] shapeIdsB = new long[Pairs];
+    private CachedCustomFilter cached;
+
+    // A fresh pile per iteration, so every iteration steps the same number of candidate pairs.
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new World(0.0f, -10.0f);
+        switch (filter) {
+            case "direct" -> world.customFilter(Filter);
+            case "cached" -> world.customFilter(new CachedCustomFilter(Filter, 4 * bodies));
+            default -> { }
+        }
+        WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+        WorldCommandBuffer.Producer producer = buffer.producer(0);
+        producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                .createBox(-1, WorldCommandBuffer.LastBody, 200.0f, 1.0f, 0.0f);
+        for (int i = 0; i < bodies; i++) {
+            producer.createBody(i, WorldCommandBuffer.DynamicBody, (i % 100) * 1.1f - 55.0f, 2.0f + (i / 100) * 1.1f, 0.0f)
+                    .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+        }
+        buffer.drain();
+
+        cached = new CachedCustomFilter(Filter, Pairs);
+        for (int i = 0; i < Pairs; i++) {
+            shapeIdsA[i] = ShapeId.pack(i + 1, 0, 1);
+            shapeIdsB[i] = ShapeId.pack(i + 2, 0, 1);
+            cached.shouldCollide(shapeIdsA[i], shapeIdsB[i]);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        world.close();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void step() {
+        world.step(1.0f / 60.0f, 4);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Pairs)
+    public int pairDirect() {
+        int count = 0;
+        for (int i = 0; i < Pairs; i++) if (Filter.shouldCollide(shapeIdsA[i], shapeIdsB[i])) count++;
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Pairs)
+    public int pairCachedHit() {
+        int count = 0;
+        for (int i = 0; i < Pairs; i++) if (cached.shouldCollide(shapeIdsA[i], shapeIdsB[i])) count++;
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Pairs)
+    public int pairCachedMiss() {
+        cached.invalidate();
+        return pairCachedHit();
+    }
+}
@@ -0,0 +1,71 @@
+package org.box2d.dynamics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time of a 50k-body map of 8x4 tiles, with an executor of 1 to N cores, to measure how the shards scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedWorldBenchmark {
+    private static final int Bodies = 50_000;
+    private static final int Columns = 8;
+    private static final int Rows = 4;
+    private static final float TileSize = 50.0f;
+
+    // Sizes above the core count measure oversubscription.
+    @Param({"1", "2", "4", "8", "16"})
+    public int cores;
+
+    private ShardedWorld world;
+    private ExecutorService executor;
+
+    // A fresh map per iteration, so sleeping bodies do not shrink the later ones.
+    @Setup(Level.Iteration)
+    public void setup() {
+        executor = Executors.newFixedThreadPool(cores);
+        world = new ShardedWorld(0.0f, -10.0f, 0.0f, 0.0f, TileSize, Columns, Rows, 1.0f);
+        float width = Columns * TileSize;
+        int perRow = (int) (width / 1.25f);
+        int perShelf = Bodies / Rows;
+        for (int row = 0; row < Rows; row++) {
+            // One shelf at the bottom of every tile row, so each tile has ground of its own and its ghosts.
+            float shelf = row * TileSize;
+            world.addStaticBox(width / 2.0f, shelf + 0.5f, width / 2.0f, 0.5f, 0.0f);
+            for (int i = 0; i < perShelf; i++) {
+                world.createBox(0.625f + (i % perRow) * 1.25f, shelf + 1.6f + (i / perRow) * 1.1f, 0.0f, 0.5f, 0.5f, 1.0f);
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdown();
+        world.close();
+    }
+
+    @Benchmark
+    public int step() {
+        return world.step(1.0f / 60.0f, 4, executor);
+    }
+}
@@ -0,0 +1,87 @@
+package org.box2d.dynamics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commands per second through a {@link WorldCommandBuffer}, drained on one thread while producers enqueue on others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldCommandBufferBenchmark {
+    private static final int Bodies = 1024;
+    private static final int Commands = 65536;
+
+    @Param({"1", "4", "16"})
+    public int producers;
+
+    private World world;
+    private WorldCommandBuffer buffer;
+    private final List<WorldCommandBuffer.Producer> producerList = new ArrayList<>();
+    private final long[] bodies = new long[Bodies];
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        world = new World(0.0f, 0.0f);
+        buffer = new WorldCommandBuffer(world);
+        for (int p = 0; p < producers; p++) producerList.add(buffer.producer(p));
+        WorldCommandBuffer.Producer producer = producerList.getFirst();
+        for (int i = 0; i < Bodies; i++) producer.createBody(i, WorldCommandBuffer.DynamicBody, i, 0.0f, 0.0f);
+        buffer.drain((tag, id) -> bodies[(int) tag] = id);
+        executor = Executors.newFixedThreadPool(producers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        world.close();
+    }
+
+    // Enqueue and drain on the calling thread, the cost of recording and applying alone.
+    @Benchmark
+    @OperationsPerInvocation(Commands)
+    public long sequential() {
+        WorldCommandBuffer.Producer producer = producerList.getFirst();
+        for (int i = 0; i < Commands; i++) producer.setLinearVelocity(bodies[i & (Bodies - 1)], 1.0f, 0.0f);
+        return buffer.drain();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Commands)
+    public long concurrent() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(producers);
+        int share = Commands / producers;
+        for (WorldCommandBuffer.Producer producer : producerList) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < share; i++) producer.setLinearVelocity(bodies[i & (Bodies - 1)], 1.0f, 0.0f);
+            }));
+        }
+        long applied = 0;
+        while (!futures.stream().allMatch(Future::isDone)) applied += buffer.drain();
+        for (Future<?> future : futures) future.get();
+        return applied + buffer.drain();
+    }
+}
@@ -0,0 +1,83 @@
+package org.box2d.dynamics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to replay a 10 second journal of a pile hit by impulses, 50x real time being under 200 ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldReplayerBenchmark {
+    private static final int Steps = 600;
+
+    @Param({"100", "1000"})
+    public int bodies;
+
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("box2d-journal");
+        try (World world = new World(0.0f, -10.0f)) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            try (WorldRecorder recorder = new WorldRecorder(world, buffer, directory, 1 << 24)) {
+                producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                        .createBox(-1, WorldCommandBuffer.LastBody, 100.0f, 1.0f, 0.0f);
+                for (int i = 0; i < bodies; i++) {
+                    producer.createBody(i, WorldCommandBuffer.DynamicBody, (i % 50) * 1.1f - 27.0f, 2.0f + (i / 50) * 1.1f, 0.0f)
+                            .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+                }
+                for (int i = 0; i < Steps; i++) {
+                    if (i % 10 == 5) producer.applyLinearImpulse(WorldCommandBuffer.LastBody, 2.0f, 5.0f);
+                    buffer.drain();
+                    recorder.step(1.0f / 60.0f, 4);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int replay() {
+        try (WorldReplayer replayer = new WorldReplayer(directory)) {
+            replayer.run();
+            return replayer.lastDigest();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.box2d.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time to publish chunks of 1000 events to a subscriber taking the given time per chunk, run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPublisherBenchmark {
+    private static final int Contacts = 999;
+
+    @Param({"DropOldest", "Coalesce", "Block"})
+    public EventPublisher.Overflow overflow;
+
+    @Param({"0", "20"})
+    public int subscriberMicros;
+
+    private ExecutorService executor;
+    private EventPublisher publisher;
+    private long step;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        publisher = new EventPublisher(executor, 8, overflow, 1, TimeUnit.SECONDS);
+        long delayNanos = TimeUnit.MICROSECONDS.toNanos(subscriberMicros);
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(EventChunk chunk) {
+                if (delayNanos > 0) LockSupport.parkNanos(delayNanos);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        publisher.close();
+        executor.shutdown();
+    }
+
+    // One step of a body move and begin touch events, as the capture of a busy world would publish.
+    @Benchmark
+    public long publish() {
+        EventChunk chunk = publisher.chunk();
+        chunk.reset(step);
+        chunk.setMove(chunk.reserve(EventChunk.BodyMove, 1), 7L, step, 0.0f, 0.0f, false);
+        chunk.reserve(EventChunk.ContactBegin, Contacts);
+        for (int i = 0; i < Contacts; i++) chunk.setShapes(EventChunk.ContactBegin, i, i, i + 1);
+        publisher.publish(chunk);
+        return step++;
+    }
+}
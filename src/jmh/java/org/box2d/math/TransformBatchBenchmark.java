@@ -0,0 +1,117 @@
+package org.box2d.math;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to transform a point set through per-point {@link Vec2} wrapper calls, and through {@link TransformBatch} with and without the Vector API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBatchBenchmark {
+    @Param({"1024", "65536"})
+    public int count;
+
+    private final Transform transform = new Transform(3.5f, -2.25f, 0.7f);
+    private float[] x, y, xy, outX, outY, outXY;
+    private Vec2[] points, outPoints;
+    private Arena arena;
+    private MemorySegment segment, outSegment;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1L);
+        x = new float[count];
+        y = new float[count];
+        xy = new float[2 * count];
+        outX = new float[count];
+        outY = new float[count];
+        outXY = new float[2 * count];
+        points = new Vec2[count];
+        outPoints = new Vec2[count];
+        arena = Arena.ofConfined();
+        segment = arena.allocate(ValueLayout.JAVA_FLOAT, 2L * count);
+        outSegment = arena.allocate(ValueLayout.JAVA_FLOAT, 2L * count);
+        for (int i = 0; i < count; i++) {
+            x[i] = (random.nextFloat() - 0.5f) * 200.0f;
+            y[i] = (random.nextFloat() - 0.5f) * 200.0f;
+            xy[2 * i] = x[i];
+            xy[2 * i + 1] = y[i];
+            points[i] = new Vec2(x[i], y[i]);
+            outPoints[i] = new Vec2();
+        }
+        MemorySegment.copy(xy, 0, segment, ValueLayout.JAVA_FLOAT, 0L, 2 * count);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    // What callers did before the batch API, one wrapper read and write per point.
+    @Benchmark
+    public Vec2[] wrapper() {
+        float px = transform.x(), py = transform.y(), c = transform.rotation().c(), s = transform.rotation().s();
+        for (int i = 0; i < count; i++) {
+            Vec2 p = points[i];
+            float vx = p.x(), vy = p.y();
+            outPoints[i].set((c * vx - s * vy) + px, (s * vx + c * vy) + py);
+        }
+        return outPoints;
+    }
+
+    @Benchmark
+    public float[] split() {
+        TransformBatch.transform(transform, x, y, outX, outY, count);
+        return outX;
+    }
+
+    @Benchmark
+    public float[] interleaved() {
+        TransformBatch.transform(transform, xy, outXY, count);
+        return outXY;
+    }
+
+    @Benchmark
+    public MemorySegment segment() {
+        TransformBatch.transform(transform, segment, outSegment, count);
+        return outSegment;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbox2d.vector=false")
+    public float[] splitScalar() {
+        return split();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbox2d.vector=false")
+    public MemorySegment segmentScalar() {
+        return segment();
+    }
+
+    @Benchmark
+    public float[] bounds() {
+        return TransformBatch.bounds(x, y, count, outXY);
+    }
+}
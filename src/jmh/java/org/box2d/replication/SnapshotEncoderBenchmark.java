@@ -0,0 +1,101 @@
+package org.box2d.replication;
+
+import org.box2d.dynamics.BodyId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to commit, encode and decode snapshots of 10k moving bodies, in full and as a delta, against a 1 ms budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotEncoderBenchmark {
+    private static final float Precision = 1.0f / 512.0f;
+    private static final int AngleBits = 12;
+
+    @Param({"10000"})
+    public int bodies;
+
+    private SnapshotEncoder encoder;
+    private SnapshotDecoder decoder;
+    private ByteBuffer full;
+    private ByteBuffer delta;
+    private ByteBuffer out;
+    private long[] ids;
+    private float[] xs, ys, angles;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1L);
+        encoder = new SnapshotEncoder(Precision, AngleBits);
+        decoder = new SnapshotDecoder(Precision, AngleBits);
+        ids = new long[bodies];
+        xs = new float[bodies];
+        ys = new float[bodies];
+        angles = new float[bodies];
+        for (int i = 0; i < bodies; i++) {
+            ids[i] = BodyId.pack(i + 1, 0, 1);
+            xs[i] = random.nextFloat() * 1000.0f;
+            ys[i] = random.nextFloat() * 1000.0f;
+            angles[i] = (random.nextFloat() - 0.5f) * 6.0f;
+        }
+        out = ByteBuffer.allocateDirect(32 * bodies);
+        full = ByteBuffer.allocateDirect(32 * bodies);
+        delta = ByteBuffer.allocateDirect(32 * bodies);
+
+        // Sequence 0 in full, then sequence 1 with every body moved by a frame of motion.
+        commit();
+        encoder.encode(SnapshotEncoder.NoBaseline, full);
+        decoder.decode(full.flip());
+        commit();
+        encoder.encode(0, delta);
+        delta.flip();
+    }
+
+    private int commit() {
+        for (int i = 0; i < bodies; i++) {
+            xs[i] += 0.05f;
+            ys[i] -= 0.02f;
+            angles[i] += 0.01f;
+            encoder.put(ids[i], xs[i], ys[i], angles[i], false);
+        }
+        return encoder.commit();
+    }
+
+    @Benchmark
+    public int putAndCommit() {
+        return commit();
+    }
+
+    @Benchmark
+    public int encodeFull() {
+        return encoder.encode(SnapshotEncoder.NoBaseline, out.clear());
+    }
+
+    @Benchmark
+    public int encodeDelta() {
+        return encoder.encode(encoder.sequence() - 1, out.clear());
+    }
+
+    @Benchmark
+    public int decodeDelta() {
+        return decoder.decode(delta.rewind());
+    }
+}
@@ -5,11 +5,16 @@
  * User must run with {@code --enable-native-access=org.box2d}, or {@code ALL-UNNAMED} when used off the module path.
  */
 module box2d.java {
+    // Optional, TransformBatch falls back to scalar loops when the module is not added at runtime.
+    requires static jdk.incubator.vector;
+
     exports org.box2d;
     exports org.box2d.math;
     exports org.box2d.collision;
     exports org.box2d.dynamics;
+    exports org.box2d.debug;
+    exports org.box2d.replication;
+    exports org.box2d.events;
     // Uncomment these when there are actual API inside them.
     // exports org.box2d.dynamics.joints;
-    // exports org.box2d.events;
 }
\ No newline at end of file
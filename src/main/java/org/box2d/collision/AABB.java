@@ -2,10 +2,12 @@ package org.box2d.collision;
 
 import org.box2d.NativeLoader;
 import org.box2d.internal.b2AABB;
+import org.box2d.internal.b2Vec2;
 import org.box2d.math.Vec2;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * Axis aligned bounding box, defined by a lower and an upper bound.
@@ -13,6 +15,11 @@ import java.lang.foreign.MemorySegment;
  * Wrapper for native {@link b2AABB}.
  */
 public final class AABB {
+    private static final long LowerBoundX = b2AABB.lowerBound$offset() + b2Vec2.x$offset();
+    private static final long LowerBoundY = b2AABB.lowerBound$offset() + b2Vec2.y$offset();
+    private static final long UpperBoundX = b2AABB.upperBound$offset() + b2Vec2.x$offset();
+    private static final long UpperBoundY = b2AABB.upperBound$offset() + b2Vec2.y$offset();
+
     private final MemorySegment segment;
 
     static {
@@ -117,6 +124,22 @@ public final class AABB {
         return this;
     }
 
+    /**
+     * Get the lower bound x coordinate without wrapping it.
+     * @return the lower bound x coordinate value
+     */
+    public float lowerBoundX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, LowerBoundX);
+    }
+
+    /**
+     * Get the lower bound y coordinate without wrapping it.
+     * @return the lower bound y coordinate value
+     */
+    public float lowerBoundY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, LowerBoundY);
+    }
+
     /**
      * Get the upper bound of this box.
      * This returns a wrapper, not a new copy.
@@ -147,6 +170,22 @@ public final class AABB {
         return this;
     }
 
+    /**
+     * Get the upper bound x coordinate without wrapping it.
+     * @return the upper bound x coordinate value
+     */
+    public float upperBoundX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, UpperBoundX);
+    }
+
+    /**
+     * Get the upper bound y coordinate without wrapping it.
+     * @return the upper bound y coordinate value
+     */
+    public float upperBoundY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, UpperBoundY);
+    }
+
     /**
      * Set the bounds of this box to the given vectors.
      * @param lowerBound the lower bound
@@ -2,12 +2,14 @@ package org.box2d.collision;
 
 import org.box2d.NativeLoader;
 import org.box2d.internal.b2Capsule;
+import org.box2d.internal.b2Vec2;
 import org.box2d.internal.nBox2D;
 import org.box2d.math.Transform;
 import org.box2d.math.Vec2;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * Solid capsule geometry, composed by a circle's swept area of the given radius between two local centres.
@@ -15,6 +17,11 @@ import java.lang.foreign.MemorySegment;
  * Wrapper for native {@link b2Capsule}.
  */
 public final class Capsule {
+    private static final long Center1X = b2Capsule.center1$offset() + b2Vec2.x$offset();
+    private static final long Center1Y = b2Capsule.center1$offset() + b2Vec2.y$offset();
+    private static final long Center2X = b2Capsule.center2$offset() + b2Vec2.x$offset();
+    private static final long Center2Y = b2Capsule.center2$offset() + b2Vec2.y$offset();
+
     private final MemorySegment segment;
 
     static {
@@ -163,6 +170,22 @@ public final class Capsule {
         return this;
     }
 
+    /**
+     * Get the first local centre x coordinate without wrapping it.
+     * @return the first local centre x coordinate value
+     */
+    public float center1X() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Center1X);
+    }
+
+    /**
+     * Get the first local centre y coordinate without wrapping it.
+     * @return the first local centre y coordinate value
+     */
+    public float center1Y() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Center1Y);
+    }
+
     /**
      * Get the second local centre of this capsule.
      * This returns a wrapper, not a new copy.
@@ -193,6 +216,22 @@ public final class Capsule {
         return this;
     }
 
+    /**
+     * Get the second local centre x coordinate without wrapping it.
+     * @return the second local centre x coordinate value
+     */
+    public float center2X() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Center2X);
+    }
+
+    /**
+     * Get the second local centre y coordinate without wrapping it.
+     * @return the second local centre y coordinate value
+     */
+    public float center2Y() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Center2Y);
+    }
+
     /**
      * Get the radius of this capsule.
      * @return the radius value
@@ -220,6 +259,16 @@ public final class Capsule {
         return nBox2D.nPointInCapsule(point.segment(), segment);
     }
 
+    /**
+     * Check if the given point is inside this capsule's local frame or not, without allocating.
+     * @param x the point x coordinate, in local coordinates
+     * @param y the point y coordinate, in local coordinates
+     * @return true if the point is inside this capsule
+     */
+    public boolean pointInCapsule(float x, float y) {
+        return nBox2D.nPointInCapsule(QueryScratch.get().point(x, y), segment);
+    }
+
     /**
      * Compute the mass properties of this capsule for the given density.
      * @param density the area density in kg/m^2
@@ -229,6 +278,17 @@ public final class Capsule {
         return new MassData(nBox2D.nComputeCapsuleMass(segment, density));
     }
 
+    /**
+     * Compute the mass properties of this capsule for the given density, without allocating.
+     * @param density the area density in kg/m^2
+     * @param out the {@link MassData} to write the result into
+     * @return the given output mass data
+     */
+    public MassData computeMass(float density, MassData out) {
+        nBox2D.nComputeCapsuleMass(QueryScratch.get().into(out.segment()), segment, density);
+        return out;
+    }
+
     /**
      * Compute the bounding box of this capsule when placed by the given transform.
      * @param transform the transform to place this capsule with
@@ -238,6 +298,56 @@ public final class Capsule {
         return new AABB(nBox2D.nComputeCapsuleAABB(segment, transform.segment()));
     }
 
+    /**
+     * Compute the bounding box of this capsule when placed by the given transform, without allocating.
+     * @param transform the transform to place this capsule with
+     * @param out the {@link AABB} to write the result into
+     * @return the given output box
+     */
+    public AABB computeAABB(Transform transform, AABB out) {
+        nBox2D.nComputeCapsuleAABB(QueryScratch.get().into(out.segment()), segment, transform.segment());
+        return out;
+    }
+
+    /**
+     * Cast a ray against this capsule, in its local frame, without allocating.
+     * @param originX the ray origin x coordinate
+     * @param originY the ray origin y coordinate
+     * @param translationX the ray translation x component
+     * @param translationY the ray translation y component
+     * @param maxFraction the maximum fraction of the translation to consider, typically 1
+     * @param out the {@link CastOutput} to write the result into
+     * @return true if the ray hits this capsule
+     */
+    public boolean rayCast(float originX, float originY, float translationX, float translationY, float maxFraction, CastOutput out) {
+        QueryScratch scratch = QueryScratch.get();
+        MemorySegment input = scratch.rayInput(originX, originY, translationX, translationY, maxFraction);
+        nBox2D.nRayCastCapsule(scratch.into(out.segment()), input, segment);
+        return out.hit();
+    }
+
+    /**
+     * Cast the ray of the given query against this capsule, in its local frame.
+     * The result is written into the query.
+     * @param query the ray cast query
+     * @return true if the ray hits this capsule
+     */
+    public boolean rayCast(RayCastQuery query) {
+        nBox2D.nRayCastCapsule(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
+    /**
+     * Sweep the proxy of the given query against this capsule, in its local frame.
+     * The result is written into the query.
+     * @param query the shape cast query
+     * @return true if the proxy touches this capsule along the sweep
+     */
+    public boolean shapeCast(ShapeCastQuery query) {
+        nBox2D.nShapeCastCapsule(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
     /**
      * Get the memory segment of this {@link Capsule}.
      * @return the underlying memory segment
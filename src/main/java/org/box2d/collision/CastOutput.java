@@ -0,0 +1,123 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2CastOutput;
+import org.box2d.internal.b2Vec2;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Result of a ray or shape cast: the hit point and normal, and the fraction of the translation travelled.
+ * <p>
+ * Meant to be allocated once and passed to the {@code rayCast} overloads of the geometry wrappers,
+ * which write into it without allocating. The point and normal are in the frame of the cast input.
+ * </p>
+ * Wrapper for native {@link b2CastOutput}.
+ */
+public final class CastOutput {
+    private static final long NormalX = b2CastOutput.normal$offset() + b2Vec2.x$offset();
+    private static final long NormalY = b2CastOutput.normal$offset() + b2Vec2.y$offset();
+    private static final long PointX = b2CastOutput.point$offset() + b2Vec2.x$offset();
+    private static final long PointY = b2CastOutput.point$offset() + b2Vec2.y$offset();
+
+    private final MemorySegment segment;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new empty {@link CastOutput}.
+     */
+    public CastOutput() {
+        segment = Arena.ofAuto().allocate(b2CastOutput.layout());
+    }
+
+    /**
+     * Create a new empty {@link CastOutput} in the given arena.
+     * @param arena the arena to allocate in
+     */
+    public CastOutput(Arena arena) {
+        segment = arena.allocate(b2CastOutput.layout());
+    }
+
+    /**
+     * Wrap an existing {@link b2CastOutput} memory segment.
+     * The segment is not owned by this {@link CastOutput} instance.
+     * @param segment the memory segment to wrap
+     */
+    public CastOutput(MemorySegment segment) {
+        this.segment = segment;
+    }
+
+    /**
+     * Get the x component of the surface normal at the hit point.
+     * @return the normal x component value
+     */
+    public float normalX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, NormalX);
+    }
+
+    /**
+     * Get the y component of the surface normal at the hit point.
+     * @return the normal y component value
+     */
+    public float normalY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, NormalY);
+    }
+
+    /**
+     * Get the x coordinate of the hit point.
+     * @return the point x coordinate value
+     */
+    public float pointX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, PointX);
+    }
+
+    /**
+     * Get the y coordinate of the hit point.
+     * @return the point y coordinate value
+     */
+    public float pointY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, PointY);
+    }
+
+    /**
+     * Get the fraction of the input translation at the hit point.
+     * @return the fraction value, in {@code [0, maxFraction]}
+     */
+    public float fraction() {
+        return b2CastOutput.fraction(segment);
+    }
+
+    /**
+     * Get the number of iterations used by the cast, only meaningful for shape casts.
+     * @return the iteration count
+     */
+    public int iterations() {
+        return b2CastOutput.iterations(segment);
+    }
+
+    /**
+     * Check if the cast hit anything.
+     * @return true on hit, the other values are undefined otherwise
+     */
+    public boolean hit() {
+        return b2CastOutput.hit(segment);
+    }
+
+    /**
+     * Get the memory segment of this {@link CastOutput}.
+     * @return the underlying memory segment
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CastOutput[hit=%b, point=(%.3f, %.3f), normal=(%.3f, %.3f), fraction=%.3f]", hit(), pointX(), pointY(), normalX(), normalY(), fraction());
+    }
+}
@@ -2,12 +2,14 @@ package org.box2d.collision;
 
 import org.box2d.NativeLoader;
 import org.box2d.internal.b2Circle;
+import org.box2d.internal.b2Vec2;
 import org.box2d.internal.nBox2D;
 import org.box2d.math.Transform;
 import org.box2d.math.Vec2;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * Solid circle geometry, defined by a local centre and radius.
@@ -15,6 +17,9 @@ import java.lang.foreign.MemorySegment;
  * Wrapper for native {@link b2Circle}.
  */
 public final class Circle {
+    private static final long CenterX = b2Circle.center$offset() + b2Vec2.x$offset();
+    private static final long CenterY = b2Circle.center$offset() + b2Vec2.y$offset();
+
     private final MemorySegment segment;
 
     static {
@@ -127,6 +132,22 @@ public final class Circle {
         return this;
     }
 
+    /**
+     * Get the local centre x coordinate without wrapping it.
+     * @return the local centre x coordinate value
+     */
+    public float centerX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, CenterX);
+    }
+
+    /**
+     * Get the local centre y coordinate without wrapping it.
+     * @return the local centre y coordinate value
+     */
+    public float centerY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, CenterY);
+    }
+
     /**
      * Get the radius of this circle.
      * @return the radius value
@@ -154,6 +175,16 @@ public final class Circle {
         return nBox2D.nPointInCircle(point.segment(), segment);
     }
 
+    /**
+     * Check if the given point is inside this circle's local frame or not, without allocating.
+     * @param x the point x coordinate, in local coordinates
+     * @param y the point y coordinate, in local coordinates
+     * @return true if the point is inside this circle
+     */
+    public boolean pointInCircle(float x, float y) {
+        return nBox2D.nPointInCircle(QueryScratch.get().point(x, y), segment);
+    }
+
     /**
      * Compute the mass properties of this circle for the given density.
      * @param density the area density in kg/m^2
@@ -163,6 +194,17 @@ public final class Circle {
         return new MassData(nBox2D.nComputeCircleMass(segment, density));
     }
 
+    /**
+     * Compute the mass properties of this circle for the given density, without allocating.
+     * @param density the area density in kg/m^2
+     * @param out the {@link MassData} to write the result into
+     * @return the given output mass data
+     */
+    public MassData computeMass(float density, MassData out) {
+        nBox2D.nComputeCircleMass(QueryScratch.get().into(out.segment()), segment, density);
+        return out;
+    }
+
     /**
      * Compute the bounding box of this circle when placed by the given transform.
      * @param transform the transform to place this circle with
@@ -172,6 +214,56 @@ public final class Circle {
         return new AABB(nBox2D.nComputeCircleAABB(segment, transform.segment()));
     }
 
+    /**
+     * Compute the bounding box of this circle when placed by the given transform, without allocating.
+     * @param transform the transform to place this circle with
+     * @param out the {@link AABB} to write the result into
+     * @return the given output box
+     */
+    public AABB computeAABB(Transform transform, AABB out) {
+        nBox2D.nComputeCircleAABB(QueryScratch.get().into(out.segment()), segment, transform.segment());
+        return out;
+    }
+
+    /**
+     * Cast a ray against this circle, in its local frame, without allocating.
+     * @param originX the ray origin x coordinate
+     * @param originY the ray origin y coordinate
+     * @param translationX the ray translation x component
+     * @param translationY the ray translation y component
+     * @param maxFraction the maximum fraction of the translation to consider, typically 1
+     * @param out the {@link CastOutput} to write the result into
+     * @return true if the ray hits this circle
+     */
+    public boolean rayCast(float originX, float originY, float translationX, float translationY, float maxFraction, CastOutput out) {
+        QueryScratch scratch = QueryScratch.get();
+        MemorySegment input = scratch.rayInput(originX, originY, translationX, translationY, maxFraction);
+        nBox2D.nRayCastCircle(scratch.into(out.segment()), input, segment);
+        return out.hit();
+    }
+
+    /**
+     * Cast the ray of the given query against this circle, in its local frame.
+     * The result is written into the query.
+     * @param query the ray cast query
+     * @return true if the ray hits this circle
+     */
+    public boolean rayCast(RayCastQuery query) {
+        nBox2D.nRayCastCircle(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
+    /**
+     * Sweep the proxy of the given query against this circle, in its local frame.
+     * The result is written into the query.
+     * @param query the shape cast query
+     * @return true if the proxy touches this circle along the sweep
+     */
+    public boolean shapeCast(ShapeCastQuery query) {
+        nBox2D.nShapeCastCircle(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
     /**
      * Get the memory segment of this {@link Circle}.
      * @return the underlying memory segment
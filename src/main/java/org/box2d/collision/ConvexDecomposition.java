@@ -0,0 +1,474 @@
+package org.box2d.collision;
+
+import org.box2d.internal.b2Hull;
+import org.box2d.internal.nBox2D;
+import org.box2d.math.Vec2Array;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decomposition of concave outlines, optionally with holes, into convex pieces Box2D polygons can hold.
+ * <p>
+ * Holes are first bridged into the outline, the result is triangulated by ear clipping,
+ * and neighbouring triangles are merged (Hertel-Mehlhorn) as long as the piece stays convex
+ * and within the vertex limit. Outlines and holes may use any winding order.
+ * Pieces are returned as interleaved, counter-clockwise {@code x0, y0, x1, y1, ...} arrays,
+ * so they can be stored and turned into {@link Polygon}s later.
+ * </p>
+ * <p>
+ * Input is rejected with an {@link IllegalArgumentException} when it has fewer than 3 distinct points,
+ * non-finite coordinates, no area, edges that intersect each other, or holes outside the outline.
+ * </p>
+ */
+public final class ConvexDecomposition {
+    // Coordinates closer than this are the same point.
+    private static final double Epsilon = 1.0e-6;
+
+    private ConvexDecomposition() {}
+
+    /**
+     * Decompose an outline into convex pieces of at most {@value Polygon#MaxVertices} vertices.
+     * @param outline the interleaved outline coordinates
+     * @param holes the interleaved coordinates of each hole, fully inside the outline
+     * @return the convex pieces
+     * @throws IllegalArgumentException if the outline or a hole is degenerate or self-intersecting
+     */
+    public static List<float[]> decompose(float[] outline, float[]... holes) {
+        return decompose(Polygon.MaxVertices, outline, holes);
+    }
+
+    /**
+     * Decompose an outline into convex pieces of at most {@code maxVertices} vertices.
+     * @param maxVertices the vertex limit of a piece, between 3 and {@value Polygon#MaxVertices}
+     * @param outline the interleaved outline coordinates
+     * @param holes the interleaved coordinates of each hole, fully inside the outline
+     * @return the convex pieces
+     * @throws IllegalArgumentException if the limit is out of range, or the outline or a hole is degenerate or self-intersecting
+     */
+    public static List<float[]> decompose(int maxVertices, float[] outline, float[]... holes) {
+        if (maxVertices < 3 || maxVertices > Polygon.MaxVertices) throw new IllegalArgumentException(String.format("Piece vertex limit must be 3 to %d, got %d", Polygon.MaxVertices, maxVertices));
+        double[] outer = clean(outline, true, "Outline");
+        List<double[]> loops = new ArrayList<>(holes.length);
+        for (float[] hole : holes) loops.add(clean(hole, false, "Hole"));
+        checkSimple(outer, loops);
+        double[] points = bridge(outer, loops);
+        int[] triangles = triangulate(points);
+        return merge(points, triangles, maxVertices);
+    }
+
+    /**
+     * Decompose many outlines in parallel.
+     * @param outlines the outlines, each array holding the outline first and then its holes
+     * @return the convex pieces of each outline, in the same order
+     * @throws IllegalArgumentException if an outline or hole is degenerate or self-intersecting
+     */
+    public static List<List<float[]>> decomposeAll(List<float[][]> outlines) {
+        return outlines.parallelStream()
+                .map(loops -> decompose(loops[0], Arrays.copyOfRange(loops, 1, loops.length)))
+                .toList();
+    }
+
+    /**
+     * Build a {@link Polygon} from each piece with {@code b2ComputeHull}.
+     * Slivers that Box2D considers degenerate (e.g. narrower than its linear slop) are skipped.
+     * @param pieces the convex pieces
+     * @param radius the rounding radius of the polygons
+     * @return the polygons
+     */
+    public static List<Polygon> toPolygons(List<float[]> pieces, float radius) {
+        List<Polygon> polygons = new ArrayList<>(pieces.size());
+        for (float[] piece : pieces) {
+            MemorySegment hull = new Vec2Array(piece).computeHull();
+            if (b2Hull.count(hull) > 0) polygons.add(new Polygon(nBox2D.nMakePolygon(hull, radius)));
+        }
+        return polygons;
+    }
+
+    /**
+     * Build a {@link Polygon} from each piece through a {@link PolygonCache}, sharing repeated pieces.
+     * Slivers that Box2D considers degenerate are skipped.
+     * @param pieces the convex pieces
+     * @param radius the rounding radius of the polygons
+     * @param cache the cache to build the polygons with
+     * @return the polygons
+     */
+    public static List<Polygon> toPolygons(List<float[]> pieces, float radius, PolygonCache cache) {
+        List<Polygon> polygons = new ArrayList<>(pieces.size());
+        for (float[] piece : pieces) {
+            try {
+                polygons.add(cache.polygon(piece, radius));
+            } catch (IllegalArgumentException e) {
+                // Degenerate sliver, nothing to build.
+            }
+        }
+        return polygons;
+    }
+
+    /**
+     * Convert to doubles, drop duplicate and collinear points, and orient the loop.
+     */
+    private static double[] clean(float[] loop, boolean counterClockwise, String name) {
+        if ((loop.length & 1) != 0) throw new IllegalArgumentException(name + " coordinates require an even length, got " + loop.length);
+        int n = loop.length / 2;
+        double[] xs = new double[n], ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            float x = loop[2 * i], y = loop[2 * i + 1];
+            if (!Float.isFinite(x) || !Float.isFinite(y)) throw new IllegalArgumentException(name + " has a non-finite point at " + i);
+            xs[i] = x;
+            ys[i] = y;
+        }
+        boolean removed = true;
+        while (removed && n >= 3) {
+            removed = false;
+            for (int i = 0; i < n && n >= 3; i++) {
+                int prev = (i + n - 1) % n, next = (i + 1) % n;
+                double ax = xs[i] - xs[prev], ay = ys[i] - ys[prev];
+                double bx = xs[next] - xs[i], by = ys[next] - ys[i];
+                double cross = ax * by - ay * bx;
+                boolean duplicate = ax * ax + ay * ay <= Epsilon * Epsilon;
+                boolean collinear = Math.abs(cross) <= Epsilon * Math.sqrt((ax * ax + ay * ay) * (bx * bx + by * by));
+                if (duplicate || collinear) {
+                    System.arraycopy(xs, i + 1, xs, i, n - i - 1);
+                    System.arraycopy(ys, i + 1, ys, i, n - i - 1);
+                    n--;
+                    i--;
+                    removed = true;
+                }
+            }
+        }
+        if (n < 3) throw new IllegalArgumentException(name + " requires at least 3 distinct, non collinear points");
+        double area = 0.0;
+        for (int i = 0, j = n - 1; i < n; j = i++) area += xs[j] * ys[i] - xs[i] * ys[j];
+        if (Math.abs(area) <= Epsilon) throw new IllegalArgumentException(name + " has no area");
+        boolean reverse = (area > 0.0) != counterClockwise;
+        double[] points = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            int k = reverse ? n - 1 - i : i;
+            points[2 * i] = xs[k];
+            points[2 * i + 1] = ys[k];
+        }
+        return points;
+    }
+
+    /**
+     * Reject loops whose edges touch or cross, other than adjacent edges at their shared point.
+     */
+    private static void checkSimple(double[] outer, List<double[]> holes) {
+        List<double[]> loops = new ArrayList<>(holes.size() + 1);
+        loops.add(outer);
+        loops.addAll(holes);
+        for (int la = 0; la < loops.size(); la++) {
+            double[] a = loops.get(la);
+            int na = a.length / 2;
+            for (int lb = la; lb < loops.size(); lb++) {
+                double[] b = loops.get(lb);
+                int nb = b.length / 2;
+                for (int i = 0; i < na; i++) {
+                    int i2 = (i + 1) % na;
+                    for (int j = la == lb ? i + 1 : 0; j < nb; j++) {
+                        int j2 = (j + 1) % nb;
+                        if (la == lb && (j == i2 || j2 == i)) continue;
+                        if (intersects(a[2 * i], a[2 * i + 1], a[2 * i2], a[2 * i2 + 1], b[2 * j], b[2 * j + 1], b[2 * j2], b[2 * j2 + 1])) {
+                            throw new IllegalArgumentException("Outline edges intersect");
+                        }
+                    }
+                }
+            }
+        }
+        // Edges do not cross, so one point tells whether a whole hole is inside another loop.
+        for (int h = 0; h < holes.size(); h++) {
+            double[] hole = holes.get(h);
+            if (!contains(outer, hole[0], hole[1])) throw new IllegalArgumentException("Hole " + h + " is not inside the outline");
+            for (int o = 0; o < holes.size(); o++) {
+                if (o != h && contains(holes.get(o), hole[0], hole[1])) throw new IllegalArgumentException("Hole " + h + " is inside another hole");
+            }
+        }
+    }
+
+    private static boolean contains(double[] loop, double x, double y) {
+        boolean inside = false;
+        for (int i = 0, n = loop.length / 2, j = n - 1; i < n; j = i++) {
+            double xi = loop[2 * i], yi = loop[2 * i + 1], xj = loop[2 * j], yj = loop[2 * j + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) inside = !inside;
+        }
+        return inside;
+    }
+
+    /**
+     * Splice each hole into the outline with a pair of coincident bridge edges, rightmost hole first.
+     */
+    private static double[] bridge(double[] outer, List<double[]> holes) {
+        if (holes.isEmpty()) return outer;
+        List<double[]> pending = new ArrayList<>(holes);
+        pending.sort(Comparator.<double[]>comparingDouble(ConvexDecomposition::maxX).reversed());
+        double[] polygon = outer;
+        while (!pending.isEmpty()) {
+            double[] hole = pending.removeFirst();
+            int h = hole.length / 2;
+            int m = 0;
+            for (int i = 1; i < h; i++) if (hole[2 * i] > hole[2 * m]) m = i;
+            double mx = hole[2 * m], my = hole[2 * m + 1];
+
+            int n = polygon.length / 2;
+            Integer[] candidates = new Integer[n];
+            for (int i = 0; i < n; i++) candidates[i] = i;
+            double[] source = polygon;
+            Arrays.sort(candidates, Comparator.comparingDouble(i -> distanceSquared(source, i, mx, my)));
+            int k = -1;
+            for (int candidate : candidates) {
+                if (visible(polygon, candidate, hole, m, pending)) {
+                    k = candidate;
+                    break;
+                }
+            }
+            if (k < 0) throw new IllegalArgumentException("Hole could not be connected to the outline");
+
+            double[] spliced = new double[2 * (n + h + 2)];
+            int w = 0;
+            for (int i = 0; i <= k; i++) {
+                spliced[w++] = polygon[2 * i];
+                spliced[w++] = polygon[2 * i + 1];
+            }
+            for (int i = 0; i <= h; i++) {
+                int j = (m + i) % h;
+                spliced[w++] = hole[2 * j];
+                spliced[w++] = hole[2 * j + 1];
+            }
+            for (int i = k; i < n; i++) {
+                spliced[w++] = polygon[2 * i];
+                spliced[w++] = polygon[2 * i + 1];
+            }
+            polygon = spliced;
+        }
+        return polygon;
+    }
+
+    private static double maxX(double[] loop) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < loop.length; i += 2) max = Math.max(max, loop[i]);
+        return max;
+    }
+
+    private static double distanceSquared(double[] points, int i, double x, double y) {
+        double dx = points[2 * i] - x, dy = points[2 * i + 1] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Check that the bridge from polygon vertex {@code k} to hole vertex {@code m} leaves {@code k} into the interior
+     * and crosses no edge of the polygon or any hole.
+     */
+    private static boolean visible(double[] polygon, int k, double[] hole, int m, List<double[]> others) {
+        int n = polygon.length / 2;
+        double px = polygon[2 * k], py = polygon[2 * k + 1];
+        double mx = hole[2 * m], my = hole[2 * m + 1];
+        int prev = (k + n - 1) % n, next = (k + 1) % n;
+        double ax = polygon[2 * next] - px, ay = polygon[2 * next + 1] - py;
+        double bx = polygon[2 * prev] - px, by = polygon[2 * prev + 1] - py;
+        double dx = mx - px, dy = my - py;
+        boolean inside = ax * by - ay * bx >= 0.0
+                ? ax * dy - ay * dx > 0.0 && dx * by - dy * bx > 0.0
+                : ax * dy - ay * dx > 0.0 || dx * by - dy * bx > 0.0;
+        if (!inside) return false;
+        if (crossesLoop(polygon, px, py, mx, my)) return false;
+        if (crossesLoop(hole, px, py, mx, my)) return false;
+        for (double[] other : others) if (crossesLoop(other, px, py, mx, my)) return false;
+        return true;
+    }
+
+    /**
+     * Check if segment {@code p-q} intersects an edge of the loop not ending at {@code p} or {@code q}.
+     */
+    private static boolean crossesLoop(double[] loop, double px, double py, double qx, double qy) {
+        int n = loop.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            double x1 = loop[2 * i], y1 = loop[2 * i + 1], x2 = loop[2 * j], y2 = loop[2 * j + 1];
+            if (same(x1, y1, px, py) || same(x2, y2, px, py) || same(x1, y1, qx, qy) || same(x2, y2, qx, qy)) continue;
+            if (intersects(px, py, qx, qy, x1, y1, x2, y2)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ear clipping over the bridged polygon, returns triangle vertex indices.
+     */
+    private static int[] triangulate(double[] points) {
+        int n = points.length / 2;
+        int[] prev = new int[n], next = new int[n];
+        for (int i = 0; i < n; i++) {
+            prev[i] = (i + n - 1) % n;
+            next[i] = (i + 1) % n;
+        }
+        int[] triangles = new int[3 * (n - 2)];
+        int count = 0;
+        int remaining = n;
+        int current = 0;
+        int misses = 0;
+        while (remaining > 3) {
+            int a = prev[current], c = next[current];
+            double cross = cross(points, a, current, c);
+            boolean degenerate = Math.abs(cross) <= Epsilon * Epsilon;
+            if (degenerate && misses >= remaining) {
+                // No ear left, drop a collinear vertex instead of emitting a zero area triangle.
+                next[a] = c;
+                prev[c] = a;
+                remaining--;
+                current = c;
+                misses = 0;
+            } else if (cross > Epsilon * Epsilon && isEar(points, prev, next, a, current, c)) {
+                triangles[count++] = a;
+                triangles[count++] = current;
+                triangles[count++] = c;
+                next[a] = c;
+                prev[c] = a;
+                remaining--;
+                current = c;
+                misses = 0;
+            } else {
+                current = c;
+                if (++misses > 2 * remaining) throw new IllegalArgumentException("Outline could not be triangulated");
+            }
+        }
+        int a = prev[current], c = next[current];
+        if (Math.abs(cross(points, a, current, c)) > Epsilon * Epsilon) {
+            triangles[count++] = a;
+            triangles[count++] = current;
+            triangles[count++] = c;
+        }
+        return Arrays.copyOf(triangles, count);
+    }
+
+    private static boolean isEar(double[] points, int[] prev, int[] next, int a, int b, int c) {
+        double ax = points[2 * a], ay = points[2 * a + 1];
+        double bx = points[2 * b], by = points[2 * b + 1];
+        double cx = points[2 * c], cy = points[2 * c + 1];
+        for (int p = next[c]; p != a; p = next[p]) {
+            double x = points[2 * p], y = points[2 * p + 1];
+            if (same(x, y, ax, ay) || same(x, y, bx, by) || same(x, y, cx, cy)) continue;
+            double d1 = (bx - ax) * (y - ay) - (by - ay) * (x - ax);
+            double d2 = (cx - bx) * (y - by) - (cy - by) * (x - bx);
+            double d3 = (ax - cx) * (y - cy) - (ay - cy) * (x - cx);
+            if (d1 >= 0.0 && d2 >= 0.0 && d3 >= 0.0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hertel-Mehlhorn: remove diagonals, longest first, while the merged piece stays convex and within the limit.
+     */
+    private static List<float[]> merge(double[] points, int[] triangles, int maxVertices) {
+        List<int[]> pieces = new ArrayList<>(triangles.length / 3);
+        Map<Long, Integer> owners = new HashMap<>();
+        for (int t = 0; t < triangles.length; t += 3) {
+            int piece = pieces.size();
+            pieces.add(new int[] {triangles[t], triangles[t + 1], triangles[t + 2]});
+            owners.put(edge(triangles[t], triangles[t + 1]), piece);
+            owners.put(edge(triangles[t + 1], triangles[t + 2]), piece);
+            owners.put(edge(triangles[t + 2], triangles[t]), piece);
+        }
+        List<int[]> diagonals = new ArrayList<>();
+        for (Long key : owners.keySet()) {
+            int a = (int) (key >>> 32), b = (int) (long) key;
+            if (a < b && owners.containsKey(edge(b, a))) diagonals.add(new int[] {a, b});
+        }
+        diagonals.sort(Comparator.comparingDouble((int[] d) -> distanceSquared(points, d[0], points[2 * d[1]], points[2 * d[1] + 1])).reversed()
+                .thenComparingInt(d -> d[0]).thenComparingInt(d -> d[1]));
+
+        for (int[] diagonal : diagonals) {
+            int a = diagonal[0], b = diagonal[1];
+            Integer p = owners.get(edge(a, b)), q = owners.get(edge(b, a));
+            if (p == null || q == null || p.equals(q)) continue;
+            int[] merged = join(pieces.get(p), pieces.get(q), a, b);
+            if (merged.length > maxVertices || !isConvex(points, merged)) continue;
+            owners.remove(edge(a, b));
+            owners.remove(edge(b, a));
+            pieces.set(p, merged);
+            pieces.set(q, null);
+            for (int i = 0; i < merged.length; i++) owners.put(edge(merged[i], merged[(i + 1) % merged.length]), p);
+        }
+
+        List<float[]> result = new ArrayList<>();
+        for (int[] piece : pieces) {
+            if (piece == null) continue;
+            float[] xy = new float[2 * piece.length];
+            for (int i = 0; i < piece.length; i++) {
+                xy[2 * i] = (float) points[2 * piece[i]];
+                xy[2 * i + 1] = (float) points[2 * piece[i] + 1];
+            }
+            result.add(xy);
+        }
+        return result;
+    }
+
+    /**
+     * Join piece {@code p} holding edge {@code a-b} with piece {@code q} holding edge {@code b-a}.
+     */
+    private static int[] join(int[] p, int[] q, int a, int b) {
+        int ip = indexOf(p, b), iq = indexOf(q, a);
+        int[] merged = new int[p.length + q.length - 2];
+        int w = 0;
+        for (int i = 0; i < p.length; i++) merged[w++] = p[(ip + i) % p.length];
+        for (int i = 1; i < q.length - 1; i++) merged[w++] = q[(iq + i) % q.length];
+        return merged;
+    }
+
+    private static int indexOf(int[] piece, int vertex) {
+        for (int i = 0; i < piece.length; i++) if (piece[i] == vertex) return i;
+        throw new IllegalStateException("Vertex not in piece: " + vertex);
+    }
+
+    private static boolean isConvex(double[] points, int[] piece) {
+        int n = piece.length;
+        for (int i = 0; i < n; i++) {
+            int a = piece[(i + n - 1) % n], b = piece[i], c = piece[(i + 1) % n];
+            double ex = points[2 * b] - points[2 * a], ey = points[2 * b + 1] - points[2 * a + 1];
+            double fx = points[2 * c] - points[2 * b], fy = points[2 * c + 1] - points[2 * b + 1];
+            double cross = ex * fy - ey * fx;
+            if (cross < -Epsilon * Math.sqrt((ex * ex + ey * ey) * (fx * fx + fy * fy))) return false;
+        }
+        return true;
+    }
+
+    private static long edge(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    private static double cross(double[] points, int a, int b, int c) {
+        return (points[2 * b] - points[2 * a]) * (points[2 * c + 1] - points[2 * a + 1])
+                - (points[2 * b + 1] - points[2 * a + 1]) * (points[2 * c] - points[2 * a]);
+    }
+
+    private static boolean same(double x1, double y1, double x2, double y2) {
+        return Math.abs(x1 - x2) <= Epsilon && Math.abs(y1 - y2) <= Epsilon;
+    }
+
+    /**
+     * Check if segments {@code p1-p2} and {@code q1-q2} share any point.
+     */
+    private static boolean intersects(double p1x, double p1y, double p2x, double p2y, double q1x, double q1y, double q2x, double q2y) {
+        double d1 = orient(q1x, q1y, q2x, q2y, p1x, p1y);
+        double d2 = orient(q1x, q1y, q2x, q2y, p2x, p2y);
+        double d3 = orient(p1x, p1y, p2x, p2y, q1x, q1y);
+        double d4 = orient(p1x, p1y, p2x, p2y, q2x, q2y);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) return true;
+        if (d1 == 0 && onSegment(q1x, q1y, q2x, q2y, p1x, p1y)) return true;
+        if (d2 == 0 && onSegment(q1x, q1y, q2x, q2y, p2x, p2y)) return true;
+        if (d3 == 0 && onSegment(p1x, p1y, p2x, p2y, q1x, q1y)) return true;
+        return d4 == 0 && onSegment(p1x, p1y, p2x, p2y, q2x, q2y);
+    }
+
+    private static double orient(double ax, double ay, double bx, double by, double cx, double cy) {
+        return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+    }
+
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+}
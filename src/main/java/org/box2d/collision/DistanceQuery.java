@@ -0,0 +1,347 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2DistanceInput;
+import org.box2d.internal.b2DistanceOutput;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2SimplexCache;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.box2d.math.Transform;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Reusable closest point query between two convex proxies, with {@code b2ShapeDistance} (GJK).
+ * <p>
+ * A query owns its native {@link b2DistanceInput}, {@link b2DistanceOutput} and {@link b2SimplexCache}, so setting
+ * the proxies and transforms, computing and reading the result never allocates. {@link #compute()} starts cold,
+ * {@link #compute(SimplexCacheTable, long, long)} warm starts from the simplex the same pair ended with the last time,
+ * which usually converges in one or two iterations when the shapes moved little.
+ * </p>
+ * <p>
+ * A query is not thread safe, use one per thread.
+ * </p>
+ */
+public final class DistanceQuery {
+    private static final long ProxyA = b2DistanceInput.proxyA$offset();
+    private static final long ProxyB = b2DistanceInput.proxyB$offset();
+    private static final long TransformA = b2DistanceInput.transformA$offset();
+    private static final long TransformB = b2DistanceInput.transformB$offset();
+    private static final long TransformSize = b2Transform.layout().byteSize();
+    private static final long PositionX = b2Transform.p$offset() + b2Vec2.x$offset();
+    private static final long PositionY = b2Transform.p$offset() + b2Vec2.y$offset();
+    private static final long Cosine = b2Transform.q$offset() + b2Rot.c$offset();
+    private static final long Sine = b2Transform.q$offset() + b2Rot.s$offset();
+    private static final long UseRadii = b2DistanceInput.useRadii$offset();
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long PointA = b2DistanceOutput.pointA$offset();
+    private static final long PointB = b2DistanceOutput.pointB$offset();
+    private static final long Normal = b2DistanceOutput.normal$offset();
+
+    private final MemorySegment input;
+    private final MemorySegment output;
+    private final MemorySegment cache;
+    private final SegmentAllocator allocator;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link DistanceQuery} with empty proxies, identity transforms and radii in use.
+     */
+    public DistanceQuery() {
+        this(Arena.ofAuto());
+    }
+
+    /**
+     * Create a new {@link DistanceQuery} in the given arena, with empty proxies, identity transforms and radii in use.
+     * @param arena the arena to allocate in
+     */
+    public DistanceQuery(Arena arena) {
+        input = arena.allocate(b2DistanceInput.layout());
+        output = arena.allocate(b2DistanceOutput.layout());
+        cache = arena.allocate(b2SimplexCache.layout());
+        allocator = (byteSize, byteAlignment) -> output;
+        transformA(0.0f, 0.0f, 1.0f, 0.0f);
+        transformB(0.0f, 0.0f, 1.0f, 0.0f);
+        useRadii(true);
+    }
+
+    /**
+     * Set proxy A to the given circle.
+     * @param circle the circle
+     * @return this
+     */
+    public DistanceQuery proxyA(Circle circle) {
+        ShapeProxies.set(input, ProxyA, circle);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given capsule.
+     * @param capsule the capsule
+     * @return this
+     */
+    public DistanceQuery proxyA(Capsule capsule) {
+        ShapeProxies.set(input, ProxyA, capsule);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given segment.
+     * @param segment the segment
+     * @return this
+     */
+    public DistanceQuery proxyA(Segment segment) {
+        ShapeProxies.set(input, ProxyA, segment);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given polygon.
+     * @param polygon the polygon
+     * @return this
+     */
+    public DistanceQuery proxyA(Polygon polygon) {
+        ShapeProxies.set(input, ProxyA, polygon);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given convex points.
+     * @param xy the interleaved points {@code x0, y0, x1, y1, ...}
+     * @param radius the rounding radius
+     * @return this
+     * @throws IllegalArgumentException if the length is odd, or there are not 1 to {@value Polygon#MaxVertices} points
+     */
+    public DistanceQuery proxyA(float[] xy, float radius) {
+        ShapeProxies.set(input, ProxyA, xy, radius);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given circle.
+     * @param circle the circle
+     * @return this
+     */
+    public DistanceQuery proxyB(Circle circle) {
+        ShapeProxies.set(input, ProxyB, circle);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given capsule.
+     * @param capsule the capsule
+     * @return this
+     */
+    public DistanceQuery proxyB(Capsule capsule) {
+        ShapeProxies.set(input, ProxyB, capsule);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given segment.
+     * @param segment the segment
+     * @return this
+     */
+    public DistanceQuery proxyB(Segment segment) {
+        ShapeProxies.set(input, ProxyB, segment);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given polygon.
+     * @param polygon the polygon
+     * @return this
+     */
+    public DistanceQuery proxyB(Polygon polygon) {
+        ShapeProxies.set(input, ProxyB, polygon);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given convex points.
+     * @param xy the interleaved points {@code x0, y0, x1, y1, ...}
+     * @param radius the rounding radius
+     * @return this
+     * @throws IllegalArgumentException if the length is odd, or there are not 1 to {@value Polygon#MaxVertices} points
+     */
+    public DistanceQuery proxyB(float[] xy, float radius) {
+        ShapeProxies.set(input, ProxyB, xy, radius);
+        return this;
+    }
+
+    /**
+     * Set the transform of proxy A.
+     * @param transform the transform to copy
+     * @return this
+     */
+    public DistanceQuery transformA(Transform transform) {
+        MemorySegment.copy(transform.segment(), 0L, input, TransformA, TransformSize);
+        return this;
+    }
+
+    /**
+     * Set the transform of proxy A to the given values.
+     * @param x the position x coordinate
+     * @param y the position y coordinate
+     * @param cosine the rotation cosine
+     * @param sine the rotation sine
+     * @return this
+     */
+    public DistanceQuery transformA(float x, float y, float cosine, float sine) {
+        setTransform(TransformA, x, y, cosine, sine);
+        return this;
+    }
+
+    /**
+     * Set the transform of proxy B.
+     * @param transform the transform to copy
+     * @return this
+     */
+    public DistanceQuery transformB(Transform transform) {
+        MemorySegment.copy(transform.segment(), 0L, input, TransformB, TransformSize);
+        return this;
+    }
+
+    /**
+     * Set the transform of proxy B to the given values.
+     * @param x the position x coordinate
+     * @param y the position y coordinate
+     * @param cosine the rotation cosine
+     * @param sine the rotation sine
+     * @return this
+     */
+    public DistanceQuery transformB(float x, float y, float cosine, float sine) {
+        setTransform(TransformB, x, y, cosine, sine);
+        return this;
+    }
+
+    private void setTransform(long offset, float x, float y, float cosine, float sine) {
+        input.set(ValueLayout.JAVA_FLOAT, offset + PositionX, x);
+        input.set(ValueLayout.JAVA_FLOAT, offset + PositionY, y);
+        input.set(ValueLayout.JAVA_FLOAT, offset + Cosine, cosine);
+        input.set(ValueLayout.JAVA_FLOAT, offset + Sine, sine);
+    }
+
+    /**
+     * Set whether the proxy radii count, true to measure between the rounded surfaces, false between the cores.
+     * @param useRadii true to use the radii
+     * @return this
+     */
+    public DistanceQuery useRadii(boolean useRadii) {
+        input.set(ValueLayout.JAVA_BOOLEAN, UseRadii, useRadii);
+        return this;
+    }
+
+    /**
+     * Compute the distance without warm starting.
+     * @return the distance, zero when overlapping
+     */
+    public float compute() {
+        cache.set(ValueLayout.JAVA_LONG_UNALIGNED, 0L, 0L);
+        nBox2D.nShapeDistance(allocator, input, cache, MemorySegment.NULL, 0);
+        return distance();
+    }
+
+    /**
+     * Compute the distance, warm started from the cache of the given pair, and store the updated cache back.
+     * The pair is added to the table on first use and stamped with the table's current frame.
+     * @param table the cache table
+     * @param a the id of the object of proxy A
+     * @param b the id of the object of proxy B
+     * @return the distance, zero when overlapping
+     */
+    public float compute(SimplexCacheTable table, long a, long b) {
+        int slot = table.acquire(a, b);
+        table.load(slot, cache);
+        nBox2D.nShapeDistance(allocator, input, cache, MemorySegment.NULL, 0);
+        table.store(slot, cache);
+        return distance();
+    }
+
+    /**
+     * Get the distance of the last computation.
+     * @return the distance, zero when overlapping
+     */
+    public float distance() {
+        return b2DistanceOutput.distance(output);
+    }
+
+    /**
+     * Get the x coordinate of the closest point on proxy A.
+     * @return the point x coordinate value
+     */
+    public float pointAX() {
+        return output.get(ValueLayout.JAVA_FLOAT, PointA + X);
+    }
+
+    /**
+     * Get the y coordinate of the closest point on proxy A.
+     * @return the point y coordinate value
+     */
+    public float pointAY() {
+        return output.get(ValueLayout.JAVA_FLOAT, PointA + Y);
+    }
+
+    /**
+     * Get the x coordinate of the closest point on proxy B.
+     * @return the point x coordinate value
+     */
+    public float pointBX() {
+        return output.get(ValueLayout.JAVA_FLOAT, PointB + X);
+    }
+
+    /**
+     * Get the y coordinate of the closest point on proxy B.
+     * @return the point y coordinate value
+     */
+    public float pointBY() {
+        return output.get(ValueLayout.JAVA_FLOAT, PointB + Y);
+    }
+
+    /**
+     * Get the x component of the normal pointing from A to B.
+     * @return the normal x component value
+     */
+    public float normalX() {
+        return output.get(ValueLayout.JAVA_FLOAT, Normal + X);
+    }
+
+    /**
+     * Get the y component of the normal pointing from A to B.
+     * @return the normal y component value
+     */
+    public float normalY() {
+        return output.get(ValueLayout.JAVA_FLOAT, Normal + Y);
+    }
+
+    /**
+     * Get the number of GJK iterations of the last computation.
+     * @return the iteration count
+     */
+    public int iterations() {
+        return b2DistanceOutput.iterations(output);
+    }
+
+    /**
+     * Get the number of vertices of the final simplex of the last computation.
+     * @return the simplex vertex count, 1 to 3
+     */
+    public int simplexCount() {
+        return b2DistanceOutput.simplexCount(output);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DistanceQuery[distance=%.3f, pointA=(%.3f, %.3f), pointB=(%.3f, %.3f), iterations=%d]",
+                distance(), pointAX(), pointAY(), pointBX(), pointBY(), iterations());
+    }
+}
@@ -0,0 +1,313 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2Manifold;
+import org.box2d.internal.b2ManifoldPoint;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Batched narrow phase over the {@code b2Collide*} functions, for simulations running their own broad phase.
+ * <p>
+ * Each pair is a {@link Circle}, {@link Capsule}, {@link Segment} or {@link Polygon} A and B, with the transforms
+ * given as 4 floats per pair ({@code x, y, cos, sin}, the {@code b2Transform} layout). The matching
+ * {@code b2Collide*} function is picked by shape type. Pairs Box2D only implements the other way around
+ * (e.g. circle and polygon) are collided swapped, and the result is flipped back so the normal always points from A to B.
+ * Two segments never collide, like in Box2D, and give an empty manifold.
+ * </p>
+ * <p>
+ * Results are written into preallocated structure of arrays output with up to {@value #MaxPoints} points per pair:
+ * the normal and point count per pair, and the world point, separation and feature id per manifold point,
+ * at index {@code 2 * pair + point}. Native manifolds are written into per thread scratch memory, so a batch does not
+ * allocate. {@link #collideParallel} splits the pairs into chunks collided on the common pool,
+ * giving the same output as {@link #collide} since every pair only writes its own slots.
+ * </p>
+ */
+public final class ManifoldBatch {
+    /**
+     * Maximum number of points of a manifold.
+     */
+    public static final int MaxPoints = 2;
+
+    private static final int ParallelChunk = 1024;
+
+    private static final int CircleType = 0;
+    private static final int CapsuleType = 1;
+    private static final int SegmentType = 2;
+    private static final int PolygonType = 3;
+
+    @FunctionalInterface
+    private interface Collider {
+        MemorySegment collide(SegmentAllocator allocator, MemorySegment shapeA, MemorySegment xfA, MemorySegment shapeB, MemorySegment xfB);
+    }
+
+    // Indexed by [typeA][typeB], null when Box2D only has the swapped function, or none at all.
+    private static final Collider[][] Colliders = new Collider[4][4];
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+
+        Colliders[CircleType][CircleType] = nBox2D::nCollideCircles;
+        Colliders[CapsuleType][CircleType] = nBox2D::nCollideCapsuleAndCircle;
+        Colliders[SegmentType][CircleType] = nBox2D::nCollideSegmentAndCircle;
+        Colliders[PolygonType][CircleType] = nBox2D::nCollidePolygonAndCircle;
+        Colliders[CapsuleType][CapsuleType] = nBox2D::nCollideCapsules;
+        Colliders[SegmentType][CapsuleType] = nBox2D::nCollideSegmentAndCapsule;
+        Colliders[PolygonType][CapsuleType] = nBox2D::nCollidePolygonAndCapsule;
+        Colliders[PolygonType][PolygonType] = nBox2D::nCollidePolygons;
+        Colliders[SegmentType][PolygonType] = nBox2D::nCollideSegmentAndPolygon;
+    }
+
+    private static final long NormalX = b2Manifold.normal$offset() + b2Vec2.x$offset();
+    private static final long NormalY = b2Manifold.normal$offset() + b2Vec2.y$offset();
+    private static final long PointCount = b2Manifold.pointCount$offset();
+    private static final long Points = b2Manifold.points$offset();
+    private static final long PointStride = b2ManifoldPoint.layout().byteSize();
+    private static final long PointX = b2ManifoldPoint.point$offset() + b2Vec2.x$offset();
+    private static final long PointY = b2ManifoldPoint.point$offset() + b2Vec2.y$offset();
+    private static final long Separation = b2ManifoldPoint.separation$offset();
+    private static final long Id = b2ManifoldPoint.id$offset();
+
+    private static final class Scratch {
+        private final MemorySegment xfA;
+        private final MemorySegment xfB;
+        private final MemorySegment manifold;
+        private final SegmentAllocator allocator;
+
+        private Scratch() {
+            Arena arena = Arena.ofAuto();
+            xfA = arena.allocate(b2Transform.layout());
+            xfB = arena.allocate(b2Transform.layout());
+            manifold = arena.allocate(b2Manifold.layout());
+            allocator = (byteSize, byteAlignment) -> manifold;
+        }
+    }
+
+    private static final ThreadLocal<Scratch> Scratches = ThreadLocal.withInitial(Scratch::new);
+
+    private final int capacity;
+    private final float[] normalX;
+    private final float[] normalY;
+    private final int[] pointCount;
+    private final float[] pointX;
+    private final float[] pointY;
+    private final float[] separation;
+    private final int[] id;
+    private int count;
+
+    /**
+     * Create a new {@link ManifoldBatch} able to hold the results of the given number of pairs.
+     * @param capacity the maximum number of pairs per batch
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public ManifoldBatch(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        this.capacity = capacity;
+        normalX = new float[capacity];
+        normalY = new float[capacity];
+        pointCount = new int[capacity];
+        pointX = new float[MaxPoints * capacity];
+        pointY = new float[MaxPoints * capacity];
+        separation = new float[MaxPoints * capacity];
+        id = new int[MaxPoints * capacity];
+    }
+
+    /**
+     * Collide the given pairs on the calling thread.
+     * @param shapesA the shapes A, one per pair
+     * @param transformsA the transforms of shapes A, 4 floats per pair
+     * @param shapesB the shapes B, one per pair
+     * @param transformsB the transforms of shapes B, 4 floats per pair
+     * @param count the number of pairs
+     * @return the number of pairs with at least one manifold point
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} pairs, or {@code count} exceeds the capacity
+     * @throws IllegalArgumentException if a shape is not a supported geometry
+     */
+    public int collide(Object[] shapesA, float[] transformsA, Object[] shapesB, float[] transformsB, int count) {
+        check(shapesA, transformsA, shapesB, transformsB, count);
+        this.count = count;
+        return collideRange(shapesA, transformsA, shapesB, transformsB, 0, count);
+    }
+
+    /**
+     * Collide the given pairs in chunks on the common pool. The output is the same as {@link #collide}.
+     * @param shapesA the shapes A, one per pair
+     * @param transformsA the transforms of shapes A, 4 floats per pair
+     * @param shapesB the shapes B, one per pair
+     * @param transformsB the transforms of shapes B, 4 floats per pair
+     * @param count the number of pairs
+     * @return the number of pairs with at least one manifold point
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} pairs, or {@code count} exceeds the capacity
+     * @throws IllegalArgumentException if a shape is not a supported geometry
+     */
+    public int collideParallel(Object[] shapesA, float[] transformsA, Object[] shapesB, float[] transformsB, int count) {
+        check(shapesA, transformsA, shapesB, transformsB, count);
+        this.count = count;
+        int chunks = (count + ParallelChunk - 1) / ParallelChunk;
+        return IntStream.range(0, chunks).parallel()
+                .map(chunk -> collideRange(shapesA, transformsA, shapesB, transformsB, chunk * ParallelChunk, Math.min(count, (chunk + 1) * ParallelChunk)))
+                .sum();
+    }
+
+    private void check(Object[] shapesA, float[] transformsA, Object[] shapesB, float[] transformsB, int count) {
+        Objects.checkFromIndexSize(0, count, capacity);
+        Objects.checkFromIndexSize(0, count, shapesA.length);
+        Objects.checkFromIndexSize(0, count, shapesB.length);
+        Objects.checkFromIndexSize(0, 4 * count, transformsA.length);
+        Objects.checkFromIndexSize(0, 4 * count, transformsB.length);
+    }
+
+    private int collideRange(Object[] shapesA, float[] transformsA, Object[] shapesB, float[] transformsB, int from, int to) {
+        Scratch scratch = Scratches.get();
+        MemorySegment manifold = scratch.manifold;
+        int touching = 0;
+        for (int pair = from; pair < to; pair++) {
+            Object shapeA = shapesA[pair], shapeB = shapesB[pair];
+            int typeA = type(shapeA), typeB = type(shapeB);
+            boolean swapped = Colliders[typeA][typeB] == null;
+            Collider collider = swapped ? Colliders[typeB][typeA] : Colliders[typeA][typeB];
+            if (collider == null) {
+                pointCount[pair] = 0;
+                continue;
+            }
+            MemorySegment.copy(transformsA, 4 * pair, scratch.xfA, ValueLayout.JAVA_FLOAT, 0L, 4);
+            MemorySegment.copy(transformsB, 4 * pair, scratch.xfB, ValueLayout.JAVA_FLOAT, 0L, 4);
+            if (swapped) collider.collide(scratch.allocator, geometry(shapeB), scratch.xfB, geometry(shapeA), scratch.xfA);
+            else collider.collide(scratch.allocator, geometry(shapeA), scratch.xfA, geometry(shapeB), scratch.xfB);
+
+            int points = manifold.get(ValueLayout.JAVA_INT, PointCount);
+            float sign = swapped ? -1.0f : 1.0f;
+            normalX[pair] = sign * manifold.get(ValueLayout.JAVA_FLOAT, NormalX);
+            normalY[pair] = sign * manifold.get(ValueLayout.JAVA_FLOAT, NormalY);
+            pointCount[pair] = points;
+            for (int i = 0; i < points; i++) {
+                long offset = Points + i * PointStride;
+                int slot = MaxPoints * pair + i;
+                pointX[slot] = manifold.get(ValueLayout.JAVA_FLOAT, offset + PointX);
+                pointY[slot] = manifold.get(ValueLayout.JAVA_FLOAT, offset + PointY);
+                separation[slot] = manifold.get(ValueLayout.JAVA_FLOAT, offset + Separation);
+                int key = Short.toUnsignedInt(manifold.get(ValueLayout.JAVA_SHORT, offset + Id));
+                // Feature ids pack the feature of A in the high byte, swap them back along with the shapes.
+                id[slot] = swapped ? ((key & 0xFF) << 8) | (key >>> 8) : key;
+            }
+            if (points > 0) touching++;
+        }
+        return touching;
+    }
+
+    private static int type(Object shape) {
+        if (shape instanceof Polygon) return PolygonType;
+        if (shape instanceof Circle) return CircleType;
+        if (shape instanceof Capsule) return CapsuleType;
+        if (shape instanceof Segment) return SegmentType;
+        throw new IllegalArgumentException("Unsupported shape type: " + (shape == null ? "null" : shape.getClass().getName()));
+    }
+
+    private static MemorySegment geometry(Object shape) {
+        if (shape instanceof Polygon polygon) return polygon.segment();
+        if (shape instanceof Circle circle) return circle.segment();
+        if (shape instanceof Capsule capsule) return capsule.segment();
+        return ((Segment) shape).segment();
+    }
+
+    /**
+     * Get the maximum number of pairs per batch.
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of pairs of the last batch.
+     * @return the pair count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Get the number of manifold points of a pair. Zero when the shapes are apart beyond the speculative distance.
+     * @param pair the pair index
+     * @return the point count, in {@code [0, MaxPoints]}
+     */
+    public int pointCount(int pair) {
+        return pointCount[Objects.checkIndex(pair, count)];
+    }
+
+    /**
+     * Get the x component of the manifold normal of a pair, pointing from A to B.
+     * @param pair the pair index
+     * @return the normal x component value
+     */
+    public float normalX(int pair) {
+        return normalX[Objects.checkIndex(pair, count)];
+    }
+
+    /**
+     * Get the y component of the manifold normal of a pair, pointing from A to B.
+     * @param pair the pair index
+     * @return the normal y component value
+     */
+    public float normalY(int pair) {
+        return normalY[Objects.checkIndex(pair, count)];
+    }
+
+    /**
+     * Get the world x coordinate of a manifold point.
+     * @param pair the pair index
+     * @param point the point index, below {@link #pointCount(int)}
+     * @return the point x coordinate value
+     */
+    public float pointX(int pair, int point) {
+        return pointX[slot(pair, point)];
+    }
+
+    /**
+     * Get the world y coordinate of a manifold point.
+     * @param pair the pair index
+     * @param point the point index, below {@link #pointCount(int)}
+     * @return the point y coordinate value
+     */
+    public float pointY(int pair, int point) {
+        return pointY[slot(pair, point)];
+    }
+
+    /**
+     * Get the separation of a manifold point, negative when overlapping.
+     * @param pair the pair index
+     * @param point the point index, below {@link #pointCount(int)}
+     * @return the separation value
+     */
+    public float separation(int pair, int point) {
+        return separation[slot(pair, point)];
+    }
+
+    /**
+     * Get the feature id of a manifold point, stable across frames for warm starting.
+     * @param pair the pair index
+     * @param point the point index, below {@link #pointCount(int)}
+     * @return the id value
+     */
+    public int id(int pair, int point) {
+        return id[slot(pair, point)];
+    }
+
+    private int slot(int pair, int point) {
+        Objects.checkIndex(point, pointCount(pair));
+        return MaxPoints * pair + point;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ManifoldBatch[capacity=%d, count=%d]", capacity, count);
+    }
+}
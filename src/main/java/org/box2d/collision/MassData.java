@@ -2,10 +2,12 @@ package org.box2d.collision;
 
 import org.box2d.NativeLoader;
 import org.box2d.internal.b2MassData;
+import org.box2d.internal.b2Vec2;
 import org.box2d.math.Vec2;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * Mass properties of a shape or body: total mass, local centre of mass and rotational inertia.
@@ -13,6 +15,9 @@ import java.lang.foreign.MemorySegment;
  * Wrapper for native {@link b2MassData}.
  */
 public final class MassData {
+    private static final long CenterX = b2MassData.center$offset() + b2Vec2.x$offset();
+    private static final long CenterY = b2MassData.center$offset() + b2Vec2.y$offset();
+
     private final MemorySegment segment;
 
     static {
@@ -136,6 +141,22 @@ public final class MassData {
         return this;
     }
 
+    /**
+     * Get the local centre of mass x coordinate without wrapping it.
+     * @return the local centre of mass x coordinate value
+     */
+    public float centerX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, CenterX);
+    }
+
+    /**
+     * Get the local centre of mass y coordinate without wrapping it.
+     * @return the local centre of mass y coordinate value
+     */
+    public float centerY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, CenterY);
+    }
+
     /**
      * Get the rotational inertia about the local origin.
      * @return the rotational inertia value
@@ -8,9 +8,12 @@ import org.box2d.internal.nBox2D;
 import org.box2d.math.Rot;
 import org.box2d.math.Transform;
 import org.box2d.math.Vec2;
+import org.box2d.math.Vec2Array;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
 
 /**
  * Solid convex polygon geometry with up to {@value #MaxVertices} vertices and an optional rounding radius.
@@ -26,6 +29,14 @@ public final class Polygon {
      */
     public static final int MaxVertices = 8;
 
+    private static final long Vertices = b2Polygon.vertices$offset();
+    private static final long Normals = b2Polygon.normals$offset();
+    private static final long Stride = b2Vec2.layout().byteSize();
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long CentroidX = b2Polygon.centroid$offset() + X;
+    private static final long CentroidY = b2Polygon.centroid$offset() + Y;
+
     private final MemorySegment segment;
 
     static {
@@ -93,6 +104,21 @@ public final class Polygon {
         return new Polygon(nBox2D.nMakePolygon(hull, 0.0f));
     }
 
+    /**
+     * Create a convex polygon from a set of points, passing their memory to Box2D without copying.
+     * The winding order does not matter, and duplicate or interior points are discarded.
+     * @param points the vertices to build the hull from, between 3 and {@value MaxVertices} points
+     * @return a new {@link Polygon}
+     * @throws IllegalArgumentException if the point count is out of range or the points are malformed
+     */
+    public static Polygon fromVertices(Vec2Array points) {
+        int count = points.size();
+        if (count < 3 || count > MaxVertices) throw  new IllegalArgumentException(String.format("Polygon requires 3 to %d point, got %d", MaxVertices, count));
+        MemorySegment hull = points.computeHull();
+        if (b2Hull.count(hull) == 0) throw new IllegalArgumentException("Polygon points did not form a convex hull");
+        return new Polygon(nBox2D.nMakePolygon(hull, 0.0f));
+    }
+
     /**
      * Create a new {@link Polygon} with its values initialized to this polygon's values.
      * @return a new {@link Polygon}
@@ -130,6 +156,59 @@ public final class Polygon {
         return new Vec2(b2Polygon.vertices(segment, index)).copy();
     }
 
+    /**
+     * Get the x coordinate of the vertex at the given index, without copying it.
+     * @param index the vertex index, in {@code [0, count())}
+     * @return the vertex x coordinate value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float vertexX(int index) {
+        return segment.get(ValueLayout.JAVA_FLOAT, Vertices + Objects.checkIndex(index, count()) * Stride + X);
+    }
+
+    /**
+     * Get the y coordinate of the vertex at the given index, without copying it.
+     * @param index the vertex index, in {@code [0, count())}
+     * @return the vertex y coordinate value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float vertexY(int index) {
+        return segment.get(ValueLayout.JAVA_FLOAT, Vertices + Objects.checkIndex(index, count()) * Stride + Y);
+    }
+
+    /**
+     * Copy every vertex into the given array as interleaved {@code x0, y0, x1, y1, ...}.
+     * @param out the array to write into, at least {@code 2 * count()} long
+     * @return the vertex count
+     * @throws IndexOutOfBoundsException if the array is too short
+     */
+    public int vertices(float[] out) {
+        int count = count();
+        Objects.checkFromIndexSize(0, 2 * count, out.length);
+        MemorySegment.copy(segment, ValueLayout.JAVA_FLOAT, Vertices, out, 0, 2 * count);
+        return count;
+    }
+
+    /**
+     * Get the x component of the outward normal of the edge starting at the given vertex index.
+     * @param index the edge index, in {@code [0, count())}
+     * @return the normal x component value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float normalX(int index) {
+        return segment.get(ValueLayout.JAVA_FLOAT, Normals + Objects.checkIndex(index, count()) * Stride + X);
+    }
+
+    /**
+     * Get the y component of the outward normal of the edge starting at the given vertex index.
+     * @param index the edge index, in {@code [0, count())}
+     * @return the normal y component value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float normalY(int index) {
+        return segment.get(ValueLayout.JAVA_FLOAT, Normals + Objects.checkIndex(index, count()) * Stride + Y);
+    }
+
     /**
      * Get a copy of this polygon's centroid.
      * @return a new {@link Vec2} with the centroid value
@@ -138,6 +217,22 @@ public final class Polygon {
         return new Vec2(b2Polygon.centroid(segment)).copy();
     }
 
+    /**
+     * Get the centroid x coordinate without copying it.
+     * @return the centroid x coordinate value
+     */
+    public float centroidX() {
+        return segment.get(ValueLayout.JAVA_FLOAT, CentroidX);
+    }
+
+    /**
+     * Get the centroid y coordinate without copying it.
+     * @return the centroid y coordinate value
+     */
+    public float centroidY() {
+        return segment.get(ValueLayout.JAVA_FLOAT, CentroidY);
+    }
+
     /**
      * Check if the given point is inside this polygon's local frame or not.
      * @param point the point to test, in local coordinates
@@ -147,6 +242,16 @@ public final class Polygon {
         return nBox2D.nPointInPolygon(point.segment(), segment);
     }
 
+    /**
+     * Check if the given point is inside this polygon's local frame or not, without allocating.
+     * @param x the point x coordinate, in local coordinates
+     * @param y the point y coordinate, in local coordinates
+     * @return true if the point is inside this polygon
+     */
+    public boolean pointInPolygon(float x, float y) {
+        return nBox2D.nPointInPolygon(QueryScratch.get().point(x, y), segment);
+    }
+
     /**
      * Compute the mass properties of this polygon for the given density.
      * @param density the area density in kg/m^2
@@ -156,6 +261,17 @@ public final class Polygon {
         return new MassData(nBox2D.nComputePolygonMass(segment, density));
     }
 
+    /**
+     * Compute the mass properties of this polygon for the given density, without allocating.
+     * @param density the area density in kg/m^2
+     * @param out the {@link MassData} to write the result into
+     * @return the given output mass data
+     */
+    public MassData computeMass(float density, MassData out) {
+        nBox2D.nComputePolygonMass(QueryScratch.get().into(out.segment()), segment, density);
+        return out;
+    }
+
     /**
      * Compute the bounding box of this polygon when placed by the given transform.
      * @param transform the transform to place this polygon with
@@ -165,6 +281,56 @@ public final class Polygon {
         return new AABB(nBox2D.nComputePolygonAABB(segment, transform.segment()));
     }
 
+    /**
+     * Compute the bounding box of this polygon when placed by the given transform, without allocating.
+     * @param transform the transform to place this polygon with
+     * @param out the {@link AABB} to write the result into
+     * @return the given output box
+     */
+    public AABB computeAABB(Transform transform, AABB out) {
+        nBox2D.nComputePolygonAABB(QueryScratch.get().into(out.segment()), segment, transform.segment());
+        return out;
+    }
+
+    /**
+     * Cast a ray against this polygon, in its local frame, without allocating.
+     * @param originX the ray origin x coordinate
+     * @param originY the ray origin y coordinate
+     * @param translationX the ray translation x component
+     * @param translationY the ray translation y component
+     * @param maxFraction the maximum fraction of the translation to consider, typically 1
+     * @param out the {@link CastOutput} to write the result into
+     * @return true if the ray hits this polygon
+     */
+    public boolean rayCast(float originX, float originY, float translationX, float translationY, float maxFraction, CastOutput out) {
+        QueryScratch scratch = QueryScratch.get();
+        MemorySegment input = scratch.rayInput(originX, originY, translationX, translationY, maxFraction);
+        nBox2D.nRayCastPolygon(scratch.into(out.segment()), input, segment);
+        return out.hit();
+    }
+
+    /**
+     * Cast the ray of the given query against this polygon, in its local frame.
+     * The result is written into the query.
+     * @param query the ray cast query
+     * @return true if the ray hits this polygon
+     */
+    public boolean rayCast(RayCastQuery query) {
+        nBox2D.nRayCastPolygon(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
+    /**
+     * Sweep the proxy of the given query against this polygon, in its local frame.
+     * The result is written into the query.
+     * @param query the shape cast query
+     * @return true if the proxy touches this polygon along the sweep
+     */
+    public boolean shapeCast(ShapeCastQuery query) {
+        nBox2D.nShapeCastPolygon(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
     /**
      * Get the memory segment of this {@link Polygon}.
      * @return the underlying memory segment
@@ -0,0 +1,239 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2Hull;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.box2d.math.Vec2Array;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of {@link Polygon} built from vertex sets, so repeated shapes only run {@code b2ComputeHull}
+ * and {@code b2MakePolygon} once.
+ * <p>
+ * Vertices are quantized to a grid of the given quantum and sorted, so the key ignores winding order
+ * and tiny float noise. The first vertex set of a key defines the polygon every later lookup of that key shares.
+ * Polygons are immutable, and a returned {@link Polygon} may be used to create any number of shapes.
+ * </p>
+ * <p>
+ * The cache keeps at most {@code capacity} polygons and evicts the least recently used.
+ * An evicted polygon is not freed while still referenced, its memory is reclaimed once unreachable.
+ * All methods are thread safe.
+ * </p>
+ */
+public final class PolygonCache {
+    private final int capacity;
+    private final float quantum;
+    private final Map<Key, Polygon> polygons;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Sorted quantized vertices plus quantized radius.
+     */
+    private static final class Key {
+        private final long[] points;
+        private final int radius;
+        private final int hash;
+
+        private Key(long[] points, int radius) {
+            this.points = points;
+            this.radius = radius;
+            this.hash = 31 * Arrays.hashCode(points) + radius;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return radius == other.radius && Arrays.equals(points, other.points);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Create a new {@link PolygonCache}.
+     * @param capacity the maximum number of cached polygons
+     * @param quantum the grid size vertices and radius are snapped to when hashing, e.g. {@code 0.001}
+     * @throws IllegalArgumentException if the capacity or quantum is not positive
+     */
+    public PolygonCache(int capacity, float quantum) {
+        if (capacity <= 0) throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        if (!(quantum > 0.0f)) throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        this.capacity = capacity;
+        this.quantum = quantum;
+        this.polygons = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Polygon> eldest) {
+                if (size() <= PolygonCache.this.capacity) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get or build the convex polygon of the given interleaved vertices.
+     * @param xy the interleaved coordinates {@code x0, y0, x1, y1, ...}, between 3 and {@value Polygon#MaxVertices} points
+     * @param radius the rounding radius of the polygon
+     * @return the shared {@link Polygon}
+     * @throws IllegalArgumentException if the point count is out of range or the points are malformed
+     */
+    public Polygon polygon(float[] xy, float radius) {
+        int count = xy.length / 2;
+        checkCount(count, xy.length);
+        Key key = key(xy, count, radius);
+        synchronized (polygons) {
+            Polygon cached = polygons.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            MemorySegment hull;
+            try (Arena tmpArena = Arena.ofConfined()) {
+                MemorySegment pts = b2Vec2.allocateArray(count, tmpArena);
+                MemorySegment.copy(xy, 0, pts, ValueLayout.JAVA_FLOAT, 0L, 2 * count);
+                hull = nBox2D.nComputeHull(pts, count);
+            }
+            if (b2Hull.count(hull) == 0) throw new IllegalArgumentException("Polygon points did not form a convex hull");
+            Polygon polygon = new Polygon(nBox2D.nMakePolygon(hull, radius));
+            polygons.put(key, polygon);
+            return polygon;
+        }
+    }
+
+    /**
+     * Get or build the convex polygon of the given vertices.
+     * @param points the vertices, between 3 and {@value Polygon#MaxVertices} points
+     * @param radius the rounding radius of the polygon
+     * @return the shared {@link Polygon}
+     * @throws IllegalArgumentException if the point count is out of range or the points are malformed
+     */
+    public Polygon polygon(Vec2Array points, float radius) {
+        return polygon(points.toArray(), radius);
+    }
+
+    /**
+     * Get or build a box polygon, centred at the origin and axis aligned.
+     * It shares its entry with a polygon built from the same four corners.
+     * @param halfWidth the box 1/2 width along the local x-axis
+     * @param halfHeight the box 1/2 height along the local y-axis
+     * @return the shared {@link Polygon}
+     */
+    public Polygon box(float halfWidth, float halfHeight) {
+        float[] corners = {-halfWidth, -halfHeight, halfWidth, -halfHeight, halfWidth, halfHeight, -halfWidth, halfHeight};
+        Key key = key(corners, 4, 0.0f);
+        synchronized (polygons) {
+            Polygon cached = polygons.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            Polygon polygon = Polygon.box(halfWidth, halfHeight);
+            polygons.put(key, polygon);
+            return polygon;
+        }
+    }
+
+    private static void checkCount(int count, int length) {
+        if ((length & 1) != 0) throw new IllegalArgumentException("Interleaved coordinates require an even length, got " + length);
+        if (count < 3 || count > Polygon.MaxVertices) throw new IllegalArgumentException(String.format("Polygon requires 3 to %d point, got %d", Polygon.MaxVertices, count));
+    }
+
+    private Key key(float[] xy, int count, float radius) {
+        long[] points = new long[count];
+        for (int i = 0; i < count; i++) {
+            int qx = Math.round(xy[2 * i] / quantum);
+            int qy = Math.round(xy[2 * i + 1] / quantum);
+            points[i] = ((long) qx << 32) | (qy & 0xFFFFFFFFL);
+        }
+        Arrays.sort(points);
+        return new Key(points, Math.round(radius / quantum));
+    }
+
+    /**
+     * Drop every cached polygon. Polygons already handed out stay valid.
+     */
+    public void clear() {
+        synchronized (polygons) {
+            polygons.clear();
+        }
+    }
+
+    /**
+     * Get the number of cached polygons.
+     * @return the size
+     */
+    public int size() {
+        synchronized (polygons) {
+            return polygons.size();
+        }
+    }
+
+    /**
+     * Get the maximum number of cached polygons.
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     * @return the hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that built a new polygon.
+     * @return the miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of polygons evicted to stay within the capacity.
+     * @return the eviction count
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the approximate native memory held by the cached polygons.
+     * @return the size in bytes
+     */
+    public long byteSize() {
+        synchronized (polygons) {
+            long total = 0L;
+            for (Polygon polygon : polygons.values()) total += polygon.segment().byteSize();
+            return total;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PolygonCache[size=%d, capacity=%d, hits=%d, misses=%d, evictions=%d]", size(), capacity, hits(), misses(), evictions());
+    }
+}
@@ -0,0 +1,66 @@
+package org.box2d.collision;
+
+import org.box2d.internal.b2RayCastInput;
+import org.box2d.internal.b2Vec2;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Per thread native scratch for the allocation-free geometry query overloads.
+ * <p>
+ * Holds a point and a ray input to fill from raw floats, and an allocator that hands out
+ * the caller's output segment so that by-value native results are written in place.
+ * </p>
+ */
+final class QueryScratch {
+    private static final ThreadLocal<QueryScratch> Scratches = ThreadLocal.withInitial(QueryScratch::new);
+
+    private static final long OriginX = b2RayCastInput.origin$offset() + b2Vec2.x$offset();
+    private static final long OriginY = b2RayCastInput.origin$offset() + b2Vec2.y$offset();
+    private static final long TranslationX = b2RayCastInput.translation$offset() + b2Vec2.x$offset();
+    private static final long TranslationY = b2RayCastInput.translation$offset() + b2Vec2.y$offset();
+    private static final long MaxFraction = b2RayCastInput.maxFraction$offset();
+
+    private final MemorySegment point;
+    private final MemorySegment rayInput;
+    private final SegmentAllocator allocator;
+    private MemorySegment target;
+
+    private QueryScratch() {
+        Arena arena = Arena.ofAuto();
+        point = arena.allocate(b2Vec2.layout());
+        rayInput = arena.allocate(b2RayCastInput.layout());
+        allocator = (byteSize, byteAlignment) -> target;
+    }
+
+    static QueryScratch get() {
+        return Scratches.get();
+    }
+
+    MemorySegment point(float x, float y) {
+        point.set(ValueLayout.JAVA_FLOAT, b2Vec2.x$offset(), x);
+        point.set(ValueLayout.JAVA_FLOAT, b2Vec2.y$offset(), y);
+        return point;
+    }
+
+    MemorySegment rayInput(float originX, float originY, float translationX, float translationY, float maxFraction) {
+        rayInput.set(ValueLayout.JAVA_FLOAT, OriginX, originX);
+        rayInput.set(ValueLayout.JAVA_FLOAT, OriginY, originY);
+        rayInput.set(ValueLayout.JAVA_FLOAT, TranslationX, translationX);
+        rayInput.set(ValueLayout.JAVA_FLOAT, TranslationY, translationY);
+        rayInput.set(ValueLayout.JAVA_FLOAT, MaxFraction, maxFraction);
+        return rayInput;
+    }
+
+    /**
+     * Get an allocator returning the given segment, for a native call to write its result into.
+     * Only valid until the next call on this thread.
+     */
+    SegmentAllocator into(MemorySegment target) {
+        this.target = target;
+        return allocator;
+    }
+}
@@ -0,0 +1,326 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2CastOutput;
+import org.box2d.internal.b2RayCastInput;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * Reusable ray cast against standalone geometry, outside of any world.
+ * <p>
+ * A query owns its native {@link b2RayCastInput} and {@link b2CastOutput}, so setting the ray, casting it with
+ * {@link Circle#rayCast(RayCastQuery)} and the like, and reading the result with the primitive getters
+ * never allocates. The ray is expressed in the local frame of the shapes it is cast against.
+ * The {@code closest} methods test the ray against a whole array of shapes in one pass,
+ * clipping it to the closest hit found so far.
+ * </p>
+ * <p>
+ * A query is not thread safe, use one per thread.
+ * </p>
+ */
+public final class RayCastQuery {
+    @FunctionalInterface
+    private interface Caster<T> {
+        MemorySegment cast(SegmentAllocator allocator, MemorySegment input, T shape);
+    }
+
+    private static final Caster<Circle> CircleCaster = (allocator, input, circle) -> nBox2D.nRayCastCircle(allocator, input, circle.segment());
+    private static final Caster<Capsule> CapsuleCaster = (allocator, input, capsule) -> nBox2D.nRayCastCapsule(allocator, input, capsule.segment());
+    private static final Caster<Polygon> PolygonCaster = (allocator, input, polygon) -> nBox2D.nRayCastPolygon(allocator, input, polygon.segment());
+    private static final Caster<Segment> TwoSidedCaster = (allocator, input, segment) -> nBox2D.nRayCastSegment(allocator, input, segment.segment(), false);
+    private static final Caster<Segment> OneSidedCaster = (allocator, input, segment) -> nBox2D.nRayCastSegment(allocator, input, segment.segment(), true);
+
+    private static final long OriginX = b2RayCastInput.origin$offset() + b2Vec2.x$offset();
+    private static final long OriginY = b2RayCastInput.origin$offset() + b2Vec2.y$offset();
+    private static final long TranslationX = b2RayCastInput.translation$offset() + b2Vec2.x$offset();
+    private static final long TranslationY = b2RayCastInput.translation$offset() + b2Vec2.y$offset();
+    private static final long MaxFraction = b2RayCastInput.maxFraction$offset();
+    private static final long OutputSize = b2CastOutput.layout().byteSize();
+
+    private final MemorySegment input;
+    private final CastOutput output;
+    private final SegmentAllocator allocator;
+    private final MemorySegment probe;
+    private final SegmentAllocator probeAllocator;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link RayCastQuery} with a zero ray and a max fraction of 1.
+     */
+    public RayCastQuery() {
+        this(Arena.ofAuto());
+    }
+
+    /**
+     * Create a new {@link RayCastQuery} in the given arena, with a zero ray and a max fraction of 1.
+     * @param arena the arena to allocate in
+     */
+    public RayCastQuery(Arena arena) {
+        input = arena.allocate(b2RayCastInput.layout());
+        output = new CastOutput(arena);
+        MemorySegment result = output.segment();
+        allocator = (byteSize, byteAlignment) -> result;
+        probe = arena.allocate(b2CastOutput.layout());
+        probeAllocator = (byteSize, byteAlignment) -> probe;
+        maxFraction(1.0f);
+    }
+
+    /**
+     * Set the ray to cast, keeping the max fraction.
+     * @param originX the ray origin x coordinate
+     * @param originY the ray origin y coordinate
+     * @param translationX the ray translation x component
+     * @param translationY the ray translation y component
+     * @return this
+     */
+    public RayCastQuery set(float originX, float originY, float translationX, float translationY) {
+        input.set(ValueLayout.JAVA_FLOAT, OriginX, originX);
+        input.set(ValueLayout.JAVA_FLOAT, OriginY, originY);
+        input.set(ValueLayout.JAVA_FLOAT, TranslationX, translationX);
+        input.set(ValueLayout.JAVA_FLOAT, TranslationY, translationY);
+        return this;
+    }
+
+    /**
+     * Set the maximum fraction of the translation to consider.
+     * @param maxFraction the max fraction, typically 1
+     * @return this
+     */
+    public RayCastQuery maxFraction(float maxFraction) {
+        input.set(ValueLayout.JAVA_FLOAT, MaxFraction, maxFraction);
+        return this;
+    }
+
+    /**
+     * Get the ray origin x coordinate.
+     * @return the origin x coordinate value
+     */
+    public float originX() {
+        return input.get(ValueLayout.JAVA_FLOAT, OriginX);
+    }
+
+    /**
+     * Get the ray origin y coordinate.
+     * @return the origin y coordinate value
+     */
+    public float originY() {
+        return input.get(ValueLayout.JAVA_FLOAT, OriginY);
+    }
+
+    /**
+     * Get the ray translation x component.
+     * @return the translation x component value
+     */
+    public float translationX() {
+        return input.get(ValueLayout.JAVA_FLOAT, TranslationX);
+    }
+
+    /**
+     * Get the ray translation y component.
+     * @return the translation y component value
+     */
+    public float translationY() {
+        return input.get(ValueLayout.JAVA_FLOAT, TranslationY);
+    }
+
+    /**
+     * Get the maximum fraction of the translation to consider.
+     * @return the max fraction value
+     */
+    public float maxFraction() {
+        return input.get(ValueLayout.JAVA_FLOAT, MaxFraction);
+    }
+
+    /**
+     * Check if the last cast hit anything.
+     * @return true on hit, the other results are undefined otherwise
+     */
+    public boolean hit() {
+        return output.hit();
+    }
+
+    /**
+     * Get the fraction of the translation at the last hit.
+     * @return the fraction value
+     */
+    public float fraction() {
+        return output.fraction();
+    }
+
+    /**
+     * Get the x coordinate of the last hit point.
+     * @return the point x coordinate value
+     */
+    public float pointX() {
+        return output.pointX();
+    }
+
+    /**
+     * Get the y coordinate of the last hit point.
+     * @return the point y coordinate value
+     */
+    public float pointY() {
+        return output.pointY();
+    }
+
+    /**
+     * Get the x component of the surface normal at the last hit point.
+     * @return the normal x component value
+     */
+    public float normalX() {
+        return output.normalX();
+    }
+
+    /**
+     * Get the y component of the surface normal at the last hit point.
+     * @return the normal y component value
+     */
+    public float normalY() {
+        return output.normalY();
+    }
+
+    /**
+     * Get the output of the last cast.
+     * This returns a wrapper, not a new copy.
+     * @return the {@link CastOutput} owned by this query
+     */
+    public CastOutput output() {
+        return output;
+    }
+
+    /**
+     * Find the closest of the given circles hit by the ray.
+     * @param circles the circles to test
+     * @return the index of the closest circle hit, or -1 if none is hit
+     */
+    public int closest(Circle[] circles) {
+        return closest(circles, 0, circles.length, CircleCaster);
+    }
+
+    /**
+     * Find the closest of a range of the given circles hit by the ray.
+     * @param circles the circles to test
+     * @param offset the index of the first circle to test
+     * @param count the number of circles to test
+     * @return the index of the closest circle hit, or -1 if none is hit
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public int closest(Circle[] circles, int offset, int count) {
+        return closest(circles, offset, count, CircleCaster);
+    }
+
+    /**
+     * Find the closest of the given capsules hit by the ray.
+     * @param capsules the capsules to test
+     * @return the index of the closest capsule hit, or -1 if none is hit
+     */
+    public int closest(Capsule[] capsules) {
+        return closest(capsules, 0, capsules.length, CapsuleCaster);
+    }
+
+    /**
+     * Find the closest of a range of the given capsules hit by the ray.
+     * @param capsules the capsules to test
+     * @param offset the index of the first capsule to test
+     * @param count the number of capsules to test
+     * @return the index of the closest capsule hit, or -1 if none is hit
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public int closest(Capsule[] capsules, int offset, int count) {
+        return closest(capsules, offset, count, CapsuleCaster);
+    }
+
+    /**
+     * Find the closest of the given polygons hit by the ray.
+     * @param polygons the polygons to test
+     * @return the index of the closest polygon hit, or -1 if none is hit
+     */
+    public int closest(Polygon[] polygons) {
+        return closest(polygons, 0, polygons.length, PolygonCaster);
+    }
+
+    /**
+     * Find the closest of a range of the given polygons hit by the ray.
+     * @param polygons the polygons to test
+     * @param offset the index of the first polygon to test
+     * @param count the number of polygons to test
+     * @return the index of the closest polygon hit, or -1 if none is hit
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public int closest(Polygon[] polygons, int offset, int count) {
+        return closest(polygons, offset, count, PolygonCaster);
+    }
+
+    /**
+     * Find the closest of the given segments hit by the ray.
+     * @param segments the segments to test
+     * @param oneSided true to only hit segments from the right of {@code point1} to {@code point2}
+     * @return the index of the closest segment hit, or -1 if none is hit
+     */
+    public int closest(Segment[] segments, boolean oneSided) {
+        return closest(segments, 0, segments.length, oneSided ? OneSidedCaster : TwoSidedCaster);
+    }
+
+    /**
+     * Find the closest of a range of the given segments hit by the ray.
+     * @param segments the segments to test
+     * @param offset the index of the first segment to test
+     * @param count the number of segments to test
+     * @param oneSided true to only hit segments from the right of {@code point1} to {@code point2}
+     * @return the index of the closest segment hit, or -1 if none is hit
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public int closest(Segment[] segments, int offset, int count, boolean oneSided) {
+        return closest(segments, offset, count, oneSided ? OneSidedCaster : TwoSidedCaster);
+    }
+
+    private <T> int closest(T[] shapes, int offset, int count, Caster<T> caster) {
+        Objects.checkFromIndexSize(offset, count, shapes.length);
+        MemorySegment result = output.segment();
+        b2CastOutput.hit(result, false);
+        float maxFraction = maxFraction();
+        float best = Float.MAX_VALUE;
+        int closest = -1;
+        try {
+            for (int i = offset, end = offset + count; i < end; i++) {
+                caster.cast(probeAllocator, input, shapes[i]);
+                if (!b2CastOutput.hit(probe)) continue;
+                float fraction = b2CastOutput.fraction(probe);
+                // Equal fractions keep the first shape hit.
+                if (fraction >= best) continue;
+                best = fraction;
+                closest = i;
+                MemorySegment.copy(probe, 0L, result, 0L, OutputSize);
+                // Clip the ray so farther shapes are rejected early.
+                maxFraction(fraction);
+            }
+        } finally {
+            maxFraction(maxFraction);
+        }
+        return closest;
+    }
+
+    MemorySegment input() {
+        return input;
+    }
+
+    SegmentAllocator allocator() {
+        return allocator;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RayCastQuery[origin=(%.3f, %.3f), translation=(%.3f, %.3f), maxFraction=%.3f, hit=%b]",
+                originX(), originY(), translationX(), translationY(), maxFraction(), hit());
+    }
+}
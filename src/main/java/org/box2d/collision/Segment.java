@@ -2,12 +2,14 @@ package org.box2d.collision;
 
 import org.box2d.NativeLoader;
 import org.box2d.internal.b2Segment;
+import org.box2d.internal.b2Vec2;
 import org.box2d.internal.nBox2D;
 import org.box2d.math.Transform;
 import org.box2d.math.Vec2;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * Line segment geometry, defined by two local endpoints. Segments have no volume and no mass,
@@ -16,6 +18,11 @@ import java.lang.foreign.MemorySegment;
  * Wrapper for native {@link b2Segment}.
  */
 public final class Segment {
+    private static final long Point1X = b2Segment.point1$offset() + b2Vec2.x$offset();
+    private static final long Point1Y = b2Segment.point1$offset() + b2Vec2.y$offset();
+    private static final long Point2X = b2Segment.point2$offset() + b2Vec2.x$offset();
+    private static final long Point2Y = b2Segment.point2$offset() + b2Vec2.y$offset();
+
     private final MemorySegment segment;
 
     static {
@@ -120,6 +127,22 @@ public final class Segment {
         return this;
     }
 
+    /**
+     * Get the first local endpoint x coordinate without wrapping it.
+     * @return the first local endpoint x coordinate value
+     */
+    public float point1X() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Point1X);
+    }
+
+    /**
+     * Get the first local endpoint y coordinate without wrapping it.
+     * @return the first local endpoint y coordinate value
+     */
+    public float point1Y() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Point1Y);
+    }
+
     /**
      * Get the second endpoint of this segment.
      * This returns a wrapper, not a new copy.
@@ -150,6 +173,22 @@ public final class Segment {
         return this;
     }
 
+    /**
+     * Get the second local endpoint x coordinate without wrapping it.
+     * @return the second local endpoint x coordinate value
+     */
+    public float point2X() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Point2X);
+    }
+
+    /**
+     * Get the second local endpoint y coordinate without wrapping it.
+     * @return the second local endpoint y coordinate value
+     */
+    public float point2Y() {
+        return segment.get(ValueLayout.JAVA_FLOAT, Point2Y);
+    }
+
     /**
      * Get the length of this segment.
      * @return the distance between the two endpoints
@@ -167,6 +206,58 @@ public final class Segment {
         return new AABB(nBox2D.nComputeSegmentAABB(segment, transform.segment()));
     }
 
+    /**
+     * Compute the bounding box of this segment when placed by the given transform, without allocating.
+     * @param transform the transform to place this segment with
+     * @param out the {@link AABB} to write the result into
+     * @return the given output box
+     */
+    public AABB computeAABB(Transform transform, AABB out) {
+        nBox2D.nComputeSegmentAABB(QueryScratch.get().into(out.segment()), segment, transform.segment());
+        return out;
+    }
+
+    /**
+     * Cast a ray against this segment, in its local frame, without allocating.
+     * @param originX the ray origin x coordinate
+     * @param originY the ray origin y coordinate
+     * @param translationX the ray translation x component
+     * @param translationY the ray translation y component
+     * @param maxFraction the maximum fraction of the translation to consider, typically 1
+     * @param oneSided true to only hit this segment from the right of {@code point1} to {@code point2}
+     * @param out the {@link CastOutput} to write the result into
+     * @return true if the ray hits this segment
+     */
+    public boolean rayCast(float originX, float originY, float translationX, float translationY, float maxFraction, boolean oneSided, CastOutput out) {
+        QueryScratch scratch = QueryScratch.get();
+        MemorySegment input = scratch.rayInput(originX, originY, translationX, translationY, maxFraction);
+        nBox2D.nRayCastSegment(scratch.into(out.segment()), input, segment, oneSided);
+        return out.hit();
+    }
+
+    /**
+     * Cast the ray of the given query against this segment, in its local frame.
+     * The result is written into the query.
+     * @param query the ray cast query
+     * @param oneSided true to only hit this segment from the right of {@code point1} to {@code point2}
+     * @return true if the ray hits this segment
+     */
+    public boolean rayCast(RayCastQuery query, boolean oneSided) {
+        nBox2D.nRayCastSegment(query.allocator(), query.input(), segment, oneSided);
+        return query.hit();
+    }
+
+    /**
+     * Sweep the proxy of the given query against this segment, in its local frame.
+     * The result is written into the query.
+     * @param query the shape cast query
+     * @return true if the proxy touches this segment along the sweep
+     */
+    public boolean shapeCast(ShapeCastQuery query) {
+        nBox2D.nShapeCastSegment(query.allocator(), query.input(), segment);
+        return query.hit();
+    }
+
     /**
      * Get the memory segment of this {@link Segment}.
      * @return the underlying memory segment
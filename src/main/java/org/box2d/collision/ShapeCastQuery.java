@@ -0,0 +1,286 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2CastOutput;
+import org.box2d.internal.b2ShapeCastInput;
+import org.box2d.internal.b2ShapeCastPairInput;
+import org.box2d.internal.b2ShapeProxy;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.box2d.math.Transform;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Reusable shape cast of a convex proxy against standalone geometry, outside of any world.
+ * <p>
+ * A query owns its native {@link b2ShapeCastInput} and {@link b2CastOutput}. The moving proxy is set from a shape
+ * or from raw points, then swept along the translation by {@link Circle#shapeCast(ShapeCastQuery)} and the like,
+ * in the local frame of the target shape. {@link #cast(Transform, ShapeCastQuery, Transform)} sweeps it against
+ * another query's proxy with {@code b2ShapeCast}, each placed by its own transform.
+ * None of these allocate.
+ * </p>
+ * <p>
+ * A query is not thread safe, use one per thread.
+ * </p>
+ */
+public final class ShapeCastQuery {
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long Proxy = b2ShapeCastInput.proxy$offset();
+    private static final long ProxySize = b2ShapeProxy.layout().byteSize();
+    private static final long TranslationX = b2ShapeCastInput.translation$offset() + X;
+    private static final long TranslationY = b2ShapeCastInput.translation$offset() + Y;
+    private static final long MaxFraction = b2ShapeCastInput.maxFraction$offset();
+    private static final long CanEncroach = b2ShapeCastInput.canEncroach$offset();
+    private static final long TransformSize = b2ShapeCastPairInput.transformA$layout().byteSize();
+
+    private final MemorySegment input;
+    private final MemorySegment pairInput;
+    private final CastOutput output;
+    private final SegmentAllocator allocator;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link ShapeCastQuery} with an empty proxy, a zero translation and a max fraction of 1.
+     */
+    public ShapeCastQuery() {
+        this(Arena.ofAuto());
+    }
+
+    /**
+     * Create a new {@link ShapeCastQuery} in the given arena, with an empty proxy, a zero translation and a max fraction of 1.
+     * @param arena the arena to allocate in
+     */
+    public ShapeCastQuery(Arena arena) {
+        input = arena.allocate(b2ShapeCastInput.layout());
+        pairInput = arena.allocate(b2ShapeCastPairInput.layout());
+        output = new CastOutput(arena);
+        MemorySegment result = output.segment();
+        allocator = (byteSize, byteAlignment) -> result;
+        maxFraction(1.0f);
+    }
+
+    /**
+     * Set the moving proxy to the given circle.
+     * @param circle the circle to sweep
+     * @return this
+     */
+    public ShapeCastQuery proxy(Circle circle) {
+        ShapeProxies.set(input, Proxy, circle);
+        return this;
+    }
+
+    /**
+     * Set the moving proxy to the given capsule.
+     * @param capsule the capsule to sweep
+     * @return this
+     */
+    public ShapeCastQuery proxy(Capsule capsule) {
+        ShapeProxies.set(input, Proxy, capsule);
+        return this;
+    }
+
+    /**
+     * Set the moving proxy to the given segment.
+     * @param segment the segment to sweep
+     * @return this
+     */
+    public ShapeCastQuery proxy(Segment segment) {
+        ShapeProxies.set(input, Proxy, segment);
+        return this;
+    }
+
+    /**
+     * Set the moving proxy to the given polygon.
+     * @param polygon the polygon to sweep
+     * @return this
+     */
+    public ShapeCastQuery proxy(Polygon polygon) {
+        ShapeProxies.set(input, Proxy, polygon);
+        return this;
+    }
+
+    /**
+     * Set the moving proxy to the given convex points, like {@code b2MakeProxy}.
+     * @param xy the interleaved points {@code x0, y0, x1, y1, ...}
+     * @param radius the rounding radius
+     * @return this
+     * @throws IllegalArgumentException if the length is odd, or there are not 1 to {@value Polygon#MaxVertices} points
+     */
+    public ShapeCastQuery proxy(float[] xy, float radius) {
+        ShapeProxies.set(input, Proxy, xy, radius);
+        return this;
+    }
+
+    /**
+     * Get the number of points of the moving proxy.
+     * @return the proxy point count
+     */
+    public int proxyCount() {
+        return ShapeProxies.count(input, Proxy);
+    }
+
+    /**
+     * Set the translation to sweep the proxy along.
+     * @param x the translation x component
+     * @param y the translation y component
+     * @return this
+     */
+    public ShapeCastQuery translation(float x, float y) {
+        input.set(ValueLayout.JAVA_FLOAT, TranslationX, x);
+        input.set(ValueLayout.JAVA_FLOAT, TranslationY, y);
+        return this;
+    }
+
+    /**
+     * Set the maximum fraction of the translation to consider.
+     * @param maxFraction the max fraction, typically 1
+     * @return this
+     */
+    public ShapeCastQuery maxFraction(float maxFraction) {
+        input.set(ValueLayout.JAVA_FLOAT, MaxFraction, maxFraction);
+        return this;
+    }
+
+    /**
+     * Allow the proxy to move slightly closer than the linear slop before reporting a hit,
+     * which helps sliding along surfaces.
+     * @param canEncroach true to allow encroaching
+     * @return this
+     */
+    public ShapeCastQuery canEncroach(boolean canEncroach) {
+        input.set(ValueLayout.JAVA_BOOLEAN, CanEncroach, canEncroach);
+        return this;
+    }
+
+    /**
+     * Get the translation x component.
+     * @return the translation x component value
+     */
+    public float translationX() {
+        return input.get(ValueLayout.JAVA_FLOAT, TranslationX);
+    }
+
+    /**
+     * Get the translation y component.
+     * @return the translation y component value
+     */
+    public float translationY() {
+        return input.get(ValueLayout.JAVA_FLOAT, TranslationY);
+    }
+
+    /**
+     * Get the maximum fraction of the translation to consider.
+     * @return the max fraction value
+     */
+    public float maxFraction() {
+        return input.get(ValueLayout.JAVA_FLOAT, MaxFraction);
+    }
+
+    /**
+     * Sweep this query's proxy, placed by the given transform, against the target query's proxy with {@code b2ShapeCast}.
+     * The hit point and normal are in world coordinates.
+     * @param transform the transform to place this proxy with, at the start of the sweep
+     * @param target the query holding the target proxy, which does not move
+     * @param targetTransform the transform to place the target proxy with
+     * @return true if the proxies touch along the sweep
+     */
+    public boolean cast(Transform transform, ShapeCastQuery target, Transform targetTransform) {
+        MemorySegment.copy(target.input, Proxy, pairInput, b2ShapeCastPairInput.proxyA$offset(), ProxySize);
+        MemorySegment.copy(input, Proxy, pairInput, b2ShapeCastPairInput.proxyB$offset(), ProxySize);
+        MemorySegment.copy(targetTransform.segment(), 0L, pairInput, b2ShapeCastPairInput.transformA$offset(), TransformSize);
+        MemorySegment.copy(transform.segment(), 0L, pairInput, b2ShapeCastPairInput.transformB$offset(), TransformSize);
+        pairInput.set(ValueLayout.JAVA_FLOAT, b2ShapeCastPairInput.translationB$offset() + X, translationX());
+        pairInput.set(ValueLayout.JAVA_FLOAT, b2ShapeCastPairInput.translationB$offset() + Y, translationY());
+        b2ShapeCastPairInput.maxFraction(pairInput, maxFraction());
+        b2ShapeCastPairInput.canEncroach(pairInput, input.get(ValueLayout.JAVA_BOOLEAN, CanEncroach));
+        nBox2D.nShapeCast(allocator, pairInput);
+        return output.hit();
+    }
+
+    /**
+     * Check if the last cast hit anything.
+     * @return true on hit, the other results are undefined otherwise
+     */
+    public boolean hit() {
+        return output.hit();
+    }
+
+    /**
+     * Get the fraction of the translation at the last hit.
+     * @return the fraction value
+     */
+    public float fraction() {
+        return output.fraction();
+    }
+
+    /**
+     * Get the x coordinate of the last hit point.
+     * @return the point x coordinate value
+     */
+    public float pointX() {
+        return output.pointX();
+    }
+
+    /**
+     * Get the y coordinate of the last hit point.
+     * @return the point y coordinate value
+     */
+    public float pointY() {
+        return output.pointY();
+    }
+
+    /**
+     * Get the x component of the surface normal at the last hit point.
+     * @return the normal x component value
+     */
+    public float normalX() {
+        return output.normalX();
+    }
+
+    /**
+     * Get the y component of the surface normal at the last hit point.
+     * @return the normal y component value
+     */
+    public float normalY() {
+        return output.normalY();
+    }
+
+    /**
+     * Get the number of iterations used by the last cast.
+     * @return the iteration count
+     */
+    public int iterations() {
+        return output.iterations();
+    }
+
+    /**
+     * Get the output of the last cast.
+     * This returns a wrapper, not a new copy.
+     * @return the {@link CastOutput} owned by this query
+     */
+    public CastOutput output() {
+        return output;
+    }
+
+    MemorySegment input() {
+        return input;
+    }
+
+    SegmentAllocator allocator() {
+        return allocator;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ShapeCastQuery[proxyCount=%d, translation=(%.3f, %.3f), maxFraction=%.3f, hit=%b]",
+                proxyCount(), translationX(), translationY(), maxFraction(), hit());
+    }
+}
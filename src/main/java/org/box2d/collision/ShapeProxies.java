@@ -0,0 +1,68 @@
+package org.box2d.collision;
+
+import org.box2d.internal.b2Polygon;
+import org.box2d.internal.b2ShapeProxy;
+import org.box2d.internal.b2Vec2;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Writes {@link b2ShapeProxy} values in place inside the native input structs of the cast and distance queries,
+ * the same way {@code b2MakeProxy} and {@code b2MakeShapeDistanceProxy} build them.
+ */
+final class ShapeProxies {
+    private static final long Stride = b2Vec2.layout().byteSize();
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long Points = b2ShapeProxy.points$offset();
+    private static final long Count = b2ShapeProxy.count$offset();
+    private static final long Radius = b2ShapeProxy.radius$offset();
+
+    private ShapeProxies() {}
+
+    private static void point(MemorySegment segment, long proxy, int index, float x, float y) {
+        segment.set(ValueLayout.JAVA_FLOAT, proxy + Points + index * Stride + X, x);
+        segment.set(ValueLayout.JAVA_FLOAT, proxy + Points + index * Stride + Y, y);
+    }
+
+    private static void finish(MemorySegment segment, long proxy, int count, float radius) {
+        segment.set(ValueLayout.JAVA_INT, proxy + Count, count);
+        segment.set(ValueLayout.JAVA_FLOAT, proxy + Radius, radius);
+    }
+
+    static void set(MemorySegment segment, long proxy, Circle circle) {
+        point(segment, proxy, 0, circle.centerX(), circle.centerY());
+        finish(segment, proxy, 1, circle.radius());
+    }
+
+    static void set(MemorySegment segment, long proxy, Capsule capsule) {
+        point(segment, proxy, 0, capsule.center1X(), capsule.center1Y());
+        point(segment, proxy, 1, capsule.center2X(), capsule.center2Y());
+        finish(segment, proxy, 2, capsule.radius());
+    }
+
+    static void set(MemorySegment segment, long proxy, Segment line) {
+        point(segment, proxy, 0, line.point1X(), line.point1Y());
+        point(segment, proxy, 1, line.point2X(), line.point2Y());
+        finish(segment, proxy, 2, 0.0f);
+    }
+
+    static void set(MemorySegment segment, long proxy, Polygon polygon) {
+        int count = polygon.count();
+        MemorySegment.copy(polygon.segment(), b2Polygon.vertices$offset(), segment, proxy + Points, count * Stride);
+        finish(segment, proxy, count, polygon.radius());
+    }
+
+    static void set(MemorySegment segment, long proxy, float[] xy, float radius) {
+        if ((xy.length & 1) != 0) throw new IllegalArgumentException("Points require an even length, got " + xy.length);
+        int count = xy.length / 2;
+        if (count < 1 || count > Polygon.MaxVertices) throw new IllegalArgumentException("Shape proxy requires 1 to 8 points, got " + count);
+        MemorySegment.copy(xy, 0, segment, ValueLayout.JAVA_FLOAT, proxy + Points, xy.length);
+        finish(segment, proxy, count, radius);
+    }
+
+    static int count(MemorySegment segment, long proxy) {
+        return segment.get(ValueLayout.JAVA_INT, proxy + Count);
+    }
+}
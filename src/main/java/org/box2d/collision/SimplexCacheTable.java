@@ -0,0 +1,235 @@
+package org.box2d.collision;
+
+import org.box2d.internal.b2SimplexCache;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Table of {@link b2SimplexCache} warm start data persisted across frames, keyed by a {@code (long, long)} pair id.
+ * <p>
+ * Warm starting GJK with the simplex of the previous frame makes repeated distance queries over the same pairs
+ * much cheaper. A cache is only 8 bytes, so the table keeps it inline in a {@code long} next to the pair keys,
+ * in an open addressing hash table with linear probing. Lookups and updates do not allocate, the table only
+ * allocates when it grows.
+ * </p>
+ * <p>
+ * Every lookup stamps its entry with the current frame. Call {@link #advance()} once per frame and
+ * {@link #evict(int)} to drop in bulk the pairs not queried recently. The pair order matters, the cache of
+ * {@code (a, b)} holds vertex indices of A then B, so {@code (b, a)} is another entry.
+ * A table is not thread safe.
+ * </p>
+ */
+public final class SimplexCacheTable {
+    private static final int MinCapacity = 16;
+    private static final long CacheSize = b2SimplexCache.layout().byteSize();
+
+    private long[] keysA;
+    private long[] keysB;
+    private long[] caches;
+    private int[] stamps;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int frame;
+
+    /**
+     * Create a new empty {@link SimplexCacheTable} sized for the given number of pairs.
+     * @param expectedPairs the number of pairs expected, the table grows past it
+     * @throws IllegalArgumentException if the expected pair count is negative
+     */
+    public SimplexCacheTable(int expectedPairs) {
+        if (expectedPairs < 0) throw new IllegalArgumentException("Expected pair count must not be negative: " + expectedPairs);
+        allocate(Math.max(MinCapacity, Integer.highestOneBit(Math.max(1, expectedPairs) * 2 - 1) << 1));
+    }
+
+    private void allocate(int capacity) {
+        keysA = new long[capacity];
+        keysB = new long[capacity];
+        caches = new long[capacity];
+        stamps = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(long a, long b) {
+        long h = a * 0x9E3779B97F4A7C15L + b;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long a, long b) {
+        for (int slot = hash(a, b) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keysA[slot] == a && keysB[slot] == b) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Find the slot of a pair, inserting an empty cache if it is missing, and stamp it with the current frame.
+     */
+    int acquire(long a, long b) {
+        int slot = hash(a, b) & mask;
+        while (used[slot]) {
+            if (keysA[slot] == a && keysB[slot] == b) {
+                stamps[slot] = frame;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (2 * (size + 1) > keysA.length) {
+            grow();
+            return acquire(a, b);
+        }
+        used[slot] = true;
+        keysA[slot] = a;
+        keysB[slot] = b;
+        caches[slot] = 0L;
+        stamps[slot] = frame;
+        size++;
+        return slot;
+    }
+
+    void load(int slot, MemorySegment cache) {
+        cache.set(ValueLayout.JAVA_LONG_UNALIGNED, 0L, caches[slot]);
+    }
+
+    void store(int slot, MemorySegment cache) {
+        caches[slot] = cache.get(ValueLayout.JAVA_LONG_UNALIGNED, 0L);
+    }
+
+    private void grow() {
+        long[] oldA = keysA, oldB = keysB, oldCaches = caches;
+        int[] oldStamps = stamps;
+        boolean[] oldUsed = used;
+        allocate(oldA.length * 2);
+        for (int i = 0; i < oldA.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = hash(oldA[i], oldB[i]) & mask;
+            while (used[slot]) slot = (slot + 1) & mask;
+            used[slot] = true;
+            keysA[slot] = oldA[i];
+            keysB[slot] = oldB[i];
+            caches[slot] = oldCaches[i];
+            stamps[slot] = oldStamps[i];
+        }
+    }
+
+    // Backward shift deletion, keeping every probe chain unbroken without tombstones.
+    private void delete(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; used[next]; next = (next + 1) & mask) {
+            int home = hash(keysA[next], keysB[next]) & mask;
+            // Move the entry into the hole if its home is not within (hole, next].
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keysA[hole] = keysA[next];
+                keysB[hole] = keysB[next];
+                caches[hole] = caches[next];
+                stamps[hole] = stamps[next];
+                hole = next;
+            }
+        }
+        used[hole] = false;
+        size--;
+    }
+
+    /**
+     * Check if the table holds a cache for the given pair.
+     * @param a the id of the first object of the pair
+     * @param b the id of the second object of the pair
+     * @return true if present
+     */
+    public boolean contains(long a, long b) {
+        return find(a, b) >= 0;
+    }
+
+    /**
+     * Remove the cache of the given pair, e.g. when one of its objects is destroyed.
+     * @param a the id of the first object of the pair
+     * @param b the id of the second object of the pair
+     * @return true if the pair was present
+     */
+    public boolean remove(long a, long b) {
+        int slot = find(a, b);
+        if (slot < 0) return false;
+        delete(slot);
+        return true;
+    }
+
+    /**
+     * Start a new frame. Entries queried from now on are stamped with it.
+     * @return the new frame number
+     */
+    public int advance() {
+        return ++frame;
+    }
+
+    /**
+     * Get the current frame number.
+     * @return the frame
+     */
+    public int frame() {
+        return frame;
+    }
+
+    /**
+     * Remove in one pass every pair not queried during the last {@code maxAge} frames, the current one included.
+     * @param maxAge the number of frames a pair survives without being queried, at least 1
+     * @return the number of pairs removed
+     * @throws IllegalArgumentException if the age is not positive
+     */
+    public int evict(int maxAge) {
+        if (maxAge <= 0) throw new IllegalArgumentException("Max age must be positive, got " + maxAge);
+        int removed = 0;
+        // Walk from an empty slot, the load factor keeps one, so shifted entries are not skipped or visited twice.
+        int start = 0;
+        while (used[start]) start++;
+        for (int i = 1; i <= keysA.length; i++) {
+            int slot = (start + i) & mask;
+            while (used[slot] && frame - stamps[slot] >= maxAge) {
+                delete(slot);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Remove every pair, keeping the current frame and the table capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Get the number of pairs in the table.
+     * @return the pair count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of slots of the table, twice its maximum size before growing.
+     * @return the slot count
+     */
+    public int capacity() {
+        return keysA.length;
+    }
+
+    /**
+     * Get the number of bytes of cache data held by the table.
+     * @return the byte count, {@code size() * sizeof(b2SimplexCache)}
+     */
+    public long byteSize() {
+        return size * CacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SimplexCacheTable[size=%d, capacity=%d, frame=%d]", size, keysA.length, frame);
+    }
+}
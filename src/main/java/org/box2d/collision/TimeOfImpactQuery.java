@@ -0,0 +1,359 @@
+package org.box2d.collision;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2Sweep;
+import org.box2d.internal.b2TOIInput;
+import org.box2d.internal.b2TOIOutput;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.box2d.math.Transform;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Reusable time of impact query between two moving convex proxies, with {@code b2TimeOfImpact}.
+ * <p>
+ * Each proxy moves along a {@link b2Sweep}, built here from its start and end transforms and its local centre of mass,
+ * the way Box2D sweeps bodies over a step. The query owns its native {@link b2TOIInput} and {@link b2TOIOutput},
+ * so computing never allocates. The fraction is the normalized time in {@code [0, maxFraction]} at which the proxies
+ * first touch, and {@link #sweepTransformA(float, Transform)} gives the transforms at that time.
+ * </p>
+ * <p>
+ * A query is not thread safe, use one per thread.
+ * </p>
+ */
+public final class TimeOfImpactQuery {
+    /**
+     * The state of an unfinished computation, {@code b2_toiStateUnknown}.
+     */
+    public static final int StateUnknown = 0;
+    /**
+     * The root finder gave up, the fraction is a best effort, {@code b2_toiStateFailed}.
+     */
+    public static final int StateFailed = 1;
+    /**
+     * The proxies overlap at the start of the sweep, {@code b2_toiStateOverlapped}.
+     */
+    public static final int StateOverlapped = 2;
+    /**
+     * The proxies touch at the fraction, {@code b2_toiStateHit}.
+     */
+    public static final int StateHit = 3;
+    /**
+     * The proxies stay apart over the whole sweep, {@code b2_toiStateSeparated}.
+     */
+    public static final int StateSeparated = 4;
+
+    private static final long ProxyA = b2TOIInput.proxyA$offset();
+    private static final long ProxyB = b2TOIInput.proxyB$offset();
+    private static final long SweepA = b2TOIInput.sweepA$offset();
+    private static final long SweepB = b2TOIInput.sweepB$offset();
+    private static final long SweepSize = b2Sweep.layout().byteSize();
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long LocalCenter = b2Sweep.localCenter$offset();
+    private static final long Center1 = b2Sweep.c1$offset();
+    private static final long Center2 = b2Sweep.c2$offset();
+    private static final long Rotation1 = b2Sweep.q1$offset();
+    private static final long Rotation2 = b2Sweep.q2$offset();
+    private static final long PositionX = b2Transform.p$offset() + X;
+    private static final long PositionY = b2Transform.p$offset() + Y;
+    private static final long TransformRotation = b2Transform.q$offset();
+    private static final long Cosine = b2Rot.c$offset();
+    private static final long Sine = b2Rot.s$offset();
+
+    private final MemorySegment input;
+    private final MemorySegment output;
+    private final MemorySegment sweep;
+    private final SegmentAllocator allocator;
+    private final SegmentAllocator targetAllocator;
+    private MemorySegment target;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link TimeOfImpactQuery} with empty proxies, still sweeps at the origin and a max fraction of 1.
+     */
+    public TimeOfImpactQuery() {
+        this(Arena.ofAuto());
+    }
+
+    /**
+     * Create a new {@link TimeOfImpactQuery} in the given arena, with empty proxies, still sweeps at the origin and a max fraction of 1.
+     * @param arena the arena to allocate in
+     */
+    public TimeOfImpactQuery(Arena arena) {
+        input = arena.allocate(b2TOIInput.layout());
+        output = arena.allocate(b2TOIOutput.layout());
+        sweep = arena.allocate(b2Sweep.layout());
+        allocator = (byteSize, byteAlignment) -> output;
+        targetAllocator = (byteSize, byteAlignment) -> target;
+        input.set(ValueLayout.JAVA_FLOAT, SweepA + Rotation1 + Cosine, 1.0f);
+        input.set(ValueLayout.JAVA_FLOAT, SweepA + Rotation2 + Cosine, 1.0f);
+        input.set(ValueLayout.JAVA_FLOAT, SweepB + Rotation1 + Cosine, 1.0f);
+        input.set(ValueLayout.JAVA_FLOAT, SweepB + Rotation2 + Cosine, 1.0f);
+        maxFraction(1.0f);
+    }
+
+    /**
+     * Set proxy A to the given circle.
+     * @param circle the circle
+     * @return this
+     */
+    public TimeOfImpactQuery proxyA(Circle circle) {
+        ShapeProxies.set(input, ProxyA, circle);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given capsule.
+     * @param capsule the capsule
+     * @return this
+     */
+    public TimeOfImpactQuery proxyA(Capsule capsule) {
+        ShapeProxies.set(input, ProxyA, capsule);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given segment.
+     * @param segment the segment
+     * @return this
+     */
+    public TimeOfImpactQuery proxyA(Segment segment) {
+        ShapeProxies.set(input, ProxyA, segment);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given polygon.
+     * @param polygon the polygon
+     * @return this
+     */
+    public TimeOfImpactQuery proxyA(Polygon polygon) {
+        ShapeProxies.set(input, ProxyA, polygon);
+        return this;
+    }
+
+    /**
+     * Set proxy A to the given convex points.
+     * @param xy the interleaved points {@code x0, y0, x1, y1, ...}
+     * @param radius the rounding radius
+     * @return this
+     * @throws IllegalArgumentException if the length is odd, or there are not 1 to {@value Polygon#MaxVertices} points
+     */
+    public TimeOfImpactQuery proxyA(float[] xy, float radius) {
+        ShapeProxies.set(input, ProxyA, xy, radius);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given circle.
+     * @param circle the circle
+     * @return this
+     */
+    public TimeOfImpactQuery proxyB(Circle circle) {
+        ShapeProxies.set(input, ProxyB, circle);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given capsule.
+     * @param capsule the capsule
+     * @return this
+     */
+    public TimeOfImpactQuery proxyB(Capsule capsule) {
+        ShapeProxies.set(input, ProxyB, capsule);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given segment.
+     * @param segment the segment
+     * @return this
+     */
+    public TimeOfImpactQuery proxyB(Segment segment) {
+        ShapeProxies.set(input, ProxyB, segment);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given polygon.
+     * @param polygon the polygon
+     * @return this
+     */
+    public TimeOfImpactQuery proxyB(Polygon polygon) {
+        ShapeProxies.set(input, ProxyB, polygon);
+        return this;
+    }
+
+    /**
+     * Set proxy B to the given convex points.
+     * @param xy the interleaved points {@code x0, y0, x1, y1, ...}
+     * @param radius the rounding radius
+     * @return this
+     * @throws IllegalArgumentException if the length is odd, or there are not 1 to {@value Polygon#MaxVertices} points
+     */
+    public TimeOfImpactQuery proxyB(float[] xy, float radius) {
+        ShapeProxies.set(input, ProxyB, xy, radius);
+        return this;
+    }
+
+    /**
+     * Set the sweep of proxy A from its start and end transforms, moving about its origin.
+     * @param start the transform at the start of the sweep
+     * @param end the transform at the end of the sweep
+     * @return this
+     */
+    public TimeOfImpactQuery sweepA(Transform start, Transform end) {
+        setSweep(SweepA, start, end, 0.0f, 0.0f);
+        return this;
+    }
+
+    /**
+     * Set the sweep of proxy A from its start and end transforms, rotating about the given local centre of mass.
+     * @param start the transform at the start of the sweep
+     * @param end the transform at the end of the sweep
+     * @param localCenterX the local centre of mass x coordinate
+     * @param localCenterY the local centre of mass y coordinate
+     * @return this
+     */
+    public TimeOfImpactQuery sweepA(Transform start, Transform end, float localCenterX, float localCenterY) {
+        setSweep(SweepA, start, end, localCenterX, localCenterY);
+        return this;
+    }
+
+    /**
+     * Set the sweep of proxy B from its start and end transforms, moving about its origin.
+     * @param start the transform at the start of the sweep
+     * @param end the transform at the end of the sweep
+     * @return this
+     */
+    public TimeOfImpactQuery sweepB(Transform start, Transform end) {
+        setSweep(SweepB, start, end, 0.0f, 0.0f);
+        return this;
+    }
+
+    /**
+     * Set the sweep of proxy B from its start and end transforms, rotating about the given local centre of mass.
+     * @param start the transform at the start of the sweep
+     * @param end the transform at the end of the sweep
+     * @param localCenterX the local centre of mass x coordinate
+     * @param localCenterY the local centre of mass y coordinate
+     * @return this
+     */
+    public TimeOfImpactQuery sweepB(Transform start, Transform end, float localCenterX, float localCenterY) {
+        setSweep(SweepB, start, end, localCenterX, localCenterY);
+        return this;
+    }
+
+    private void setSweep(long offset, Transform start, Transform end, float localCenterX, float localCenterY) {
+        input.set(ValueLayout.JAVA_FLOAT, offset + LocalCenter + X, localCenterX);
+        input.set(ValueLayout.JAVA_FLOAT, offset + LocalCenter + Y, localCenterY);
+        setCenter(offset + Center1, offset + Rotation1, start.segment(), localCenterX, localCenterY);
+        setCenter(offset + Center2, offset + Rotation2, end.segment(), localCenterX, localCenterY);
+    }
+
+    // The world centre of mass is p + q * localCenter, as b2TransformPoint computes it.
+    private void setCenter(long center, long rotation, MemorySegment transform, float localCenterX, float localCenterY) {
+        float c = transform.get(ValueLayout.JAVA_FLOAT, TransformRotation + Cosine);
+        float s = transform.get(ValueLayout.JAVA_FLOAT, TransformRotation + Sine);
+        float x = (c * localCenterX - s * localCenterY) + transform.get(ValueLayout.JAVA_FLOAT, PositionX);
+        float y = (s * localCenterX + c * localCenterY) + transform.get(ValueLayout.JAVA_FLOAT, PositionY);
+        input.set(ValueLayout.JAVA_FLOAT, center + X, x);
+        input.set(ValueLayout.JAVA_FLOAT, center + Y, y);
+        input.set(ValueLayout.JAVA_FLOAT, rotation + Cosine, c);
+        input.set(ValueLayout.JAVA_FLOAT, rotation + Sine, s);
+    }
+
+    /**
+     * Set the maximum normalized time of the sweep to consider.
+     * @param maxFraction the max fraction, typically 1
+     * @return this
+     */
+    public TimeOfImpactQuery maxFraction(float maxFraction) {
+        b2TOIInput.maxFraction(input, maxFraction);
+        return this;
+    }
+
+    /**
+     * Get the maximum normalized time of the sweep to consider.
+     * @return the max fraction value
+     */
+    public float maxFraction() {
+        return b2TOIInput.maxFraction(input);
+    }
+
+    /**
+     * Compute the time of impact of the two sweeps.
+     * @return the fraction of the sweep at impact, or the max fraction if the proxies stay apart
+     */
+    public float compute() {
+        nBox2D.nTimeOfImpact(allocator, input);
+        return fraction();
+    }
+
+    /**
+     * Get the state of the last computation, one of the {@code State} constants.
+     * @return the state value
+     */
+    public int state() {
+        return b2TOIOutput.state(output);
+    }
+
+    /**
+     * Check if the proxies touch along the sweep in the last computation.
+     * @return true if the state is {@link #StateHit}
+     */
+    public boolean hit() {
+        return state() == StateHit;
+    }
+
+    /**
+     * Get the fraction of the last computation.
+     * @return the normalized time of impact value
+     */
+    public float fraction() {
+        return b2TOIOutput.fraction(output);
+    }
+
+    /**
+     * Get the transform of proxy A at the given normalized time of its sweep, with {@code b2GetSweepTransform}.
+     * @param time the normalized time, e.g. {@link #fraction()}
+     * @param out the {@link Transform} to write the result into
+     * @return the given output transform
+     */
+    public Transform sweepTransformA(float time, Transform out) {
+        return sweepTransform(SweepA, time, out);
+    }
+
+    /**
+     * Get the transform of proxy B at the given normalized time of its sweep, with {@code b2GetSweepTransform}.
+     * @param time the normalized time, e.g. {@link #fraction()}
+     * @param out the {@link Transform} to write the result into
+     * @return the given output transform
+     */
+    public Transform sweepTransformB(float time, Transform out) {
+        return sweepTransform(SweepB, time, out);
+    }
+
+    private Transform sweepTransform(long offset, float time, Transform out) {
+        MemorySegment.copy(input, offset, sweep, 0L, SweepSize);
+        target = out.segment();
+        nBox2D.nGetSweepTransform(targetAllocator, sweep, time);
+        target = null;
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimeOfImpactQuery[state=%d, fraction=%.3f, maxFraction=%.3f]", state(), fraction(), maxFraction());
+    }
+}
@@ -0,0 +1,474 @@
+package org.box2d.debug;
+
+import org.box2d.NativeLoader;
+import org.box2d.dynamics.World;
+import org.box2d.internal.b2AABB;
+import org.box2d.internal.b2DebugDraw;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Records the debug drawing of a {@link World} into off-heap {@link DrawBuffer}s.
+ * <p>
+ * Instead of forwarding each primitive to a listener, the {@link b2DebugDraw} callbacks append into typed buffers:
+ * outlines become {@link #lines()}, solid polygons and capsule bodies become {@link #triangles()},
+ * circles go to {@link #circles()} or {@link #solidCircles()} and points to {@link #points()}.
+ * Rounded polygons and capsules keep their radius: their edges are grown by triangles and their corners by solid circles.
+ * Strings are counted but not recorded.
+ * </p>
+ * <p>
+ * The upcall stubs and the {@link b2DebugDraw} are created once per recorder, and the buffers keep their capacity
+ * between frames. When drawing bounds are set, Box2D culls shapes by them,
+ * and primitives outside the bounds are dropped as well.
+ * </p>
+ * A recorder is not thread safe.
+ */
+public final class DebugDrawRecorder {
+    /**
+     * Length of the axes recorded for a drawn transform.
+     */
+    public static final float AxisScale = 0.2f;
+
+    /**
+     * Floats per line record: {@code x1, y1, x2, y2}.
+     */
+    public static final int LineFloats = 4;
+
+    /**
+     * Floats per triangle record: {@code x1, y1, x2, y2, x3, y3}.
+     */
+    public static final int TriangleFloats = 6;
+
+    /**
+     * Floats per circle record: {@code x, y, radius}.
+     */
+    public static final int CircleFloats = 3;
+
+    /**
+     * Floats per point record: {@code x, y, size}, the size being in pixels.
+     */
+    public static final int PointFloats = 3;
+
+    private static final int InitialCapacity = 256;
+    private static final int AxisXColor = 0xFF0000;
+    private static final int AxisYColor = 0x00FF00;
+
+    private static final long PositionX = b2Transform.p$offset() + b2Vec2.x$offset();
+    private static final long PositionY = b2Transform.p$offset() + b2Vec2.y$offset();
+    private static final long RotationC = b2Transform.q$offset() + b2Rot.c$offset();
+    private static final long RotationS = b2Transform.q$offset() + b2Rot.s$offset();
+    private static final long Vec2Size = b2Vec2.layout().byteSize();
+
+    private final MemorySegment draw;
+    private final DrawBuffer lines = new DrawBuffer(LineFloats, InitialCapacity);
+    private final DrawBuffer triangles = new DrawBuffer(TriangleFloats, InitialCapacity);
+    private final DrawBuffer circles = new DrawBuffer(CircleFloats, InitialCapacity);
+    private final DrawBuffer solidCircles = new DrawBuffer(CircleFloats, InitialCapacity);
+    private final DrawBuffer points = new DrawBuffer(PointFloats, InitialCapacity);
+    private int stringCount;
+    // Transformed vertices of the solid polygon being drawn.
+    private float[] polygon = new float[16];
+
+    private boolean cull;
+    private float lowerX, lowerY, upperX, upperY;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link DebugDrawRecorder} that records shapes only, without drawing bounds.
+     */
+    public DebugDrawRecorder() {
+        Arena arena = Arena.ofAuto();
+        draw = nBox2D.nDefaultDebugDraw();
+        b2DebugDraw.DrawPolygonFcn(draw, b2DebugDraw.DrawPolygonFcn.allocate(this::drawPolygon, arena));
+        b2DebugDraw.DrawSolidPolygonFcn(draw, b2DebugDraw.DrawSolidPolygonFcn.allocate(this::drawSolidPolygon, arena));
+        b2DebugDraw.DrawCircleFcn(draw, b2DebugDraw.DrawCircleFcn.allocate(this::drawCircle, arena));
+        b2DebugDraw.DrawSolidCircleFcn(draw, b2DebugDraw.DrawSolidCircleFcn.allocate(this::drawSolidCircle, arena));
+        b2DebugDraw.DrawSolidCapsuleFcn(draw, b2DebugDraw.DrawSolidCapsuleFcn.allocate(this::drawSolidCapsule, arena));
+        b2DebugDraw.DrawSegmentFcn(draw, b2DebugDraw.DrawSegmentFcn.allocate(this::drawSegment, arena));
+        b2DebugDraw.DrawTransformFcn(draw, b2DebugDraw.DrawTransformFcn.allocate(this::drawTransform, arena));
+        b2DebugDraw.DrawPointFcn(draw, b2DebugDraw.DrawPointFcn.allocate(this::drawPoint, arena));
+        b2DebugDraw.DrawStringFcn(draw, b2DebugDraw.DrawStringFcn.allocate(this::drawString, arena));
+    }
+
+    /**
+     * Clear all buffers and record the current debug drawing of the given world.
+     * @param world the world to draw
+     * @throws IllegalStateException if the world is stepping
+     */
+    public void record(World world) {
+        if (world.isStepping()) throw new IllegalStateException("World is stepping, wait for the step to complete");
+        clear();
+        nBox2D.nWorldDraw(world.segment(), draw);
+    }
+
+    /**
+     * Clear all buffers, keeping their capacity.
+     */
+    public void clear() {
+        lines.clear();
+        triangles.clear();
+        circles.clear();
+        solidCircles.clear();
+        points.clear();
+        stringCount = 0;
+    }
+
+    /**
+     * Restrict the drawing to the given bounds.
+     * @param lowerX the lower bound x coordinate
+     * @param lowerY the lower bound y coordinate
+     * @param upperX the upper bound x coordinate
+     * @param upperY the upper bound y coordinate
+     * @return this
+     */
+    public DebugDrawRecorder drawingBounds(float lowerX, float lowerY, float upperX, float upperY) {
+        this.lowerX = lowerX;
+        this.lowerY = lowerY;
+        this.upperX = upperX;
+        this.upperY = upperY;
+        MemorySegment bounds = b2DebugDraw.drawingBounds(draw);
+        b2Vec2.x(b2AABB.lowerBound(bounds), lowerX);
+        b2Vec2.y(b2AABB.lowerBound(bounds), lowerY);
+        b2Vec2.x(b2AABB.upperBound(bounds), upperX);
+        b2Vec2.y(b2AABB.upperBound(bounds), upperY);
+        b2DebugDraw.useDrawingBounds(draw, true);
+        cull = true;
+        return this;
+    }
+
+    /**
+     * Remove the drawing bounds, drawing the whole world.
+     * @return this
+     */
+    public DebugDrawRecorder clearDrawingBounds() {
+        b2DebugDraw.useDrawingBounds(draw, false);
+        cull = false;
+        return this;
+    }
+
+    /**
+     * Set whether shapes are drawn, true by default.
+     * @param flag true to draw shapes
+     * @return this
+     */
+    public DebugDrawRecorder drawShapes(boolean flag) {
+        b2DebugDraw.drawShapes(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether joints are drawn.
+     * @param flag true to draw joints
+     * @return this
+     */
+    public DebugDrawRecorder drawJoints(boolean flag) {
+        b2DebugDraw.drawJoints(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether additional joint information is drawn.
+     * @param flag true to draw joint extras
+     * @return this
+     */
+    public DebugDrawRecorder drawJointExtras(boolean flag) {
+        b2DebugDraw.drawJointExtras(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether the bounding boxes of shapes are drawn.
+     * @param flag true to draw bounds
+     * @return this
+     */
+    public DebugDrawRecorder drawBounds(boolean flag) {
+        b2DebugDraw.drawBounds(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether the mass and centre of mass of bodies are drawn.
+     * @param flag true to draw mass
+     * @return this
+     */
+    public DebugDrawRecorder drawMass(boolean flag) {
+        b2DebugDraw.drawMass(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether contact points are drawn.
+     * @param flag true to draw contacts
+     * @return this
+     */
+    public DebugDrawRecorder drawContacts(boolean flag) {
+        b2DebugDraw.drawContacts(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether the graph coloring of contact constraints is drawn.
+     * @param flag true to draw graph colors
+     * @return this
+     */
+    public DebugDrawRecorder drawGraphColors(boolean flag) {
+        b2DebugDraw.drawGraphColors(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether contact normals are drawn.
+     * @param flag true to draw contact normals
+     * @return this
+     */
+    public DebugDrawRecorder drawContactNormals(boolean flag) {
+        b2DebugDraw.drawContactNormals(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether contact normal impulses are drawn.
+     * @param flag true to draw contact impulses
+     * @return this
+     */
+    public DebugDrawRecorder drawContactImpulses(boolean flag) {
+        b2DebugDraw.drawContactImpulses(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether contact friction impulses are drawn.
+     * @param flag true to draw friction impulses
+     * @return this
+     */
+    public DebugDrawRecorder drawFrictionImpulses(boolean flag) {
+        b2DebugDraw.drawFrictionImpulses(draw, flag);
+        return this;
+    }
+
+    /**
+     * Set whether islands are drawn as bounding boxes.
+     * @param flag true to draw islands
+     * @return this
+     */
+    public DebugDrawRecorder drawIslands(boolean flag) {
+        b2DebugDraw.drawIslands(draw, flag);
+        return this;
+    }
+
+    /**
+     * Get the recorded lines, from outlines, segments, transforms and solid circle axes.
+     * @return the line buffer, {@value #LineFloats} floats per record
+     */
+    public DrawBuffer lines() {
+        return lines;
+    }
+
+    /**
+     * Get the recorded triangles, from solid polygons, the edges of rounded ones and capsule bodies.
+     * @return the triangle buffer, {@value #TriangleFloats} floats per record
+     */
+    public DrawBuffer triangles() {
+        return triangles;
+    }
+
+    /**
+     * Get the recorded circle outlines.
+     * @return the circle buffer, {@value #CircleFloats} floats per record
+     */
+    public DrawBuffer circles() {
+        return circles;
+    }
+
+    /**
+     * Get the recorded solid circles, including capsule caps and the corners of rounded polygons.
+     * @return the solid circle buffer, {@value #CircleFloats} floats per record
+     */
+    public DrawBuffer solidCircles() {
+        return solidCircles;
+    }
+
+    /**
+     * Get the recorded points.
+     * @return the point buffer, {@value #PointFloats} floats per record
+     */
+    public DrawBuffer points() {
+        return points;
+    }
+
+    /**
+     * Get the number of strings Box2D requested to draw in the last recording.
+     * @return the string count
+     */
+    public int stringCount() {
+        return stringCount;
+    }
+
+    /**
+     * Get the memory segment of the {@link b2DebugDraw} used by this recorder.
+     * @return the underlying memory segment
+     */
+    public MemorySegment segment() {
+        return draw;
+    }
+
+    private boolean culled(float minX, float minY, float maxX, float maxY) {
+        return cull && (maxX < lowerX || maxY < lowerY || upperX < minX || upperY < minY);
+    }
+
+    private void line(float x1, float y1, float x2, float y2, int color) {
+        if (culled(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2))) return;
+        long offset = lines.append();
+        lines.put(offset, 0, x1);
+        lines.put(offset, 1, y1);
+        lines.put(offset, 2, x2);
+        lines.put(offset, 3, y2);
+        lines.putColor(offset, color);
+    }
+
+    private void triangle(float x1, float y1, float x2, float y2, float x3, float y3, int color) {
+        if (culled(Math.min(x1, Math.min(x2, x3)), Math.min(y1, Math.min(y2, y3)), Math.max(x1, Math.max(x2, x3)), Math.max(y1, Math.max(y2, y3)))) return;
+        long offset = triangles.append();
+        triangles.put(offset, 0, x1);
+        triangles.put(offset, 1, y1);
+        triangles.put(offset, 2, x2);
+        triangles.put(offset, 3, y2);
+        triangles.put(offset, 4, x3);
+        triangles.put(offset, 5, y3);
+        triangles.putColor(offset, color);
+    }
+
+    private void circle(DrawBuffer buffer, float x, float y, float radius, int color) {
+        if (culled(x - radius, y - radius, x + radius, y + radius)) return;
+        long offset = buffer.append();
+        buffer.put(offset, 0, x);
+        buffer.put(offset, 1, y);
+        buffer.put(offset, 2, radius);
+        buffer.putColor(offset, color);
+    }
+
+    private void drawPolygon(MemorySegment vertices, int count, int color, MemorySegment context) {
+        MemorySegment vs = vertices.reinterpret(Vec2Size * count);
+        float prevX = vs.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * (count - 1));
+        float prevY = vs.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * (count - 1) + 1);
+        for (int i = 0; i < count; i++) {
+            float vx = vs.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i);
+            float vy = vs.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1);
+            line(prevX, prevY, vx, vy, color);
+            prevX = vx;
+            prevY = vy;
+        }
+    }
+
+    private void drawSolidPolygon(MemorySegment transform, MemorySegment vertices, int count, float radius, int color, MemorySegment context) {
+        MemorySegment vs = vertices.reinterpret(Vec2Size * count);
+        float px = transform.get(ValueLayout.JAVA_FLOAT, PositionX);
+        float py = transform.get(ValueLayout.JAVA_FLOAT, PositionY);
+        float c = transform.get(ValueLayout.JAVA_FLOAT, RotationC);
+        float s = transform.get(ValueLayout.JAVA_FLOAT, RotationS);
+        if (polygon.length < 2 * count) polygon = new float[2 * count];
+        for (int i = 0; i < count; i++) {
+            float lx = vs.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i);
+            float ly = vs.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1);
+            polygon[2 * i] = c * lx - s * ly + px;
+            polygon[2 * i + 1] = s * lx + c * ly + py;
+        }
+        for (int i = 2; i < count; i++) {
+            triangle(polygon[0], polygon[1], polygon[2 * i - 2], polygon[2 * i - 1], polygon[2 * i], polygon[2 * i + 1], color);
+        }
+        if (radius <= 0.0f) return;
+        // Rounded polygon, the core is grown by a quad along each edge and a cap at each vertex, as for capsules.
+        float prevX = polygon[2 * count - 2];
+        float prevY = polygon[2 * count - 1];
+        for (int i = 0; i < count; i++) {
+            float x = polygon[2 * i];
+            float y = polygon[2 * i + 1];
+            circle(solidCircles, x, y, radius, color);
+            float dx = x - prevX;
+            float dy = y - prevY;
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            if (length > 0.0f) {
+                // Outward normal of a counter-clockwise edge.
+                float nx = dy / length * radius;
+                float ny = -dx / length * radius;
+                triangle(prevX, prevY, x, y, x + nx, y + ny, color);
+                triangle(prevX, prevY, x + nx, y + ny, prevX + nx, prevY + ny, color);
+            }
+            prevX = x;
+            prevY = y;
+        }
+    }
+
+    private void drawCircle(MemorySegment center, float radius, int color, MemorySegment context) {
+        circle(circles, b2Vec2.x(center), b2Vec2.y(center), radius, color);
+    }
+
+    private void drawSolidCircle(MemorySegment transform, float radius, int color, MemorySegment context) {
+        float px = transform.get(ValueLayout.JAVA_FLOAT, PositionX);
+        float py = transform.get(ValueLayout.JAVA_FLOAT, PositionY);
+        float c = transform.get(ValueLayout.JAVA_FLOAT, RotationC);
+        float s = transform.get(ValueLayout.JAVA_FLOAT, RotationS);
+        circle(solidCircles, px, py, radius, color);
+        line(px, py, px + radius * c, py + radius * s, color);
+    }
+
+    private void drawSolidCapsule(MemorySegment point1, MemorySegment point2, float radius, int color, MemorySegment context) {
+        float x1 = b2Vec2.x(point1);
+        float y1 = b2Vec2.y(point1);
+        float x2 = b2Vec2.x(point2);
+        float y2 = b2Vec2.y(point2);
+        circle(solidCircles, x1, y1, radius, color);
+        circle(solidCircles, x2, y2, radius, color);
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length == 0.0f) return;
+        float nx = -dy / length * radius;
+        float ny = dx / length * radius;
+        triangle(x1 + nx, y1 + ny, x1 - nx, y1 - ny, x2 - nx, y2 - ny, color);
+        triangle(x1 + nx, y1 + ny, x2 - nx, y2 - ny, x2 + nx, y2 + ny, color);
+    }
+
+    private void drawSegment(MemorySegment point1, MemorySegment point2, int color, MemorySegment context) {
+        line(b2Vec2.x(point1), b2Vec2.y(point1), b2Vec2.x(point2), b2Vec2.y(point2), color);
+    }
+
+    private void drawTransform(MemorySegment transform, MemorySegment context) {
+        float px = transform.get(ValueLayout.JAVA_FLOAT, PositionX);
+        float py = transform.get(ValueLayout.JAVA_FLOAT, PositionY);
+        float c = transform.get(ValueLayout.JAVA_FLOAT, RotationC);
+        float s = transform.get(ValueLayout.JAVA_FLOAT, RotationS);
+        line(px, py, px + AxisScale * c, py + AxisScale * s, AxisXColor);
+        line(px, py, px - AxisScale * s, py + AxisScale * c, AxisYColor);
+    }
+
+    private void drawPoint(MemorySegment point, float size, int color, MemorySegment context) {
+        float x = b2Vec2.x(point);
+        float y = b2Vec2.y(point);
+        if (culled(x, y, x, y)) return;
+        long offset = points.append();
+        points.put(offset, 0, x);
+        points.put(offset, 1, y);
+        points.put(offset, 2, size);
+        points.putColor(offset, color);
+    }
+
+    private void drawString(MemorySegment point, MemorySegment string, int color, MemorySegment context) {
+        stringCount++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DebugDrawRecorder[lines=%d, triangles=%d, circles=%d, solidCircles=%d, points=%d]",
+                lines.count(), triangles.count(), circles.count(), solidCircles.count(), points.count());
+    }
+}
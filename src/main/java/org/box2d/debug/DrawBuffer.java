@@ -0,0 +1,132 @@
+package org.box2d.debug;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Growable off-heap buffer of fixed size draw records.
+ * <p>
+ * Each record is {@link #floatCount()} floats followed by one {@code int} color in {@code 0xRRGGBB},
+ * packed with a stride of {@link #stride()} bytes, so a consumer can read a whole buffer in one pass
+ * through {@link #segment()}.
+ * </p>
+ * Buffers are filled by {@link DebugDrawRecorder} and are not thread safe.
+ */
+public final class DrawBuffer {
+    private final int floatCount;
+    private final long stride;
+    private MemorySegment segment;
+    private int capacity;
+    private int count;
+
+    DrawBuffer(int floatCount, int initialCapacity) {
+        this.floatCount = floatCount;
+        this.stride = (floatCount + 1) * Float.BYTES;
+        this.capacity = Math.max(initialCapacity, 1);
+        this.segment = Arena.ofAuto().allocate(stride * capacity, Float.BYTES);
+    }
+
+    /**
+     * Create a new {@link DrawBuffer} holding a copy of this buffer's records, sized to fit them exactly.
+     * @return a new {@link DrawBuffer}
+     */
+    public DrawBuffer copy() {
+        DrawBuffer copy = new DrawBuffer(floatCount, count);
+        MemorySegment.copy(segment, 0L, copy.segment, 0L, stride * count);
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * Reserve the next record, growing the buffer when full.
+     * @return the byte offset of the reserved record
+     */
+    long append() {
+        if (count == capacity) {
+            int newCapacity = capacity * 2;
+            MemorySegment grown = Arena.ofAuto().allocate(stride * newCapacity, Float.BYTES);
+            MemorySegment.copy(segment, 0L, grown, 0L, stride * count);
+            segment = grown;
+            capacity = newCapacity;
+        }
+        return stride * count++;
+    }
+
+    void put(long offset, int field, float value) {
+        segment.set(ValueLayout.JAVA_FLOAT, offset + (long) field * Float.BYTES, value);
+    }
+
+    void putColor(long offset, int color) {
+        segment.set(ValueLayout.JAVA_INT, offset + (long) floatCount * Float.BYTES, color);
+    }
+
+    /**
+     * Remove all records, keeping the allocated capacity.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Get the number of records in this buffer.
+     * @return the record count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Get the number of float fields per record, excluding the color.
+     * @return the float field count
+     */
+    public int floatCount() {
+        return floatCount;
+    }
+
+    /**
+     * Get the size of one record in bytes.
+     * @return the record stride
+     */
+    public long stride() {
+        return stride;
+    }
+
+    /**
+     * Get a float field of a record.
+     * @param record the record index, in {@code [0, count())}
+     * @param field the field index, in {@code [0, floatCount())}
+     * @return the field value
+     * @throws IndexOutOfBoundsException if the record or field index is out of range
+     */
+    public float get(int record, int field) {
+        if (record < 0 || record >= count) throw new IndexOutOfBoundsException("Record index out of range: " + record);
+        if (field < 0 || field >= floatCount) throw new IndexOutOfBoundsException("Field index out of range: " + field);
+        return segment.get(ValueLayout.JAVA_FLOAT, stride * record + (long) field * Float.BYTES);
+    }
+
+    /**
+     * Get the color of a record.
+     * @param record the record index, in {@code [0, count())}
+     * @return the color in {@code 0xRRGGBB}
+     * @throws IndexOutOfBoundsException if the record index is out of range
+     */
+    public int color(int record) {
+        if (record < 0 || record >= count) throw new IndexOutOfBoundsException("Record index out of range: " + record);
+        return segment.get(ValueLayout.JAVA_INT, stride * record + (long) floatCount * Float.BYTES);
+    }
+
+    /**
+     * Get the memory segment holding the current records.
+     * The segment is only valid until the next record is appended, as growing replaces the storage.
+     * @return a slice of {@code count() * stride()} bytes
+     */
+    public MemorySegment segment() {
+        return segment.asSlice(0L, stride * count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DrawBuffer[count=%d, capacity=%d, floats=%d]", count, capacity, floatCount);
+    }
+}
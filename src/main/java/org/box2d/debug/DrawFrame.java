@@ -0,0 +1,80 @@
+package org.box2d.debug;
+
+/**
+ * Immutable snapshot of one recorded debug drawing.
+ * <p>
+ * A {@link DebugDrawRecorder} reuses its buffers every recording, so a frame copies them
+ * to be kept across steps and rendered later, possibly on another thread.
+ * </p>
+ */
+public final class DrawFrame {
+    private final DrawBuffer lines;
+    private final DrawBuffer triangles;
+    private final DrawBuffer circles;
+    private final DrawBuffer solidCircles;
+    private final DrawBuffer points;
+
+    DrawFrame(DrawBuffer lines, DrawBuffer triangles, DrawBuffer circles, DrawBuffer solidCircles, DrawBuffer points) {
+        this.lines = lines;
+        this.triangles = triangles;
+        this.circles = circles;
+        this.solidCircles = solidCircles;
+        this.points = points;
+    }
+
+    /**
+     * Capture the current content of a recorder.
+     * @param recorder the recorder to copy the buffers from
+     * @return a new {@link DrawFrame}
+     */
+    public static DrawFrame capture(DebugDrawRecorder recorder) {
+        return new DrawFrame(recorder.lines().copy(), recorder.triangles().copy(), recorder.circles().copy(),
+                recorder.solidCircles().copy(), recorder.points().copy());
+    }
+
+    /**
+     * Get the lines of this frame.
+     * @return the line buffer, must not be modified
+     */
+    public DrawBuffer lines() {
+        return lines;
+    }
+
+    /**
+     * Get the triangles of this frame.
+     * @return the triangle buffer, must not be modified
+     */
+    public DrawBuffer triangles() {
+        return triangles;
+    }
+
+    /**
+     * Get the circle outlines of this frame.
+     * @return the circle buffer, must not be modified
+     */
+    public DrawBuffer circles() {
+        return circles;
+    }
+
+    /**
+     * Get the solid circles of this frame.
+     * @return the solid circle buffer, must not be modified
+     */
+    public DrawBuffer solidCircles() {
+        return solidCircles;
+    }
+
+    /**
+     * Get the points of this frame.
+     * @return the point buffer, must not be modified
+     */
+    public DrawBuffer points() {
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DrawFrame[lines=%d, triangles=%d, circles=%d, solidCircles=%d, points=%d]",
+                lines.count(), triangles.count(), circles.count(), solidCircles.count(), points.count());
+    }
+}
@@ -0,0 +1,387 @@
+package org.box2d.debug;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * CPU rasterizer for {@link DrawFrame}s, renders to an in-memory {@code 0xRRGGBB} pixel array and encodes PNG or SVG.
+ * <p>
+ * It has no AWT dependency, so it works on servers without a display or GPU.
+ * A world space view rectangle is mapped onto the image, with the y-axis pointing up.
+ * Primitives are painted in the order triangles, solid circles, circles, lines and points, without blending.
+ * When the view does not have the aspect ratio of the image, circles are painted as the ellipses they map to.
+ * </p>
+ * A rasterizer is immutable and may render different frames from many threads at once.
+ */
+public final class FrameRasterizer {
+    private static final byte[] PngSignature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final int width;
+    private final int height;
+    private final int pixelCount;
+    private final float minX, minY, maxX, maxY;
+    private final float scaleX, scaleY;
+    private final int background;
+
+    /**
+     * Create a new {@link FrameRasterizer} for the given image size and world view.
+     * @param width the image width in pixels
+     * @param height the image height in pixels
+     * @param minX the world x coordinate at the left edge
+     * @param minY the world y coordinate at the bottom edge
+     * @param maxX the world x coordinate at the right edge
+     * @param maxY the world y coordinate at the top edge
+     * @param background the background color in {@code 0xRRGGBB}
+     * @throws IllegalArgumentException if the image size is not positive or too large, or the view is empty
+     */
+    public FrameRasterizer(int width, int height, float minX, float minY, float maxX, float maxY, int background) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException(String.format("Image size must be positive, got %dx%d", width, height));
+        if (!(maxX > minX) || !(maxY > minY)) throw new IllegalArgumentException("View rectangle must not be empty");
+        try {
+            // The PNG rows, one filter byte and 3 bytes per pixel, are the largest array.
+            Math.multiplyExact(Math.addExact(1, Math.multiplyExact(width, 3)), height);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Image size too large, got %dx%d", width, height));
+        }
+        this.width = width;
+        this.height = height;
+        this.pixelCount = width * height;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.scaleX = width / (maxX - minX);
+        this.scaleY = height / (maxY - minY);
+        this.background = background & 0xFFFFFF;
+    }
+
+    /**
+     * Get the image width.
+     * @return the width in pixels
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Get the image height.
+     * @return the height in pixels
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Render a frame into a new pixel array.
+     * @param frame the frame to render
+     * @return the {@code 0xRRGGBB} pixels, row major from the top left
+     */
+    public int[] render(DrawFrame frame) {
+        int[] pixels = new int[pixelCount];
+        render(frame, pixels);
+        return pixels;
+    }
+
+    /**
+     * Render a frame into the given pixel array, clearing it to the background first.
+     * @param frame the frame to render
+     * @param pixels the {@code 0xRRGGBB} pixels, row major from the top left, at least {@code width * height} long
+     * @throws IllegalArgumentException if the pixel array is too small
+     */
+    public void render(DrawFrame frame, int[] pixels) {
+        if (pixels.length < pixelCount) throw new IllegalArgumentException("Pixel array too small: " + pixels.length);
+        Arrays.fill(pixels, 0, pixelCount, background);
+
+        DrawBuffer triangles = frame.triangles();
+        for (int i = 0, n = triangles.count(); i < n; i++) {
+            fillTriangle(pixels, px(triangles.get(i, 0)), py(triangles.get(i, 1)), px(triangles.get(i, 2)), py(triangles.get(i, 3)),
+                    px(triangles.get(i, 4)), py(triangles.get(i, 5)), triangles.color(i));
+        }
+        DrawBuffer solidCircles = frame.solidCircles();
+        for (int i = 0, n = solidCircles.count(); i < n; i++) {
+            fillEllipse(pixels, px(solidCircles.get(i, 0)), py(solidCircles.get(i, 1)), solidCircles.get(i, 2) * scaleX, solidCircles.get(i, 2) * scaleY, solidCircles.color(i));
+        }
+        DrawBuffer circles = frame.circles();
+        for (int i = 0, n = circles.count(); i < n; i++) {
+            strokeEllipse(pixels, px(circles.get(i, 0)), py(circles.get(i, 1)), circles.get(i, 2) * scaleX, circles.get(i, 2) * scaleY, circles.color(i));
+        }
+        DrawBuffer lines = frame.lines();
+        for (int i = 0, n = lines.count(); i < n; i++) {
+            strokeLine(pixels, px(lines.get(i, 0)), py(lines.get(i, 1)), px(lines.get(i, 2)), py(lines.get(i, 3)), lines.color(i));
+        }
+        DrawBuffer points = frame.points();
+        for (int i = 0, n = points.count(); i < n; i++) {
+            fillPoint(pixels, px(points.get(i, 0)), py(points.get(i, 1)), points.get(i, 2), points.color(i));
+        }
+    }
+
+    /**
+     * Render a frame and encode it as an RGB PNG image.
+     * @param frame the frame to render
+     * @return the PNG file content
+     */
+    public byte[] encodePng(DrawFrame frame) {
+        return encodePng(render(frame));
+    }
+
+    /**
+     * Render and encode many frames as PNG in parallel, one task per frame on the common pool.
+     * @param frames the frames to render
+     * @return the PNG file contents, in frame order
+     */
+    public byte[][] encodePngAll(List<DrawFrame> frames) {
+        byte[][] images = new byte[frames.size()][];
+        // Each task renders into its own pixels, garbage once encoded, nothing stays attached to the pool threads.
+        IntStream.range(0, images.length).parallel().forEach(i -> images[i] = encodePng(render(frames.get(i))));
+        return images;
+    }
+
+    /**
+     * Encode rendered pixels as an RGB PNG image.
+     * @param pixels the {@code 0xRRGGBB} pixels, row major from the top left
+     * @return the PNG file content
+     */
+    public byte[] encodePng(int[] pixels) {
+        int rowBytes = 1 + width * 3;
+        byte[] raw = new byte[rowBytes * height];
+        for (int y = 0; y < height; y++) {
+            int offset = y * rowBytes;
+            raw[offset++] = 0;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[y * width + x];
+                raw[offset++] = (byte) (rgb >>> 16);
+                raw[offset++] = (byte) (rgb >>> 8);
+                raw[offset++] = (byte) rgb;
+            }
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                compressed.write(chunk, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;
+        header[9] = 2;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.size() + 64);
+        out.writeBytes(PngSignature);
+        writeChunk(out, "IHDR", header);
+        writeChunk(out, "IDAT", compressed.toByteArray());
+        writeChunk(out, "IEND", new byte[0]);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode a frame as an SVG document, in image pixel coordinates.
+     * @param frame the frame to encode
+     * @return the SVG document
+     */
+    public String encodeSvg(DrawFrame frame) {
+        StringBuilder svg = new StringBuilder(256);
+        svg.append(String.format(Locale.ROOT, "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\">\n", width, height, width, height));
+        svg.append(String.format(Locale.ROOT, "<rect width=\"100%%\" height=\"100%%\" fill=\"#%06X\"/>\n", background));
+
+        DrawBuffer triangles = frame.triangles();
+        for (int i = 0, n = triangles.count(); i < n; i++) {
+            svg.append(String.format(Locale.ROOT, "<polygon points=\"%.2f,%.2f %.2f,%.2f %.2f,%.2f\" fill=\"#%06X\"/>\n",
+                    px(triangles.get(i, 0)), py(triangles.get(i, 1)), px(triangles.get(i, 2)), py(triangles.get(i, 3)),
+                    px(triangles.get(i, 4)), py(triangles.get(i, 5)), triangles.color(i)));
+        }
+        DrawBuffer solidCircles = frame.solidCircles();
+        for (int i = 0, n = solidCircles.count(); i < n; i++) {
+            svg.append(String.format(Locale.ROOT, "<ellipse cx=\"%.2f\" cy=\"%.2f\" rx=\"%.2f\" ry=\"%.2f\" fill=\"#%06X\"/>\n",
+                    px(solidCircles.get(i, 0)), py(solidCircles.get(i, 1)), solidCircles.get(i, 2) * scaleX, solidCircles.get(i, 2) * scaleY, solidCircles.color(i)));
+        }
+        DrawBuffer circles = frame.circles();
+        for (int i = 0, n = circles.count(); i < n; i++) {
+            svg.append(String.format(Locale.ROOT, "<ellipse cx=\"%.2f\" cy=\"%.2f\" rx=\"%.2f\" ry=\"%.2f\" fill=\"none\" stroke=\"#%06X\"/>\n",
+                    px(circles.get(i, 0)), py(circles.get(i, 1)), circles.get(i, 2) * scaleX, circles.get(i, 2) * scaleY, circles.color(i)));
+        }
+        DrawBuffer lines = frame.lines();
+        for (int i = 0, n = lines.count(); i < n; i++) {
+            svg.append(String.format(Locale.ROOT, "<line x1=\"%.2f\" y1=\"%.2f\" x2=\"%.2f\" y2=\"%.2f\" stroke=\"#%06X\"/>\n",
+                    px(lines.get(i, 0)), py(lines.get(i, 1)), px(lines.get(i, 2)), py(lines.get(i, 3)), lines.color(i)));
+        }
+        DrawBuffer points = frame.points();
+        for (int i = 0, n = points.count(); i < n; i++) {
+            float size = points.get(i, 2);
+            svg.append(String.format(Locale.ROOT, "<rect x=\"%.2f\" y=\"%.2f\" width=\"%.2f\" height=\"%.2f\" fill=\"#%06X\"/>\n",
+                    px(points.get(i, 0)) - size * 0.5f, py(points.get(i, 1)) - size * 0.5f, size, size, points.color(i)));
+        }
+        return svg.append("</svg>\n").toString();
+    }
+
+    private float px(float worldX) {
+        return (worldX - minX) * scaleX;
+    }
+
+    private float py(float worldY) {
+        return (maxY - worldY) * scaleY;
+    }
+
+    private void plot(int[] pixels, int x, int y, int color) {
+        if (x >= 0 && x < width && y >= 0 && y < height) pixels[y * width + x] = color & 0xFFFFFF;
+    }
+
+    private void strokeLine(int[] pixels, float x1, float y1, float x2, float y2, int color) {
+        // Clip to the image first (Liang-Barsky), so far off-screen spans are not stepped through pixel by pixel.
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        float t0 = 0.0f;
+        float t1 = 1.0f;
+        for (int edge = 0; edge < 4; edge++) {
+            float p = edge == 0 ? -dx : edge == 1 ? dx : edge == 2 ? -dy : dy;
+            float q = edge == 0 ? x1 : edge == 1 ? width - x1 : edge == 2 ? y1 : height - y1;
+            if (p == 0.0f) {
+                if (q < 0.0f) return;
+                continue;
+            }
+            float t = q / p;
+            if (p < 0.0f) t0 = Math.max(t0, t);
+            else t1 = Math.min(t1, t);
+            if (t0 > t1) return;
+        }
+        int x = (int) Math.floor(x1 + t0 * dx);
+        int y = (int) Math.floor(y1 + t0 * dy);
+        int endX = (int) Math.floor(x1 + t1 * dx);
+        int endY = (int) Math.floor(y1 + t1 * dy);
+        int deltaX = Math.abs(endX - x);
+        int deltaY = -Math.abs(endY - y);
+        int stepX = x < endX ? 1 : -1;
+        int stepY = y < endY ? 1 : -1;
+        int error = deltaX + deltaY;
+        while (true) {
+            plot(pixels, x, y, color);
+            if (x == endX && y == endY) break;
+            int e2 = 2 * error;
+            if (e2 >= deltaY) {
+                error += deltaY;
+                x += stepX;
+            }
+            if (e2 <= deltaX) {
+                error += deltaX;
+                y += stepY;
+            }
+        }
+    }
+
+    private void fillTriangle(int[] pixels, float x1, float y1, float x2, float y2, float x3, float y3, int color) {
+        int left = Math.max(0, (int) Math.floor(Math.min(x1, Math.min(x2, x3))));
+        int right = Math.min(width - 1, (int) Math.ceil(Math.max(x1, Math.max(x2, x3))));
+        int top = Math.max(0, (int) Math.floor(Math.min(y1, Math.min(y2, y3))));
+        int bottom = Math.min(height - 1, (int) Math.ceil(Math.max(y1, Math.max(y2, y3))));
+        float area = (x2 - x1) * (y3 - y1) - (y2 - y1) * (x3 - x1);
+        if (area == 0.0f) return;
+        float sign = Math.signum(area);
+        int rgb = color & 0xFFFFFF;
+        for (int y = top; y <= bottom; y++) {
+            float cy = y + 0.5f;
+            for (int x = left; x <= right; x++) {
+                float cx = x + 0.5f;
+                float w1 = ((x2 - x1) * (cy - y1) - (y2 - y1) * (cx - x1)) * sign;
+                float w2 = ((x3 - x2) * (cy - y2) - (y3 - y2) * (cx - x2)) * sign;
+                float w3 = ((x1 - x3) * (cy - y3) - (y1 - y3) * (cx - x3)) * sign;
+                if (w1 >= 0.0f && w2 >= 0.0f && w3 >= 0.0f) pixels[y * width + x] = rgb;
+            }
+        }
+    }
+
+    private void fillEllipse(int[] pixels, float centerX, float centerY, float radiusX, float radiusY, int color) {
+        if (!(radiusX > 0.0f) || !(radiusY > 0.0f)) return;
+        int left = Math.max(0, (int) Math.floor(centerX - radiusX));
+        int right = Math.min(width - 1, (int) Math.ceil(centerX + radiusX));
+        int top = Math.max(0, (int) Math.floor(centerY - radiusY));
+        int bottom = Math.min(height - 1, (int) Math.ceil(centerY + radiusY));
+        float inverseX = 1.0f / radiusX;
+        float inverseY = 1.0f / radiusY;
+        int rgb = color & 0xFFFFFF;
+        for (int y = top; y <= bottom; y++) {
+            float dy = (y + 0.5f - centerY) * inverseY;
+            for (int x = left; x <= right; x++) {
+                float dx = (x + 0.5f - centerX) * inverseX;
+                if (dx * dx + dy * dy <= 1.0f) pixels[y * width + x] = rgb;
+            }
+        }
+    }
+
+    private void strokeEllipse(int[] pixels, float centerX, float centerY, float radiusX, float radiusY, int color) {
+        if (!(radiusX > 0.0f) || !(radiusY > 0.0f)) return;
+        if (centerX + radiusX < 0.0f || centerX - radiusX >= width || centerY + radiusY < 0.0f || centerY - radiusY >= height) return;
+        int cx = (int) Math.floor(centerX);
+        int cy = (int) Math.floor(centerY);
+        int rx = Math.round(radiusX);
+        int ry = Math.round(radiusY);
+        // One pixel per column where the outline is flat and one per row where it is steep, in every quadrant.
+        for (int x = 0; x <= rx; x++) {
+            float u = (float) x / Math.max(rx, 1);
+            int y = Math.round(ry * (float) Math.sqrt(Math.max(0.0f, 1.0f - u * u)));
+            plotQuadrants(pixels, cx, cy, x, y, color);
+        }
+        for (int y = 0; y <= ry; y++) {
+            float v = (float) y / Math.max(ry, 1);
+            int x = Math.round(rx * (float) Math.sqrt(Math.max(0.0f, 1.0f - v * v)));
+            plotQuadrants(pixels, cx, cy, x, y, color);
+        }
+    }
+
+    private void plotQuadrants(int[] pixels, int cx, int cy, int x, int y, int color) {
+        plot(pixels, cx + x, cy + y, color);
+        plot(pixels, cx - x, cy + y, color);
+        plot(pixels, cx + x, cy - y, color);
+        plot(pixels, cx - x, cy - y, color);
+    }
+
+    private void fillPoint(int[] pixels, float centerX, float centerY, float size, int color) {
+        int half = Math.max(0, Math.round(size * 0.5f));
+        int cx = (int) Math.floor(centerX);
+        int cy = (int) Math.floor(centerY);
+        for (int y = cy - half; y <= cy + half; y++) {
+            for (int x = cx - half; x <= cx + half; x++) plot(pixels, x, y, color);
+        }
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data) {
+        byte[] length = new byte[4];
+        putInt(length, 0, data.length);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        byte[] checksum = new byte[4];
+        putInt(checksum, 0, (int) crc.getValue());
+        out.writeBytes(length);
+        out.writeBytes(typeBytes);
+        out.writeBytes(data);
+        out.writeBytes(checksum);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrameRasterizer[%dx%d, view=(%.3f, %.3f)-(%.3f, %.3f)]", width, height, minX, minY, maxX, maxY);
+    }
+}
@@ -0,0 +1,535 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2AABB;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2DynamicTree;
+import org.box2d.internal.b2OverlapResultFcn;
+import org.box2d.internal.b2TreeQueryCallbackFcn;
+import org.box2d.internal.b2TreeStats;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Region of interest manager freezing the bodies of a {@link World} far from every observer and thawing them
+ * when an observer comes close.
+ * <p>
+ * Each {@link #update(float[], float[], float[], int)} takes the observers of the frame as circles. A tracked body
+ * thaws when it is within the radius of an observer, and freezes when it is farther than the radius plus the margin
+ * from all of them, so a body near the edge does not flip every frame. Freezing either puts the body to sleep, which
+ * keeps it colliding and lets contacts wake it, or disables it, which removes it from the simulation entirely.
+ * At most {@link #maxTransitions(int)} bodies change per update, thawing first, the rest carry over to the next one.
+ * </p>
+ * <p>
+ * Bodies near the observers are tracked automatically, others with {@link #track(long)} or
+ * {@link #trackRegion(float, float, float, float)}. An update costs time in the number of active bodies and in the
+ * frozen bodies close to the observers, found through a {@link b2DynamicTree} of their positions, not in the size of
+ * the world. Untrack a body before destroying it, destroyed bodies are otherwise dropped when next seen.
+ * </p>
+ * <p>
+ * A sleeping body sends its whole island to sleep, and a body woken by a contact is tracked as active again.
+ * The manager is not thread safe, update it between steps from the stepping thread.
+ * </p>
+ */
+public final class ActivityManager implements AutoCloseable {
+    /**
+     * How bodies far from every observer are frozen.
+     */
+    public enum FreezeMode {
+        /**
+         * Put frozen bodies to sleep with {@code b2Body_SetAwake}, contacts may still wake them.
+         */
+        Sleep,
+        /**
+         * Disable frozen bodies with {@code b2Body_Disable}, removing them from the broad-phase and the solver.
+         */
+        Disable
+    }
+
+    // b2_staticBody, never frozen.
+    private static final int StaticBody = 0;
+    private static final int MinCapacity = 64;
+    // Frozen bodies checked per update for being woken, enabled or destroyed by someone else.
+    private static final int AuditCount = 64;
+
+    private static final long LowerX = b2AABB.lowerBound$offset() + b2Vec2.x$offset();
+    private static final long LowerY = b2AABB.lowerBound$offset() + b2Vec2.y$offset();
+    private static final long UpperX = b2AABB.upperBound$offset() + b2Vec2.x$offset();
+    private static final long UpperY = b2AABB.upperBound$offset() + b2Vec2.y$offset();
+
+    private final World world;
+    private final FreezeMode mode;
+    private final float margin;
+    private final MemorySegment tree;
+    private final MemorySegment aabb;
+    private final MemorySegment bodyId;
+    private final MemorySegment filter;
+    private final SegmentAllocator statsAllocator;
+    private final SegmentAllocator vectorAllocator;
+    private final SegmentAllocator bodyAllocator;
+    private final MemorySegment treeQueryFcn;
+    private final MemorySegment overlapFcn;
+    private int maxTransitions = Integer.MAX_VALUE;
+
+    // Per slot: packed body id, last known position, tree proxy or -1 when active, index in the active list.
+    private long[] ids = new long[MinCapacity];
+    private float[] xs = new float[MinCapacity];
+    private float[] ys = new float[MinCapacity];
+    private int[] proxies = new int[MinCapacity];
+    private int[] activeIndices = new int[MinCapacity];
+    private int[] freeSlots = new int[MinCapacity];
+    private int freeCount;
+    private int slotCount;
+    private int[] active = new int[MinCapacity];
+    private int activeCount;
+    private int frozenCount;
+
+    // Packed body id to slot, open addressing with linear probing, 0 marks an empty entry.
+    private long[] keys = new long[MinCapacity * 2];
+    private int[] values = new int[MinCapacity * 2];
+
+    private int[] candidates = new int[MinCapacity];
+    private int candidateCount;
+    private float queryX, queryY, queryRadiusSquared;
+    private int auditCursor;
+    private int lastFrozen;
+    private int lastThawed;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link ActivityManager} for the given world.
+     * @param world the world whose bodies to freeze and thaw
+     * @param mode how to freeze bodies
+     * @param margin the extra distance past an observer's radius before a body freezes, the hysteresis band
+     * @throws IllegalArgumentException if the margin is negative
+     */
+    public ActivityManager(World world, FreezeMode mode, float margin) {
+        if (!(margin >= 0.0f)) throw new IllegalArgumentException("Margin must not be negative, got " + margin);
+        this.world = world;
+        this.mode = mode;
+        this.margin = margin;
+        Arena arena = Arena.ofAuto();
+        tree = nBox2D.nDynamicTreeCreate(arena);
+        aabb = arena.allocate(b2AABB.layout());
+        bodyId = arena.allocate(b2BodyId.layout());
+        filter = nBox2D.nDefaultQueryFilter();
+        MemorySegment stats = arena.allocate(b2TreeStats.layout());
+        statsAllocator = (byteSize, byteAlignment) -> stats;
+        MemorySegment vector = arena.allocate(b2Vec2.layout());
+        vectorAllocator = (byteSize, byteAlignment) -> vector;
+        MemorySegment shapeBody = arena.allocate(b2BodyId.layout());
+        bodyAllocator = (byteSize, byteAlignment) -> shapeBody;
+        treeQueryFcn = b2TreeQueryCallbackFcn.allocate(this::onFrozen, arena);
+        overlapFcn = b2OverlapResultFcn.allocate(this::onOverlap, arena);
+        Arrays.fill(proxies, -1);
+    }
+
+    /**
+     * Set the most bodies frozen or thawed per update, spreading the cost of large transitions over several frames.
+     * @param count the transition budget per update, at least 1
+     * @return this
+     * @throws IllegalArgumentException if the count is not positive
+     */
+    public ActivityManager maxTransitions(int count) {
+        if (count <= 0) throw new IllegalArgumentException("Max transitions must be positive, got " + count);
+        maxTransitions = count;
+        return this;
+    }
+
+    /**
+     * Track the given body, as active. Static bodies and bodies already tracked are ignored.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @return true if the body is now tracked
+     * @throws IllegalStateException if the world is stepping
+     */
+    public boolean track(long bodyId) {
+        if (find(bodyId) >= 0) return false;
+        world.enter();
+        try {
+            BodyId.unpack(bodyId, this.bodyId);
+            if (!nBox2D.nBodyIsValid(this.bodyId) || nBox2D.nBodyGetType(this.bodyId) == StaticBody) return false;
+            addActive(bodyId);
+            return true;
+        } finally {
+            world.exit();
+        }
+    }
+
+    /**
+     * Track every non-static body with a shape overlapping the given box, as active.
+     * Typically called once at load over the world bounds.
+     * @param lowerX the lower bound x coordinate
+     * @param lowerY the lower bound y coordinate
+     * @param upperX the upper bound x coordinate
+     * @param upperY the upper bound y coordinate
+     * @return the number of bodies newly tracked
+     */
+    public int trackRegion(float lowerX, float lowerY, float upperX, float upperY) {
+        world.enter();
+        try {
+            int before = activeCount + frozenCount;
+            setAABB(lowerX, lowerY, upperX, upperY);
+            nBox2D.nWorldOverlapAABB(statsAllocator, world.segment(), aabb, filter, overlapFcn, MemorySegment.NULL);
+            return activeCount + frozenCount - before;
+        } finally {
+            world.exit();
+        }
+    }
+
+    /**
+     * Stop tracking the given body, thawing it first if it is frozen.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @return true if the body was tracked
+     */
+    public boolean untrack(long bodyId) {
+        int slot = find(bodyId);
+        if (slot < 0) return false;
+        if (proxies[slot] >= 0) {
+            world.enter();
+            try {
+                BodyId.unpack(bodyId, this.bodyId);
+                if (nBox2D.nBodyIsValid(this.bodyId)) wake(this.bodyId);
+            } finally {
+                world.exit();
+            }
+            removeFrozen(slot);
+        } else {
+            removeActive(slot);
+        }
+        release(slot);
+        return true;
+    }
+
+    /**
+     * Freeze and thaw bodies for the given observers. Run it between steps, once per frame.
+     * @param observerXs the observer x coordinates
+     * @param observerYs the observer y coordinates
+     * @param radii the observer radii, bodies within them are active
+     * @param count the number of observers
+     * @throws IndexOutOfBoundsException if an array holds less than count values
+     * @throws IllegalStateException if the world is stepping
+     */
+    public void update(float[] observerXs, float[] observerYs, float[] radii, int count) {
+        Objects.checkFromIndexSize(0, count, observerXs.length);
+        Objects.checkFromIndexSize(0, count, observerYs.length);
+        Objects.checkFromIndexSize(0, count, radii.length);
+        world.enter();
+        try {
+            lastFrozen = 0;
+            lastThawed = 0;
+            audit();
+            int budget = maxTransitions;
+
+            // Thaw first, an observer must not see frozen bodies.
+            candidateCount = 0;
+            for (int i = 0; i < count && candidateCount < budget; i++) {
+                float radius = radii[i];
+                queryX = observerXs[i];
+                queryY = observerYs[i];
+                queryRadiusSquared = radius * radius;
+                setAABB(queryX - radius, queryY - radius, queryX + radius, queryY + radius);
+                nBox2D.nDynamicTreeQuery(statsAllocator, tree, aabb, -1L, treeQueryFcn, MemorySegment.NULL);
+            }
+            for (int i = 0; i < candidateCount && lastThawed < budget; i++) {
+                int slot = candidates[i];
+                // The same body may be reported by several observers.
+                if (proxies[slot] < 0) continue;
+                BodyId.unpack(ids[slot], bodyId);
+                boolean valid = nBox2D.nBodyIsValid(bodyId);
+                if (valid) wake(bodyId);
+                removeFrozen(slot);
+                if (valid) {
+                    insertActive(slot);
+                    lastThawed++;
+                } else {
+                    release(slot);
+                }
+            }
+            budget -= lastThawed;
+
+            // Discover untracked bodies entering the observed regions.
+            for (int i = 0; i < count; i++) {
+                float radius = radii[i] + margin;
+                setAABB(observerXs[i] - radius, observerYs[i] - radius, observerXs[i] + radius, observerYs[i] + radius);
+                nBox2D.nWorldOverlapAABB(statsAllocator, world.segment(), aabb, filter, overlapFcn, MemorySegment.NULL);
+            }
+
+            // Freeze active bodies past every observer's radius plus the margin, walking backward as removal swaps.
+            for (int i = activeCount - 1; i >= 0 && lastFrozen < budget; i--) {
+                int slot = active[i];
+                BodyId.unpack(ids[slot], bodyId);
+                if (!nBox2D.nBodyIsValid(bodyId)) {
+                    removeActive(slot);
+                    release(slot);
+                    continue;
+                }
+                MemorySegment position = nBox2D.nBodyGetPosition(vectorAllocator, bodyId);
+                float x = b2Vec2.x(position), y = b2Vec2.y(position);
+                xs[slot] = x;
+                ys[slot] = y;
+                if (observed(x, y, observerXs, observerYs, radii, count)) continue;
+                if (mode == FreezeMode.Sleep) nBox2D.nBodySetAwake(bodyId, false);
+                else nBox2D.nBodyDisable(bodyId);
+                removeActive(slot);
+                insertFrozen(slot);
+                lastFrozen++;
+            }
+        } finally {
+            world.exit();
+        }
+    }
+
+    /**
+     * Thaw every frozen body at once, ignoring the transition budget, e.g. before saving or closing.
+     * @return the number of bodies thawed
+     * @throws IllegalStateException if the world is stepping
+     */
+    public int thawAll() {
+        world.enter();
+        try {
+            int thawed = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (proxies[slot] < 0) continue;
+                BodyId.unpack(ids[slot], bodyId);
+                removeFrozen(slot);
+                if (nBox2D.nBodyIsValid(bodyId)) {
+                    wake(bodyId);
+                    insertActive(slot);
+                    thawed++;
+                } else {
+                    release(slot);
+                }
+            }
+            return thawed;
+        } finally {
+            world.exit();
+        }
+    }
+
+    private boolean observed(float x, float y, float[] observerXs, float[] observerYs, float[] radii, int count) {
+        for (int i = 0; i < count; i++) {
+            float dx = x - observerXs[i], dy = y - observerYs[i], radius = radii[i] + margin;
+            if (dx * dx + dy * dy <= radius * radius) return true;
+        }
+        return false;
+    }
+
+    // A few frozen bodies per update, round robin: woken by a contact, enabled elsewhere or destroyed.
+    private void audit() {
+        for (int i = 0; i < AuditCount && frozenCount > 0 && slotCount > 0; i++) {
+            int slot = auditCursor = (auditCursor + 1) % slotCount;
+            if (proxies[slot] < 0 || ids[slot] == 0L) continue;
+            BodyId.unpack(ids[slot], bodyId);
+            if (!nBox2D.nBodyIsValid(bodyId)) {
+                removeFrozen(slot);
+                release(slot);
+            } else if (mode == FreezeMode.Sleep ? nBox2D.nBodyIsAwake(bodyId) : nBox2D.nBodyIsEnabled(bodyId)) {
+                removeFrozen(slot);
+                insertActive(slot);
+            }
+        }
+    }
+
+    private void wake(MemorySegment bodyId) {
+        if (mode == FreezeMode.Sleep) nBox2D.nBodySetAwake(bodyId, true);
+        else nBox2D.nBodyEnable(bodyId);
+    }
+
+    private boolean onFrozen(int proxyId, long userData, MemorySegment context) {
+        int slot = (int) userData;
+        float dx = xs[slot] - queryX, dy = ys[slot] - queryY;
+        if (dx * dx + dy * dy > queryRadiusSquared) return true;
+        if (candidateCount == candidates.length) candidates = Arrays.copyOf(candidates, candidateCount * 2);
+        candidates[candidateCount++] = slot;
+        return true;
+    }
+
+    private boolean onOverlap(MemorySegment shapeId, MemorySegment context) {
+        MemorySegment body = nBox2D.nShapeGetBody(bodyAllocator, shapeId);
+        if (nBox2D.nBodyGetType(body) == StaticBody) return true;
+        long id = BodyId.pack(body);
+        if (find(id) < 0) addActive(id);
+        return true;
+    }
+
+    private void setAABB(float lowerX, float lowerY, float upperX, float upperY) {
+        aabb.set(ValueLayout.JAVA_FLOAT, LowerX, lowerX);
+        aabb.set(ValueLayout.JAVA_FLOAT, LowerY, lowerY);
+        aabb.set(ValueLayout.JAVA_FLOAT, UpperX, upperX);
+        aabb.set(ValueLayout.JAVA_FLOAT, UpperY, upperY);
+    }
+
+    private void addActive(long id) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == ids.length) growSlots();
+            slot = slotCount++;
+        }
+        ids[slot] = id;
+        proxies[slot] = -1;
+        insert(id, slot);
+        insertActive(slot);
+    }
+
+    private void release(int slot) {
+        erase(ids[slot]);
+        ids[slot] = 0L;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void insertActive(int slot) {
+        if (activeCount == active.length) active = Arrays.copyOf(active, activeCount * 2);
+        activeIndices[slot] = activeCount;
+        active[activeCount++] = slot;
+    }
+
+    private void removeActive(int slot) {
+        int index = activeIndices[slot];
+        int last = active[--activeCount];
+        active[index] = last;
+        activeIndices[last] = index;
+    }
+
+    private void insertFrozen(int slot) {
+        setAABB(xs[slot], ys[slot], xs[slot], ys[slot]);
+        proxies[slot] = nBox2D.nDynamicTreeCreateProxy(tree, aabb, 1L, slot);
+        frozenCount++;
+    }
+
+    private void removeFrozen(int slot) {
+        nBox2D.nDynamicTreeDestroyProxy(tree, proxies[slot]);
+        proxies[slot] = -1;
+        frozenCount--;
+    }
+
+    private void growSlots() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        proxies = Arrays.copyOf(proxies, capacity);
+        activeIndices = Arrays.copyOf(activeIndices, capacity);
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long id) {
+        int mask = keys.length - 1;
+        for (int i = hash(id) & mask; keys[i] != 0L; i = (i + 1) & mask) {
+            if (keys[i] == id) return values[i];
+        }
+        return -1;
+    }
+
+    private void insert(long id, int slot) {
+        if (2 * (activeCount + frozenCount + 1) > keys.length) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0L) insert(oldKeys[i], oldValues[i]);
+            }
+        }
+        int mask = keys.length - 1;
+        int i = hash(id) & mask;
+        while (keys[i] != 0L) i = (i + 1) & mask;
+        keys[i] = id;
+        values[i] = slot;
+    }
+
+    // Backward shift deletion, as in SimplexCacheTable.
+    private void erase(long id) {
+        int mask = keys.length - 1;
+        int hole = hash(id) & mask;
+        while (keys[hole] != id) hole = (hole + 1) & mask;
+        for (int next = (hole + 1) & mask; keys[next] != 0L; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0L;
+    }
+
+    /**
+     * Get the number of tracked bodies currently active.
+     * @return the active body count
+     */
+    public int activeCount() {
+        return activeCount;
+    }
+
+    /**
+     * Get the number of tracked bodies currently frozen.
+     * @return the frozen body count
+     */
+    public int frozenCount() {
+        return frozenCount;
+    }
+
+    /**
+     * Get the number of bodies frozen by the last update.
+     * @return the count
+     */
+    public int lastFrozen() {
+        return lastFrozen;
+    }
+
+    /**
+     * Get the number of bodies thawed by the last update.
+     * @return the count
+     */
+    public int lastThawed() {
+        return lastThawed;
+    }
+
+    /**
+     * Check if the given body is tracked and frozen.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @return true if frozen by this manager
+     */
+    public boolean isFrozen(long bodyId) {
+        int slot = find(bodyId);
+        return slot >= 0 && proxies[slot] >= 0;
+    }
+
+    /**
+     * Get the freeze mode.
+     * @return the mode
+     */
+    public FreezeMode mode() {
+        return mode;
+    }
+
+    /**
+     * Release the native tree of frozen positions. Frozen bodies stay frozen, call {@link #thawAll()} first if needed.
+     */
+    @Override
+    public void close() {
+        nBox2D.nDynamicTreeDestroy(tree);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ActivityManager[mode=%s, active=%d, frozen=%d, margin=%.3f]", mode, activeCount, frozenCount, margin);
+    }
+}
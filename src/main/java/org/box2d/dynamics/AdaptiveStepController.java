@@ -0,0 +1,310 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2Counters;
+import org.box2d.internal.b2Profile;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.Objects;
+
+/**
+ * Steps a {@link World} with a sub-step count and, optionally, a number of active workers chosen to meet a per-step
+ * time budget.
+ * <p>
+ * After every step the controller reads {@code b2Profile} and {@code b2Counters}. It keeps moving averages of the
+ * cost of a step outside the solver and of the cost of one sub-step, and predicts the step time of each sub-step
+ * count from them. The next step uses the most sub-steps predicted to fit the budget, within the configured quality
+ * bounds. The count drops at once when the load rises, and climbs back one sub-step per step when it falls, so a
+ * spike degrades quality for a few steps instead of overrunning the tick.
+ * </p>
+ * <p>
+ * With a {@link TaskSystem}, the controller also adds a worker when even the fewest sub-steps miss the budget and
+ * the world has enough contacts and joints to keep one more busy, and removes one when the most sub-steps fit well
+ * within it. Worker changes are spaced by a cooldown, leaving the averages time to settle.
+ * </p>
+ * <p>
+ * A controller is not thread safe, step it from one thread.
+ * </p>
+ */
+public final class AdaptiveStepController {
+    // Weight of the latest step in the moving averages.
+    private static final float Smoothing = 0.25f;
+    // Fraction of the budget targeted, leaving room for noise.
+    private static final float Headroom = 0.9f;
+    // Below this fraction of the target, a worker is returned.
+    private static final float Slack = 0.5f;
+    // Contacts and joints kept busy by one worker, roughly a solver block per color.
+    private static final int ConstraintsPerWorker = 256;
+    private static final int WorkerCooldown = 30;
+    private static final int ColorCount = (int) (b2Counters.colorCounts$layout().byteSize() / Integer.BYTES);
+
+    private final World world;
+    private final TaskSystem tasks;
+    private final SegmentAllocator profileAllocator;
+    private final SegmentAllocator countersAllocator;
+    private final MemorySegment counters;
+
+    private int minSubSteps = 1;
+    private int maxSubSteps = 4;
+    private float budgetMillis = 1000.0f / 60.0f;
+    private int minWorkers = 1;
+    private int maxWorkers;
+
+    private int subStepCount;
+    private boolean sampled;
+    private float baseMillis;
+    private float subStepMillis;
+    private float lastStepMillis;
+    private float lastSolveMillis;
+    private long stepCount;
+    private long overrunCount;
+    private int cooldown;
+
+    /**
+     * Create a new {@link AdaptiveStepController} adjusting the sub-step count only.
+     * @param world the world to step
+     */
+    public AdaptiveStepController(World world) {
+        this(world, null);
+    }
+
+    /**
+     * Create a new {@link AdaptiveStepController} adjusting the sub-step count and the active workers of the given
+     * task system, which must be the one installed into the world.
+     * Defaults to 1 to 4 sub-steps, a 60 Hz budget and every worker of the task system.
+     * @param world the world to step
+     * @param tasks the task system of the world, or null to leave the workers alone
+     */
+    public AdaptiveStepController(World world, TaskSystem tasks) {
+        this.world = world;
+        this.tasks = tasks;
+        maxWorkers = tasks == null ? 1 : tasks.workerCount();
+        subStepCount = maxSubSteps;
+        Arena arena = Arena.ofAuto();
+        MemorySegment profile = arena.allocate(b2Profile.layout());
+        profileAllocator = (byteSize, byteAlignment) -> profile;
+        counters = arena.allocate(b2Counters.layout());
+        countersAllocator = (byteSize, byteAlignment) -> counters;
+    }
+
+    /**
+     * Set the quality bounds of the sub-step count. Before the first step the controller starts at the most
+     * sub-steps; afterwards the current count is clamped into the new bounds and climbs from there.
+     * @param min the fewest sub-steps, at least 1
+     * @param max the most sub-steps, at least min
+     * @return this
+     * @throws IllegalArgumentException if the bounds are invalid
+     */
+    public AdaptiveStepController subSteps(int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("Sub-step bounds must satisfy 1 <= min <= max, got [" + min + ", " + max + "]");
+        minSubSteps = min;
+        maxSubSteps = max;
+        subStepCount = sampled ? Math.clamp(subStepCount, min, max) : max;
+        return this;
+    }
+
+    /**
+     * Set the time budget of a step.
+     * @param millis the budget in milliseconds
+     * @return this
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public AdaptiveStepController budgetMillis(float millis) {
+        if (!(millis > 0.0f)) throw new IllegalArgumentException("Budget must be positive, got " + millis);
+        budgetMillis = millis;
+        return this;
+    }
+
+    /**
+     * Set the bounds of the active worker count, the stepping thread included. The current count is clamped into them.
+     * @param min the fewest workers, at least 1
+     * @param max the most workers, at least min and at most the task system's worker count
+     * @return this
+     * @throws IllegalStateException if this controller has no task system
+     * @throws IllegalArgumentException if the bounds are invalid
+     */
+    public AdaptiveStepController workers(int min, int max) {
+        if (tasks == null) throw new IllegalStateException("Controller has no task system");
+        if (min < 1 || max < min || max > tasks.workerCount()) {
+            throw new IllegalArgumentException("Worker bounds must satisfy 1 <= min <= max <= " + tasks.workerCount() + ", got [" + min + ", " + max + "]");
+        }
+        minWorkers = min;
+        maxWorkers = max;
+        tasks.activeWorkers(Math.clamp(tasks.activeWorkers(), min, max));
+        return this;
+    }
+
+    /**
+     * Step the world with the current sub-step count, then adapt the sub-step count and the workers for the next step.
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @throws IllegalStateException if the world is already stepping or in use by another operation
+     */
+    public void step(float timeStep) {
+        int subSteps = subStepCount;
+        world.step(timeStep, subSteps);
+        world.enter();
+        try {
+            MemorySegment profile = nBox2D.nWorldGetProfile(profileAllocator, world.segment());
+            nBox2D.nWorldGetCounters(countersAllocator, world.segment());
+            lastStepMillis = b2Profile.step(profile);
+            lastSolveMillis = b2Profile.solve(profile);
+        } finally {
+            world.exit();
+        }
+        stepCount++;
+        if (lastStepMillis > budgetMillis) overrunCount++;
+        sample(subSteps);
+        adaptSubSteps();
+        if (tasks != null) adaptWorkers();
+    }
+
+    private void sample(int subSteps) {
+        float base = Math.max(0.0f, lastStepMillis - lastSolveMillis);
+        float perSubStep = lastSolveMillis / subSteps;
+        if (!sampled) {
+            baseMillis = base;
+            subStepMillis = perSubStep;
+            sampled = true;
+        } else {
+            baseMillis += Smoothing * (base - baseMillis);
+            subStepMillis += Smoothing * (perSubStep - subStepMillis);
+        }
+    }
+
+    private void adaptSubSteps() {
+        int fit = fittingSubSteps();
+        // Degrade at once, recover gradually.
+        if (fit < subStepCount) subStepCount = fit;
+        else if (fit > subStepCount) subStepCount++;
+    }
+
+    private int fittingSubSteps() {
+        float available = Headroom * budgetMillis - baseMillis;
+        if (subStepMillis <= 0.0f) return maxSubSteps;
+        return Math.clamp((long) Math.floor(available / subStepMillis), minSubSteps, maxSubSteps);
+    }
+
+    private void adaptWorkers() {
+        if (cooldown > 0) {
+            cooldown--;
+            return;
+        }
+        int active = tasks.activeWorkers();
+        float target = Headroom * budgetMillis;
+        int useful = Math.max(1, (b2Counters.contactCount(counters) + b2Counters.jointCount(counters)) / ConstraintsPerWorker);
+        if (predictedMillis(minSubSteps) > target && active < maxWorkers && active < useful) {
+            tasks.activeWorkers(active + 1);
+            cooldown = WorkerCooldown;
+        } else if (predictedMillis(maxSubSteps) < Slack * target && active > minWorkers) {
+            tasks.activeWorkers(active - 1);
+            cooldown = WorkerCooldown;
+        }
+    }
+
+    /**
+     * Get the step time predicted for the given sub-step count, from the steps measured so far.
+     * @param subSteps the sub-step count
+     * @return the predicted step time in milliseconds, zero before the first step
+     */
+    public float predictedMillis(int subSteps) {
+        return baseMillis + subStepMillis * subSteps;
+    }
+
+    /**
+     * Get the sub-step count of the next step.
+     * @return the sub-step count
+     */
+    public int subStepCount() {
+        return subStepCount;
+    }
+
+    /**
+     * Get the active worker count of the next step, the stepping thread included.
+     * @return the active worker count, 1 without a task system
+     */
+    public int activeWorkers() {
+        return tasks == null ? 1 : tasks.activeWorkers();
+    }
+
+    /**
+     * Get the time budget of a step.
+     * @return the budget in milliseconds
+     */
+    public float budgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * Get the duration of the last step, as profiled by Box2D.
+     * @return the step time in milliseconds
+     */
+    public float lastStepMillis() {
+        return lastStepMillis;
+    }
+
+    /**
+     * Get the solver duration of the last step, as profiled by Box2D.
+     * @return the solve time in milliseconds
+     */
+    public float lastSolveMillis() {
+        return lastSolveMillis;
+    }
+
+    /**
+     * Get the number of steps taken through this controller.
+     * @return the step count
+     */
+    public long stepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Get the number of steps that took longer than the budget.
+     * @return the overrun count
+     */
+    public long overrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Get the contact count of the world after the last step.
+     * @return the contact count
+     */
+    public int contactCount() {
+        return b2Counters.contactCount(counters);
+    }
+
+    /**
+     * Get the awake island count of the world after the last step.
+     * @return the island count
+     */
+    public int islandCount() {
+        return b2Counters.islandCount(counters);
+    }
+
+    /**
+     * Get the number of constraints in a graph color after the last step, the last color holding the overflow.
+     * @param color the color index, 0 to {@link #colorCount()} exclusive
+     * @return the constraint count of the color
+     * @throws IndexOutOfBoundsException if the color is out of range
+     */
+    public int colorCount(int color) {
+        return b2Counters.colorCounts(counters, Objects.checkIndex(color, ColorCount));
+    }
+
+    /**
+     * Get the number of graph colors reported by {@link #colorCount(int)}.
+     * @return the color count
+     */
+    public int colorCount() {
+        return ColorCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptiveStepController[subSteps=%d, workers=%d, lastStep=%.3fms, budget=%.3fms, overruns=%d]",
+                subStepCount, activeWorkers(), lastStepMillis, budgetMillis, overrunCount);
+    }
+}
@@ -0,0 +1,91 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Packing of a native {@link b2BodyId} into a primitive {@code long}, so body ids can cross
+ * callbacks and collections without wrapper allocation.
+ * <p>
+ * The packed layout is {@code index1} in the low 32 bits, {@code world0} in bits 32 to 47
+ * and {@code generation} in bits 48 to 63. A packed value of 0 is the null body id.
+ * </p>
+ */
+public final class BodyId {
+    /**
+     * The packed null body id.
+     */
+    public static final long Null = 0L;
+
+    private BodyId() {}
+
+    /**
+     * Pack the given components.
+     * @param index1 the one based body index
+     * @param world0 the zero based world index
+     * @param generation the body generation
+     * @return the packed body id
+     */
+    public static long pack(int index1, int world0, int generation) {
+        return (index1 & 0xFFFFFFFFL) | ((world0 & 0xFFFFL) << 32) | ((generation & 0xFFFFL) << 48);
+    }
+
+    /**
+     * Pack a {@link b2BodyId} memory segment.
+     * @param segment the memory segment of the body id
+     * @return the packed body id
+     */
+    public static long pack(MemorySegment segment) {
+        return pack(b2BodyId.index1(segment), b2BodyId.world0(segment), b2BodyId.generation(segment));
+    }
+
+    /**
+     * Write a packed body id into a {@link b2BodyId} memory segment.
+     * @param id the packed body id
+     * @param segment the memory segment to write to
+     * @return the given segment
+     */
+    public static MemorySegment unpack(long id, MemorySegment segment) {
+        b2BodyId.index1(segment, index1(id));
+        b2BodyId.world0(segment, (short) world0(id));
+        b2BodyId.generation(segment, (short) generation(id));
+        return segment;
+    }
+
+    /**
+     * Get the one based body index of a packed body id.
+     * @param id the packed body id
+     * @return the body index, 0 for the null id
+     */
+    public static int index1(long id) {
+        return (int) id;
+    }
+
+    /**
+     * Get the zero based world index of a packed body id.
+     * @param id the packed body id
+     * @return the world index
+     */
+    public static int world0(long id) {
+        return (int) (id >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Get the generation of a packed body id.
+     * @param id the packed body id
+     * @return the body generation
+     */
+    public static int generation(long id) {
+        return (int) (id >>> 48) & 0xFFFF;
+    }
+
+    /**
+     * Format a packed body id for logging.
+     * @param id the packed body id
+     * @return the formatted body id
+     */
+    public static String toString(long id) {
+        return String.format("BodyId[index=%d, world=%d, generation=%d]", index1(id), world0(id), generation(id));
+    }
+}
@@ -0,0 +1,13 @@
+package org.box2d.dynamics;
+
+/**
+ * Receiver of body ids reported by batched world operations, without boxing or collecting them.
+ */
+@FunctionalInterface
+public interface BodySink {
+    /**
+     * Accept a body.
+     * @param bodyId the body, packed as in {@link BodyId}
+     */
+    void accept(long bodyId);
+}
@@ -0,0 +1,158 @@
+package org.box2d.dynamics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CustomFilter} that memoizes the decisions of another filter per shape pair.
+ * <p>
+ * The cache is a fixed size, direct mapped table: a pair is stored in one slot chosen by its hash,
+ * replacing whatever pair was there. Slots are parallel primitive arrays guarded by a per-slot sequence number,
+ * so lookups and inserts are lock free and allocation free, and the filter is safe to call from concurrent
+ * Box2D workers. A writer that finds its slot busy simply does not cache its decision.
+ * </p>
+ * <p>
+ * Each entry is stamped with the epoch it was computed in, and only entries of the current epoch are answered.
+ * {@link #invalidate()} moves to a new epoch, so a decision computed before it and stored after it is never used.
+ * </p>
+ * <p>
+ * Decisions are assumed symmetric, {@code (a, b)} and {@code (b, a)} share an entry,
+ * and to only change on explicit {@link #invalidate()} or {@link #invalidate(long)}.
+ * </p>
+ */
+public final class CachedCustomFilter implements CustomFilter {
+    private static final VarHandle Longs = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final CustomFilter delegate;
+    private final int mask;
+    // Per slot: sequence number, odd while written, the pair, and the epoch shifted left by one with the decision.
+    private final long[] sequences;
+    private final long[] lows;
+    private final long[] highs;
+    private final long[] stamps;
+    // Starts at 1, the stamp of an empty slot has epoch 0.
+    private volatile long epoch = 1;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a new {@link CachedCustomFilter} in front of the given filter.
+     * @param delegate the filter computing the decisions
+     * @param capacity the number of cached pairs, rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive or larger than {@code 2^30}
+     */
+    public CachedCustomFilter(CustomFilter delegate, int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) throw new IllegalArgumentException("Cache capacity out of range: " + capacity);
+        this.delegate = delegate;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.mask = size - 1;
+        sequences = new long[size];
+        lows = new long[size];
+        highs = new long[size];
+        stamps = new long[size];
+    }
+
+    @Override
+    public boolean shouldCollide(long shapeIdA, long shapeIdB) {
+        long low = Math.min(shapeIdA, shapeIdB);
+        long high = Math.max(shapeIdA, shapeIdB);
+        int slot = slot(low, high);
+        long current = epoch;
+        long sequence = (long) Longs.getAcquire(sequences, slot);
+        if ((sequence & 1L) == 0L) {
+            long cachedLow = (long) Longs.getOpaque(lows, slot);
+            long cachedHigh = (long) Longs.getOpaque(highs, slot);
+            long stamp = (long) Longs.getOpaque(stamps, slot);
+            VarHandle.acquireFence();
+            if ((long) Longs.getOpaque(sequences, slot) == sequence && cachedLow == low && cachedHigh == high && stamp >>> 1 == current) {
+                hits.increment();
+                return (stamp & 1L) != 0L;
+            }
+        }
+        misses.increment();
+        // The epoch is read before computing, a decision racing with an invalidation is stored already stale.
+        boolean decision = delegate.shouldCollide(shapeIdA, shapeIdB);
+        sequence = (long) Longs.getOpaque(sequences, slot);
+        if ((sequence & 1L) == 0L && Longs.compareAndSet(sequences, slot, sequence, sequence + 1)) {
+            write(slot, low, high, current << 1 | (decision ? 1L : 0L), sequence);
+        }
+        return decision;
+    }
+
+    // Write a locked slot, then unlock it with the next even sequence number.
+    private void write(int slot, long low, long high, long stamp, long sequence) {
+        VarHandle.storeStoreFence();
+        Longs.setOpaque(lows, slot, low);
+        Longs.setOpaque(highs, slot, high);
+        Longs.setOpaque(stamps, slot, stamp);
+        Longs.setRelease(sequences, slot, sequence + 2);
+    }
+
+    private int slot(long low, long high) {
+        long hash = low * 0x9E3779B97F4A7C15L ^ high * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Drop every cached decision, including the ones being computed.
+     */
+    public synchronized void invalidate() {
+        epoch = epoch + 1;
+    }
+
+    /**
+     * Drop every cached decision involving the given shape, including the ones being computed.
+     * Decisions of other pairs are carried over to the new epoch.
+     * @param shapeId the shape, packed as in {@link ShapeId}
+     */
+    public synchronized void invalidate(long shapeId) {
+        long old = epoch;
+        epoch = old + 1;
+        for (int slot = 0; slot <= mask; slot++) {
+            long sequence;
+            do {
+                sequence = (long) Longs.getOpaque(sequences, slot);
+                if ((sequence & 1L) != 0L) Thread.onSpinWait();
+            } while ((sequence & 1L) != 0L || !Longs.compareAndSet(sequences, slot, sequence, sequence + 1));
+            long low = lows[slot];
+            long high = highs[slot];
+            long stamp = stamps[slot];
+            if (stamp >>> 1 == old) {
+                // Entries of an older epoch are already dead, entries of the new one were computed after it.
+                stamp = low == shapeId || high == shapeId ? 0L : (old + 1) << 1 | (stamp & 1L);
+            }
+            write(slot, low, high, stamp, sequence);
+        }
+    }
+
+    /**
+     * Get the number of decisions answered from the cache.
+     * @return the hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of decisions computed by the delegate.
+     * @return the miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of slots in the cache.
+     * @return the capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachedCustomFilter[capacity=%d, hits=%d, misses=%d]", capacity(), hits(), misses());
+    }
+}
@@ -0,0 +1,360 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.collision.Capsule;
+import org.box2d.internal.b2Capsule;
+import org.box2d.internal.b2CollisionPlane;
+import org.box2d.internal.b2Plane;
+import org.box2d.internal.b2PlaneResult;
+import org.box2d.internal.b2PlaneResultFcn;
+import org.box2d.internal.b2PlaneSolverResult;
+import org.box2d.internal.b2QueryFilter;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+
+/**
+ * Kinematic character controller, moves an upright capsule through a {@link World} without a body.
+ * <p>
+ * Each {@link #solveMove(float)} runs the Box2D mover loop: collect contact planes with {@code b2World_CollideMover},
+ * solve the desired translation against them with {@code b2SolvePlanes}, then sweep the solved translation
+ * with {@code b2World_CastMover}. Finally the velocity is clipped against the last planes with {@code b2ClipVector}.
+ * </p>
+ * <p>
+ * The capsule, query filters, plane array, solver result and the {@link b2PlaneResultFcn} upcall stub are allocated once,
+ * position and velocity are kept as primitives, so a move does not allocate native memory.
+ * A mover is not thread safe, but different movers may be solved from different threads.
+ * </p>
+ */
+public final class CharacterMover {
+    /**
+     * Default number of collision planes a mover can gather per iteration.
+     */
+    public static final int DefaultPlaneCapacity = 8;
+
+    private static final long PlaneStride = b2CollisionPlane.layout().byteSize();
+
+    private final World world;
+    private final float center1X, center1Y, center2X, center2Y;
+
+    private final MemorySegment mover;
+    private final MemorySegment moverCenter1;
+    private final MemorySegment moverCenter2;
+    private final MemorySegment collideFilter;
+    private final MemorySegment castFilter;
+    private final MemorySegment planes;
+    private final int planeCapacity;
+    private final MemorySegment targetDelta;
+    private final MemorySegment solverResult;
+    private final MemorySegment solverTranslation;
+    private final SegmentAllocator solverAllocator;
+    private final MemorySegment velocity;
+    private final MemorySegment clippedVelocity;
+    private final SegmentAllocator clipAllocator;
+    private final MemorySegment planeResultFcn;
+
+    private int planeCount;
+    private float x, y;
+    private float velocityX, velocityY;
+    private float pushLimit = Float.MAX_VALUE;
+    private boolean clipVelocity = true;
+    private int maxIterations = 5;
+    private float tolerance = 0.01f;
+    private int solverIterations;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link CharacterMover} in the given world, with {@value #DefaultPlaneCapacity} plane capacity.
+     * @param world the world to move through
+     * @param capsule the local mover shape, relative to the mover position
+     */
+    public CharacterMover(World world, Capsule capsule) {
+        this(world, capsule, DefaultPlaneCapacity);
+    }
+
+    /**
+     * Create a new {@link CharacterMover} in the given world.
+     * @param world the world to move through
+     * @param capsule the local mover shape, relative to the mover position
+     * @param planeCapacity the maximum number of collision planes gathered per iteration
+     * @throws IllegalArgumentException if the plane capacity is not positive
+     */
+    public CharacterMover(World world, Capsule capsule, int planeCapacity) {
+        if (planeCapacity <= 0) throw new IllegalArgumentException("Plane capacity must be positive, got " + planeCapacity);
+        this.world = world;
+        this.planeCapacity = planeCapacity;
+        center1X = capsule.center1().x();
+        center1Y = capsule.center1().y();
+        center2X = capsule.center2().x();
+        center2Y = capsule.center2().y();
+
+        Arena arena = Arena.ofAuto();
+        mover = arena.allocate(b2Capsule.layout());
+        moverCenter1 = b2Capsule.center1(mover);
+        moverCenter2 = b2Capsule.center2(mover);
+        b2Capsule.radius(mover, capsule.radius());
+
+        collideFilter = nBox2D.nDefaultQueryFilter();
+        castFilter = nBox2D.nDefaultQueryFilter();
+        planes = b2CollisionPlane.allocateArray(planeCapacity, arena);
+        targetDelta = arena.allocate(b2Vec2.layout());
+        solverResult = arena.allocate(b2PlaneSolverResult.layout());
+        solverTranslation = b2PlaneSolverResult.translation(solverResult);
+        solverAllocator = (byteSize, byteAlignment) -> solverResult;
+        velocity = arena.allocate(b2Vec2.layout());
+        clippedVelocity = arena.allocate(b2Vec2.layout());
+        clipAllocator = (byteSize, byteAlignment) -> clippedVelocity;
+        planeResultFcn = b2PlaneResultFcn.allocate(this::onPlaneResult, arena);
+    }
+
+    /**
+     * Move the character by its velocity over the given time step, sliding along the planes it touches.
+     * The velocity is clipped against the final contact planes afterward.
+     * @param timeStep the time step in seconds
+     * @return the number of mover iterations performed
+     * @throws IllegalStateException if the world is stepping
+     */
+    public int solveMove(float timeStep) {
+        world.enter();
+        try {
+            return move(timeStep);
+        } finally {
+            world.exit();
+        }
+    }
+
+    private int move(float timeStep) {
+        float targetX = x + timeStep * velocityX;
+        float targetY = y + timeStep * velocityY;
+        float toleranceSquared = tolerance * tolerance;
+        MemorySegment worldId = world.segment();
+        solverIterations = 0;
+
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            iteration++;
+            planeCount = 0;
+            b2Vec2.x(moverCenter1, x + center1X);
+            b2Vec2.y(moverCenter1, y + center1Y);
+            b2Vec2.x(moverCenter2, x + center2X);
+            b2Vec2.y(moverCenter2, y + center2Y);
+            nBox2D.nWorldCollideMover(worldId, mover, collideFilter, planeResultFcn, MemorySegment.NULL);
+
+            b2Vec2.x(targetDelta, targetX - x);
+            b2Vec2.y(targetDelta, targetY - y);
+            nBox2D.nSolvePlanes(solverAllocator, targetDelta, planes, planeCount);
+            solverIterations += b2PlaneSolverResult.iterationCount(solverResult);
+
+            float fraction = nBox2D.nWorldCastMover(worldId, mover, solverTranslation, castFilter);
+            float deltaX = fraction * b2Vec2.x(solverTranslation);
+            float deltaY = fraction * b2Vec2.y(solverTranslation);
+            x += deltaX;
+            y += deltaY;
+            if (deltaX * deltaX + deltaY * deltaY < toleranceSquared) break;
+        }
+
+        b2Vec2.x(velocity, velocityX);
+        b2Vec2.y(velocity, velocityY);
+        nBox2D.nClipVector(clipAllocator, velocity, planes, planeCount);
+        velocityX = b2Vec2.x(clippedVelocity);
+        velocityY = b2Vec2.y(clippedVelocity);
+        return iteration;
+    }
+
+    private boolean onPlaneResult(MemorySegment shapeId, MemorySegment result, MemorySegment context) {
+        if (planeCount >= planeCapacity) return false;
+        MemorySegment planeResult = result.reinterpret(b2PlaneResult.layout().byteSize());
+        if (!b2PlaneResult.hit(planeResult)) return true;
+        long base = planeCount * PlaneStride;
+        MemorySegment.copy(planeResult, b2PlaneResult.plane$offset(), planes, base + b2CollisionPlane.plane$offset(), b2Plane.layout().byteSize());
+        planes.set(b2CollisionPlane.pushLimit$layout(), base + b2CollisionPlane.pushLimit$offset(), pushLimit);
+        planes.set(b2CollisionPlane.push$layout(), base + b2CollisionPlane.push$offset(), 0.0f);
+        planes.set(b2CollisionPlane.clipVelocity$layout(), base + b2CollisionPlane.clipVelocity$offset(), clipVelocity);
+        planeCount++;
+        return true;
+    }
+
+    /**
+     * Get the x coordinate of this mover's position.
+     * @return the x coordinate value
+     */
+    public float x() {
+        return x;
+    }
+
+    /**
+     * Get the y coordinate of this mover's position.
+     * @return the y coordinate value
+     */
+    public float y() {
+        return y;
+    }
+
+    /**
+     * Set the position of this mover, teleporting it without collision.
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return this
+     */
+    public CharacterMover position(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Get the x component of this mover's velocity.
+     * @return the velocity x component value
+     */
+    public float velocityX() {
+        return velocityX;
+    }
+
+    /**
+     * Get the y component of this mover's velocity.
+     * @return the velocity y component value
+     */
+    public float velocityY() {
+        return velocityY;
+    }
+
+    /**
+     * Set the velocity of this mover.
+     * @param x the velocity x component
+     * @param y the velocity y component
+     * @return this
+     */
+    public CharacterMover velocity(float x, float y) {
+        velocityX = x;
+        velocityY = y;
+        return this;
+    }
+
+    /**
+     * Set the filter used to gather contact planes, usually colliding with static, dynamic and other movers.
+     * @param categoryBits the category bits of the mover
+     * @param maskBits the categories the mover collides with
+     * @return this
+     */
+    public CharacterMover collideFilter(long categoryBits, long maskBits) {
+        b2QueryFilter.categoryBits(collideFilter, categoryBits);
+        b2QueryFilter.maskBits(collideFilter, maskBits);
+        return this;
+    }
+
+    /**
+     * Set the filter used to sweep the mover, usually excluding other movers for soft collision between them.
+     * @param categoryBits the category bits of the mover
+     * @param maskBits the categories the mover is blocked by
+     * @return this
+     */
+    public CharacterMover castFilter(long categoryBits, long maskBits) {
+        b2QueryFilter.categoryBits(castFilter, categoryBits);
+        b2QueryFilter.maskBits(castFilter, maskBits);
+        return this;
+    }
+
+    /**
+     * Set the push limit applied to every gathered plane.
+     * Defaults to {@link Float#MAX_VALUE}, meaning the mover is always pushed fully out of contact.
+     * @param pushLimit the maximum push per plane
+     * @return this
+     */
+    public CharacterMover pushLimit(float pushLimit) {
+        this.pushLimit = pushLimit;
+        return this;
+    }
+
+    /**
+     * Set whether gathered planes clip the velocity after a move, true by default.
+     * @param clipVelocity true to clip the velocity
+     * @return this
+     */
+    public CharacterMover clipVelocity(boolean clipVelocity) {
+        this.clipVelocity = clipVelocity;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of collide, solve and cast iterations per move, 5 by default.
+     * @param maxIterations the iteration limit
+     * @return this
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public CharacterMover maxIterations(int maxIterations) {
+        if (maxIterations <= 0) throw new IllegalArgumentException("Iteration limit must be positive, got " + maxIterations);
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /**
+     * Set the travel distance below which the iteration stops early, 0.01 by default.
+     * @param tolerance the distance tolerance
+     * @return this
+     */
+    public CharacterMover tolerance(float tolerance) {
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Get the total plane solver iterations of the last move.
+     * @return the solver iteration count
+     */
+    public int solverIterations() {
+        return solverIterations;
+    }
+
+    /**
+     * Get the number of planes gathered in the last iteration of the last move.
+     * @return the plane count
+     */
+    public int planeCount() {
+        return planeCount;
+    }
+
+    /**
+     * Get the normal x component of a gathered plane.
+     * @param index the plane index, in {@code [0, planeCount())}
+     * @return the normal x component value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float planeNormalX(int index) {
+        return b2Vec2.x(b2Plane.normal(b2CollisionPlane.plane(plane(index))));
+    }
+
+    /**
+     * Get the normal y component of a gathered plane.
+     * A value close to 1 means the mover stands on the plane.
+     * @param index the plane index, in {@code [0, planeCount())}
+     * @return the normal y component value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float planeNormalY(int index) {
+        return b2Vec2.y(b2Plane.normal(b2CollisionPlane.plane(plane(index))));
+    }
+
+    private MemorySegment plane(int index) {
+        if (index < 0 || index >= planeCount) throw new IndexOutOfBoundsException("Plane index out of range: " + index);
+        return b2CollisionPlane.asSlice(planes, index);
+    }
+
+    /**
+     * Get the world this mover moves through.
+     * @return the {@link World}
+     */
+    public World world() {
+        return world;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CharacterMover[position=(%.3f, %.3f), velocity=(%.3f, %.3f), planes=%d]", x, y, velocityX, velocityY, planeCount);
+    }
+}
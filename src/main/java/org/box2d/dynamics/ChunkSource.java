@@ -0,0 +1,20 @@
+package org.box2d.dynamics;
+
+/**
+ * Source of static terrain for a {@link TerrainStreamer}, loading one chunk at a time.
+ * <p>
+ * Called on the streamer's background thread, so implementations must be thread safe
+ * and must not touch the {@link World}. Preparing off-heap data (points, hulls, polygons) is fine,
+ * creating bodies or shapes is not.
+ * </p>
+ */
+@FunctionalInterface
+public interface ChunkSource {
+    /**
+     * Load the geometry of a chunk.
+     * @param chunkX the chunk column, {@code floor(x / chunkSize)}
+     * @param chunkY the chunk row, {@code floor(y / chunkSize)}
+     * @return the chunk geometry, in world coordinates, may be empty
+     */
+    TerrainChunk load(int chunkX, int chunkY);
+}
@@ -0,0 +1,20 @@
+package org.box2d.dynamics;
+
+/**
+ * Custom collision filter, called for each candidate shape pair whose shapes both enable custom filtering.
+ * <p>
+ * Box2D may call this from its worker threads, concurrently and during the step,
+ * so implementations must be thread safe, must not modify the world and must not throw.
+ * </p>
+ * Java counterpart of native {@link org.box2d.internal.b2CustomFilterFcn}.
+ */
+@FunctionalInterface
+public interface CustomFilter {
+    /**
+     * Decide whether two shapes may collide.
+     * @param shapeIdA the first shape, packed as in {@link ShapeId}
+     * @param shapeIdB the second shape, packed as in {@link ShapeId}
+     * @return true to let the pair collide
+     */
+    boolean shouldCollide(long shapeIdA, long shapeIdB);
+}
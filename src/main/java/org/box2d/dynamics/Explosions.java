@@ -0,0 +1,144 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2ExplosionDef;
+import org.box2d.internal.b2OverlapResultFcn;
+import org.box2d.internal.b2QueryFilter;
+import org.box2d.internal.b2ShapeProxy;
+import org.box2d.internal.b2TreeStats;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Explosion state of a {@link World}: the reused {@link b2ExplosionDef}, the merge scratch arrays,
+ * and the overlap query reporting the affected bodies through a single upcall stub.
+ */
+final class Explosions {
+    // b2_dynamicBody, the only body type b2World_Explode pushes.
+    private static final int DynamicBody = 2;
+
+    private static final long MaskBits = b2ExplosionDef.maskBits$offset();
+    private static final long PositionX = b2ExplosionDef.position$offset() + b2Vec2.x$offset();
+    private static final long PositionY = b2ExplosionDef.position$offset() + b2Vec2.y$offset();
+    private static final long Radius = b2ExplosionDef.radius$offset();
+    private static final long Falloff = b2ExplosionDef.falloff$offset();
+    private static final long ImpulsePerLength = b2ExplosionDef.impulsePerLength$offset();
+    private static final long ProxyX = b2ShapeProxy.points$offset() + b2Vec2.x$offset();
+    private static final long ProxyY = b2ShapeProxy.points$offset() + b2Vec2.y$offset();
+    private static final long ProxyCount = b2ShapeProxy.count$offset();
+    private static final long ProxyRadius = b2ShapeProxy.radius$offset();
+    private static final long FilterCategoryBits = b2QueryFilter.categoryBits$offset();
+    private static final long FilterMaskBits = b2QueryFilter.maskBits$offset();
+
+    private final MemorySegment worldId;
+    private final MemorySegment def;
+    private final MemorySegment proxy;
+    private final MemorySegment filter;
+    private final SegmentAllocator statsAllocator;
+    private final SegmentAllocator bodyAllocator;
+    private final MemorySegment overlapFcn;
+
+    private float[] mergedX = new float[16];
+    private float[] mergedY = new float[16];
+    private float[] mergedRadius = new float[16];
+    private float[] mergedImpulse = new float[16];
+    private long[] bodies = new long[64];
+    private int bodyCount;
+
+    Explosions(MemorySegment worldId) {
+        this.worldId = worldId;
+        Arena arena = Arena.ofAuto();
+        def = nBox2D.nDefaultExplosionDef();
+        proxy = arena.allocate(b2ShapeProxy.layout());
+        proxy.set(ValueLayout.JAVA_INT, ProxyCount, 1);
+        filter = nBox2D.nDefaultQueryFilter();
+        // Accept every shape whose own mask lets queries through, the explosion mask does the selection.
+        filter.set(ValueLayout.JAVA_LONG, FilterCategoryBits, -1L);
+        MemorySegment stats = arena.allocate(b2TreeStats.layout());
+        statsAllocator = (byteSize, byteAlignment) -> stats;
+        MemorySegment bodyId = arena.allocate(b2BodyId.layout());
+        bodyAllocator = (byteSize, byteAlignment) -> bodyId;
+        overlapFcn = b2OverlapResultFcn.allocate(this::onOverlap, arena);
+    }
+
+    void explode(float x, float y, float radius, float falloff, float impulsePerLength, long maskBits) {
+        def.set(ValueLayout.JAVA_LONG, MaskBits, maskBits);
+        def.set(ValueLayout.JAVA_FLOAT, PositionX, x);
+        def.set(ValueLayout.JAVA_FLOAT, PositionY, y);
+        def.set(ValueLayout.JAVA_FLOAT, Radius, radius);
+        def.set(ValueLayout.JAVA_FLOAT, Falloff, falloff);
+        def.set(ValueLayout.JAVA_FLOAT, ImpulsePerLength, impulsePerLength);
+        nBox2D.nWorldExplode(worldId, def);
+    }
+
+    int explodeAll(float[] xs, float[] ys, float[] radii, float[] impulses, float impulsePerLength, int count,
+                   float falloff, float mergeDistance, long maskBits, BodySink affected) {
+        Objects.checkFromIndexSize(0, count, xs.length);
+        Objects.checkFromIndexSize(0, count, ys.length);
+        Objects.checkFromIndexSize(0, count, radii.length);
+        if (!(mergeDistance >= 0.0f)) throw new IllegalArgumentException("Merge distance must not be negative, got " + mergeDistance);
+        if (mergedX.length < count) {
+            int capacity = Integer.highestOneBit(count - 1) << 1;
+            mergedX = new float[capacity];
+            mergedY = new float[capacity];
+            mergedRadius = new float[capacity];
+            mergedImpulse = new float[capacity];
+        }
+
+        // The impulse is linear in impulsePerLength, so blasts sharing a center and a radius add up exactly.
+        // Within the merge distance they fold into the first of them, approximately.
+        int merged = 0;
+        float mergeDistanceSquared = mergeDistance * mergeDistance;
+        next:
+        for (int i = 0; i < count; i++) {
+            float x = xs[i], y = ys[i], radius = radii[i];
+            float impulse = impulses == null ? impulsePerLength : impulses[i];
+            for (int j = 0; j < merged; j++) {
+                float dx = x - mergedX[j], dy = y - mergedY[j];
+                if (dx * dx + dy * dy <= mergeDistanceSquared && Math.abs(radius - mergedRadius[j]) <= mergeDistance) {
+                    mergedImpulse[j] += impulse;
+                    continue next;
+                }
+            }
+            mergedX[merged] = x;
+            mergedY[merged] = y;
+            mergedRadius[merged] = radius;
+            mergedImpulse[merged] = impulse;
+            merged++;
+        }
+
+        for (int i = 0; i < merged; i++) explode(mergedX[i], mergedY[i], mergedRadius[i], falloff, mergedImpulse[i], maskBits);
+
+        if (affected != null) {
+            // Explosions wake bodies but do not move them, so querying afterwards sees the same shapes.
+            bodyCount = 0;
+            filter.set(ValueLayout.JAVA_LONG, FilterMaskBits, maskBits);
+            for (int i = 0; i < merged; i++) {
+                proxy.set(ValueLayout.JAVA_FLOAT, ProxyX, mergedX[i]);
+                proxy.set(ValueLayout.JAVA_FLOAT, ProxyY, mergedY[i]);
+                proxy.set(ValueLayout.JAVA_FLOAT, ProxyRadius, mergedRadius[i] + falloff);
+                nBox2D.nWorldOverlapShape(statsAllocator, worldId, proxy, filter, overlapFcn, MemorySegment.NULL);
+            }
+            Arrays.sort(bodies, 0, bodyCount);
+            for (int i = 0; i < bodyCount; i++) {
+                if (i == 0 || bodies[i] != bodies[i - 1]) affected.accept(bodies[i]);
+            }
+        }
+        return merged;
+    }
+
+    private boolean onOverlap(MemorySegment shapeId, MemorySegment context) {
+        MemorySegment bodyId = nBox2D.nShapeGetBody(bodyAllocator, shapeId);
+        if (nBox2D.nBodyGetType(bodyId) != DynamicBody) return true;
+        if (bodyCount == bodies.length) bodies = Arrays.copyOf(bodies, bodyCount * 2);
+        bodies[bodyCount++] = BodyId.pack(bodyId);
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2JointId;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Packing of a native {@link b2JointId} into a primitive {@code long}, so joint ids can cross
+ * callbacks and collections without wrapper allocation.
+ * <p>
+ * The packed layout is {@code index1} in the low 32 bits, {@code world0} in bits 32 to 47
+ * and {@code generation} in bits 48 to 63. A packed value of 0 is the null joint id.
+ * </p>
+ */
+public final class JointId {
+    /**
+     * The packed null joint id.
+     */
+    public static final long Null = 0L;
+
+    private JointId() {}
+
+    /**
+     * Pack the given components.
+     * @param index1 the one based joint index
+     * @param world0 the zero based world index
+     * @param generation the joint generation
+     * @return the packed joint id
+     */
+    public static long pack(int index1, int world0, int generation) {
+        return (index1 & 0xFFFFFFFFL) | ((world0 & 0xFFFFL) << 32) | ((generation & 0xFFFFL) << 48);
+    }
+
+    /**
+     * Pack a {@link b2JointId} memory segment.
+     * @param segment the memory segment of the joint id
+     * @return the packed joint id
+     */
+    public static long pack(MemorySegment segment) {
+        return pack(b2JointId.index1(segment), b2JointId.world0(segment), b2JointId.generation(segment));
+    }
+
+    /**
+     * Write a packed joint id into a {@link b2JointId} memory segment.
+     * @param id the packed joint id
+     * @param segment the memory segment to write to
+     * @return the given segment
+     */
+    public static MemorySegment unpack(long id, MemorySegment segment) {
+        b2JointId.index1(segment, index1(id));
+        b2JointId.world0(segment, (short) world0(id));
+        b2JointId.generation(segment, (short) generation(id));
+        return segment;
+    }
+
+    /**
+     * Get the one based joint index of a packed joint id.
+     * @param id the packed joint id
+     * @return the joint index, 0 for the null id
+     */
+    public static int index1(long id) {
+        return (int) id;
+    }
+
+    /**
+     * Get the zero based world index of a packed joint id.
+     * @param id the packed joint id
+     * @return the world index
+     */
+    public static int world0(long id) {
+        return (int) (id >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Get the generation of a packed joint id.
+     * @param id the packed joint id
+     * @return the joint generation
+     */
+    public static int generation(long id) {
+        return (int) (id >>> 48) & 0xFFFF;
+    }
+
+    /**
+     * Format a packed joint id for logging.
+     * @param id the packed joint id
+     * @return the formatted joint id
+     */
+    public static String toString(long id) {
+        return String.format("JointId[index=%d, world=%d, generation=%d]", index1(id), world0(id), generation(id));
+    }
+}
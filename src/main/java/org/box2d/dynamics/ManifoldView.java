@@ -0,0 +1,216 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2Manifold;
+import org.box2d.internal.b2ManifoldPoint;
+import org.box2d.internal.b2Vec2;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Reusable read only view over a native {@link b2Manifold}.
+ * <p>
+ * The view only keeps the native address, so re-targeting it with {@link #wrap(MemorySegment)} or
+ * by a callback does not allocate. Reading a view whose manifold has been freed is undefined.
+ * A view is not thread safe, use one per thread.
+ * </p>
+ */
+public final class ManifoldView {
+    private static final MemorySegment Everything = MemorySegment.NULL.reinterpret(Long.MAX_VALUE);
+
+    private static final long NormalX = b2Manifold.normal$offset() + b2Vec2.x$offset();
+    private static final long NormalY = b2Manifold.normal$offset() + b2Vec2.y$offset();
+    private static final long RollingImpulse = b2Manifold.rollingImpulse$offset();
+    private static final long PointCount = b2Manifold.pointCount$offset();
+    private static final long Points = b2Manifold.points$offset();
+    private static final long PointStride = b2ManifoldPoint.layout().byteSize();
+    private static final long PointX = b2ManifoldPoint.point$offset() + b2Vec2.x$offset();
+    private static final long PointY = b2ManifoldPoint.point$offset() + b2Vec2.y$offset();
+    private static final long AnchorAX = b2ManifoldPoint.anchorA$offset() + b2Vec2.x$offset();
+    private static final long AnchorAY = b2ManifoldPoint.anchorA$offset() + b2Vec2.y$offset();
+    private static final long AnchorBX = b2ManifoldPoint.anchorB$offset() + b2Vec2.x$offset();
+    private static final long AnchorBY = b2ManifoldPoint.anchorB$offset() + b2Vec2.y$offset();
+    private static final long Separation = b2ManifoldPoint.separation$offset();
+    private static final long NormalImpulse = b2ManifoldPoint.normalImpulse$offset();
+    private static final long TangentImpulse = b2ManifoldPoint.tangentImpulse$offset();
+    private static final long NormalVelocity = b2ManifoldPoint.normalVelocity$offset();
+    private static final long Id = b2ManifoldPoint.id$offset();
+    private static final long Persisted = b2ManifoldPoint.persisted$offset();
+
+    private long address;
+
+    /**
+     * Create a new {@link ManifoldView} that does not target any manifold yet.
+     */
+    public ManifoldView() {}
+
+    /**
+     * Target the manifold at the given native address.
+     * @param address the native address of a {@link b2Manifold}
+     * @return this
+     */
+    ManifoldView wrap(long address) {
+        this.address = address;
+        return this;
+    }
+
+    /**
+     * Target the given native manifold.
+     * @param segment the memory segment of a {@link b2Manifold}
+     * @return this
+     */
+    public ManifoldView wrap(MemorySegment segment) {
+        return wrap(segment.address());
+    }
+
+    /**
+     * Get the x component of the manifold normal, pointing from shape A to shape B.
+     * @return the normal x component value
+     */
+    public float normalX() {
+        return Everything.get(ValueLayout.JAVA_FLOAT, address + NormalX);
+    }
+
+    /**
+     * Get the y component of the manifold normal, pointing from shape A to shape B.
+     * @return the normal y component value
+     */
+    public float normalY() {
+        return Everything.get(ValueLayout.JAVA_FLOAT, address + NormalY);
+    }
+
+    /**
+     * Get the rolling resistance impulse.
+     * @return the rolling impulse value
+     */
+    public float rollingImpulse() {
+        return Everything.get(ValueLayout.JAVA_FLOAT, address + RollingImpulse);
+    }
+
+    /**
+     * Get the number of contact points, 0 to 2.
+     * @return the point count
+     */
+    public int pointCount() {
+        return Everything.get(ValueLayout.JAVA_INT, address + PointCount);
+    }
+
+    /**
+     * Get the world x coordinate of a contact point.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the point x coordinate
+     */
+    public float pointX(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + PointX);
+    }
+
+    /**
+     * Get the world y coordinate of a contact point.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the point y coordinate
+     */
+    public float pointY(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + PointY);
+    }
+
+    /**
+     * Get the x coordinate of a contact point relative to the centre of mass of body A.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the anchor x coordinate
+     */
+    public float anchorAX(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + AnchorAX);
+    }
+
+    /**
+     * Get the y coordinate of a contact point relative to the centre of mass of body A.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the anchor y coordinate
+     */
+    public float anchorAY(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + AnchorAY);
+    }
+
+    /**
+     * Get the x coordinate of a contact point relative to the centre of mass of body B.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the anchor x coordinate
+     */
+    public float anchorBX(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + AnchorBX);
+    }
+
+    /**
+     * Get the y coordinate of a contact point relative to the centre of mass of body B.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the anchor y coordinate
+     */
+    public float anchorBY(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + AnchorBY);
+    }
+
+    /**
+     * Get the separation of a contact point, negative when overlapping.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the separation value
+     */
+    public float separation(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + Separation);
+    }
+
+    /**
+     * Get the normal impulse of a contact point.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the normal impulse value
+     */
+    public float normalImpulse(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + NormalImpulse);
+    }
+
+    /**
+     * Get the friction impulse of a contact point.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the tangent impulse value
+     */
+    public float tangentImpulse(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + TangentImpulse);
+    }
+
+    /**
+     * Get the relative normal velocity of a contact point, before the solver.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the normal velocity value
+     */
+    public float normalVelocity(int index) {
+        return Everything.get(ValueLayout.JAVA_FLOAT, point(index) + NormalVelocity);
+    }
+
+    /**
+     * Get the feature id of a contact point, used for warm starting.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return the unsigned 16-bit id
+     */
+    public int id(int index) {
+        return Everything.get(ValueLayout.JAVA_SHORT, point(index) + Id) & 0xFFFF;
+    }
+
+    /**
+     * Check if a contact point persisted from the previous step.
+     * @param index the point index, in {@code [0, pointCount())}
+     * @return true if persisted
+     */
+    public boolean persisted(int index) {
+        return Everything.get(ValueLayout.JAVA_BOOLEAN, point(index) + Persisted);
+    }
+
+    private long point(int index) {
+        if (index < 0 || index >= pointCount()) throw new IndexOutOfBoundsException("Manifold point index out of range: " + index);
+        return address + Points + index * PointStride;
+    }
+
+    @Override
+    public String toString() {
+        if (address == 0L) return "ManifoldView[unbound]";
+        return String.format("ManifoldView[normal=(%.3f, %.3f), points=%d]", normalX(), normalY(), pointCount());
+    }
+}
@@ -0,0 +1,152 @@
+package org.box2d.dynamics;
+
+import java.util.Arrays;
+
+/**
+ * Friction and restitution per pair of surface materials, keyed by the {@code userMaterialId} of {@code b2SurfaceMaterial}.
+ * <p>
+ * The coefficients are kept in flat {@code N*N} row major arrays, so the mixing callbacks installed by
+ * {@link World#materialTable(MaterialTable)} answer with one array lookup. A pair whose entry is {@code NaN},
+ * or whose ids are out of range, falls back to Box2D's default mixing:
+ * {@code sqrt(frictionA * frictionB)} and {@code max(restitutionA, restitutionB)}.
+ * </p>
+ * <p>
+ * Both matrices are swapped together as one immutable snapshot, so a replacement is atomic for concurrent solver threads.
+ * Edits through {@link #set(int, int, float, float)} copy the snapshot and are meant for setup, not per step use.
+ * </p>
+ */
+public final class MaterialTable {
+    private record Matrix(float[] friction, float[] restitution) {}
+
+    private final int materialCount;
+    private volatile Matrix matrix;
+
+    /**
+     * Create a new {@link MaterialTable} for the given number of materials, with every pair using the default mixing.
+     * @param materialCount the number of materials, ids in {@code [0, materialCount)}
+     * @throws IllegalArgumentException if the material count is not positive or too large
+     */
+    public MaterialTable(int materialCount) {
+        if (materialCount <= 0 || materialCount > 46340) throw new IllegalArgumentException("Material count out of range: " + materialCount);
+        this.materialCount = materialCount;
+        float[] friction = new float[materialCount * materialCount];
+        float[] restitution = new float[materialCount * materialCount];
+        Arrays.fill(friction, Float.NaN);
+        Arrays.fill(restitution, Float.NaN);
+        matrix = new Matrix(friction, restitution);
+    }
+
+    /**
+     * Get the number of materials of this table.
+     * @return the material count
+     */
+    public int materialCount() {
+        return materialCount;
+    }
+
+    /**
+     * Set the coefficients of a material pair, symmetrically.
+     * @param materialA the first material id
+     * @param materialB the second material id
+     * @param friction the friction, or {@code NaN} for default mixing
+     * @param restitution the restitution, or {@code NaN} for default mixing
+     * @return this
+     * @throws IndexOutOfBoundsException if a material id is out of range
+     */
+    public synchronized MaterialTable set(int materialA, int materialB, float friction, float restitution) {
+        checkId(materialA);
+        checkId(materialB);
+        Matrix current = matrix;
+        float[] frictions = current.friction.clone();
+        float[] restitutions = current.restitution.clone();
+        frictions[materialA * materialCount + materialB] = friction;
+        frictions[materialB * materialCount + materialA] = friction;
+        restitutions[materialA * materialCount + materialB] = restitution;
+        restitutions[materialB * materialCount + materialA] = restitution;
+        matrix = new Matrix(frictions, restitutions);
+        return this;
+    }
+
+    /**
+     * Atomically replace both matrices. The arrays are copied.
+     * @param friction the row major {@code N*N} friction matrix
+     * @param restitution the row major {@code N*N} restitution matrix
+     * @return this
+     * @throws IllegalArgumentException if an array length is not {@code N*N}
+     */
+    public synchronized MaterialTable replace(float[] friction, float[] restitution) {
+        int size = materialCount * materialCount;
+        if (friction.length != size || restitution.length != size) {
+            throw new IllegalArgumentException(String.format("Material matrices require %d entries, got %d and %d", size, friction.length, restitution.length));
+        }
+        matrix = new Matrix(friction.clone(), restitution.clone());
+        return this;
+    }
+
+    /**
+     * Get the friction entry of a material pair.
+     * @param materialA the first material id
+     * @param materialB the second material id
+     * @return the friction, {@code NaN} when the pair uses default mixing
+     * @throws IndexOutOfBoundsException if a material id is out of range
+     */
+    public float friction(int materialA, int materialB) {
+        checkId(materialA);
+        checkId(materialB);
+        return matrix.friction[materialA * materialCount + materialB];
+    }
+
+    /**
+     * Get the restitution entry of a material pair.
+     * @param materialA the first material id
+     * @param materialB the second material id
+     * @return the restitution, {@code NaN} when the pair uses default mixing
+     * @throws IndexOutOfBoundsException if a material id is out of range
+     */
+    public float restitution(int materialA, int materialB) {
+        checkId(materialA);
+        checkId(materialB);
+        return matrix.restitution[materialA * materialCount + materialB];
+    }
+
+    /**
+     * Mix the friction of two shapes, as called by Box2D's friction callback.
+     * @param frictionA the friction of the first shape
+     * @param materialA the material id of the first shape
+     * @param frictionB the friction of the second shape
+     * @param materialB the material id of the second shape
+     * @return the mixed friction
+     */
+    public float mixFriction(float frictionA, int materialA, float frictionB, int materialB) {
+        if (Integer.compareUnsigned(materialA, materialCount) < 0 && Integer.compareUnsigned(materialB, materialCount) < 0) {
+            float value = matrix.friction[materialA * materialCount + materialB];
+            if (value == value) return value;
+        }
+        return (float) Math.sqrt(frictionA * frictionB);
+    }
+
+    /**
+     * Mix the restitution of two shapes, as called by Box2D's restitution callback.
+     * @param restitutionA the restitution of the first shape
+     * @param materialA the material id of the first shape
+     * @param restitutionB the restitution of the second shape
+     * @param materialB the material id of the second shape
+     * @return the mixed restitution
+     */
+    public float mixRestitution(float restitutionA, int materialA, float restitutionB, int materialB) {
+        if (Integer.compareUnsigned(materialA, materialCount) < 0 && Integer.compareUnsigned(materialB, materialCount) < 0) {
+            float value = matrix.restitution[materialA * materialCount + materialB];
+            if (value == value) return value;
+        }
+        return Math.max(restitutionA, restitutionB);
+    }
+
+    private void checkId(int material) {
+        if (material < 0 || material >= materialCount) throw new IndexOutOfBoundsException("Material id out of range: " + material);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MaterialTable[materials=%d]", materialCount);
+    }
+}
@@ -0,0 +1,22 @@
+package org.box2d.dynamics;
+
+/**
+ * Pre-solve listener, called for each touching contact of shapes that enable pre-solve events, before it is solved.
+ * <p>
+ * Box2D may call this from its worker threads, concurrently and during the step,
+ * so implementations must be thread safe, must not modify the world and must not throw.
+ * The manifold view is only valid for the duration of the call.
+ * </p>
+ * Java counterpart of native {@link org.box2d.internal.b2PreSolveFcn}.
+ */
+@FunctionalInterface
+public interface PreSolveListener {
+    /**
+     * Decide whether a contact is enabled for this step.
+     * @param shapeIdA the first shape, packed as in {@link ShapeId}
+     * @param shapeIdB the second shape, packed as in {@link ShapeId}
+     * @param manifold a read only view of the contact manifold, reused between calls on the same thread
+     * @return true to keep the contact, false to disable it for this step
+     */
+    boolean preSolve(long shapeIdA, long shapeIdB, ManifoldView manifold);
+}
@@ -0,0 +1,91 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2ShapeId;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Packing of a native {@link b2ShapeId} into a primitive {@code long}, so shape ids can cross
+ * callbacks and collections without wrapper allocation.
+ * <p>
+ * The packed layout is {@code index1} in the low 32 bits, {@code world0} in bits 32 to 47
+ * and {@code generation} in bits 48 to 63. A packed value of 0 is the null shape id.
+ * </p>
+ */
+public final class ShapeId {
+    /**
+     * The packed null shape id.
+     */
+    public static final long Null = 0L;
+
+    private ShapeId() {}
+
+    /**
+     * Pack the given components.
+     * @param index1 the one based shape index
+     * @param world0 the zero based world index
+     * @param generation the shape generation
+     * @return the packed shape id
+     */
+    public static long pack(int index1, int world0, int generation) {
+        return (index1 & 0xFFFFFFFFL) | ((world0 & 0xFFFFL) << 32) | ((generation & 0xFFFFL) << 48);
+    }
+
+    /**
+     * Pack a {@link b2ShapeId} memory segment.
+     * @param segment the memory segment of the shape id
+     * @return the packed shape id
+     */
+    public static long pack(MemorySegment segment) {
+        return pack(b2ShapeId.index1(segment), b2ShapeId.world0(segment), b2ShapeId.generation(segment));
+    }
+
+    /**
+     * Write a packed shape id into a {@link b2ShapeId} memory segment.
+     * @param id the packed shape id
+     * @param segment the memory segment to write to
+     * @return the given segment
+     */
+    public static MemorySegment unpack(long id, MemorySegment segment) {
+        b2ShapeId.index1(segment, index1(id));
+        b2ShapeId.world0(segment, (short) world0(id));
+        b2ShapeId.generation(segment, (short) generation(id));
+        return segment;
+    }
+
+    /**
+     * Get the one based shape index of a packed shape id.
+     * @param id the packed shape id
+     * @return the shape index, 0 for the null id
+     */
+    public static int index1(long id) {
+        return (int) id;
+    }
+
+    /**
+     * Get the zero based world index of a packed shape id.
+     * @param id the packed shape id
+     * @return the world index
+     */
+    public static int world0(long id) {
+        return (int) (id >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Get the generation of a packed shape id.
+     * @param id the packed shape id
+     * @return the shape generation
+     */
+    public static int generation(long id) {
+        return (int) (id >>> 48) & 0xFFFF;
+    }
+
+    /**
+     * Format a packed shape id for logging.
+     * @param id the packed shape id
+     * @return the formatted shape id
+     */
+    public static String toString(long id) {
+        return String.format("ShapeId[index=%d, world=%d, generation=%d]", index1(id), world0(id), generation(id));
+    }
+}
@@ -0,0 +1,500 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2BodyDef;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2Circle;
+import org.box2d.internal.b2Polygon;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2ShapeDef;
+import org.box2d.internal.b2ShapeId;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Simulation split over a grid of square tiles, each backed by its own {@link World}, stepped in parallel.
+ * <p>
+ * A single world shares its solver work out per island, and a ground touching every body makes one island of
+ * everything. Here every tile is a separate world owning the dynamic bodies whose origin lies in it. Static geometry is
+ * duplicated into every tile it overlaps, widened by the band, so bodies near a boundary still rest on the ghost copy
+ * of a neighbor's ground. After each step, a body whose bounds left its tile entirely is recreated in the tile now
+ * holding its origin, with the same transform, velocities and sleep state.
+ * </p>
+ * <p>
+ * The split is an approximation: bodies in different tiles do not collide with each other, and joints are not
+ * supported. Bodies are referred to by stable handles, their id changes when they migrate. Creating, destroying and
+ * stepping are not thread safe, call them from one thread.
+ * </p>
+ */
+public final class ShardedWorld implements AutoCloseable {
+    private static final byte Free = 0;
+    private static final byte Box = 1;
+    private static final byte Circle = 2;
+    // b2_staticBody and b2_dynamicBody.
+    private static final int StaticBody = 0;
+    private static final int DynamicBody = 2;
+
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long Cosine = b2Rot.c$offset();
+    private static final long Sine = b2Rot.s$offset();
+    private static final long BodyType = b2BodyDef.type$offset();
+    private static final long BodyPosition = b2BodyDef.position$offset();
+    private static final long BodyRotation = b2BodyDef.rotation$offset();
+    private static final long BodyLinearVelocity = b2BodyDef.linearVelocity$offset();
+    private static final long BodyAngularVelocity = b2BodyDef.angularVelocity$offset();
+    private static final long BodyIsAwake = b2BodyDef.isAwake$offset();
+    private static final long Density = b2ShapeDef.density$offset();
+    private static final long CircleRadius = b2Circle.radius$offset();
+    private static final long TransformPosition = b2Transform.p$offset();
+    private static final long TransformRotation = b2Transform.q$offset();
+
+    private final float originX;
+    private final float originY;
+    private final float tileSize;
+    private final int columns;
+    private final int rows;
+    private final float band;
+    private final World[] shards;
+    private final List<World> shardList;
+
+    // Per handle: shape kind or Free, shard, packed body id, shape sizes, density, bounding radius, index in its shard.
+    private byte[] kinds = new byte[64];
+    private int[] shardOf = new int[64];
+    private long[] bodyIds = new long[64];
+    private float[] sizesA = new float[64];
+    private float[] sizesB = new float[64];
+    private float[] densities = new float[64];
+    private float[] boundRadii = new float[64];
+    private int[] ownedIndices = new int[64];
+    private int[] freeHandles = new int[64];
+    private int freeCount;
+    private int handleCount;
+    private int bodyCount;
+    // Per shard: the handles it owns.
+    private final int[][] owned;
+    private final int[] ownedCounts;
+
+    private final MemorySegment bodyDef;
+    private final MemorySegment shapeDef;
+    private final MemorySegment circle;
+    private final MemorySegment bodyId;
+    private final SegmentAllocator bodyAllocator;
+    private final SegmentAllocator shapeAllocator;
+    private final SegmentAllocator polygonAllocator;
+    private final SegmentAllocator transformAllocator;
+    private final SegmentAllocator vectorAllocator;
+    private int lastMigrations;
+    private long totalMigrations;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link ShardedWorld} of {@code columns * rows} tiles, the first one with its lower corner at the origin.
+     * Bodies beyond the grid belong to the nearest edge tile.
+     * @param gravityX the gravity x component of every tile
+     * @param gravityY the gravity y component of every tile
+     * @param originX the lower x coordinate of the grid
+     * @param originY the lower y coordinate of the grid
+     * @param tileSize the side length of a tile, in meters
+     * @param columns the number of tiles along x
+     * @param rows the number of tiles along y
+     * @param band the width of the band around each tile in which static geometry of neighbors is duplicated
+     * @throws IllegalArgumentException if the size, the counts or the band are out of range
+     */
+    public ShardedWorld(float gravityX, float gravityY, float originX, float originY, float tileSize, int columns, int rows, float band) {
+        if (!(tileSize > 0.0f)) throw new IllegalArgumentException("Tile size must be positive, got " + tileSize);
+        if (columns <= 0 || rows <= 0) throw new IllegalArgumentException("Tile counts must be positive, got " + columns + "x" + rows);
+        if (!(band >= 0.0f)) throw new IllegalArgumentException("Band must not be negative, got " + band);
+        this.originX = originX;
+        this.originY = originY;
+        this.tileSize = tileSize;
+        this.columns = columns;
+        this.rows = rows;
+        this.band = band;
+        shards = new World[columns * rows];
+        for (int i = 0; i < shards.length; i++) shards[i] = new World(gravityX, gravityY);
+        shardList = List.of(shards);
+        owned = new int[shards.length][16];
+        ownedCounts = new int[shards.length];
+
+        Arena arena = Arena.ofAuto();
+        bodyDef = nBox2D.nDefaultBodyDef();
+        shapeDef = nBox2D.nDefaultShapeDef();
+        circle = arena.allocate(b2Circle.layout());
+        bodyId = arena.allocate(b2BodyId.layout());
+        MemorySegment createdBody = arena.allocate(b2BodyId.layout());
+        bodyAllocator = (byteSize, byteAlignment) -> createdBody;
+        MemorySegment createdShape = arena.allocate(b2ShapeId.layout());
+        shapeAllocator = (byteSize, byteAlignment) -> createdShape;
+        MemorySegment polygon = arena.allocate(b2Polygon.layout());
+        polygonAllocator = (byteSize, byteAlignment) -> polygon;
+        MemorySegment transform = arena.allocate(b2Transform.layout());
+        transformAllocator = (byteSize, byteAlignment) -> transform;
+        MemorySegment vector = arena.allocate(b2Vec2.layout());
+        vectorAllocator = (byteSize, byteAlignment) -> vector;
+    }
+
+    /**
+     * Add a static box to every tile it overlaps, band included.
+     * @param x the center x coordinate
+     * @param y the center y coordinate
+     * @param halfWidth the half width
+     * @param halfHeight the half height
+     * @param angle the rotation in radians
+     * @return the number of tiles holding a copy
+     */
+    public int addStaticBox(float x, float y, float halfWidth, float halfHeight, float angle) {
+        float cosine = (float) Math.cos(angle), sine = (float) Math.sin(angle);
+        float extentX = Math.abs(cosine) * halfWidth + Math.abs(sine) * halfHeight;
+        float extentY = Math.abs(sine) * halfWidth + Math.abs(cosine) * halfHeight;
+        int minColumn = column(x - extentX - band), maxColumn = column(x + extentX + band);
+        int minRow = row(y - extentY - band), maxRow = row(y + extentY + band);
+        setBodyDef(StaticBody, x, y, cosine, sine);
+        shapeDef.set(ValueLayout.JAVA_FLOAT, Density, 0.0f);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                World shard = shards[r * columns + c];
+                shard.enter();
+                try {
+                    MemorySegment body = nBox2D.nCreateBody(bodyAllocator, shard.segment(), bodyDef);
+                    nBox2D.nCreatePolygonShape(shapeAllocator, body, shapeDef, nBox2D.nMakeBox(polygonAllocator, halfWidth, halfHeight));
+                } finally {
+                    shard.exit();
+                }
+            }
+        }
+        return (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+    }
+
+    /**
+     * Create a dynamic box in the tile holding its center.
+     * @param x the center x coordinate
+     * @param y the center y coordinate
+     * @param angle the rotation in radians
+     * @param halfWidth the half width
+     * @param halfHeight the half height
+     * @param density the density, in kg/m²
+     * @return the handle of the body
+     */
+    public int createBox(float x, float y, float angle, float halfWidth, float halfHeight, float density) {
+        return create(Box, x, y, angle, halfWidth, halfHeight, density, (float) Math.hypot(halfWidth, halfHeight));
+    }
+
+    /**
+     * Create a dynamic circle in the tile holding its center.
+     * @param x the center x coordinate
+     * @param y the center y coordinate
+     * @param radius the radius
+     * @param density the density, in kg/m²
+     * @return the handle of the body
+     */
+    public int createCircle(float x, float y, float radius, float density) {
+        return create(Circle, x, y, 0.0f, radius, 0.0f, density, radius);
+    }
+
+    private int create(byte kind, float x, float y, float angle, float sizeA, float sizeB, float density, float boundRadius) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (handleCount == kinds.length) growHandles();
+            handle = handleCount++;
+        }
+        kinds[handle] = kind;
+        sizesA[handle] = sizeA;
+        sizesB[handle] = sizeB;
+        densities[handle] = density;
+        boundRadii[handle] = boundRadius;
+        setBodyDef(DynamicBody, x, y, (float) Math.cos(angle), (float) Math.sin(angle));
+        place(handle, shardIndex(column(x), row(y)));
+        bodyCount++;
+        return handle;
+    }
+
+    /**
+     * Destroy the body of the given handle, which may be reused by a later creation.
+     * @param handle the handle of the body
+     * @throws IllegalArgumentException if the handle does not refer to a body
+     */
+    public void destroyBody(int handle) {
+        checkHandle(handle);
+        World shard = shards[shardOf[handle]];
+        shard.enter();
+        try {
+            nBox2D.nDestroyBody(BodyId.unpack(bodyIds[handle], bodyId));
+        } finally {
+            shard.exit();
+        }
+        disown(handle);
+        kinds[handle] = Free;
+        if (freeCount == freeHandles.length) freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        freeHandles[freeCount++] = handle;
+        bodyCount--;
+    }
+
+    /**
+     * Step every tile in parallel on the default step executor, then migrate the bodies that left their tile.
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, usually 4
+     * @return the number of bodies migrated
+     * @see World#stepAll(java.util.Collection, float, int)
+     */
+    public int step(float timeStep, int subStepCount) {
+        World.stepAll(shardList, timeStep, subStepCount);
+        return migrate();
+    }
+
+    /**
+     * Step every tile in parallel on the given executor, then migrate the bodies that left their tile.
+     * A fixed pool bounds the number of cores used.
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, usually 4
+     * @param executor the executor to step the tiles on
+     * @return the number of bodies migrated
+     * @see World#stepAll(java.util.Collection, float, int, Executor)
+     */
+    public int step(float timeStep, int subStepCount, Executor executor) {
+        World.stepAll(shardList, timeStep, subStepCount, executor);
+        return migrate();
+    }
+
+    private int migrate() {
+        int migrated = 0;
+        for (int s = 0; s < shards.length; s++) {
+            World shard = shards[s];
+            float minX = originX + (s % columns) * tileSize, minY = originY + (s / columns) * tileSize;
+            float maxX = minX + tileSize, maxY = minY + tileSize;
+            // Backward, as moving a body out swaps the last one into its place.
+            for (int i = ownedCounts[s] - 1; i >= 0; i--) {
+                int handle = owned[s][i];
+                BodyId.unpack(bodyIds[handle], bodyId);
+                MemorySegment transform = nBox2D.nBodyGetTransform(transformAllocator, bodyId);
+                float x = transform.get(ValueLayout.JAVA_FLOAT, TransformPosition + X);
+                float y = transform.get(ValueLayout.JAVA_FLOAT, TransformPosition + Y);
+                float r = boundRadii[handle];
+                // Bounds entirely out of the tile, the body radius acts as hysteresis.
+                if (x - r <= maxX && x + r >= minX && y - r <= maxY && y + r >= minY) continue;
+                int target = shardIndex(column(x), row(y));
+                if (target == s) continue;
+
+                setBodyDef(DynamicBody, x, y, transform.get(ValueLayout.JAVA_FLOAT, TransformRotation + Cosine),
+                        transform.get(ValueLayout.JAVA_FLOAT, TransformRotation + Sine));
+                MemorySegment velocity = nBox2D.nBodyGetLinearVelocity(vectorAllocator, bodyId);
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyLinearVelocity + X, velocity.get(ValueLayout.JAVA_FLOAT, X));
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyLinearVelocity + Y, velocity.get(ValueLayout.JAVA_FLOAT, Y));
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyAngularVelocity, nBox2D.nBodyGetAngularVelocity(bodyId));
+                bodyDef.set(ValueLayout.JAVA_BOOLEAN, BodyIsAwake, nBox2D.nBodyIsAwake(bodyId));
+                shard.enter();
+                try {
+                    nBox2D.nDestroyBody(bodyId);
+                } finally {
+                    shard.exit();
+                }
+                disown(handle);
+                place(handle, target);
+                migrated++;
+            }
+        }
+        lastMigrations = migrated;
+        totalMigrations += migrated;
+        return migrated;
+    }
+
+    // Create the body of the handle from the body definition, in the given shard.
+    private void place(int handle, int shardIndex) {
+        World shard = shards[shardIndex];
+        shard.enter();
+        try {
+            MemorySegment body = nBox2D.nCreateBody(bodyAllocator, shard.segment(), bodyDef);
+            shapeDef.set(ValueLayout.JAVA_FLOAT, Density, densities[handle]);
+            if (kinds[handle] == Circle) {
+                circle.set(ValueLayout.JAVA_FLOAT, CircleRadius, sizesA[handle]);
+                nBox2D.nCreateCircleShape(shapeAllocator, body, shapeDef, circle);
+            } else {
+                nBox2D.nCreatePolygonShape(shapeAllocator, body, shapeDef, nBox2D.nMakeBox(polygonAllocator, sizesA[handle], sizesB[handle]));
+            }
+            bodyIds[handle] = BodyId.pack(body);
+        } finally {
+            shard.exit();
+        }
+        int count = ownedCounts[shardIndex];
+        if (count == owned[shardIndex].length) owned[shardIndex] = Arrays.copyOf(owned[shardIndex], count * 2);
+        owned[shardIndex][count] = handle;
+        ownedIndices[handle] = count;
+        ownedCounts[shardIndex] = count + 1;
+        shardOf[handle] = shardIndex;
+    }
+
+    private void disown(int handle) {
+        int s = shardOf[handle];
+        int index = ownedIndices[handle];
+        int last = owned[s][--ownedCounts[s]];
+        owned[s][index] = last;
+        ownedIndices[last] = index;
+    }
+
+    private void setBodyDef(int type, float x, float y, float cosine, float sine) {
+        bodyDef.set(ValueLayout.JAVA_INT, BodyType, type);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyPosition + X, x);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyPosition + Y, y);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyRotation + Cosine, cosine);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyRotation + Sine, sine);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyLinearVelocity + X, 0.0f);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyLinearVelocity + Y, 0.0f);
+        bodyDef.set(ValueLayout.JAVA_FLOAT, BodyAngularVelocity, 0.0f);
+        bodyDef.set(ValueLayout.JAVA_BOOLEAN, BodyIsAwake, true);
+    }
+
+    private void growHandles() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        shardOf = Arrays.copyOf(shardOf, capacity);
+        bodyIds = Arrays.copyOf(bodyIds, capacity);
+        sizesA = Arrays.copyOf(sizesA, capacity);
+        sizesB = Arrays.copyOf(sizesB, capacity);
+        densities = Arrays.copyOf(densities, capacity);
+        boundRadii = Arrays.copyOf(boundRadii, capacity);
+        ownedIndices = Arrays.copyOf(ownedIndices, capacity);
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= handleCount || kinds[handle] == Free) throw new IllegalArgumentException("Invalid body handle: " + handle);
+    }
+
+    private int column(float x) {
+        return Math.clamp((long) Math.floor((x - originX) / tileSize), 0, columns - 1);
+    }
+
+    private int row(float y) {
+        return Math.clamp((long) Math.floor((y - originY) / tileSize), 0, rows - 1);
+    }
+
+    /**
+     * Get the index of the tile at the given column and row.
+     * @param column the column, 0 to the column count exclusive
+     * @param row the row, 0 to the row count exclusive
+     * @return the tile index
+     */
+    public int shardIndex(int column, int row) {
+        return row * columns + column;
+    }
+
+    /**
+     * Get the world of a tile.
+     * @param index the tile index
+     * @return the world
+     */
+    public World shard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * Get the number of tiles.
+     * @return the tile count
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Get the tile currently owning the body of the given handle.
+     * @param handle the handle of the body
+     * @return the tile index
+     * @throws IllegalArgumentException if the handle does not refer to a body
+     */
+    public int shardOf(int handle) {
+        checkHandle(handle);
+        return shardOf[handle];
+    }
+
+    /**
+     * Get the current body id of the given handle in the world of its tile. It changes on migration.
+     * @param handle the handle of the body
+     * @return the packed body id, as in {@link BodyId}
+     * @throws IllegalArgumentException if the handle does not refer to a body
+     */
+    public long bodyId(int handle) {
+        checkHandle(handle);
+        return bodyIds[handle];
+    }
+
+    /**
+     * Get the x coordinate of the body origin of the given handle.
+     * @param handle the handle of the body
+     * @return the x coordinate value
+     * @throws IllegalArgumentException if the handle does not refer to a body
+     */
+    public float x(int handle) {
+        checkHandle(handle);
+        return nBox2D.nBodyGetPosition(vectorAllocator, BodyId.unpack(bodyIds[handle], bodyId)).get(ValueLayout.JAVA_FLOAT, X);
+    }
+
+    /**
+     * Get the y coordinate of the body origin of the given handle.
+     * @param handle the handle of the body
+     * @return the y coordinate value
+     * @throws IllegalArgumentException if the handle does not refer to a body
+     */
+    public float y(int handle) {
+        checkHandle(handle);
+        return nBox2D.nBodyGetPosition(vectorAllocator, BodyId.unpack(bodyIds[handle], bodyId)).get(ValueLayout.JAVA_FLOAT, Y);
+    }
+
+    /**
+     * Get the number of dynamic bodies over every tile.
+     * @return the body count
+     */
+    public int bodyCount() {
+        return bodyCount;
+    }
+
+    /**
+     * Get the number of dynamic bodies owned by a tile.
+     * @param index the tile index
+     * @return the body count of the tile
+     */
+    public int bodyCount(int index) {
+        return ownedCounts[index];
+    }
+
+    /**
+     * Get the number of bodies migrated by the last step.
+     * @return the migration count
+     */
+    public int lastMigrations() {
+        return lastMigrations;
+    }
+
+    /**
+     * Get the number of bodies migrated since creation.
+     * @return the migration count
+     */
+    public long totalMigrations() {
+        return totalMigrations;
+    }
+
+    /**
+     * Close the world of every tile.
+     */
+    @Override
+    public void close() {
+        for (World shard : shards) shard.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ShardedWorld[tiles=%dx%d, tileSize=%.3f, bodies=%d, migrations=%d]", columns, rows, tileSize, bodyCount, totalMigrations);
+    }
+}
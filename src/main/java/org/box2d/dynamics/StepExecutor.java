@@ -0,0 +1,17 @@
+package org.box2d.dynamics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Default executor of {@link World#stepAsync(float, int)}, created on first use.
+ * <p>
+ * A cached pool of daemon platform threads, so steps never hold a virtual thread carrier,
+ * several worlds can step in parallel, and idle threads go away after a minute.
+ * </p>
+ */
+final class StepExecutor {
+    static final ExecutorService Instance = Executors.newCachedThreadPool(Thread.ofPlatform().name("box2d-step-", 1).daemon().factory());
+
+    private StepExecutor() {}
+}
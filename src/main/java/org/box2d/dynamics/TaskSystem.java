@@ -0,0 +1,226 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2EnqueueTaskCallback;
+import org.box2d.internal.b2FinishTaskCallback;
+import org.box2d.internal.b2TaskCallback;
+import org.box2d.internal.b2WorldDef;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Java task system running Box2D's parallel tasks on a fixed set of daemon platform threads.
+ * <p>
+ * {@code b2WorldDef.workerCount} is fixed when the world is created, so a task system is created with the largest
+ * number of workers it may use, and {@link #activeWorkers(int)} changes at any time how many of them actually take
+ * tasks. The thread stepping the world is worker 0 and always takes part, the others are threads named
+ * {@code box2d-worker-N}. With a single active worker every task runs inline on the stepping thread.
+ * </p>
+ * <p>
+ * Install it into a definition with {@link #install(MemorySegment)} before creating the world. A task system serves
+ * one world and must stay open as long as that world, close it after the world.
+ * </p>
+ */
+public final class TaskSystem implements AutoCloseable {
+    // Largest number of tasks in flight, Box2D enqueues a few per stage plus one per worker for the solver.
+    private static final int MaxTasks = 64;
+    // Ranges per active worker, so uneven ranges still balance.
+    private static final int RangesPerWorker = 4;
+    private static final int SpinCount = 1 << 10;
+
+    private final int workerCount;
+    private final Worker[] workers;
+    private final Queue<Job> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<Job> slots = new AtomicReferenceArray<>(MaxTasks);
+    private final MemorySegment enqueueFcn;
+    private final MemorySegment finishFcn;
+    private volatile int activeWorkers;
+    private volatile boolean closed;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link TaskSystem} with the given number of workers, all of them active.
+     * @param workerCount the number of workers, the stepping thread included, at least 1
+     * @throws IllegalArgumentException if the worker count is not positive
+     */
+    public TaskSystem(int workerCount) {
+        if (workerCount <= 0) throw new IllegalArgumentException("Worker count must be positive, got " + workerCount);
+        this.workerCount = workerCount;
+        activeWorkers = workerCount;
+        Arena arena = Arena.ofAuto();
+        enqueueFcn = b2EnqueueTaskCallback.allocate(this::enqueue, arena);
+        finishFcn = b2FinishTaskCallback.allocate(this::finish, arena);
+        workers = new Worker[workerCount];
+        for (int i = 1; i < workerCount; i++) {
+            workers[i] = new Worker(i);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Set the worker count and the task callbacks of the given world definition to this task system.
+     * @param def the memory segment of a {@link b2WorldDef}
+     * @return the definition
+     */
+    public MemorySegment install(MemorySegment def) {
+        b2WorldDef.workerCount(def, workerCount);
+        b2WorldDef.enqueueTask(def, enqueueFcn);
+        b2WorldDef.finishTask(def, finishFcn);
+        b2WorldDef.userTaskContext(def, MemorySegment.NULL);
+        return def;
+    }
+
+    /**
+     * Set how many workers take tasks, the stepping thread included. Takes effect from the next task enqueued.
+     * @param count the number of active workers, 1 to {@link #workerCount()}
+     * @return this
+     * @throws IllegalArgumentException if the count is out of range
+     */
+    public TaskSystem activeWorkers(int count) {
+        if (count < 1 || count > workerCount) {
+            throw new IllegalArgumentException("Active worker count must be within [1, " + workerCount + "], got " + count);
+        }
+        activeWorkers = count;
+        return this;
+    }
+
+    /**
+     * Get how many workers take tasks, the stepping thread included.
+     * @return the active worker count
+     */
+    public int activeWorkers() {
+        return activeWorkers;
+    }
+
+    /**
+     * Get the number of workers, the value installed as {@code b2WorldDef.workerCount}.
+     * @return the worker count
+     */
+    public int workerCount() {
+        return workerCount;
+    }
+
+    private MemorySegment enqueue(MemorySegment task, int itemCount, int minRange, MemorySegment taskContext, MemorySegment userContext) {
+        int active = activeWorkers;
+        if (active > 1 && !closed) {
+            // A new job each time, a slot cannot be confused with the job it held before.
+            Job job = new Job(task, taskContext, itemCount, minRange, active);
+            for (int slot = 0; slot < MaxTasks; slot++) {
+                if (slots.get(slot) == null && slots.compareAndSet(slot, null, job)) {
+                    // First in, first out, so the solver's stage tasks are claimed in order.
+                    queue.offer(job);
+                    for (int i = 1; i < active; i++) LockSupport.unpark(workers[i]);
+                    return MemorySegment.ofAddress(slot + 1);
+                }
+            }
+        }
+        // Returning null tells Box2D the task already ran and not to finish it.
+        b2TaskCallback.invoke(task, 0, itemCount, workerIndex(), taskContext);
+        return MemorySegment.NULL;
+    }
+
+    private void finish(MemorySegment userTask, MemorySegment userContext) {
+        int slot = (int) userTask.address() - 1;
+        Job job = slots.get(slot);
+        // Help with the ranges nobody claimed, then wait for the ones still running.
+        job.run(workerIndex());
+        while (job.remaining.get() > 0) Thread.onSpinWait();
+        queue.remove(job);
+        slots.set(slot, null);
+    }
+
+    private static int workerIndex() {
+        return Thread.currentThread() instanceof Worker worker ? worker.index : 0;
+    }
+
+    /**
+     * Stop the worker threads. The world using this task system must be closed first.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (int i = 1; i < workerCount; i++) LockSupport.unpark(workers[i]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TaskSystem[workerCount=%d, activeWorkers=%d]", workerCount, activeWorkers);
+    }
+
+    private static final class Job {
+        final MemorySegment task;
+        final MemorySegment context;
+        final int itemCount;
+        final int rangeSize;
+        final int rangeCount;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining;
+
+        Job(MemorySegment task, MemorySegment context, int itemCount, int minRange, int activeWorkers) {
+            this.task = task;
+            this.context = context;
+            this.itemCount = itemCount;
+            // Every range but the last holds at least minRange items.
+            int ranges = Math.max(1, Math.min(itemCount / Math.max(1, minRange), activeWorkers * RangesPerWorker));
+            rangeSize = Math.max(1, (itemCount + ranges - 1) / ranges);
+            rangeCount = Math.max(1, (itemCount + rangeSize - 1) / rangeSize);
+            remaining = new AtomicInteger(rangeCount);
+        }
+
+        boolean exhausted() {
+            return next.get() >= rangeCount;
+        }
+
+        void run(int workerIndex) {
+            for (int range = next.getAndIncrement(); range < rangeCount; range = next.getAndIncrement()) {
+                int start = range * rangeSize;
+                b2TaskCallback.invoke(task, start, Math.min(itemCount, start + rangeSize), workerIndex, context);
+                remaining.decrementAndGet();
+            }
+        }
+    }
+
+    private final class Worker extends Thread {
+        final int index;
+
+        Worker(int index) {
+            super("box2d-worker-" + index);
+            this.index = index;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (!closed) {
+                if (index >= activeWorkers) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                boolean worked = false;
+                for (Job job : queue) {
+                    if (job.exhausted()) continue;
+                    job.run(index);
+                    worked = true;
+                }
+                if (worked) {
+                    idle = 0;
+                } else if (++idle < SpinCount) {
+                    Thread.onSpinWait();
+                } else {
+                    idle = 0;
+                    LockSupport.park(this);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.box2d.dynamics;
+
+import org.box2d.collision.Polygon;
+import org.box2d.math.Vec2Array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static geometry of one terrain chunk, prepared off the simulation thread by a {@link ChunkSource}.
+ * <p>
+ * Only holds off-heap geometry, the native chains and shapes are created by the {@link TerrainStreamer}
+ * at a step boundary. The geometry must not be modified once the chunk is returned to the streamer.
+ * </p>
+ */
+public final class TerrainChunk {
+    record Chain(Vec2Array points, boolean loop) {}
+
+    private final List<Chain> chains = new ArrayList<>();
+    private final List<Polygon> polygons = new ArrayList<>();
+
+    /**
+     * Add a chain of segments, in world coordinates.
+     * The points are passed to {@code b2CreateChain} without copying.
+     * @param points the chain points, at least 4
+     * @param loop true to close the chain into a loop
+     * @return this
+     * @throws IllegalArgumentException if there are fewer than 4 points
+     */
+    public TerrainChunk addChain(Vec2Array points, boolean loop) {
+        if (points.size() < 4) throw new IllegalArgumentException("Chain requires at least 4 points, got " + points.size());
+        chains.add(new Chain(points, loop));
+        return this;
+    }
+
+    /**
+     * Add a convex polygon, in world coordinates.
+     * @param polygon the polygon, may be shared (e.g. from a {@link org.box2d.collision.PolygonCache})
+     * @return this
+     */
+    public TerrainChunk addPolygon(Polygon polygon) {
+        polygons.add(polygon);
+        return this;
+    }
+
+    /**
+     * Get the number of chains of this chunk.
+     * @return the chain count
+     */
+    public int chainCount() {
+        return chains.size();
+    }
+
+    /**
+     * Get the number of polygons of this chunk.
+     * @return the polygon count
+     */
+    public int polygonCount() {
+        return polygons.size();
+    }
+
+    List<Chain> chains() {
+        return chains;
+    }
+
+    List<Polygon> polygons() {
+        return polygons;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TerrainChunk[chains=%d, polygons=%d]", chains.size(), polygons.size());
+    }
+}
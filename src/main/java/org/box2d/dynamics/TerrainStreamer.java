@@ -0,0 +1,338 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.collision.Polygon;
+import org.box2d.internal.b2ChainDef;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams static terrain into a {@link World} as fixed size square chunks around active regions.
+ * <p>
+ * {@link #update(float...)} decides which chunks should be present and requests missing ones from a
+ * {@link ChunkSource} on a background thread. {@link #apply(long)}, called between two steps on the simulation thread,
+ * then creates and destroys the native chains and polygons within a time budget, one whole chunk at a time.
+ * The static tree is rebuilt with {@code b2World_RebuildStaticTree} only once an apply drains every finished load and unload,
+ * not after each chunk.
+ * </p>
+ * <p>
+ * At most {@code maxChunks} chunks are wanted at once, the closest to a region first, so native and Java memory
+ * stay bounded whatever the map size. Each chunk lives on its own static body.
+ * {@link #update(float...)} and {@link #apply(long)} must be called from the thread stepping the world.
+ * </p>
+ */
+public final class TerrainStreamer implements AutoCloseable {
+    private static final class Request {
+        private final long key;
+        private Future<?> future;
+
+        private Request(long key) {
+            this.key = key;
+        }
+    }
+
+    private record Ready(Request request, TerrainChunk chunk) {}
+
+    private record Loaded(MemorySegment bodyId, List<MemorySegment> chainIds) {}
+
+    private final World world;
+    private final ChunkSource source;
+    private final float chunkSize;
+    private final int radius;
+    private final int maxChunks;
+    private final ExecutorService loader;
+
+    private final MemorySegment bodyDef;
+    private final MemorySegment shapeDef;
+    private final MemorySegment chainDef;
+
+    private final Map<Long, Request> loading = new HashMap<>();
+    private final Map<Long, Loaded> loaded = new HashMap<>();
+    private final ConcurrentLinkedQueue<Ready> ready = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Long> unloads = new ArrayDeque<>();
+    private Set<Long> wanted = new HashSet<>();
+
+    private boolean dirty;
+    private long rebuildCount;
+    private long failureCount;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link TerrainStreamer} with its own background loading thread.
+     * @param world the world to stream terrain into
+     * @param source the source loading chunk geometry
+     * @param chunkSize the side length of a chunk, in meters
+     * @param radius the number of chunks kept around a region's chunk in each direction
+     * @param maxChunks the maximum number of chunks present or loading at once
+     * @throws IllegalArgumentException if the size, radius or limit is out of range
+     */
+    public TerrainStreamer(World world, ChunkSource source, float chunkSize, int radius, int maxChunks) {
+        if (!(chunkSize > 0.0f)) throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        if (radius < 0) throw new IllegalArgumentException("Radius must not be negative: " + radius);
+        if (maxChunks <= 0) throw new IllegalArgumentException("Chunk limit must be positive: " + maxChunks);
+        this.world = world;
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.radius = radius;
+        this.maxChunks = maxChunks;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "box2d-terrain-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bodyDef = nBox2D.nDefaultBodyDef();
+        this.shapeDef = nBox2D.nDefaultShapeDef();
+        this.chainDef = nBox2D.nDefaultChainDef();
+    }
+
+    /**
+     * Get the shape definition used for every terrain polygon, to customize its material, filter or events.
+     * @return the memory segment of the {@code b2ShapeDef} template
+     */
+    public MemorySegment shapeDef() {
+        return shapeDef;
+    }
+
+    /**
+     * Get the chain definition used for every terrain chain, to customize its materials, filter or events.
+     * Its {@code points}, {@code count} and {@code isLoop} are overwritten per chain.
+     * @return the memory segment of the {@code b2ChainDef} template
+     */
+    public MemorySegment chainDef() {
+        return chainDef;
+    }
+
+    private static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int chunkY(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Set the active regions, requesting the chunks around them and scheduling the others for unloading.
+     * @param centers the interleaved region centers {@code x0, y0, x1, y1, ...}, in world coordinates
+     * @throws IllegalArgumentException if the array length is odd
+     */
+    public void update(float... centers) {
+        if ((centers.length & 1) != 0) throw new IllegalArgumentException("Region centers require an even length, got " + centers.length);
+        Map<Long, Long> distances = new HashMap<>();
+        for (int i = 0; i < centers.length; i += 2) {
+            int cx = (int) Math.floor(centers[i] / chunkSize);
+            int cy = (int) Math.floor(centers[i + 1] / chunkSize);
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dy = -radius; dy <= radius; dy++) {
+                    long distance = (long) dx * dx + (long) dy * dy;
+                    distances.merge(key(cx + dx, cy + dy), distance, Math::min);
+                }
+            }
+        }
+        Set<Long> next;
+        if (distances.size() <= maxChunks) {
+            next = new HashSet<>(distances.keySet());
+        } else {
+            List<Map.Entry<Long, Long>> closest = new ArrayList<>(distances.entrySet());
+            closest.sort(Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+            next = new HashSet<>(maxChunks * 2);
+            for (int i = 0; i < maxChunks; i++) next.add(closest.get(i).getKey());
+        }
+
+        for (Long key : loaded.keySet()) {
+            if (!next.contains(key) && wanted.contains(key)) unloads.add(key);
+        }
+        loading.entrySet().removeIf(entry -> {
+            if (next.contains(entry.getKey())) return false;
+            entry.getValue().future.cancel(false);
+            return true;
+        });
+        for (Long key : next) {
+            if (loaded.containsKey(key) && !wanted.contains(key)) unloads.remove(key);
+            if (loaded.containsKey(key) || loading.containsKey(key)) continue;
+            request(key);
+        }
+        wanted = next;
+    }
+
+    private void request(long key) {
+        Request request = new Request(key);
+        loading.put(key, request);
+        request.future = loader.submit(() -> {
+            TerrainChunk chunk = null;
+            try {
+                chunk = source.load(chunkX(key), chunkY(key));
+            } finally {
+                ready.add(new Ready(request, chunk));
+            }
+        });
+    }
+
+    /**
+     * Apply finished loads and pending unloads to the world, a whole chunk at a time, until the budget is spent.
+     * At least one chunk is applied per call when any is pending. Must be called between two steps.
+     * @param budgetNanos the time budget, in nanoseconds
+     * @return the number of chunks created or destroyed
+     * @throws IllegalStateException if the world is stepping
+     */
+    public int apply(long budgetNanos) {
+        world.enter();
+        try {
+            return applyChunks(budgetNanos);
+        } finally {
+            world.exit();
+        }
+    }
+
+    private int applyChunks(long budgetNanos) {
+        long start = System.nanoTime();
+        int applied = 0;
+        do {
+            Long unload = unloads.pollFirst();
+            if (unload != null) {
+                Loaded chunk = loaded.remove(unload);
+                if (chunk != null) {
+                    destroy(chunk);
+                    dirty = true;
+                    applied++;
+                }
+                continue;
+            }
+            Ready next = ready.poll();
+            if (next == null) break;
+            long key = next.request.key;
+            // Skip loads cancelled or superseded since they were requested.
+            if (loading.get(key) != next.request) continue;
+            loading.remove(key);
+            if (next.chunk == null) {
+                failureCount++;
+                continue;
+            }
+            loaded.put(key, create(next.chunk));
+            dirty = true;
+            applied++;
+        } while (System.nanoTime() - start < budgetNanos);
+
+        if (dirty && unloads.isEmpty() && ready.isEmpty()) {
+            nBox2D.nWorldRebuildStaticTree(world.segment());
+            rebuildCount++;
+            dirty = false;
+        }
+        return applied;
+    }
+
+    private Loaded create(TerrainChunk chunk) {
+        MemorySegment bodyId = nBox2D.nCreateBody(world.segment(), bodyDef);
+        List<MemorySegment> chainIds = new ArrayList<>(chunk.chainCount());
+        for (TerrainChunk.Chain chain : chunk.chains()) {
+            chain.points().toChainDef(chainDef);
+            b2ChainDef.isLoop(chainDef, chain.loop());
+            chainIds.add(nBox2D.nCreateChain(bodyId, chainDef));
+        }
+        b2ChainDef.points(chainDef, MemorySegment.NULL);
+        for (Polygon polygon : chunk.polygons()) nBox2D.nCreatePolygonShape(bodyId, shapeDef, polygon.segment());
+        return new Loaded(bodyId, chainIds);
+    }
+
+    private static void destroy(Loaded chunk) {
+        for (MemorySegment chainId : chunk.chainIds) {
+            if (nBox2D.nChainIsValid(chainId)) nBox2D.nDestroyChain(chainId);
+        }
+        if (nBox2D.nBodyIsValid(chunk.bodyId)) nBox2D.nDestroyBody(chunk.bodyId);
+    }
+
+    /**
+     * Check if a chunk is present in the world.
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return true if loaded
+     */
+    public boolean isLoaded(int chunkX, int chunkY) {
+        return loaded.containsKey(key(chunkX, chunkY));
+    }
+
+    /**
+     * Get the number of chunks present in the world.
+     * @return the loaded chunk count
+     */
+    public int loadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * Get the number of chunks requested but not yet applied.
+     * @return the pending load count
+     */
+    public int pendingLoadCount() {
+        return loading.size();
+    }
+
+    /**
+     * Get the number of chunks waiting to be destroyed.
+     * @return the pending unload count
+     */
+    public int pendingUnloadCount() {
+        return unloads.size();
+    }
+
+    /**
+     * Get the number of static tree rebuilds done so far.
+     * @return the rebuild count
+     */
+    public long rebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Get the number of chunks whose source threw while loading. They are requested again on the next update.
+     * @return the failure count
+     */
+    public long failureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Stop the loading thread and destroy every streamed chunk still in the world.
+     */
+    @Override
+    public void close() {
+        loader.shutdownNow();
+        loading.clear();
+        ready.clear();
+        unloads.clear();
+        world.enter();
+        try {
+            if (world.isValid()) {
+                for (Loaded chunk : loaded.values()) destroy(chunk);
+                nBox2D.nWorldRebuildStaticTree(world.segment());
+            }
+        } finally {
+            world.exit();
+        }
+        loaded.clear();
+        wanted = new HashSet<>();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TerrainStreamer[chunkSize=%.2f, radius=%d, loaded=%d, loading=%d]", chunkSize, radius, loaded.size(), loading.size());
+    }
+}
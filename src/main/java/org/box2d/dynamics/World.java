@@ -0,0 +1,467 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2CustomFilterFcn;
+import org.box2d.internal.b2ExplosionDef;
+import org.box2d.internal.b2FrictionCallback;
+import org.box2d.internal.b2PreSolveFcn;
+import org.box2d.internal.b2RestitutionCallback;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.b2WorldDef;
+import org.box2d.internal.b2WorldId;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulation world, owns every body, shape and joint created in it.
+ * <p>
+ * The native world is destroyed on {@link #close()}, after which this instance must not be used.
+ * </p>
+ * Wrapper for native {@link b2WorldId}.
+ */
+public final class World implements AutoCloseable {
+    /**
+     * Mask bits selecting every shape category, Box2D's default explosion mask.
+     */
+    public static final long DefaultMaskBits = -1L;
+
+    private static final ThreadLocal<ManifoldView> ManifoldViews = ThreadLocal.withInitial(ManifoldView::new);
+
+    private static final int Idle = 0;
+    private static final int Stepping = -1;
+
+    private final MemorySegment segment;
+    // Stepping, or the number of operations running on this world.
+    private final AtomicInteger state = new AtomicInteger(Idle);
+    private volatile CompletableFuture<Void> pendingStep;
+    private MemorySegment customFilterFcn;
+    private MemorySegment preSolveFcn;
+    private MemorySegment frictionFcn;
+    private MemorySegment restitutionFcn;
+    private Explosions explosions;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link World} with Box2D's default definition (gravity {@code (0, -10)}).
+     */
+    public World() {
+        this(nBox2D.nDefaultWorldDef());
+    }
+
+    /**
+     * Create a new {@link World} with the given gravity and Box2D's default values for the rest of the definition.
+     * @param gravityX the gravity x component
+     * @param gravityY the gravity y component
+     */
+    public World(float gravityX, float gravityY) {
+        this(gravityDef(gravityX, gravityY));
+    }
+
+    /**
+     * Create a new {@link World} from an existing {@link b2WorldDef} memory segment.
+     * The definition is only read during creation and may be reused afterward.
+     * @param def the memory segment of the world definition
+     */
+    public World(MemorySegment def) {
+        segment = nBox2D.nCreateWorld(def);
+    }
+
+    private static MemorySegment gravityDef(float gravityX, float gravityY) {
+        MemorySegment def = nBox2D.nDefaultWorldDef();
+        MemorySegment gravity = b2WorldDef.gravity(def);
+        b2Vec2.x(gravity, gravityX);
+        b2Vec2.y(gravity, gravityY);
+        return def;
+    }
+
+    /**
+     * Advance the simulation by the given time step, on the calling thread.
+     * <p>
+     * A virtual thread keeps its carrier for the whole native call, prefer {@link #stepAsync(float, int)} there.
+     * </p>
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, increasing it improves accuracy, usually 4
+     * @throws IllegalStateException if this world is already stepping or in use by another operation
+     */
+    public void step(float timeStep, int subStepCount) {
+        beginStep();
+        try {
+            nBox2D.nWorldStep(segment, timeStep, subStepCount);
+        } finally {
+            state.set(Idle);
+        }
+    }
+
+    /**
+     * Advance the simulation by the given time step on a dedicated platform thread.
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, increasing it improves accuracy, usually 4
+     * @return the future completed once the step is done
+     * @throws IllegalStateException if this world is already stepping or in use by another operation
+     * @see #stepAsync(float, int, Executor)
+     */
+    public CompletableFuture<Void> stepAsync(float timeStep, int subStepCount) {
+        return stepAsync(timeStep, subStepCount, StepExecutor.Instance);
+    }
+
+    /**
+     * Advance the simulation by the given time step on the given executor.
+     * <p>
+     * A downcall cannot unmount a virtual thread, so {@code b2World_Step} run from a virtual thread occupies its carrier
+     * for the whole step without JFR reporting it as pinned, as the thread never parks. Handing the step to a platform
+     * thread and waiting on the returned future parks the virtual thread instead, which frees its carrier.
+     * The default executor is a shared cached pool of daemon platform threads named {@code box2d-step-N}.
+     * </p>
+     * <p>
+     * Until the future completes, {@link #step(float, int)}, {@link #stepAsync(float, int)} and the operations reading or
+     * modifying this world, here and in {@link CharacterMover}, {@link TerrainStreamer} and {@link WorldCommandBuffer},
+     * throw {@link IllegalStateException}. To defer one instead, chain it on the future, e.g. with
+     * {@link CompletableFuture#thenRun(Runnable)}. This world is idle again before the future completes.
+     * </p>
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, increasing it improves accuracy, usually 4
+     * @param executor the executor to run the step on, preferably backed by platform threads
+     * @return the future completed once the step is done
+     * @throws IllegalStateException if this world is already stepping or in use by another operation
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects the step
+     */
+    public CompletableFuture<Void> stepAsync(float timeStep, int subStepCount, Executor executor) {
+        beginStep();
+        // Published before the step can run, so close() never misses a step that already started.
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingStep = future;
+        try {
+            executor.execute(() -> {
+                try {
+                    nBox2D.nWorldStep(segment, timeStep, subStepCount);
+                } catch (Throwable e) {
+                    state.set(Idle);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                state.set(Idle);
+                future.complete(null);
+            });
+            return future;
+        } catch (RuntimeException e) {
+            state.set(Idle);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Step every given world concurrently with {@link #stepAsync(float, int)} and wait for all of them.
+     * <p>
+     * The call is structured: no step it started outlives it. When a world cannot start or a step fails, the steps
+     * already started are still awaited before the first failure is thrown, with the others suppressed.
+     * Waiting parks a virtual caller without holding its carrier.
+     * </p>
+     * @param worlds the worlds to step, each at most once
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, increasing it improves accuracy, usually 4
+     * @throws IllegalStateException if a world is already stepping or in use by another operation
+     * @throws java.util.concurrent.CompletionException if a step failed
+     */
+    public static void stepAll(Collection<World> worlds, float timeStep, int subStepCount) {
+        stepAll(worlds, timeStep, subStepCount, StepExecutor.Instance);
+    }
+
+    /**
+     * Step every given world concurrently with {@link #stepAsync(float, int, Executor)} and wait for all of them.
+     * The executor bounds the parallelism, e.g. a fixed pool of as many threads as cores to use.
+     * @param worlds the worlds to step, each at most once
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, increasing it improves accuracy, usually 4
+     * @param executor the executor to run the steps on, preferably backed by platform threads
+     * @throws IllegalStateException if a world is already stepping or in use by another operation
+     * @throws java.util.concurrent.CompletionException if a step failed
+     * @see #stepAll(Collection, float, int)
+     */
+    public static void stepAll(Collection<World> worlds, float timeStep, int subStepCount, Executor executor) {
+        List<CompletableFuture<Void>> started = new ArrayList<>(worlds.size());
+        RuntimeException failure = null;
+        for (World world : worlds) {
+            try {
+                started.add(world.stepAsync(timeStep, subStepCount, executor));
+            } catch (RuntimeException e) {
+                failure = e;
+                break;
+            }
+        }
+        for (CompletableFuture<Void> future : started) {
+            try {
+                future.join();
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Check if a step of this world is running.
+     * @return true while stepping
+     */
+    public boolean isStepping() {
+        return state.get() == Stepping;
+    }
+
+    private void beginStep() {
+        if (!state.compareAndSet(Idle, Stepping)) {
+            throw new IllegalStateException(state.get() == Stepping ? "World is already stepping" : "World is in use by another operation");
+        }
+    }
+
+    /**
+     * Mark the start of an operation on this world, which must not overlap a step.
+     * Operations may overlap each other, their thread safety is up to the caller as usual.
+     * @throws IllegalStateException if this world is stepping
+     */
+    void enter() {
+        int current;
+        do {
+            current = state.get();
+            if (current == Stepping) throw new IllegalStateException("World is stepping, wait for the step to complete");
+        } while (!state.compareAndSet(current, current + 1));
+    }
+
+    /**
+     * Mark the end of an operation started with {@link #enter()}.
+     */
+    void exit() {
+        state.decrementAndGet();
+    }
+
+    /**
+     * Set the custom filter, called for candidate pairs whose shapes both enable custom filtering.
+     * The upcall stub is created once here and kept alive by this world.
+     * @param filter the filter, or null to remove it
+     * @return this
+     */
+    public World customFilter(CustomFilter filter) {
+        enter();
+        try {
+            if (filter == null) {
+                nBox2D.nWorldSetCustomFilterCallback(segment, MemorySegment.NULL, MemorySegment.NULL);
+                customFilterFcn = null;
+                return this;
+            }
+            MemorySegment fcn = b2CustomFilterFcn.allocate(
+                    (shapeIdA, shapeIdB, context) -> filter.shouldCollide(ShapeId.pack(shapeIdA), ShapeId.pack(shapeIdB)), Arena.ofAuto());
+            nBox2D.nWorldSetCustomFilterCallback(segment, fcn, MemorySegment.NULL);
+            customFilterFcn = fcn;
+            return this;
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Set the pre-solve listener, called for touching contacts of shapes that enable pre-solve events.
+     * The upcall stub is created once here and kept alive by this world,
+     * and each calling thread reuses its own {@link ManifoldView}.
+     * @param listener the listener, or null to remove it
+     * @return this
+     */
+    public World preSolve(PreSolveListener listener) {
+        enter();
+        try {
+            if (listener == null) {
+                nBox2D.nWorldSetPreSolveCallback(segment, MemorySegment.NULL, MemorySegment.NULL);
+                preSolveFcn = null;
+                return this;
+            }
+            MemorySegment fcn = b2PreSolveFcn.allocate(
+                    (shapeIdA, shapeIdB, manifold, context) -> listener.preSolve(ShapeId.pack(shapeIdA), ShapeId.pack(shapeIdB), ManifoldViews.get().wrap(manifold.address())),
+                    Arena.ofAuto());
+            nBox2D.nWorldSetPreSolveCallback(segment, fcn, MemorySegment.NULL);
+            preSolveFcn = fcn;
+            return this;
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Set the material table answering friction and restitution mixing for every contact of this world.
+     * The upcall stubs are created once here and kept alive by this world,
+     * while the table content may still be replaced at runtime.
+     * @param table the table, or null to restore Box2D's default mixing
+     * @return this
+     */
+    public World materialTable(MaterialTable table) {
+        enter();
+        try {
+            if (table == null) {
+                nBox2D.nWorldSetFrictionCallback(segment, MemorySegment.NULL);
+                nBox2D.nWorldSetRestitutionCallback(segment, MemorySegment.NULL);
+                frictionFcn = null;
+                restitutionFcn = null;
+                return this;
+            }
+            Arena arena = Arena.ofAuto();
+            MemorySegment friction = b2FrictionCallback.allocate(table::mixFriction, arena);
+            MemorySegment restitution = b2RestitutionCallback.allocate(table::mixRestitution, arena);
+            nBox2D.nWorldSetFrictionCallback(segment, friction);
+            nBox2D.nWorldSetRestitutionCallback(segment, restitution);
+            frictionFcn = friction;
+            restitutionFcn = restitution;
+            return this;
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Apply an explosion to the dynamic bodies of every shape category, with {@code b2World_Explode}.
+     * @param x the explosion center x coordinate
+     * @param y the explosion center y coordinate
+     * @param radius the radius of full strength
+     * @param falloff the distance past the radius over which the strength decreases linearly to zero
+     * @param impulsePerLength the impulse per unit of projected shape perimeter, negative for an implosion
+     * @see #explode(float, float, float, float, float, long)
+     */
+    public void explode(float x, float y, float radius, float falloff, float impulsePerLength) {
+        explode(x, y, radius, falloff, impulsePerLength, DefaultMaskBits);
+    }
+
+    /**
+     * Apply an explosion with {@code b2World_Explode}, pushing and waking the dynamic bodies whose shapes are within
+     * {@code radius + falloff} of the center and have a category in the mask.
+     * The {@link b2ExplosionDef} is allocated once per world and reused, so this does not allocate.
+     * @param x the explosion center x coordinate
+     * @param y the explosion center y coordinate
+     * @param radius the radius of full strength
+     * @param falloff the distance past the radius over which the strength decreases linearly to zero
+     * @param impulsePerLength the impulse per unit of projected shape perimeter, negative for an implosion
+     * @param maskBits the shape categories to affect
+     */
+    public void explode(float x, float y, float radius, float falloff, float impulsePerLength, long maskBits) {
+        enter();
+        try {
+            explosions().explode(x, y, radius, falloff, impulsePerLength, maskBits);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Apply a batch of explosions sharing an impulse, merging the ones with the same center and radius.
+     * @param xs the center x coordinates
+     * @param ys the center y coordinates
+     * @param radii the radii of full strength
+     * @param count the number of explosions, read from index 0 of each array
+     * @param falloff the falloff distance of every explosion
+     * @param impulsePerLength the impulse per unit of projected shape perimeter of every explosion
+     * @param affected the sink receiving each affected body once, or null to skip reporting
+     * @return the number of explosions applied after merging
+     * @throws IndexOutOfBoundsException if an array is shorter than the count
+     * @see #explodeAll(float[], float[], float[], float[], int, float, float, long, BodySink)
+     */
+    public int explodeAll(float[] xs, float[] ys, float[] radii, int count, float falloff, float impulsePerLength, BodySink affected) {
+        enter();
+        try {
+            return explosions().explodeAll(xs, ys, radii, null, impulsePerLength, count, falloff, 0.0f, DefaultMaskBits, affected);
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Apply a batch of explosions in one call.
+     * <p>
+     * Explosions whose centers are within {@code mergeDistance} of each other and whose radii differ by at most
+     * {@code mergeDistance} are merged into the first of them, summing their impulses, so a volley landing on the same
+     * spot costs a single {@code b2World_Explode}. The impulse is linear in {@code impulsePerLength}, so a merge distance
+     * of 0 only merges exact duplicates and is exact, a larger one trades accuracy for fewer tree queries.
+     * Merging compares each explosion to the ones kept so far, meant for batches of tens of explosions.
+     * </p>
+     * <p>
+     * When a sink is given, the dynamic bodies with a shape within {@code radius + falloff} of a kept explosion are
+     * found with {@code b2World_OverlapShape} and reported once each, in ascending {@link BodyId} order, after every
+     * explosion is applied. Apart from growing its scratch arrays, the batch does not allocate.
+     * </p>
+     * @param xs the center x coordinates
+     * @param ys the center y coordinates
+     * @param radii the radii of full strength
+     * @param impulsesPerLength the impulses per unit of projected shape perimeter
+     * @param count the number of explosions, read from index 0 of each array
+     * @param falloff the falloff distance of every explosion
+     * @param mergeDistance the center and radius tolerance to merge explosions within, 0 to merge exact duplicates only
+     * @param maskBits the shape categories to affect
+     * @param affected the sink receiving each affected body once, or null to skip reporting
+     * @return the number of explosions applied after merging
+     * @throws IndexOutOfBoundsException if an array is shorter than the count
+     * @throws IllegalArgumentException if the merge distance is negative
+     */
+    public int explodeAll(float[] xs, float[] ys, float[] radii, float[] impulsesPerLength, int count,
+                          float falloff, float mergeDistance, long maskBits, BodySink affected) {
+        Objects.checkFromIndexSize(0, count, impulsesPerLength.length);
+        enter();
+        try {
+            return explosions().explodeAll(xs, ys, radii, impulsesPerLength, 0.0f, count, falloff, mergeDistance, maskBits, affected);
+        } finally {
+            exit();
+        }
+    }
+
+    private Explosions explosions() {
+        if (explosions == null) explosions = new Explosions(segment);
+        return explosions;
+    }
+
+    /**
+     * Check if this world is still alive on the native side.
+     * @return true if valid
+     */
+    public boolean isValid() {
+        return nBox2D.nWorldIsValid(segment);
+    }
+
+    /**
+     * Get the memory segment of this {@link World}.
+     * @return the underlying {@link b2WorldId} memory segment
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    /**
+     * Destroy the native world and everything in it, after waiting for a running step.
+     * Calling this on an already destroyed world does nothing.
+     */
+    @Override
+    public void close() {
+        // The state is set before the future is published, so wait on both.
+        while (isStepping()) {
+            CompletableFuture<Void> step = pendingStep;
+            if (step != null && !step.isDone()) step.exceptionally(e -> null).join();
+            else Thread.onSpinWait();
+        }
+        enter();
+        try {
+            if (nBox2D.nWorldIsValid(segment)) nBox2D.nDestroyWorld(segment);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("World[index=%d, generation=%d]", b2WorldId.index1(segment), b2WorldId.generation(segment));
+    }
+}
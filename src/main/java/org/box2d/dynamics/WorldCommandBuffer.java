@@ -0,0 +1,753 @@
+package org.box2d.dynamics;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2BodyDef;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2Circle;
+import org.box2d.internal.b2DistanceJointDef;
+import org.box2d.internal.b2Filter;
+import org.box2d.internal.b2JointId;
+import org.box2d.internal.b2Polygon;
+import org.box2d.internal.b2RevoluteJointDef;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2ShapeDef;
+import org.box2d.internal.b2ShapeId;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.b2WorldId;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buffer of world mutations recorded from any number of threads and applied between steps.
+ * <p>
+ * A {@link World} must not be modified while {@code b2World_Step} runs. Game logic instead records its mutations
+ * through a {@link Producer}, and the stepping thread applies them with {@link #drain(CreationListener)} right before
+ * each step. A producer is used by one thread at a time and owns its own chunks of fixed size off-heap records,
+ * publishing each record with a single volatile write, so producers never lock nor contend with each other,
+ * and do not allocate once a producer has filled its first two chunks.
+ * </p>
+ * <p>
+ * A drain applies in one pass every record published so far, producer after producer in ascending id order,
+ * and the records of each producer in the order it enqueued them. As long as every producer enqueues
+ * deterministically, the applied order does not depend on thread timing. Commands referring to a body, shape or joint
+ * that is no longer valid, e.g. destroyed earlier in the same drain, are skipped and counted.
+ * </p>
+ * <p>
+ * Creation commands carry a caller chosen tag, reported with the new packed id to the {@link CreationListener}.
+ * Commands of the same producer may use {@link #LastBody} to refer to the body it created last.
+ * </p>
+ */
+public final class WorldCommandBuffer {
+    /**
+     * Body type of {@code b2_staticBody}.
+     */
+    public static final int StaticBody = 0;
+    /**
+     * Body type of {@code b2_kinematicBody}.
+     */
+    public static final int KinematicBody = 1;
+    /**
+     * Body type of {@code b2_dynamicBody}.
+     */
+    public static final int DynamicBody = 2;
+    /**
+     * Placeholder body id standing for the last body created by the same producer, resolved during the drain.
+     */
+    public static final long LastBody = -1L;
+
+    private static final int CreateBody = 1;
+    private static final int DestroyBody = 2;
+    private static final int CreateCircle = 3;
+    private static final int CreateBox = 4;
+    private static final int DestroyShape = 5;
+    private static final int CreateDistanceJoint = 6;
+    private static final int CreateRevoluteJoint = 7;
+    private static final int DestroyJoint = 8;
+    private static final int LinearImpulse = 9;
+    private static final int AngularImpulse = 10;
+    private static final int SetTransform = 11;
+    private static final int SetLinearVelocity = 12;
+    private static final int SetFilter = 13;
+
+    // Record layout: op, an int or float parameter, three longs, four floats. Shared with the journal of WorldRecorder.
+    static final long Op = 0;
+    static final long Param = 4;
+    static final long A = 8;
+    static final long B = 16;
+    static final long C = 24;
+    static final long F0 = 32;
+    static final long F1 = 36;
+    static final long F2 = 40;
+    static final long F3 = 44;
+    static final long RecordSize = 48;
+    private static final int ChunkRecords = 256;
+
+    private static final long X = b2Vec2.x$offset();
+    private static final long Y = b2Vec2.y$offset();
+    private static final long BodyType = b2BodyDef.type$offset();
+    private static final long BodyPosition = b2BodyDef.position$offset();
+    private static final long BodyRotation = b2BodyDef.rotation$offset();
+    private static final long Cosine = b2Rot.c$offset();
+    private static final long Sine = b2Rot.s$offset();
+    private static final long Density = b2ShapeDef.density$offset();
+    private static final long CircleCenter = b2Circle.center$offset();
+    private static final long CircleRadius = b2Circle.radius$offset();
+    private static final long IdSize = b2BodyId.layout().byteSize();
+
+    private final World world;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile Producer[] producers = new Producer[0];
+    private long appliedCount;
+    private long skippedCount;
+    // Journal of the applied commands, and bodies tracked for its digests.
+    WorldRecorder recorder;
+    WorldDigest digest;
+    private Producer replayProducer;
+    private MemorySegment replayRecord;
+    private int replayWorld0;
+
+    // Drain side scratch, only touched by the draining thread.
+    private final MemorySegment bodyDef;
+    private final MemorySegment shapeDef;
+    private final MemorySegment circle;
+    private final MemorySegment distanceJointDef;
+    private final MemorySegment revoluteJointDef;
+    private final MemorySegment filter;
+    private final MemorySegment vector;
+    private final MemorySegment rotation;
+    private final MemorySegment bodyId;
+    private final MemorySegment shapeId;
+    private final MemorySegment jointId;
+    private final SegmentAllocator bodyAllocator;
+    private final SegmentAllocator shapeAllocator;
+    private final SegmentAllocator jointAllocator;
+    private final SegmentAllocator polygonAllocator;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Receiver of the ids of the bodies, shapes and joints created by a drain.
+     */
+    @FunctionalInterface
+    public interface CreationListener {
+        /**
+         * Called on the draining thread after a creation command is applied.
+         * @param tag the tag given with the creation command
+         * @param id the new id, packed as in {@link BodyId}, {@link ShapeId} or {@link JointId} depending on the command
+         */
+        void created(long tag, long id);
+    }
+
+    /**
+     * Create a new empty {@link WorldCommandBuffer} applying to the given world.
+     * @param world the world the commands mutate
+     */
+    public WorldCommandBuffer(World world) {
+        this.world = world;
+        Arena arena = Arena.ofAuto();
+        bodyDef = nBox2D.nDefaultBodyDef();
+        shapeDef = nBox2D.nDefaultShapeDef();
+        circle = arena.allocate(b2Circle.layout());
+        distanceJointDef = nBox2D.nDefaultDistanceJointDef();
+        revoluteJointDef = nBox2D.nDefaultRevoluteJointDef();
+        filter = nBox2D.nDefaultFilter();
+        vector = arena.allocate(b2Vec2.layout());
+        rotation = arena.allocate(b2Rot.layout());
+        bodyId = arena.allocate(b2BodyId.layout());
+        shapeId = arena.allocate(b2ShapeId.layout());
+        jointId = arena.allocate(b2JointId.layout());
+        MemorySegment polygon = arena.allocate(b2Polygon.layout());
+        bodyAllocator = (byteSize, byteAlignment) -> bodyId;
+        shapeAllocator = (byteSize, byteAlignment) -> shapeId;
+        jointAllocator = (byteSize, byteAlignment) -> jointId;
+        polygonAllocator = (byteSize, byteAlignment) -> polygon;
+    }
+
+    /**
+     * Set whether the shapes created by later drains report contact begin and end events, false by default.
+     * Must not be called while a drain runs.
+     * @param flag true to enable contact events
+     * @return this
+     */
+    public WorldCommandBuffer contactEvents(boolean flag) {
+        b2ShapeDef.enableContactEvents(shapeDef, flag);
+        return this;
+    }
+
+    /**
+     * Set whether the shapes created by later drains report contact hit events, false by default.
+     * Must not be called while a drain runs.
+     * @param flag true to enable hit events
+     * @return this
+     */
+    public WorldCommandBuffer hitEvents(boolean flag) {
+        b2ShapeDef.enableHitEvents(shapeDef, flag);
+        return this;
+    }
+
+    /**
+     * Set whether the shapes created by later drains report sensor events when they overlap a sensor.
+     * Must not be called while a drain runs.
+     * @param flag true to enable sensor events
+     * @return this
+     */
+    public WorldCommandBuffer sensorEvents(boolean flag) {
+        b2ShapeDef.enableSensorEvents(shapeDef, flag);
+        return this;
+    }
+
+    /**
+     * Register a new producer. Producers live as long as this buffer, so register one per long lived
+     * thread or system rather than one per task.
+     * @param id the producer id, deciding the order producers are drained in
+     * @return the new producer
+     * @throws IllegalArgumentException if a producer with this id is already registered
+     */
+    public synchronized Producer producer(int id) {
+        Producer[] current = producers;
+        int index = 0;
+        while (index < current.length && current[index].id < id) index++;
+        if (index < current.length && current[index].id == id) throw new IllegalArgumentException("Producer id already registered: " + id);
+        Producer producer = new Producer(id);
+        Producer[] next = new Producer[current.length + 1];
+        System.arraycopy(current, 0, next, 0, index);
+        next[index] = producer;
+        System.arraycopy(current, index, next, index + 1, current.length - index);
+        producers = next;
+        return producer;
+    }
+
+    /**
+     * Apply every published command, ignoring the ids of created objects.
+     * @return the number of commands applied
+     * @see #drain(CreationListener)
+     */
+    public int drain() {
+        return drain(null);
+    }
+
+    /**
+     * Apply every command published so far, in producer id order then enqueue order.
+     * Must be called from the thread stepping the world, between steps.
+     * Commands published while the drain runs are either applied by it or left for the next one.
+     * @param listener the listener receiving the ids of created objects, or null
+     * @return the number of commands applied, skipped ones excluded
+     * @throws IllegalStateException if another drain is running, or the world is stepping
+     */
+    public int drain(CreationListener listener) {
+        if (!draining.compareAndSet(false, true)) throw new IllegalStateException("Command buffer is already draining");
+        try {
+            world.enter();
+            try {
+                long before = appliedCount;
+                for (Producer producer : producers) producer.drain(listener);
+                return (int) (appliedCount - before);
+            } finally {
+                world.exit();
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Get the number of commands applied since creation.
+     * @return the applied command count
+     */
+    public long appliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Get the number of commands skipped since creation, because they referred to an invalid id.
+     * @return the skipped command count
+     */
+    public long skippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Get the number of registered producers.
+     * @return the producer count
+     */
+    public int producerCount() {
+        return producers.length;
+    }
+
+    // Apply a command read back from a journal, its ids moved into the world of this buffer.
+    void replay(MemorySegment records, long offset) {
+        if (replayProducer == null) {
+            replayProducer = new Producer(Integer.MIN_VALUE);
+            replayRecord = Arena.ofAuto().allocate(RecordSize, Long.BYTES);
+            replayWorld0 = b2WorldId.index1(world.segment()) - 1;
+        }
+        MemorySegment.copy(records, offset, replayRecord, 0L, RecordSize);
+        resolveIds(replayRecord.get(ValueLayout.JAVA_INT, Op), replayRecord, 0L, BodyId.Null, replayWorld0);
+        apply(replayProducer, replayRecord, 0L, null);
+    }
+
+    // Replace the LastBody references of a record with the body they stand for, and set the world index of its ids.
+    static void resolveIds(int op, MemorySegment records, long offset, long lastBody, int world0) {
+        switch (op) {
+            case CreateCircle, CreateBox -> resolveId(records, offset + B, lastBody, world0);
+            case CreateDistanceJoint, CreateRevoluteJoint -> {
+                resolveId(records, offset + B, lastBody, world0);
+                resolveId(records, offset + C, lastBody, world0);
+            }
+            case DestroyBody, LinearImpulse, AngularImpulse, SetTransform, SetLinearVelocity -> resolveId(records, offset + A, lastBody, world0);
+            // Shape and joint ids share the packed layout of body ids, and are never LastBody.
+            case DestroyShape, DestroyJoint, SetFilter -> resolveId(records, offset + A, BodyId.Null, world0);
+            default -> { }
+        }
+    }
+
+    private static void resolveId(MemorySegment records, long field, long lastBody, int world0) {
+        long id = records.get(ValueLayout.JAVA_LONG, field);
+        if (id == LastBody) id = lastBody;
+        if (id != BodyId.Null) id = BodyId.pack(BodyId.index1(id), world0, BodyId.generation(id));
+        records.set(ValueLayout.JAVA_LONG, field, id);
+    }
+
+    private void apply(Producer producer, MemorySegment records, long offset, CreationListener listener) {
+        int op = records.get(ValueLayout.JAVA_INT, offset + Op);
+        // Journaled before applying, a replay skips the same invalid commands.
+        if (recorder != null) recorder.command(records, offset, producer.lastBody);
+        long a = records.get(ValueLayout.JAVA_LONG, offset + A);
+        MemorySegment worldId = world.segment();
+        switch (op) {
+            case CreateBody -> {
+                bodyDef.set(ValueLayout.JAVA_INT, BodyType, records.get(ValueLayout.JAVA_INT, offset + Param));
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyPosition + X, records.get(ValueLayout.JAVA_FLOAT, offset + F0));
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyPosition + Y, records.get(ValueLayout.JAVA_FLOAT, offset + F1));
+                float angle = records.get(ValueLayout.JAVA_FLOAT, offset + F2);
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyRotation + Cosine, (float) Math.cos(angle));
+                bodyDef.set(ValueLayout.JAVA_FLOAT, BodyRotation + Sine, (float) Math.sin(angle));
+                producer.lastBody = BodyId.pack(nBox2D.nCreateBody(bodyAllocator, worldId, bodyDef));
+                if (digest != null) digest.add(producer.lastBody);
+                created(listener, a, producer.lastBody);
+            }
+            case DestroyBody -> {
+                if (!resolveBody(producer, a, bodyId)) return;
+                nBox2D.nDestroyBody(bodyId);
+            }
+            case CreateCircle, CreateBox -> {
+                if (!resolveBody(producer, records.get(ValueLayout.JAVA_LONG, offset + B), bodyId)) return;
+                shapeDef.set(ValueLayout.JAVA_FLOAT, Density, records.get(ValueLayout.JAVA_FLOAT, offset + F3));
+                float f0 = records.get(ValueLayout.JAVA_FLOAT, offset + F0);
+                float f1 = records.get(ValueLayout.JAVA_FLOAT, offset + F1);
+                MemorySegment shape;
+                if (op == CreateCircle) {
+                    circle.set(ValueLayout.JAVA_FLOAT, CircleCenter + X, f0);
+                    circle.set(ValueLayout.JAVA_FLOAT, CircleCenter + Y, f1);
+                    circle.set(ValueLayout.JAVA_FLOAT, CircleRadius, records.get(ValueLayout.JAVA_FLOAT, offset + F2));
+                    shape = nBox2D.nCreateCircleShape(shapeAllocator, bodyId, shapeDef, circle);
+                } else {
+                    shape = nBox2D.nCreatePolygonShape(shapeAllocator, bodyId, shapeDef, nBox2D.nMakeBox(polygonAllocator, f0, f1));
+                }
+                created(listener, a, ShapeId.pack(shape));
+            }
+            case DestroyShape -> {
+                if (!resolveShape(a)) return;
+                nBox2D.nDestroyShape(shapeId, true);
+            }
+            case CreateDistanceJoint, CreateRevoluteJoint -> {
+                MemorySegment def = op == CreateDistanceJoint ? distanceJointDef : revoluteJointDef;
+                long bodyA = op == CreateDistanceJoint ? b2DistanceJointDef.bodyIdA$offset() : b2RevoluteJointDef.bodyIdA$offset();
+                long bodyB = op == CreateDistanceJoint ? b2DistanceJointDef.bodyIdB$offset() : b2RevoluteJointDef.bodyIdB$offset();
+                long anchorA = op == CreateDistanceJoint ? b2DistanceJointDef.localAnchorA$offset() : b2RevoluteJointDef.localAnchorA$offset();
+                long anchorB = op == CreateDistanceJoint ? b2DistanceJointDef.localAnchorB$offset() : b2RevoluteJointDef.localAnchorB$offset();
+                if (!resolveBody(producer, records.get(ValueLayout.JAVA_LONG, offset + B), bodyId)) return;
+                MemorySegment.copy(bodyId, 0L, def, bodyA, IdSize);
+                if (!resolveBody(producer, records.get(ValueLayout.JAVA_LONG, offset + C), bodyId)) return;
+                MemorySegment.copy(bodyId, 0L, def, bodyB, IdSize);
+                def.set(ValueLayout.JAVA_FLOAT, anchorA + X, records.get(ValueLayout.JAVA_FLOAT, offset + F0));
+                def.set(ValueLayout.JAVA_FLOAT, anchorA + Y, records.get(ValueLayout.JAVA_FLOAT, offset + F1));
+                def.set(ValueLayout.JAVA_FLOAT, anchorB + X, records.get(ValueLayout.JAVA_FLOAT, offset + F2));
+                def.set(ValueLayout.JAVA_FLOAT, anchorB + Y, records.get(ValueLayout.JAVA_FLOAT, offset + F3));
+                MemorySegment joint;
+                if (op == CreateDistanceJoint) {
+                    b2DistanceJointDef.length(def, records.get(ValueLayout.JAVA_FLOAT, offset + Param));
+                    joint = nBox2D.nCreateDistanceJoint(jointAllocator, worldId, def);
+                } else {
+                    joint = nBox2D.nCreateRevoluteJoint(jointAllocator, worldId, def);
+                }
+                created(listener, a, JointId.pack(joint));
+            }
+            case DestroyJoint -> {
+                if (!resolveJoint(a)) return;
+                nBox2D.nDestroyJoint(jointId);
+            }
+            case LinearImpulse, SetLinearVelocity -> {
+                if (!resolveBody(producer, a, bodyId)) return;
+                vector.set(ValueLayout.JAVA_FLOAT, X, records.get(ValueLayout.JAVA_FLOAT, offset + F0));
+                vector.set(ValueLayout.JAVA_FLOAT, Y, records.get(ValueLayout.JAVA_FLOAT, offset + F1));
+                if (op == LinearImpulse) nBox2D.nBodyApplyLinearImpulseToCenter(bodyId, vector, true);
+                else nBox2D.nBodySetLinearVelocity(bodyId, vector);
+            }
+            case AngularImpulse -> {
+                if (!resolveBody(producer, a, bodyId)) return;
+                nBox2D.nBodyApplyAngularImpulse(bodyId, records.get(ValueLayout.JAVA_FLOAT, offset + F0), true);
+            }
+            case SetTransform -> {
+                if (!resolveBody(producer, a, bodyId)) return;
+                vector.set(ValueLayout.JAVA_FLOAT, X, records.get(ValueLayout.JAVA_FLOAT, offset + F0));
+                vector.set(ValueLayout.JAVA_FLOAT, Y, records.get(ValueLayout.JAVA_FLOAT, offset + F1));
+                float angle = records.get(ValueLayout.JAVA_FLOAT, offset + F2);
+                rotation.set(ValueLayout.JAVA_FLOAT, Cosine, (float) Math.cos(angle));
+                rotation.set(ValueLayout.JAVA_FLOAT, Sine, (float) Math.sin(angle));
+                nBox2D.nBodySetTransform(bodyId, vector, rotation);
+            }
+            case SetFilter -> {
+                if (!resolveShape(a)) return;
+                b2Filter.categoryBits(filter, records.get(ValueLayout.JAVA_LONG, offset + B));
+                b2Filter.maskBits(filter, records.get(ValueLayout.JAVA_LONG, offset + C));
+                b2Filter.groupIndex(filter, records.get(ValueLayout.JAVA_INT, offset + Param));
+                nBox2D.nShapeSetFilter(shapeId, filter);
+            }
+            default -> throw new IllegalStateException("Unknown command: " + op);
+        }
+        appliedCount++;
+    }
+
+    // Resolve a body reference into the given id segment, counting it as skipped when invalid.
+    private boolean resolveBody(Producer producer, long id, MemorySegment segment) {
+        BodyId.unpack(id == LastBody ? producer.lastBody : id, segment);
+        if (nBox2D.nBodyIsValid(segment)) return true;
+        skippedCount++;
+        return false;
+    }
+
+    // Resolve a shape reference into the shape id segment, counting it as skipped when invalid.
+    private boolean resolveShape(long id) {
+        if (nBox2D.nShapeIsValid(ShapeId.unpack(id, shapeId))) return true;
+        skippedCount++;
+        return false;
+    }
+
+    // Resolve a joint reference into the joint id segment, counting it as skipped when invalid.
+    private boolean resolveJoint(long id) {
+        if (nBox2D.nJointIsValid(JointId.unpack(id, jointId))) return true;
+        skippedCount++;
+        return false;
+    }
+
+    private static void created(CreationListener listener, long tag, long id) {
+        if (listener != null) listener.created(tag, id);
+    }
+
+    private static final class Chunk {
+        final MemorySegment records = Arena.ofAuto().allocate(RecordSize * ChunkRecords, Long.BYTES);
+        volatile int published;
+        volatile Chunk next;
+    }
+
+    /**
+     * Single threaded recorder of commands into a {@link WorldCommandBuffer}.
+     * <p>
+     * A producer must only be used by one thread at a time, different producers may be used concurrently.
+     * Recording does not validate ids, invalid ones are skipped when the buffer is drained.
+     * </p>
+     */
+    public final class Producer {
+        private final int id;
+        private final AtomicReference<Chunk> spare = new AtomicReference<>();
+        // Producer side.
+        private Chunk tail;
+        private int count;
+        private long sequence;
+        // Drain side.
+        private Chunk head;
+        private int read;
+        private long lastBody = BodyId.Null;
+
+        private Producer(int id) {
+            this.id = id;
+            tail = head = new Chunk();
+        }
+
+        private long begin(int op) {
+            if (count == ChunkRecords) {
+                Chunk next = spare.getAndSet(null);
+                if (next == null) {
+                    next = new Chunk();
+                } else {
+                    next.published = 0;
+                    next.next = null;
+                }
+                // The volatile link publishes the reset chunk to the drain.
+                tail.next = next;
+                tail = next;
+                count = 0;
+            }
+            long offset = count * RecordSize;
+            tail.records.set(ValueLayout.JAVA_INT, offset + Op, op);
+            return offset;
+        }
+
+        private Producer publish() {
+            // The volatile store releases the record written before it.
+            tail.published = ++count;
+            sequence++;
+            return this;
+        }
+
+        private void drain(CreationListener listener) {
+            while (true) {
+                int end = head.published;
+                for (; read < end; read++) apply(this, head.records, read * RecordSize, listener);
+                if (end < ChunkRecords) return;
+                Chunk next = head.next;
+                if (next == null) return;
+                // The producer is past the full chunk, hand it back for reuse.
+                spare.compareAndSet(null, head);
+                head = next;
+                read = 0;
+            }
+        }
+
+        /**
+         * Get the id of this producer.
+         * @return the producer id
+         */
+        public int id() {
+            return id;
+        }
+
+        /**
+         * Get the number of commands this producer has enqueued.
+         * @return the command sequence number
+         */
+        public long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Enqueue the creation of a body, with Box2D's default definition for the other properties.
+         * @param tag the tag reported with the new {@link BodyId}
+         * @param type the body type, {@link #StaticBody}, {@link #KinematicBody} or {@link #DynamicBody}
+         * @param x the initial position x coordinate
+         * @param y the initial position y coordinate
+         * @param angle the initial angle, in radians
+         * @return this
+         */
+        public Producer createBody(long tag, int type, float x, float y, float angle) {
+            long offset = begin(CreateBody);
+            MemorySegment records = tail.records;
+            records.set(ValueLayout.JAVA_INT, offset + Param, type);
+            records.set(ValueLayout.JAVA_LONG, offset + A, tag);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F0, x);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F1, y);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F2, angle);
+            return publish();
+        }
+
+        /**
+         * Enqueue the destruction of a body, with its shapes and joints.
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @return this
+         */
+        public Producer destroyBody(long bodyId) {
+            return body(DestroyBody, bodyId, 0.0f, 0.0f, 0.0f);
+        }
+
+        /**
+         * Enqueue the creation of a circle shape on a body.
+         * @param tag the tag reported with the new {@link ShapeId}
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param centerX the local center x coordinate
+         * @param centerY the local center y coordinate
+         * @param radius the radius
+         * @param density the density, in kg per squared meter
+         * @return this
+         */
+        public Producer createCircle(long tag, long bodyId, float centerX, float centerY, float radius, float density) {
+            return shape(CreateCircle, tag, bodyId, centerX, centerY, radius, density);
+        }
+
+        /**
+         * Enqueue the creation of a box shape centered on a body.
+         * @param tag the tag reported with the new {@link ShapeId}
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param halfWidth the box 1/2 width along the local x-axis
+         * @param halfHeight the box 1/2 height along the local y-axis
+         * @param density the density, in kg per squared meter
+         * @return this
+         */
+        public Producer createBox(long tag, long bodyId, float halfWidth, float halfHeight, float density) {
+            return shape(CreateBox, tag, bodyId, halfWidth, halfHeight, 0.0f, density);
+        }
+
+        /**
+         * Enqueue the destruction of a shape, updating the mass of its body.
+         * @param shapeId the shape, packed as in {@link ShapeId}
+         * @return this
+         */
+        public Producer destroyShape(long shapeId) {
+            long offset = begin(DestroyShape);
+            tail.records.set(ValueLayout.JAVA_LONG, offset + A, shapeId);
+            return publish();
+        }
+
+        /**
+         * Enqueue the creation of a distance joint, with Box2D's default definition for the other properties.
+         * @param tag the tag reported with the new {@link JointId}
+         * @param bodyIdA the first body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param bodyIdB the second body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param localAnchorAX the anchor x coordinate, local to body A
+         * @param localAnchorAY the anchor y coordinate, local to body A
+         * @param localAnchorBX the anchor x coordinate, local to body B
+         * @param localAnchorBY the anchor y coordinate, local to body B
+         * @param length the rest length
+         * @return this
+         */
+        public Producer createDistanceJoint(long tag, long bodyIdA, long bodyIdB, float localAnchorAX, float localAnchorAY,
+                                            float localAnchorBX, float localAnchorBY, float length) {
+            long offset = joint(CreateDistanceJoint, tag, bodyIdA, bodyIdB, localAnchorAX, localAnchorAY, localAnchorBX, localAnchorBY);
+            tail.records.set(ValueLayout.JAVA_FLOAT, offset + Param, length);
+            return publish();
+        }
+
+        /**
+         * Enqueue the creation of a revolute joint, with Box2D's default definition for the other properties.
+         * @param tag the tag reported with the new {@link JointId}
+         * @param bodyIdA the first body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param bodyIdB the second body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param localAnchorAX the anchor x coordinate, local to body A
+         * @param localAnchorAY the anchor y coordinate, local to body A
+         * @param localAnchorBX the anchor x coordinate, local to body B
+         * @param localAnchorBY the anchor y coordinate, local to body B
+         * @return this
+         */
+        public Producer createRevoluteJoint(long tag, long bodyIdA, long bodyIdB, float localAnchorAX, float localAnchorAY,
+                                            float localAnchorBX, float localAnchorBY) {
+            joint(CreateRevoluteJoint, tag, bodyIdA, bodyIdB, localAnchorAX, localAnchorAY, localAnchorBX, localAnchorBY);
+            return publish();
+        }
+
+        /**
+         * Enqueue the destruction of a joint.
+         * @param jointId the joint, packed as in {@link JointId}
+         * @return this
+         */
+        public Producer destroyJoint(long jointId) {
+            long offset = begin(DestroyJoint);
+            tail.records.set(ValueLayout.JAVA_LONG, offset + A, jointId);
+            return publish();
+        }
+
+        /**
+         * Enqueue a linear impulse at the center of mass of a body, waking it.
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param impulseX the impulse x component
+         * @param impulseY the impulse y component
+         * @return this
+         */
+        public Producer applyLinearImpulse(long bodyId, float impulseX, float impulseY) {
+            return body(LinearImpulse, bodyId, impulseX, impulseY, 0.0f);
+        }
+
+        /**
+         * Enqueue an angular impulse on a body, waking it.
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param impulse the angular impulse
+         * @return this
+         */
+        public Producer applyAngularImpulse(long bodyId, float impulse) {
+            return body(AngularImpulse, bodyId, impulse, 0.0f, 0.0f);
+        }
+
+        /**
+         * Enqueue a teleport of a body.
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param x the body origin x coordinate
+         * @param y the body origin y coordinate
+         * @param angle the body angle, in radians
+         * @return this
+         */
+        public Producer setTransform(long bodyId, float x, float y, float angle) {
+            return body(SetTransform, bodyId, x, y, angle);
+        }
+
+        /**
+         * Enqueue a change of the linear velocity of a body.
+         * @param bodyId the body, packed as in {@link BodyId}, or {@link #LastBody}
+         * @param x the velocity x component
+         * @param y the velocity y component
+         * @return this
+         */
+        public Producer setLinearVelocity(long bodyId, float x, float y) {
+            return body(SetLinearVelocity, bodyId, x, y, 0.0f);
+        }
+
+        /**
+         * Enqueue a change of the collision filter of a shape.
+         * @param shapeId the shape, packed as in {@link ShapeId}
+         * @param categoryBits the category bits of the shape
+         * @param maskBits the categories the shape collides with
+         * @param groupIndex the collision group index
+         * @return this
+         */
+        public Producer setFilter(long shapeId, long categoryBits, long maskBits, int groupIndex) {
+            long offset = begin(SetFilter);
+            MemorySegment records = tail.records;
+            records.set(ValueLayout.JAVA_INT, offset + Param, groupIndex);
+            records.set(ValueLayout.JAVA_LONG, offset + A, shapeId);
+            records.set(ValueLayout.JAVA_LONG, offset + B, categoryBits);
+            records.set(ValueLayout.JAVA_LONG, offset + C, maskBits);
+            return publish();
+        }
+
+        private Producer body(int op, long bodyId, float f0, float f1, float f2) {
+            long offset = begin(op);
+            MemorySegment records = tail.records;
+            records.set(ValueLayout.JAVA_LONG, offset + A, bodyId);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F0, f0);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F1, f1);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F2, f2);
+            return publish();
+        }
+
+        private Producer shape(int op, long tag, long bodyId, float f0, float f1, float f2, float density) {
+            long offset = begin(op);
+            MemorySegment records = tail.records;
+            records.set(ValueLayout.JAVA_LONG, offset + A, tag);
+            records.set(ValueLayout.JAVA_LONG, offset + B, bodyId);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F0, f0);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F1, f1);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F2, f2);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F3, density);
+            return publish();
+        }
+
+        private long joint(int op, long tag, long bodyIdA, long bodyIdB, float ax, float ay, float bx, float by) {
+            long offset = begin(op);
+            MemorySegment records = tail.records;
+            records.set(ValueLayout.JAVA_LONG, offset + A, tag);
+            records.set(ValueLayout.JAVA_LONG, offset + B, bodyIdA);
+            records.set(ValueLayout.JAVA_LONG, offset + C, bodyIdB);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F0, ax);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F1, ay);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F2, bx);
+            records.set(ValueLayout.JAVA_FLOAT, offset + F3, by);
+            return offset;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("WorldCommandBuffer.Producer[id=%d, sequence=%d]", id, sequence);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WorldCommandBuffer[producers=%d, applied=%d, skipped=%d]", producers.length, appliedCount, skippedCount);
+    }
+}
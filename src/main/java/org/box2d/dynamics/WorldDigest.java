@@ -0,0 +1,70 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * {@code b2Hash} digest of the state of the bodies created through a {@link WorldCommandBuffer}, in creation order.
+ * Each body adds its packed id without the world index, transform, linear and angular velocity, so two worlds fed the
+ * same commands and steps only share a digest if they simulated the same bits, wherever they were created.
+ */
+final class WorldDigest {
+    private static final long TransformSize = b2Transform.layout().byteSize();
+    private static final long VelocitySize = b2Vec2.layout().byteSize();
+    private static final long BodySize = Long.BYTES + TransformSize + VelocitySize + Float.BYTES;
+
+    private final MemorySegment bodyId;
+    private final MemorySegment transform;
+    private final MemorySegment velocity;
+    private final SegmentAllocator transformAllocator;
+    private final SegmentAllocator velocityAllocator;
+    private long[] bodies = new long[64];
+    private int count;
+    private MemorySegment state = Arena.ofAuto().allocate(BodySize * 64, Long.BYTES);
+
+    WorldDigest() {
+        Arena arena = Arena.ofAuto();
+        bodyId = arena.allocate(b2BodyId.layout());
+        transform = arena.allocate(b2Transform.layout());
+        velocity = arena.allocate(b2Vec2.layout());
+        transformAllocator = (byteSize, byteAlignment) -> transform;
+        velocityAllocator = (byteSize, byteAlignment) -> velocity;
+    }
+
+    void add(long body) {
+        if (count == bodies.length) bodies = Arrays.copyOf(bodies, count * 2);
+        bodies[count++] = body;
+    }
+
+    // Must be called while the world is entered. Destroyed bodies are dropped on the way.
+    int compute() {
+        if (state.byteSize() < count * BodySize) state = Arena.ofAuto().allocate(bodies.length * BodySize, Long.BYTES);
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            long body = bodies[i];
+            if (!nBox2D.nBodyIsValid(BodyId.unpack(body, bodyId))) continue;
+            bodies[live] = body;
+            long offset = live++ * BodySize;
+            nBox2D.nBodyGetTransform(transformAllocator, bodyId);
+            nBox2D.nBodyGetLinearVelocity(velocityAllocator, bodyId);
+            state.set(ValueLayout.JAVA_LONG_UNALIGNED, offset, BodyId.pack(BodyId.index1(body), 0, BodyId.generation(body)));
+            MemorySegment.copy(transform, 0L, state, offset + Long.BYTES, TransformSize);
+            MemorySegment.copy(velocity, 0L, state, offset + Long.BYTES + TransformSize, VelocitySize);
+            state.set(ValueLayout.JAVA_FLOAT_UNALIGNED, offset + BodySize - Float.BYTES, nBox2D.nBodyGetAngularVelocity(bodyId));
+        }
+        count = live;
+        return nBox2D.nHash(nBox2D.nHashInit(), state, Math.toIntExact(live * BodySize));
+    }
+
+    int bodyCount() {
+        return count;
+    }
+}
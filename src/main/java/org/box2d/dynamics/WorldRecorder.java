@@ -0,0 +1,239 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records every mutation of a {@link World} issued through its {@link WorldCommandBuffer}, with every step, into an
+ * append-only journal that {@link WorldReplayer} re-executes.
+ * <p>
+ * The journal is a sequence of memory-mapped files of fixed size, {@code journal-00000.b2r} and up, in a directory.
+ * Each holds a header then records of the command buffer's own fixed size layout: the commands as applied, references
+ * to the last created body resolved and ids stripped of their world index, interleaved with the steps and explosions.
+ * A record's op is written last and an unwritten record reads as zero, so a journal cut short by a crash replays up to
+ * its last complete record. A file that cannot hold the next record is closed and the journal continues in the next one.
+ * </p>
+ * <p>
+ * Each step record holds the {@code b2Hash} digest of the bodies created through the command buffer, checked by the
+ * replay after the same step. Create the recorder on a fresh world, and from then on mutate and step it only through
+ * the command buffer and this recorder, on the thread stepping the world. Calls made directly on the native world are
+ * not recorded and make the replay diverge.
+ * </p>
+ */
+public final class WorldRecorder implements AutoCloseable {
+    static final int HeaderRecord = 62;
+    static final int StepRecord = 63;
+    static final int ExplodeRecord = 64;
+    // "b2journl" as bytes on little-endian platforms.
+    static final long Magic = 0x6C6E72756F6A3262L;
+    static final int Version = 1;
+
+    private final World world;
+    private final WorldCommandBuffer commands;
+    private final Path directory;
+    private final long fileSize;
+    private final WorldDigest digest = new WorldDigest();
+    private final float gravityX;
+    private final float gravityY;
+
+    private Arena arena;
+    private MemorySegment file;
+    private long position;
+    private int fileIndex = -1;
+    private long recordCount;
+    private long stepCount;
+    private int lastDigest;
+
+    /**
+     * Create a new {@link WorldRecorder} and start its journal.
+     * @param world the world, not mutated yet
+     * @param commands the command buffer mutating the world
+     * @param directory the directory of the journal files, created if missing
+     * @param fileSize the size of each journal file, in bytes, at which the journal rotates to the next file
+     * @throws IllegalArgumentException if the file size cannot hold a header and a record
+     * @throws IllegalStateException if the command buffer is already recorded
+     * @throws UncheckedIOException if the first journal file cannot be created
+     */
+    public WorldRecorder(World world, WorldCommandBuffer commands, Path directory, long fileSize) {
+        if (fileSize < 2 * WorldCommandBuffer.RecordSize) {
+            throw new IllegalArgumentException("File size must hold at least 2 records of " + WorldCommandBuffer.RecordSize + " bytes, got " + fileSize);
+        }
+        if (commands.recorder != null) throw new IllegalStateException("Command buffer is already recorded");
+        this.world = world;
+        this.commands = commands;
+        this.directory = directory;
+        this.fileSize = fileSize - fileSize % WorldCommandBuffer.RecordSize;
+        MemorySegment gravity = nBox2D.nWorldGetGravity(Arena.ofAuto(), world.segment());
+        gravityX = b2Vec2.x(gravity);
+        gravityY = b2Vec2.y(gravity);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal directory: " + directory, e);
+        }
+        rotate();
+        commands.recorder = this;
+        commands.digest = digest;
+    }
+
+    static Path file(Path directory, int index) {
+        return directory.resolve(String.format("journal-%05d.b2r", index));
+    }
+
+    private void rotate() {
+        if (arena != null) {
+            file.force();
+            arena.close();
+        }
+        fileIndex++;
+        Path path = file(directory, fileIndex);
+        arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0L, fileSize, arena);
+        } catch (IOException e) {
+            arena.close();
+            arena = null;
+            throw new UncheckedIOException("Failed to map journal file: " + path, e);
+        }
+        position = 0L;
+        long offset = begin();
+        file.set(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Param, Version);
+        file.set(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.A, Magic);
+        file.set(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.B, fileIndex);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F0, gravityX);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F1, gravityY);
+        commit(offset, HeaderRecord);
+    }
+
+    private long begin() {
+        if (file == null) throw new IllegalStateException("Recorder is closed");
+        if (position + WorldCommandBuffer.RecordSize > fileSize) rotate();
+        return position;
+    }
+
+    private void commit(long offset, int op) {
+        // The op goes last, publishing the complete record.
+        file.set(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Op, op);
+        position = offset + WorldCommandBuffer.RecordSize;
+        recordCount++;
+    }
+
+    // Called by the command buffer on the draining thread, before applying the command.
+    void command(MemorySegment records, long offset, long lastBody) {
+        int op = records.get(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Op);
+        long at = begin();
+        long fields = WorldCommandBuffer.Param;
+        MemorySegment.copy(records, offset + fields, file, at + fields, WorldCommandBuffer.RecordSize - fields);
+        // Journaled without the world index, so the journal replays into any world.
+        WorldCommandBuffer.resolveIds(op, file, at, lastBody, 0);
+        commit(at, op);
+    }
+
+    /**
+     * Step the world, then journal the step with the digest of the bodies.
+     * @param timeStep the amount of time to simulate, in seconds, usually a fixed {@code 1/60}
+     * @param subStepCount the number of sub-steps, usually 4
+     * @return the digest after the step
+     * @throws IllegalStateException if the world is already stepping or in use by another operation
+     */
+    public int step(float timeStep, int subStepCount) {
+        world.step(timeStep, subStepCount);
+        world.enter();
+        try {
+            lastDigest = digest.compute();
+        } finally {
+            world.exit();
+        }
+        long offset = begin();
+        file.set(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Param, subStepCount);
+        file.set(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.A, stepCount++);
+        file.set(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.B, lastDigest);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F0, timeStep);
+        commit(offset, StepRecord);
+        return lastDigest;
+    }
+
+    /**
+     * Apply an explosion to the world and journal it.
+     * @param x the explosion center x coordinate
+     * @param y the explosion center y coordinate
+     * @param radius the radius of the explosion
+     * @param falloff the falloff distance beyond the radius, impulse is reduced to zero at this distance
+     * @param impulsePerLength the impulse per unit length
+     * @param maskBits the categories of the shapes affected
+     * @see World#explode(float, float, float, float, float, long)
+     */
+    public void explode(float x, float y, float radius, float falloff, float impulsePerLength, long maskBits) {
+        world.explode(x, y, radius, falloff, impulsePerLength, maskBits);
+        long offset = begin();
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.Param, impulsePerLength);
+        file.set(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.A, maskBits);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F0, x);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F1, y);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F2, radius);
+        file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F3, falloff);
+        commit(offset, ExplodeRecord);
+    }
+
+    /**
+     * Get the digest journaled with the last step.
+     * @return the digest, zero before the first step
+     */
+    public int lastDigest() {
+        return lastDigest;
+    }
+
+    /**
+     * Get the number of steps journaled.
+     * @return the step count
+     */
+    public long stepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Get the number of records journaled, headers included.
+     * @return the record count
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Get the number of journal files written so far.
+     * @return the file count
+     */
+    public int fileCount() {
+        return fileIndex + 1;
+    }
+
+    /**
+     * Stop recording, flush and unmap the current journal file. The world and command buffer remain usable.
+     */
+    @Override
+    public void close() {
+        if (file == null) return;
+        commands.recorder = null;
+        commands.digest = null;
+        file.force();
+        arena.close();
+        file = null;
+        arena = null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WorldRecorder[directory=%s, files=%d, steps=%d, records=%d]", directory, fileIndex + 1, stepCount, recordCount);
+    }
+}
@@ -0,0 +1,196 @@
+package org.box2d.dynamics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Rebuilds a {@link World} from the journal of a {@link WorldRecorder} and re-executes it as fast as possible,
+ * checking the {@code b2Hash} digest of the bodies after every step against the recorded one.
+ * <p>
+ * The world is created from the gravity of the journal header with Box2D's default definition for the rest, and
+ * commands are applied through a {@link WorldCommandBuffer}, so skipped commands come out as recorded, and ids too
+ * but for their world index. The recorded world may still be open while replaying.
+ * A replayer is not thread safe, replay from one thread.
+ * </p>
+ */
+public final class WorldReplayer implements AutoCloseable {
+    private final Path directory;
+    private final World world;
+    private final WorldCommandBuffer commands;
+    private final WorldDigest digest = new WorldDigest();
+
+    private Arena arena;
+    private MemorySegment file;
+    private long position;
+    private int fileIndex;
+    private boolean ended;
+    private long stepCount;
+    private long recordCount;
+    private int lastDigest;
+
+    /**
+     * Open the journal in the given directory and create the world it replays.
+     * @param directory the directory of the journal files
+     * @throws IllegalArgumentException if the directory holds no journal, or a file is not a journal of this version
+     * @throws UncheckedIOException if a journal file cannot be mapped
+     */
+    public WorldReplayer(Path directory) {
+        this.directory = directory;
+        if (!Files.exists(WorldRecorder.file(directory, 0))) throw new IllegalArgumentException("No journal in: " + directory);
+        open(0);
+        world = new World(file.get(ValueLayout.JAVA_FLOAT, WorldCommandBuffer.F0), file.get(ValueLayout.JAVA_FLOAT, WorldCommandBuffer.F1));
+        commands = new WorldCommandBuffer(world);
+        commands.digest = digest;
+    }
+
+    private void open(int index) {
+        if (arena != null) arena.close();
+        Path path = WorldRecorder.file(directory, index);
+        arena = Arena.ofConfined();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+        } catch (IOException e) {
+            arena.close();
+            arena = null;
+            throw new UncheckedIOException("Failed to map journal file: " + path, e);
+        }
+        if (file.byteSize() < WorldCommandBuffer.RecordSize
+                || file.get(ValueLayout.JAVA_INT, WorldCommandBuffer.Op) != WorldRecorder.HeaderRecord
+                || file.get(ValueLayout.JAVA_LONG, WorldCommandBuffer.A) != WorldRecorder.Magic
+                || file.get(ValueLayout.JAVA_INT, WorldCommandBuffer.Param) != WorldRecorder.Version
+                || file.get(ValueLayout.JAVA_LONG, WorldCommandBuffer.B) != index) {
+            throw new IllegalArgumentException("Not a journal file of version " + WorldRecorder.Version + " at index " + index + ": " + path);
+        }
+        fileIndex = index;
+        position = WorldCommandBuffer.RecordSize;
+    }
+
+    // Move to the next record, across files, false at the end of the journal.
+    private boolean advance() {
+        if (position + WorldCommandBuffer.RecordSize <= file.byteSize() && file.get(ValueLayout.JAVA_INT, position + WorldCommandBuffer.Op) != 0) {
+            return true;
+        }
+        if (!Files.exists(WorldRecorder.file(directory, fileIndex + 1))) return false;
+        open(fileIndex + 1);
+        return advance();
+    }
+
+    /**
+     * Replay the journal up to and including its next step.
+     * @return true if a step was replayed, false at the end of the journal
+     * @throws IllegalStateException if the digest after the step differs from the recorded one
+     */
+    public boolean step() {
+        while (!ended) {
+            if (!advance()) {
+                ended = true;
+                break;
+            }
+            long offset = position;
+            position += WorldCommandBuffer.RecordSize;
+            recordCount++;
+            int op = file.get(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Op);
+            switch (op) {
+                case WorldRecorder.StepRecord -> {
+                    world.step(file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F0), file.get(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Param));
+                    world.enter();
+                    try {
+                        lastDigest = digest.compute();
+                    } finally {
+                        world.exit();
+                    }
+                    int expected = (int) file.get(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.B);
+                    if (lastDigest != expected) {
+                        throw new IllegalStateException(String.format("Replay diverged at step %d, digest %08x, recorded %08x",
+                                file.get(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.A), lastDigest, expected));
+                    }
+                    stepCount++;
+                    return true;
+                }
+                case WorldRecorder.ExplodeRecord -> world.explode(file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F0),
+                        file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F1), file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F2),
+                        file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F3), file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.Param),
+                        file.get(ValueLayout.JAVA_LONG, offset + WorldCommandBuffer.A));
+                case WorldRecorder.HeaderRecord -> throw new IllegalStateException("Unexpected journal header at record " + recordCount);
+                default -> {
+                    world.enter();
+                    try {
+                        commands.replay(file, offset);
+                    } finally {
+                        world.exit();
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replay the rest of the journal.
+     * @return the number of steps replayed by this call
+     * @throws IllegalStateException if a digest differs from the recorded one
+     */
+    public long run() {
+        long before = stepCount;
+        while (step()) {
+            // Keep going until the end of the journal.
+        }
+        return stepCount - before;
+    }
+
+    /**
+     * Get the replayed world, in the state of the last replayed step.
+     * @return the world
+     */
+    public World world() {
+        return world;
+    }
+
+    /**
+     * Get the number of steps replayed.
+     * @return the step count
+     */
+    public long stepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Get the digest after the last replayed step.
+     * @return the digest, zero before the first step
+     */
+    public int lastDigest() {
+        return lastDigest;
+    }
+
+    /**
+     * Check if the whole journal has been replayed.
+     * @return true at the end of the journal
+     */
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Unmap the journal and close the replayed world.
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+        }
+        world.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WorldReplayer[directory=%s, file=%d, steps=%d, ended=%b]", directory, fileIndex, stepCount, ended);
+    }
+}
@@ -0,0 +1,261 @@
+package org.box2d.events;
+
+import org.box2d.NativeLoader;
+import org.box2d.dynamics.World;
+import org.box2d.internal.b2ContactBeginTouchEvent;
+import org.box2d.internal.b2ContactEndTouchEvent;
+import org.box2d.internal.b2ContactEvents;
+import org.box2d.internal.b2ContactHitEvent;
+import org.box2d.internal.nBox2D;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ring log of the contact events of a {@link World}, in a memory-mapped file of fixed size that a
+ * {@link ContactEventLogReader} consumes from a background thread or another process.
+ * <p>
+ * After each step, {@link #capture(World)} appends one frame per non-empty event array: a 24 byte frame header
+ * (type, event count, step, sequence number of its first event), followed by the native events, copied in one bulk
+ * copy. A frame is never split; one that does not fit before the end of the ring starts over at its beginning.
+ * Writing never waits for readers. The oldest frames are overwritten and readers that fall behind count the events
+ * they lost. A frame larger than the whole ring is dropped and counted.
+ * </p>
+ * <p>
+ * The file starts with a 64 byte header holding the write position and the position of the oldest intact frame,
+ * both byte counts since creation, and the sequence number of the first event of that frame. The tail is advanced
+ * before overwriting a frame and the write position after writing one, so readers copy a frame, then check the tail
+ * to know whether the copy is intact.
+ * </p>
+ * <p>
+ * A log is written by one thread, between the steps of the world it captures.
+ * </p>
+ */
+public final class ContactEventLog implements AutoCloseable {
+    /**
+     * Frame type of {@link b2ContactBeginTouchEvent} arrays.
+     */
+    public static final int BeginTouch = 1;
+    /**
+     * Frame type of {@link b2ContactEndTouchEvent} arrays.
+     */
+    public static final int EndTouch = 2;
+    /**
+     * Frame type of {@link b2ContactHitEvent} arrays.
+     */
+    public static final int Hit = 3;
+
+    // "b2events" as bytes on little-endian platforms.
+    static final long Magic = 0x73746E6576653262L;
+    static final int Version = 1;
+    // File header layout.
+    static final long MagicOffset = 0;
+    static final long VersionOffset = 8;
+    static final long CapacityOffset = 16;
+    static final long WriteOffset = 24;
+    static final long TailOffset = 32;
+    static final long DroppedOffset = 40;
+    static final long TailSequenceOffset = 48;
+    static final long HeaderSize = 64;
+    // Frame header layout, then the events.
+    static final int Wrap = -1;
+    static final long FrameType = 0;
+    static final long FrameCount = 4;
+    static final long FrameStep = 8;
+    static final long FrameSequence = 16;
+    static final long FrameHeaderSize = 24;
+
+    static final VarHandle LongHandle = ValueLayout.JAVA_LONG.varHandle();
+
+    private final Path path;
+    private final long capacity;
+    private final Arena arena;
+    private final MemorySegment file;
+    private final MemorySegment ring;
+    private final SegmentAllocator eventsAllocator;
+    private long write;
+    private long tail;
+    private long tailSequence;
+    private long step;
+    private long eventCount;
+    private long droppedCount;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link ContactEventLog}, replacing the given file.
+     * @param path the log file
+     * @param capacity the ring size in bytes, rounded down to a multiple of 8
+     * @throws IllegalArgumentException if the capacity cannot hold a frame header
+     * @throws UncheckedIOException if the file cannot be created
+     */
+    public ContactEventLog(Path path, long capacity) {
+        if (capacity < 2 * FrameHeaderSize) throw new IllegalArgumentException("Capacity must be at least " + 2 * FrameHeaderSize + " bytes, got " + capacity);
+        this.path = path;
+        this.capacity = capacity & ~7L;
+        arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0L, HeaderSize + this.capacity, arena);
+        } catch (IOException e) {
+            arena.close();
+            throw new UncheckedIOException("Failed to map event log file: " + path, e);
+        }
+        ring = file.asSlice(HeaderSize, this.capacity);
+        MemorySegment events = Arena.ofAuto().allocate(b2ContactEvents.layout());
+        eventsAllocator = (byteSize, byteAlignment) -> events;
+        file.set(ValueLayout.JAVA_INT, VersionOffset, Version);
+        file.set(ValueLayout.JAVA_LONG, CapacityOffset, this.capacity);
+        // The magic goes last, readers reject the file until the header is complete.
+        LongHandle.setRelease(file, MagicOffset, Magic);
+    }
+
+    /**
+     * Get the size of the events of a frame type.
+     * @param type the frame type, {@link #BeginTouch}, {@link #EndTouch} or {@link #Hit}
+     * @return the event size in bytes
+     * @throws IllegalArgumentException if the type is unknown
+     */
+    public static long eventSize(int type) {
+        return switch (type) {
+            case BeginTouch -> b2ContactBeginTouchEvent.layout().byteSize();
+            case EndTouch -> b2ContactEndTouchEvent.layout().byteSize();
+            case Hit -> b2ContactHitEvent.layout().byteSize();
+            default -> throw new IllegalArgumentException("Unknown frame type: " + type);
+        };
+    }
+
+    static long frameSize(int type, int count) {
+        return (FrameHeaderSize + count * eventSize(type) + 7L) & ~7L;
+    }
+
+    /**
+     * Append the contact events of the last step of the given world.
+     * @param world the world, stepped since the last capture
+     * @return the number of events appended, dropped ones excluded
+     * @throws IllegalStateException if the world is stepping, or this log is closed
+     */
+    public int capture(World world) {
+        if (world.isStepping()) throw new IllegalStateException("World is stepping, wait for the step to complete");
+        if (!arena.scope().isAlive()) throw new IllegalStateException("Event log is closed");
+        MemorySegment events = nBox2D.nWorldGetContactEvents(eventsAllocator, world.segment());
+        int written = append(BeginTouch, b2ContactEvents.beginEvents(events), b2ContactEvents.beginCount(events))
+                + append(EndTouch, b2ContactEvents.endEvents(events), b2ContactEvents.endCount(events))
+                + append(Hit, b2ContactEvents.hitEvents(events), b2ContactEvents.hitCount(events));
+        step++;
+        return written;
+    }
+
+    // Append one frame holding a native event array.
+    int append(int type, MemorySegment events, int count) {
+        if (count == 0) return 0;
+        long size = frameSize(type, count);
+        if (size > capacity) {
+            droppedCount += count;
+            LongHandle.setRelease(file, DroppedOffset, droppedCount);
+            return 0;
+        }
+        long at = write % capacity;
+        long start = write;
+        if (capacity - at < size) start += capacity - at;
+        reserve(start, start + size);
+        if (start != write && capacity - at >= FrameHeaderSize) ring.set(ValueLayout.JAVA_INT, at + FrameType, Wrap);
+        at = start % capacity;
+        ring.set(ValueLayout.JAVA_INT, at + FrameType, type);
+        ring.set(ValueLayout.JAVA_INT, at + FrameCount, count);
+        ring.set(ValueLayout.JAVA_LONG, at + FrameStep, step);
+        ring.set(ValueLayout.JAVA_LONG, at + FrameSequence, eventCount);
+        long bytes = count * eventSize(type);
+        MemorySegment.copy(events.reinterpret(bytes), 0L, ring, at + FrameHeaderSize, bytes);
+        write = start + size;
+        eventCount += count;
+        // Release the frame to readers.
+        LongHandle.setRelease(file, WriteOffset, write);
+        return count;
+    }
+
+    // Move the tail past every frame overwritten by a frame from start to end.
+    private void reserve(long start, long end) {
+        if (end - tail <= capacity) return;
+        do {
+            long at = tail % capacity;
+            if (tail >= write) {
+                // Every frame is overwritten, including the end of the ring skipped by this one.
+                tail = start;
+            } else if (capacity - at < FrameHeaderSize || ring.get(ValueLayout.JAVA_INT, at + FrameType) == Wrap) {
+                tail += capacity - at;
+            } else {
+                int count = ring.get(ValueLayout.JAVA_INT, at + FrameCount);
+                tailSequence = ring.get(ValueLayout.JAVA_LONG, at + FrameSequence) + count;
+                tail += frameSize(ring.get(ValueLayout.JAVA_INT, at + FrameType), count);
+            }
+        } while (end - tail > capacity);
+        file.set(ValueLayout.JAVA_LONG, TailSequenceOffset, tailSequence);
+        // Volatile, readers must see the tail move before the bytes it frees change.
+        LongHandle.setVolatile(file, TailOffset, tail);
+    }
+
+    /**
+     * Get the number of steps captured.
+     * @return the step count
+     */
+    public long step() {
+        return step;
+    }
+
+    /**
+     * Get the number of events appended since creation, dropped ones excluded.
+     * @return the event count
+     */
+    public long eventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Get the number of events dropped because their frame is larger than the ring.
+     * @return the dropped event count
+     */
+    public long droppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Get the number of bytes written since creation, the position of the next frame.
+     * @return the write position
+     */
+    public long writePosition() {
+        return write;
+    }
+
+    /**
+     * Get the ring size.
+     * @return the capacity in bytes
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Unmap the log file. Readers of the file are not affected.
+     */
+    @Override
+    public void close() {
+        if (!arena.scope().isAlive()) return;
+        arena.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ContactEventLog[path=%s, capacity=%d, steps=%d, events=%d, dropped=%d]", path, capacity, step, eventCount, droppedCount);
+    }
+}
@@ -0,0 +1,184 @@
+package org.box2d.events;
+
+import org.box2d.internal.b2ContactBeginTouchEvent;
+import org.box2d.internal.b2ContactEndTouchEvent;
+import org.box2d.internal.b2ContactHitEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.box2d.events.ContactEventLog.*;
+
+/**
+ * Lock-free reader of a {@link ContactEventLog} file, in this process or another one.
+ * <p>
+ * A reader never blocks the writer. It copies each frame out of the ring and only hands the copy over once the tail
+ * of the log shows the frame was not overwritten meanwhile. When the writer laps it, the reader jumps to the oldest
+ * intact frame and adds the skipped events to {@link #lostCount()}.
+ * </p>
+ * <p>
+ * Any number of readers may read the same file, each reader is used by one thread at a time.
+ * </p>
+ */
+public final class ContactEventLogReader implements AutoCloseable {
+    private final Path path;
+    private final Arena arena;
+    private final MemorySegment file;
+    private final MemorySegment ring;
+    private final long capacity;
+    private MemorySegment scratch;
+    private long position;
+    private long sequence;
+    private long lostCount;
+    private long overrunCount;
+
+    /**
+     * Receiver of the frames read from a log.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Called for each intact frame, in write order.
+         * @param type the frame type, {@link ContactEventLog#BeginTouch}, {@link ContactEventLog#EndTouch} or {@link ContactEventLog#Hit}
+         * @param step the step the events happened in, counted by the log
+         * @param events the memory segment of the {@link b2ContactBeginTouchEvent}, {@link b2ContactEndTouchEvent} or
+         *               {@link b2ContactHitEvent} array, only valid during the call
+         * @param count the number of events
+         */
+        void frame(int type, long step, MemorySegment events, int count);
+    }
+
+    /**
+     * Open a log file, starting from its oldest intact frame.
+     * @param path the log file
+     * @throws IllegalArgumentException if the file is not a complete log header of this version
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    public ContactEventLogReader(Path path) {
+        this.path = path;
+        arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+        } catch (IOException e) {
+            arena.close();
+            throw new UncheckedIOException("Failed to map event log file: " + path, e);
+        }
+        if (file.byteSize() < HeaderSize || (long) LongHandle.getAcquire(file, MagicOffset) != Magic
+                || file.get(ValueLayout.JAVA_INT, VersionOffset) != Version
+                || file.byteSize() < HeaderSize + file.get(ValueLayout.JAVA_LONG, CapacityOffset)) {
+            arena.close();
+            throw new IllegalArgumentException("Not an event log of version " + Version + ": " + path);
+        }
+        capacity = file.get(ValueLayout.JAVA_LONG, CapacityOffset);
+        ring = file.asSlice(HeaderSize, capacity);
+        scratch = Arena.ofAuto().allocate(1024, Long.BYTES);
+        position = (long) LongHandle.getVolatile(file, TailOffset);
+        sequence = file.get(ValueLayout.JAVA_LONG, TailSequenceOffset);
+    }
+
+    /**
+     * Read the frames written since the last poll, up to the given number.
+     * @param handler the handler receiving the frames
+     * @param maxFrames the most frames to read
+     * @return the number of frames handled
+     */
+    public int poll(Handler handler, int maxFrames) {
+        int frames = 0;
+        long write = (long) LongHandle.getAcquire(file, WriteOffset);
+        while (frames < maxFrames && position < write) {
+            long at = position % capacity;
+            if (capacity - at < FrameHeaderSize || ring.get(ValueLayout.JAVA_INT, at + FrameType) == Wrap) {
+                if (intact(position)) position += capacity - at;
+                else lap();
+                continue;
+            }
+            int type = ring.get(ValueLayout.JAVA_INT, at + FrameType);
+            int count = ring.get(ValueLayout.JAVA_INT, at + FrameCount);
+            long step = ring.get(ValueLayout.JAVA_LONG, at + FrameStep);
+            long first = ring.get(ValueLayout.JAVA_LONG, at + FrameSequence);
+            long bytes = type >= BeginTouch && type <= Hit && count >= 0 ? count * eventSize(type) : -1L;
+            if (bytes < 0 || FrameHeaderSize + bytes > capacity - at) {
+                // A torn header, the writer is overwriting it.
+                lap();
+                continue;
+            }
+            if (scratch.byteSize() < bytes) scratch = Arena.ofAuto().allocate(Math.max(bytes, scratch.byteSize() * 2), Long.BYTES);
+            MemorySegment.copy(ring, at + FrameHeaderSize, scratch, 0L, bytes);
+            if (!intact(position)) {
+                lap();
+                continue;
+            }
+            if (first > sequence) lostCount += first - sequence;
+            sequence = first + count;
+            position += frameSize(type, count);
+            handler.frame(type, step, scratch.asSlice(0L, bytes), count);
+            frames++;
+        }
+        return frames;
+    }
+
+    // Check, after copying, that the frame at the given position was not overwritten meanwhile.
+    private boolean intact(long frame) {
+        VarHandle.acquireFence();
+        return (long) LongHandle.getVolatile(file, TailOffset) <= frame;
+    }
+
+    // Jump to the oldest intact frame. The sequence of the last event read is kept, so the events skipped are counted
+    // as the gap up to the first event of the next frame read.
+    private void lap() {
+        overrunCount++;
+        position = (long) LongHandle.getVolatile(file, TailOffset);
+    }
+
+    /**
+     * Get the number of events written but overwritten before this reader got to them.
+     * @return the lost event count
+     */
+    public long lostCount() {
+        return lostCount;
+    }
+
+    /**
+     * Get the number of times the writer lapped this reader.
+     * @return the overrun count
+     */
+    public long overrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Get the number of events dropped by the writer because their frame was larger than the ring.
+     * @return the dropped event count
+     */
+    public long droppedCount() {
+        return (long) LongHandle.getAcquire(file, DroppedOffset);
+    }
+
+    /**
+     * Get the number of bytes written to the log that this reader has not read yet.
+     * @return the backlog in bytes
+     */
+    public long backlog() {
+        return (long) LongHandle.getAcquire(file, WriteOffset) - position;
+    }
+
+    /**
+     * Unmap the log file.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) arena.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ContactEventLogReader[path=%s, position=%d, lost=%d, overruns=%d]", path, position, lostCount, overrunCount);
+    }
+}
@@ -0,0 +1,354 @@
+package org.box2d.events;
+
+import org.box2d.dynamics.BodyId;
+import org.box2d.dynamics.ShapeId;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable batch of the contact, sensor and body events of one or more steps, delivered by an {@link EventPublisher}.
+ * <p>
+ * Events are kept in primitive arrays per kind and read by index, not as one object per event. Shape and body ids
+ * are packed as in {@link ShapeId} and {@link BodyId}. Chunks are pooled: a chunk may only be read during the
+ * {@code onNext} call it is delivered in. A subscriber keeping it longer calls {@link #retain()}, then
+ * {@link #release()} once done, after which the chunk must not be read anymore.
+ * </p>
+ */
+public final class EventChunk {
+    /**
+     * Kind of {@code b2ContactBeginTouchEvent}, with the two shapes.
+     */
+    public static final int ContactBegin = 0;
+    /**
+     * Kind of {@code b2ContactEndTouchEvent}, with the two shapes.
+     */
+    public static final int ContactEnd = 1;
+    /**
+     * Kind of {@code b2ContactHitEvent}, with the two shapes, the point, the normal and the approach speed.
+     */
+    public static final int ContactHit = 2;
+    /**
+     * Kind of {@code b2SensorBeginTouchEvent}, with the sensor shape as shape A and the visitor shape as shape B.
+     */
+    public static final int SensorBegin = 3;
+    /**
+     * Kind of {@code b2SensorEndTouchEvent}, with the sensor shape as shape A and the visitor shape as shape B.
+     */
+    public static final int SensorEnd = 4;
+    /**
+     * Kind of {@code b2BodyMoveEvent}, with the body, its position, angle and whether it fell asleep.
+     */
+    public static final int BodyMove = 5;
+
+    static final int KindCount = 6;
+    // Ids and floats stored per event of each kind.
+    private static final int[] IdStride = {2, 2, 2, 2, 2, 1};
+    private static final int[] ValueStride = {0, 0, 5, 0, 0, 3};
+
+    private final EventPublisher publisher;
+    final AtomicInteger refs = new AtomicInteger();
+    private final int[] counts = new int[KindCount];
+    private final long[][] ids = new long[KindCount][];
+    private final float[][] values = new float[KindCount][];
+    private boolean[] asleep = new boolean[16];
+    private long firstStep;
+    private long lastStep;
+    // Body to move event index, used when coalescing.
+    private long[] moveKeys = new long[0];
+    private int[] moveSlots = new int[0];
+
+    EventChunk(EventPublisher publisher) {
+        this.publisher = publisher;
+        for (int kind = 0; kind < KindCount; kind++) {
+            ids[kind] = new long[16 * IdStride[kind]];
+            values[kind] = new float[16 * ValueStride[kind]];
+        }
+    }
+
+    /**
+     * Get the number of events of a kind.
+     * @param kind the event kind, {@link #ContactBegin} to {@link #BodyMove}
+     * @return the event count
+     * @throws IndexOutOfBoundsException if the kind is unknown
+     */
+    public int count(int kind) {
+        return counts[Objects.checkIndex(kind, KindCount)];
+    }
+
+    /**
+     * Get the number of events of every kind.
+     * @return the event count
+     */
+    public int eventCount() {
+        int total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    /**
+     * Get the first step whose events are in this chunk, counted by the publisher.
+     * @return the first step
+     */
+    public long firstStep() {
+        return firstStep;
+    }
+
+    /**
+     * Get the last step whose events are in this chunk, after the first one when steps were coalesced.
+     * @return the last step
+     */
+    public long lastStep() {
+        return lastStep;
+    }
+
+    /**
+     * Get the first shape of a contact event, or the sensor shape of a sensor event.
+     * @param kind the event kind, {@link #ContactBegin} to {@link #SensorEnd}
+     * @param i the event index, 0 to {@link #count(int)} exclusive
+     * @return the packed shape id
+     * @throws IndexOutOfBoundsException if the kind or index is out of range
+     */
+    public long shapeIdA(int kind, int i) {
+        return ids[Objects.checkIndex(kind, BodyMove)][2 * Objects.checkIndex(i, counts[kind])];
+    }
+
+    /**
+     * Get the second shape of a contact event, or the visitor shape of a sensor event.
+     * @param kind the event kind, {@link #ContactBegin} to {@link #SensorEnd}
+     * @param i the event index, 0 to {@link #count(int)} exclusive
+     * @return the packed shape id
+     * @throws IndexOutOfBoundsException if the kind or index is out of range
+     */
+    public long shapeIdB(int kind, int i) {
+        return ids[Objects.checkIndex(kind, BodyMove)][2 * Objects.checkIndex(i, counts[kind]) + 1];
+    }
+
+    /**
+     * Get the contact point x coordinate of a hit event.
+     * @param i the hit event index
+     * @return the point x coordinate
+     */
+    public float hitPointX(int i) {
+        return hit(i, 0);
+    }
+
+    /**
+     * Get the contact point y coordinate of a hit event.
+     * @param i the hit event index
+     * @return the point y coordinate
+     */
+    public float hitPointY(int i) {
+        return hit(i, 1);
+    }
+
+    /**
+     * Get the normal x component of a hit event, from shape A to shape B.
+     * @param i the hit event index
+     * @return the normal x component
+     */
+    public float hitNormalX(int i) {
+        return hit(i, 2);
+    }
+
+    /**
+     * Get the normal y component of a hit event, from shape A to shape B.
+     * @param i the hit event index
+     * @return the normal y component
+     */
+    public float hitNormalY(int i) {
+        return hit(i, 3);
+    }
+
+    /**
+     * Get the approach speed of a hit event.
+     * @param i the hit event index
+     * @return the approach speed, in meters per second
+     */
+    public float hitApproachSpeed(int i) {
+        return hit(i, 4);
+    }
+
+    private float hit(int i, int field) {
+        return values[ContactHit][5 * Objects.checkIndex(i, counts[ContactHit]) + field];
+    }
+
+    /**
+     * Get the body of a move event.
+     * @param i the move event index
+     * @return the packed body id
+     */
+    public long moveBodyId(int i) {
+        return ids[BodyMove][Objects.checkIndex(i, counts[BodyMove])];
+    }
+
+    /**
+     * Get the body origin x coordinate of a move event.
+     * @param i the move event index
+     * @return the x coordinate
+     */
+    public float moveX(int i) {
+        return values[BodyMove][3 * Objects.checkIndex(i, counts[BodyMove])];
+    }
+
+    /**
+     * Get the body origin y coordinate of a move event.
+     * @param i the move event index
+     * @return the y coordinate
+     */
+    public float moveY(int i) {
+        return values[BodyMove][3 * Objects.checkIndex(i, counts[BodyMove]) + 1];
+    }
+
+    /**
+     * Get the body angle of a move event.
+     * @param i the move event index
+     * @return the angle, in radians
+     */
+    public float moveAngle(int i) {
+        return values[BodyMove][3 * Objects.checkIndex(i, counts[BodyMove]) + 2];
+    }
+
+    /**
+     * Check if the body of a move event fell asleep during the step.
+     * @param i the move event index
+     * @return true if it fell asleep
+     */
+    public boolean moveFellAsleep(int i) {
+        return asleep[Objects.checkIndex(i, counts[BodyMove])];
+    }
+
+    /**
+     * Keep this chunk readable after the {@code onNext} call it was delivered in, until a matching {@link #release()}.
+     * @return this
+     * @throws IllegalStateException if this chunk was already returned to the pool
+     */
+    public EventChunk retain() {
+        if (refs.getAndIncrement() <= 0) {
+            refs.decrementAndGet();
+            throw new IllegalStateException("Chunk already released");
+        }
+        return this;
+    }
+
+    /**
+     * Give up a reference taken by {@link #retain()}. The chunk returns to the pool of its publisher once nothing
+     * holds it anymore.
+     * @throws IllegalStateException if this chunk was already released as many times as it was retained
+     */
+    public void release() {
+        int left = refs.decrementAndGet();
+        if (left < 0) {
+            refs.incrementAndGet();
+            throw new IllegalStateException("Chunk already released");
+        }
+        if (left == 0) publisher.recycle(this);
+    }
+
+    // Writing, only while the chunk is owned by the publisher or a single subscription.
+
+    void reset(long step) {
+        Arrays.fill(counts, 0);
+        firstStep = lastStep = step;
+    }
+
+    // Reserve room for n more events of a kind, returning the index of the first.
+    int reserve(int kind, int n) {
+        int count = counts[kind];
+        int needed = count + n;
+        if (needed * IdStride[kind] > ids[kind].length) {
+            int capacity = Math.max(needed, 2 * count);
+            ids[kind] = Arrays.copyOf(ids[kind], capacity * IdStride[kind]);
+            values[kind] = Arrays.copyOf(values[kind], capacity * ValueStride[kind]);
+            if (kind == BodyMove) asleep = Arrays.copyOf(asleep, capacity);
+        }
+        counts[kind] = needed;
+        return count;
+    }
+
+    void setShapes(int kind, int i, long shapeIdA, long shapeIdB) {
+        ids[kind][2 * i] = shapeIdA;
+        ids[kind][2 * i + 1] = shapeIdB;
+    }
+
+    void setHit(int i, float pointX, float pointY, float normalX, float normalY, float approachSpeed) {
+        float[] hits = values[ContactHit];
+        hits[5 * i] = pointX;
+        hits[5 * i + 1] = pointY;
+        hits[5 * i + 2] = normalX;
+        hits[5 * i + 3] = normalY;
+        hits[5 * i + 4] = approachSpeed;
+    }
+
+    void setMove(int i, long bodyId, float x, float y, float angle, boolean fellAsleep) {
+        ids[BodyMove][i] = bodyId;
+        float[] moves = values[BodyMove];
+        moves[3 * i] = x;
+        moves[3 * i + 1] = y;
+        moves[3 * i + 2] = angle;
+        asleep[i] = fellAsleep;
+    }
+
+    // Copy another chunk into this empty one.
+    void copy(EventChunk other) {
+        reset(other.firstStep);
+        merge(other);
+    }
+
+    // Append the events of a later chunk. Contacts and sensors accumulate, a body only keeps its latest move.
+    void merge(EventChunk other) {
+        for (int kind = 0; kind < BodyMove; kind++) {
+            int n = other.counts[kind];
+            if (n == 0) continue;
+            int at = reserve(kind, n);
+            System.arraycopy(other.ids[kind], 0, ids[kind], at * IdStride[kind], n * IdStride[kind]);
+            System.arraycopy(other.values[kind], 0, values[kind], at * ValueStride[kind], n * ValueStride[kind]);
+        }
+        int moves = other.counts[BodyMove];
+        if (moves > 0) {
+            indexMoves(counts[BodyMove] + moves);
+            for (int i = 0; i < moves; i++) {
+                long body = other.ids[BodyMove][i];
+                int slot = find(body);
+                int index = moveSlots[slot];
+                if (index < 0) {
+                    index = reserve(BodyMove, 1);
+                    moveKeys[slot] = body;
+                    moveSlots[slot] = index;
+                }
+                setMove(index, body, other.values[BodyMove][3 * i], other.values[BodyMove][3 * i + 1],
+                        other.values[BodyMove][3 * i + 2], other.asleep[i]);
+            }
+        }
+        lastStep = Math.max(lastStep, other.lastStep);
+    }
+
+    // Rebuild the body to move index, sized for the given number of moves.
+    private void indexMoves(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+        if (moveKeys.length < size) {
+            moveKeys = new long[size];
+            moveSlots = new int[size];
+        }
+        Arrays.fill(moveSlots, -1);
+        for (int i = 0; i < counts[BodyMove]; i++) {
+            int slot = find(ids[BodyMove][i]);
+            moveKeys[slot] = ids[BodyMove][i];
+            moveSlots[slot] = i;
+        }
+    }
+
+    private int find(long body) {
+        int mask = moveKeys.length - 1;
+        int slot = (int) (body ^ (body >>> 29) ^ (body >>> 47)) * 0x9E3779B9 & mask;
+        while (moveSlots[slot] >= 0 && moveKeys[slot] != body) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventChunk[steps=%d-%d, contacts=%d/%d/%d, sensors=%d/%d, moves=%d]", firstStep, lastStep,
+                counts[ContactBegin], counts[ContactEnd], counts[ContactHit], counts[SensorBegin], counts[SensorEnd], counts[BodyMove]);
+    }
+}
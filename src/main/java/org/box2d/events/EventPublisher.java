@@ -0,0 +1,498 @@
+package org.box2d.events;
+
+import org.box2d.NativeLoader;
+import org.box2d.dynamics.BodyId;
+import org.box2d.dynamics.ShapeId;
+import org.box2d.dynamics.World;
+import org.box2d.internal.b2BodyEvents;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2BodyMoveEvent;
+import org.box2d.internal.b2ContactBeginTouchEvent;
+import org.box2d.internal.b2ContactEndTouchEvent;
+import org.box2d.internal.b2ContactEvents;
+import org.box2d.internal.b2ContactHitEvent;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2SensorBeginTouchEvent;
+import org.box2d.internal.b2SensorEndTouchEvent;
+import org.box2d.internal.b2SensorEvents;
+import org.box2d.internal.b2ShapeId;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Flow.Publisher} of the contact, sensor and body events of a {@link World}, one {@link EventChunk} per step.
+ * <p>
+ * After each step, {@link #capture(World)} copies the step's events into a chunk taken from a pool and offers it to
+ * every subscriber. Each subscription buffers up to a fixed number of chunks and delivers them on the executor,
+ * only as far as its subscriber requested. When a subscriber falls behind and its buffer is full, the
+ * {@link Overflow} policy decides what happens. A chunk is released after each {@code onNext} it is delivered in, and
+ * comes back to the pool once no subscriber holds it, so in a steady state capturing allocates nothing once the
+ * pooled arrays have grown.
+ * </p>
+ * <p>
+ * Capture from the thread stepping the world, between steps. Subscribing, requesting and cancelling are thread safe.
+ * </p>
+ */
+public final class EventPublisher implements Flow.Publisher<EventChunk>, AutoCloseable {
+    /**
+     * What a subscription does with a new chunk when its buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * Drop the oldest buffered chunk, keeping the newest events.
+         */
+        DropOldest,
+        /**
+         * Merge the new chunk into the newest buffered one. Contact and sensor events accumulate, each body only keeps
+         * its latest move event.
+         */
+        Coalesce,
+        /**
+         * Block the capturing thread until the subscriber makes room, up to the timeout, then drop the oldest chunk.
+         */
+        Block
+    }
+
+    private static final long ShapeIndex = b2ShapeId.index1$offset();
+    private static final long ShapeWorld = b2ShapeId.world0$offset();
+    private static final long ShapeGeneration = b2ShapeId.generation$offset();
+    private static final long BeginSize = b2ContactBeginTouchEvent.layout().byteSize();
+    private static final long BeginA = b2ContactBeginTouchEvent.shapeIdA$offset();
+    private static final long BeginB = b2ContactBeginTouchEvent.shapeIdB$offset();
+    private static final long EndSize = b2ContactEndTouchEvent.layout().byteSize();
+    private static final long EndA = b2ContactEndTouchEvent.shapeIdA$offset();
+    private static final long EndB = b2ContactEndTouchEvent.shapeIdB$offset();
+    private static final long HitSize = b2ContactHitEvent.layout().byteSize();
+    private static final long HitA = b2ContactHitEvent.shapeIdA$offset();
+    private static final long HitB = b2ContactHitEvent.shapeIdB$offset();
+    private static final long HitPoint = b2ContactHitEvent.point$offset();
+    private static final long HitNormal = b2ContactHitEvent.normal$offset();
+    private static final long HitSpeed = b2ContactHitEvent.approachSpeed$offset();
+    private static final long SensorBeginSize = b2SensorBeginTouchEvent.layout().byteSize();
+    private static final long SensorBeginSensor = b2SensorBeginTouchEvent.sensorShapeId$offset();
+    private static final long SensorBeginVisitor = b2SensorBeginTouchEvent.visitorShapeId$offset();
+    private static final long SensorEndSize = b2SensorEndTouchEvent.layout().byteSize();
+    private static final long SensorEndSensor = b2SensorEndTouchEvent.sensorShapeId$offset();
+    private static final long SensorEndVisitor = b2SensorEndTouchEvent.visitorShapeId$offset();
+    private static final long MoveSize = b2BodyMoveEvent.layout().byteSize();
+    private static final long MoveIndex = b2BodyMoveEvent.bodyId$offset() + b2BodyId.index1$offset();
+    private static final long MoveWorld = b2BodyMoveEvent.bodyId$offset() + b2BodyId.world0$offset();
+    private static final long MoveGeneration = b2BodyMoveEvent.bodyId$offset() + b2BodyId.generation$offset();
+    private static final long MoveX = b2BodyMoveEvent.transform$offset() + b2Transform.p$offset() + b2Vec2.x$offset();
+    private static final long MoveY = b2BodyMoveEvent.transform$offset() + b2Transform.p$offset() + b2Vec2.y$offset();
+    private static final long MoveCosine = b2BodyMoveEvent.transform$offset() + b2Transform.q$offset() + b2Rot.c$offset();
+    private static final long MoveSine = b2BodyMoveEvent.transform$offset() + b2Transform.q$offset() + b2Rot.s$offset();
+    private static final long MoveFellAsleep = b2BodyMoveEvent.fellAsleep$offset();
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final long timeoutNanos;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ArrayBlockingQueue<EventChunk> pool;
+    private final SegmentAllocator contactAllocator;
+    private final SegmentAllocator sensorAllocator;
+    private final SegmentAllocator bodyAllocator;
+    private final AtomicLong allocatedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private long step;
+    private volatile boolean closed;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link EventPublisher}.
+     * @param executor the executor delivering chunks to subscribers, each subscriber is called by one task at a time
+     * @param bufferSize the number of chunks buffered per subscriber, at least 1
+     * @param overflow the policy of a full buffer
+     * @param timeout the longest {@link Overflow#Block} waits per chunk, ignored by the other policies
+     * @param unit the unit of the timeout
+     * @throws IllegalArgumentException if the buffer size is not positive or the timeout is negative
+     */
+    public EventPublisher(Executor executor, int bufferSize, Overflow overflow, long timeout, TimeUnit unit) {
+        if (bufferSize < 1) throw new IllegalArgumentException("Buffer size must be positive, got " + bufferSize);
+        if (timeout < 0) throw new IllegalArgumentException("Timeout must not be negative, got " + timeout);
+        this.executor = Objects.requireNonNull(executor);
+        this.bufferSize = bufferSize;
+        this.overflow = Objects.requireNonNull(overflow);
+        timeoutNanos = unit.toNanos(timeout);
+        pool = new ArrayBlockingQueue<>(Math.max(64, 4 * bufferSize));
+        Arena arena = Arena.ofAuto();
+        MemorySegment contactEvents = arena.allocate(b2ContactEvents.layout());
+        MemorySegment sensorEvents = arena.allocate(b2SensorEvents.layout());
+        MemorySegment bodyEvents = arena.allocate(b2BodyEvents.layout());
+        contactAllocator = (byteSize, byteAlignment) -> contactEvents;
+        sensorAllocator = (byteSize, byteAlignment) -> sensorEvents;
+        bodyAllocator = (byteSize, byteAlignment) -> bodyEvents;
+    }
+
+    /**
+     * Create a new {@link EventPublisher} dropping the oldest chunks of subscribers that fall behind.
+     * @param executor the executor delivering chunks to subscribers
+     * @param bufferSize the number of chunks buffered per subscriber, at least 1
+     */
+    public EventPublisher(Executor executor, int bufferSize) {
+        this(executor, bufferSize, Overflow.DropOldest, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super EventChunk> subscriber) {
+        Subscription subscription = new Subscription(Objects.requireNonNull(subscriber));
+        subscriptions.add(subscription);
+        // Checked after adding, a close() in between may not have seen this subscription.
+        if (closed) subscription.complete();
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    /**
+     * Capture the contact, sensor and body events of the last step of the given world and offer them to every
+     * subscriber, as one chunk. Blocks only with the {@link Overflow#Block} policy.
+     * @param world the world, stepped since the last capture
+     * @return the number of events captured
+     * @throws IllegalStateException if the world is stepping, or this publisher is closed
+     */
+    public int capture(World world) {
+        if (world.isStepping()) throw new IllegalStateException("World is stepping, wait for the step to complete");
+        if (closed) throw new IllegalStateException("Publisher is closed");
+        EventChunk chunk = chunk();
+        chunk.reset(step++);
+        MemorySegment worldId = world.segment();
+
+        MemorySegment contacts = nBox2D.nWorldGetContactEvents(contactAllocator, worldId);
+        shapes(chunk, EventChunk.ContactBegin, b2ContactEvents.beginEvents(contacts), b2ContactEvents.beginCount(contacts), BeginSize, BeginA, BeginB);
+        shapes(chunk, EventChunk.ContactEnd, b2ContactEvents.endEvents(contacts), b2ContactEvents.endCount(contacts), EndSize, EndA, EndB);
+        int hits = b2ContactEvents.hitCount(contacts);
+        if (hits > 0) {
+            MemorySegment events = shapes(chunk, EventChunk.ContactHit, b2ContactEvents.hitEvents(contacts), hits, HitSize, HitA, HitB);
+            for (int i = 0; i < hits; i++) {
+                long offset = i * HitSize;
+                chunk.setHit(i, events.get(ValueLayout.JAVA_FLOAT, offset + HitPoint + b2Vec2.x$offset()),
+                        events.get(ValueLayout.JAVA_FLOAT, offset + HitPoint + b2Vec2.y$offset()),
+                        events.get(ValueLayout.JAVA_FLOAT, offset + HitNormal + b2Vec2.x$offset()),
+                        events.get(ValueLayout.JAVA_FLOAT, offset + HitNormal + b2Vec2.y$offset()),
+                        events.get(ValueLayout.JAVA_FLOAT, offset + HitSpeed));
+            }
+        }
+
+        MemorySegment sensors = nBox2D.nWorldGetSensorEvents(sensorAllocator, worldId);
+        shapes(chunk, EventChunk.SensorBegin, b2SensorEvents.beginEvents(sensors), b2SensorEvents.beginCount(sensors), SensorBeginSize, SensorBeginSensor, SensorBeginVisitor);
+        shapes(chunk, EventChunk.SensorEnd, b2SensorEvents.endEvents(sensors), b2SensorEvents.endCount(sensors), SensorEndSize, SensorEndSensor, SensorEndVisitor);
+
+        MemorySegment bodies = nBox2D.nWorldGetBodyEvents(bodyAllocator, worldId);
+        int moves = b2BodyEvents.moveCount(bodies);
+        if (moves > 0) {
+            MemorySegment events = b2BodyEvents.moveEvents(bodies).reinterpret(moves * MoveSize);
+            chunk.reserve(EventChunk.BodyMove, moves);
+            for (int i = 0; i < moves; i++) {
+                long offset = i * MoveSize;
+                long bodyId = BodyId.pack(events.get(ValueLayout.JAVA_INT, offset + MoveIndex),
+                        events.get(ValueLayout.JAVA_SHORT, offset + MoveWorld), events.get(ValueLayout.JAVA_SHORT, offset + MoveGeneration));
+                float angle = (float) Math.atan2(events.get(ValueLayout.JAVA_FLOAT, offset + MoveSine), events.get(ValueLayout.JAVA_FLOAT, offset + MoveCosine));
+                chunk.setMove(i, bodyId, events.get(ValueLayout.JAVA_FLOAT, offset + MoveX), events.get(ValueLayout.JAVA_FLOAT, offset + MoveY),
+                        angle, events.get(ValueLayout.JAVA_BOOLEAN, offset + MoveFellAsleep));
+            }
+        }
+        int count = chunk.eventCount();
+        publish(chunk);
+        return count;
+    }
+
+    // Copy the shape pairs of a native event array, returning the array.
+    private static MemorySegment shapes(EventChunk chunk, int kind, MemorySegment array, int count, long size, long a, long b) {
+        if (count == 0) return array;
+        MemorySegment events = array.reinterpret(count * size);
+        chunk.reserve(kind, count);
+        for (int i = 0; i < count; i++) {
+            long offset = i * size;
+            chunk.setShapes(kind, i, shapeId(events, offset + a), shapeId(events, offset + b));
+        }
+        return events;
+    }
+
+    private static long shapeId(MemorySegment events, long offset) {
+        return ShapeId.pack(events.get(ValueLayout.JAVA_INT, offset + ShapeIndex),
+                events.get(ValueLayout.JAVA_SHORT, offset + ShapeWorld), events.get(ValueLayout.JAVA_SHORT, offset + ShapeGeneration));
+    }
+
+    // Offer a filled chunk to every subscription.
+    void publish(EventChunk chunk) {
+        // One reference per subscription, plus one held while offering.
+        chunk.refs.set(1);
+        for (Subscription subscription : subscriptions) {
+            chunk.refs.incrementAndGet();
+            subscription.offer(chunk);
+        }
+        chunk.release();
+    }
+
+    EventChunk chunk() {
+        EventChunk chunk = pool.poll();
+        if (chunk != null) return chunk;
+        allocatedCount.incrementAndGet();
+        return new EventChunk(this);
+    }
+
+    void recycle(EventChunk chunk) {
+        pool.offer(chunk);
+    }
+
+    /**
+     * Get the number of chunks allocated because the pool was empty.
+     * @return the allocated chunk count
+     */
+    public long allocatedCount() {
+        return allocatedCount.get();
+    }
+
+    /**
+     * Get the number of chunks dropped from full subscriber buffers, counted once per subscriber.
+     * @return the dropped chunk count
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the number of chunks merged into a buffered one by {@link Overflow#Coalesce}, counted once per subscriber.
+     * @return the coalesced chunk count
+     */
+    public long coalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Get the number of current subscribers.
+     * @return the subscriber count
+     */
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stop publishing. Subscribers complete once they received their buffered chunks.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions) subscription.complete();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventPublisher[subscribers=%d, overflow=%s, steps=%d, allocated=%d, dropped=%d, coalesced=%d]",
+                subscriptions.size(), overflow, step, allocatedCount.get(), droppedCount.get(), coalescedCount.get());
+    }
+
+    private final class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super EventChunk> subscriber;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final EventChunk[] buffer = new EventChunk[bufferSize];
+        private final AtomicLong demand = new AtomicLong();
+        private final Runnable delivery = this::deliver;
+        // Delivery runs requested, held at 1 until the subscriber got its subscription.
+        private final AtomicInteger work = new AtomicInteger(1);
+        private int head;
+        private int count;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        Subscription(Flow.Subscriber<? super EventChunk> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        // Called by the capturing thread, takes one reference of the chunk.
+        void offer(EventChunk chunk) {
+            EventChunk dropped = null;
+            EventChunk merged = null;
+            lock.lock();
+            try {
+                if (cancelled) {
+                    chunk.release();
+                    return;
+                }
+                if (count == bufferSize && overflow == Overflow.Block) {
+                    long nanos = timeoutNanos;
+                    while (count == bufferSize && !cancelled && nanos > 0) nanos = notFull.awaitNanos(nanos);
+                    if (cancelled) {
+                        chunk.release();
+                        return;
+                    }
+                }
+                if (count == bufferSize && overflow == Overflow.Coalesce) {
+                    merged = coalesce(chunk);
+                } else if (count == bufferSize) {
+                    dropped = buffer[head];
+                    buffer[head] = null;
+                    head = (head + 1) % bufferSize;
+                    count--;
+                    droppedCount.incrementAndGet();
+                }
+                if (merged == null) {
+                    buffer[(head + count) % bufferSize] = chunk;
+                    count++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                chunk.release();
+                droppedCount.incrementAndGet();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (dropped != null) dropped.release();
+            if (merged != null) merged.release();
+            signal();
+        }
+
+        // Merge a chunk into the newest buffered one, copying that one first if other subscribers share it.
+        // Returns the merged chunk, whose reference this subscription gives up.
+        private EventChunk coalesce(EventChunk chunk) {
+            int last = (head + count - 1) % bufferSize;
+            EventChunk target = buffer[last];
+            if (target.refs.get() > 1) {
+                EventChunk copy = chunk();
+                copy.copy(target);
+                copy.refs.set(1);
+                buffer[last] = copy;
+                target.release();
+                target = copy;
+            }
+            target.merge(chunk);
+            coalescedCount.incrementAndGet();
+            return chunk;
+        }
+
+        void start() {
+            if (work.decrementAndGet() != 0) executor.execute(delivery);
+        }
+
+        void complete() {
+            done = true;
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Demand must be positive, got " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            signal();
+        }
+
+        // Schedule a delivery run, unless one is running, which then runs once more.
+        private void signal() {
+            if (work.getAndIncrement() == 0) executor.execute(delivery);
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                while (!cancelled) {
+                    if (error != null) {
+                        cancel();
+                        subscriber.onError(error);
+                        break;
+                    }
+                    EventChunk chunk = null;
+                    if (demand.get() > 0) chunk = poll();
+                    if (chunk == null) {
+                        if (done && isEmpty()) {
+                            cancelled = true;
+                            subscriptions.remove(this);
+                            subscriber.onComplete();
+                        }
+                        break;
+                    }
+                    // Unbounded demand stays unbounded.
+                    demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+                    try {
+                        subscriber.onNext(chunk);
+                    } catch (Throwable t) {
+                        // A subscriber that throws gets the failure back and is cancelled.
+                        try {
+                            subscriber.onError(t);
+                        } finally {
+                            cancel();
+                        }
+                    } finally {
+                        chunk.release();
+                    }
+                }
+                if (cancelled) clear();
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private EventChunk poll() {
+            lock.lock();
+            try {
+                if (count == 0) return null;
+                EventChunk chunk = buffer[head];
+                buffer[head] = null;
+                head = (head + 1) % bufferSize;
+                count--;
+                notFull.signal();
+                return chunk;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isEmpty() {
+            lock.lock();
+            try {
+                return count == 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Release the chunks a cancelled subscription will never deliver, waking a blocked capture.
+        private void clear() {
+            lock.lock();
+            try {
+                while (count > 0) {
+                    buffer[head].release();
+                    buffer[head] = null;
+                    head = (head + 1) % bufferSize;
+                    count--;
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
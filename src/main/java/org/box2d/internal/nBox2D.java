@@ -4,6 +4,7 @@ import org.box2d.NativeLoader;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 
 /**
  * Facade for native implementations of Box2D.
@@ -12,6 +13,8 @@ import java.lang.foreign.MemorySegment;
  * free the public wrappers from direct raw downcalls.
  * Methods that return a struct by value, allocate the result in an auto arena,
  * meaning returned segment manges its own lifetime through reachability.
+ * Hot path methods additionally take a {@link SegmentAllocator}, so callers can reuse a result segment
+ * (e.g. with {@link SegmentAllocator#prefixAllocator(MemorySegment)}) instead of allocating per call.
  */
 public class nBox2D {
     static {
@@ -55,6 +58,14 @@ public class nBox2D {
         return Box2D_1.b2DefaultFilter(Arena.ofAuto());
     }
 
+    /**
+     * Native implement of {@code b2DefaultQueryFilter}.
+     * @return the memory segment of a {@link b2QueryFilter}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultQueryFilter() {
+        return Box2D_1.b2DefaultQueryFilter(Arena.ofAuto());
+    }
+
     /**
      * Native implement of {@code b2MakeBox}.
      * @param halfWidth the box 1/2 width along the local x-axis
@@ -116,6 +127,17 @@ public class nBox2D {
         return Box2D_1.b2ComputeCircleMass(Arena.ofAuto(), circle, density);
     }
 
+    /**
+     * Native implement of {@code b2ComputeCircleMass}.
+     * @param allocator the allocator for the resulting {@link b2MassData}
+     * @param circle the memory segment of a {@link b2Circle}
+     * @param density the area density in kg/m^2
+     * @return the memory segment of the resulting {@link b2MassData}
+     */
+    public static MemorySegment nComputeCircleMass(SegmentAllocator allocator, MemorySegment circle, float density) {
+        return Box2D_1.b2ComputeCircleMass(allocator, circle, density);
+    }
+
     /**
      * Native implement of {@code b2ComputeCapsuleMass}.
      * @param capsule the memory segment of a {@link b2Capsule}
@@ -126,6 +148,17 @@ public class nBox2D {
         return Box2D_1.b2ComputeCapsuleMass(Arena.ofAuto(), capsule, density);
     }
 
+    /**
+     * Native implement of {@code b2ComputeCapsuleMass}.
+     * @param allocator the allocator for the resulting {@link b2MassData}
+     * @param capsule the memory segment of a {@link b2Capsule}
+     * @param density the area density in kg/m^2
+     * @return the memory segment of the resulting {@link b2MassData}
+     */
+    public static MemorySegment nComputeCapsuleMass(SegmentAllocator allocator, MemorySegment capsule, float density) {
+        return Box2D_1.b2ComputeCapsuleMass(allocator, capsule, density);
+    }
+
     /**
      * Native implement of {@code b2ComputePolygonMass}.
      * @param polygon the memory segment of a {@link b2Polygon}
@@ -136,6 +169,17 @@ public class nBox2D {
         return Box2D_1.b2ComputePolygonMass(Arena.ofAuto(), polygon, density);
     }
 
+    /**
+     * Native implement of {@code b2ComputePolygonMass}.
+     * @param allocator the allocator for the resulting {@link b2MassData}
+     * @param polygon the memory segment of a {@link b2Polygon}
+     * @param density the area density in kg/m^2
+     * @return the memory segment of the resulting {@link b2MassData}
+     */
+    public static MemorySegment nComputePolygonMass(SegmentAllocator allocator, MemorySegment polygon, float density) {
+        return Box2D_1.b2ComputePolygonMass(allocator, polygon, density);
+    }
+
     /**
      * Native implement of {@code b2ComputeCircleAABB}.
      * @param circle the memory segment of a {@link b2Circle}
@@ -146,6 +190,17 @@ public class nBox2D {
         return Box2D_1.b2ComputeCircleAABB(Arena.ofAuto(), circle, transform);
     }
 
+    /**
+     * Native implement of {@code b2ComputeCircleAABB}.
+     * @param allocator the allocator for the resulting {@link b2AABB}
+     * @param circle the memory segment of a {@link b2Circle}
+     * @param transform the memory segment of the {@link b2Transform} to place the shape with
+     * @return the memory segment of the resulting {@link b2AABB}
+     */
+    public static MemorySegment nComputeCircleAABB(SegmentAllocator allocator, MemorySegment circle, MemorySegment transform) {
+        return Box2D_1.b2ComputeCircleAABB(allocator, circle, transform);
+    }
+
     /**
      * Native implement of {@code b2ComputeCapsuleAABB}.
      * @param capsule the memory segment of a {@link b2Capsule}
@@ -156,6 +211,17 @@ public class nBox2D {
         return Box2D_1.b2ComputeCapsuleAABB(Arena.ofAuto(), capsule, transform);
     }
 
+    /**
+     * Native implement of {@code b2ComputeCapsuleAABB}.
+     * @param allocator the allocator for the resulting {@link b2AABB}
+     * @param capsule the memory segment of a {@link b2Capsule}
+     * @param transform the memory segment of the {@link b2Transform} to place the shape with
+     * @return the memory segment of the resulting {@link b2AABB}
+     */
+    public static MemorySegment nComputeCapsuleAABB(SegmentAllocator allocator, MemorySegment capsule, MemorySegment transform) {
+        return Box2D_1.b2ComputeCapsuleAABB(allocator, capsule, transform);
+    }
+
     /**
      * Native implement of {@code b2ComputePolygonAABB}.
      * @param polygon the memory segment of a {@link b2Polygon}
@@ -166,6 +232,17 @@ public class nBox2D {
         return Box2D_1.b2ComputePolygonAABB(Arena.ofAuto(), polygon, transform);
     }
 
+    /**
+     * Native implement of {@code b2ComputePolygonAABB}.
+     * @param allocator the allocator for the resulting {@link b2AABB}
+     * @param polygon the memory segment of a {@link b2Polygon}
+     * @param transform the memory segment of the {@link b2Transform} to place the shape with
+     * @return the memory segment of the resulting {@link b2AABB}
+     */
+    public static MemorySegment nComputePolygonAABB(SegmentAllocator allocator, MemorySegment polygon, MemorySegment transform) {
+        return Box2D_1.b2ComputePolygonAABB(allocator, polygon, transform);
+    }
+
     /**
      * Native implement of {@code b2ComputeSegmentAABB}.
      * @param segment the memory segment of a {@link b2Segment}
@@ -176,6 +253,17 @@ public class nBox2D {
         return Box2D_1.b2ComputeSegmentAABB(Arena.ofAuto(), segment, transform);
     }
 
+    /**
+     * Native implement of {@code b2ComputeSegmentAABB}.
+     * @param allocator the allocator for the resulting {@link b2AABB}
+     * @param segment the memory segment of a {@link b2Segment}
+     * @param transform the memory segment of the {@link b2Transform} to place the shape with
+     * @return the memory segment of the resulting {@link b2AABB}
+     */
+    public static MemorySegment nComputeSegmentAABB(SegmentAllocator allocator, MemorySegment segment, MemorySegment transform) {
+        return Box2D_1.b2ComputeSegmentAABB(allocator, segment, transform);
+    }
+
     /**
      * Native implement of {@code b2PointInCircle}.
      * @param point the memory segment of the {@link b2Vec2} point, in the shape's local frame
@@ -205,4 +293,1013 @@ public class nBox2D {
     public static boolean nPointInPolygon(MemorySegment point, MemorySegment polygon) {
         return Box2D_1.b2PointInPolygon(point, polygon);
     }
+
+    /**
+     * Native implement of {@code b2DefaultWorldDef}.
+     * @return the memory segment of a {@link b2WorldDef}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultWorldDef() {
+        return Box2D_1.b2DefaultWorldDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2CreateWorld}.
+     * @param def the memory segment of a {@link b2WorldDef}
+     * @return the memory segment of the resulting {@link b2WorldId}
+     */
+    public static MemorySegment nCreateWorld(MemorySegment def) {
+        return Box2D_1.b2CreateWorld(Arena.ofAuto(), def);
+    }
+
+    /**
+     * Native implement of {@code b2DestroyWorld}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     */
+    public static void nDestroyWorld(MemorySegment worldId) {
+        Box2D_1.b2DestroyWorld(worldId);
+    }
+
+    /**
+     * Native implement of {@code b2World_IsValid}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return true if the world id refers to a live world
+     */
+    public static boolean nWorldIsValid(MemorySegment worldId) {
+        return Box2D_1.b2World_IsValid(worldId);
+    }
+
+    /**
+     * Native implement of {@code b2World_Step}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param timeStep the amount of time to simulate, in seconds
+     * @param subStepCount the number of sub-steps
+     */
+    public static void nWorldStep(MemorySegment worldId, float timeStep, int subStepCount) {
+        Box2D_1.b2World_Step(worldId, timeStep, subStepCount);
+    }
+
+    /**
+     * Native implement of {@code b2World_CastMover}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param mover the memory segment of the {@link b2Capsule} mover, in world space
+     * @param translation the memory segment of the {@link b2Vec2} translation
+     * @param filter the memory segment of a {@link b2QueryFilter}
+     * @return the fraction of the translation the mover can travel before hitting a shape
+     */
+    public static float nWorldCastMover(MemorySegment worldId, MemorySegment mover, MemorySegment translation, MemorySegment filter) {
+        return Box2D_1.b2World_CastMover(worldId, mover, translation, filter);
+    }
+
+    /**
+     * Native implement of {@code b2World_CollideMover}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param mover the memory segment of the {@link b2Capsule} mover, in world space
+     * @param filter the memory segment of a {@link b2QueryFilter}
+     * @param fcn the upcall stub of a {@link b2PlaneResultFcn}
+     * @param context the user context passed to {@code fcn}
+     */
+    public static void nWorldCollideMover(MemorySegment worldId, MemorySegment mover, MemorySegment filter, MemorySegment fcn, MemorySegment context) {
+        Box2D_1.b2World_CollideMover(worldId, mover, filter, fcn, context);
+    }
+
+    /**
+     * Native implement of {@code b2SolvePlanes}.
+     * @param allocator the allocator for the resulting {@link b2PlaneSolverResult}
+     * @param targetDelta the memory segment of the {@link b2Vec2} desired translation
+     * @param planes the memory segment of a {@link b2CollisionPlane} array
+     * @param count the number of planes in the array
+     * @return the memory segment of the resulting {@link b2PlaneSolverResult}
+     */
+    public static MemorySegment nSolvePlanes(SegmentAllocator allocator, MemorySegment targetDelta, MemorySegment planes, int count) {
+        return Box2D_1.b2SolvePlanes(allocator, targetDelta, planes, count);
+    }
+
+    /**
+     * Native implement of {@code b2ClipVector}.
+     * @param allocator the allocator for the resulting {@link b2Vec2}
+     * @param vector the memory segment of the {@link b2Vec2} to clip
+     * @param planes the memory segment of a {@link b2CollisionPlane} array
+     * @param count the number of planes in the array
+     * @return the memory segment of the clipped {@link b2Vec2}
+     */
+    public static MemorySegment nClipVector(SegmentAllocator allocator, MemorySegment vector, MemorySegment planes, int count) {
+        return Box2D_1.b2ClipVector(allocator, vector, planes, count);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultDebugDraw}.
+     * @return the memory segment of a {@link b2DebugDraw}, with empty draw functions, unbounded drawing bounds and shapes enabled
+     */
+    public static MemorySegment nDefaultDebugDraw() {
+        return Box2D_1.b2DefaultDebugDraw(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2World_Draw}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param draw the memory segment of a {@link b2DebugDraw}
+     */
+    public static void nWorldDraw(MemorySegment worldId, MemorySegment draw) {
+        Box2D_1.b2World_Draw(worldId, draw);
+    }
+
+    /**
+     * Native implement of {@code b2World_SetCustomFilterCallback}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param fcn the upcall stub of a {@link b2CustomFilterFcn}, or {@link MemorySegment#NULL} to remove it
+     * @param context the user context passed to {@code fcn}
+     */
+    public static void nWorldSetCustomFilterCallback(MemorySegment worldId, MemorySegment fcn, MemorySegment context) {
+        Box2D_1.b2World_SetCustomFilterCallback(worldId, fcn, context);
+    }
+
+    /**
+     * Native implement of {@code b2World_SetPreSolveCallback}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param fcn the upcall stub of a {@link b2PreSolveFcn}, or {@link MemorySegment#NULL} to remove it
+     * @param context the user context passed to {@code fcn}
+     */
+    public static void nWorldSetPreSolveCallback(MemorySegment worldId, MemorySegment fcn, MemorySegment context) {
+        Box2D_1.b2World_SetPreSolveCallback(worldId, fcn, context);
+    }
+
+    /**
+     * Native implement of {@code b2World_SetFrictionCallback}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param callback the upcall stub of a {@link b2FrictionCallback}, or {@link MemorySegment#NULL} to restore the default mixing
+     */
+    public static void nWorldSetFrictionCallback(MemorySegment worldId, MemorySegment callback) {
+        Box2D_1.b2World_SetFrictionCallback(worldId, callback);
+    }
+
+    /**
+     * Native implement of {@code b2World_SetRestitutionCallback}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param callback the upcall stub of a {@link b2RestitutionCallback}, or {@link MemorySegment#NULL} to restore the default mixing
+     */
+    public static void nWorldSetRestitutionCallback(MemorySegment worldId, MemorySegment callback) {
+        Box2D_1.b2World_SetRestitutionCallback(worldId, callback);
+    }
+
+    /**
+     * Native implement of {@code b2MakeProxy}.
+     * @param points the memory segment of a {@link b2Vec2} array, at most {@code B2_MAX_POLYGON_VERTICES} points
+     * @param count the number of points in the array
+     * @param radius the rounding radius of the proxy
+     * @return the memory segment of the resulting {@link b2ShapeProxy}
+     */
+    public static MemorySegment nMakeProxy(MemorySegment points, int count, float radius) {
+        return Box2D_1.b2MakeProxy(Arena.ofAuto(), points, count, radius);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultBodyDef}.
+     * @return the memory segment of a {@link b2BodyDef}, initialized with Box2D's default values (a static body)
+     */
+    public static MemorySegment nDefaultBodyDef() {
+        return Box2D_1.b2DefaultBodyDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2CreateBody}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param def the memory segment of a {@link b2BodyDef}
+     * @return the memory segment of the resulting {@link b2BodyId}
+     */
+    public static MemorySegment nCreateBody(MemorySegment worldId, MemorySegment def) {
+        return Box2D_1.b2CreateBody(Arena.ofAuto(), worldId, def);
+    }
+
+    /**
+     * Native implement of {@code b2DestroyBody}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     */
+    public static void nDestroyBody(MemorySegment bodyId) {
+        Box2D_1.b2DestroyBody(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_IsValid}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return true if the body id is valid
+     */
+    public static boolean nBodyIsValid(MemorySegment bodyId) {
+        return Box2D_1.b2Body_IsValid(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultShapeDef}.
+     * @return the memory segment of a {@link b2ShapeDef}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultShapeDef() {
+        return Box2D_1.b2DefaultShapeDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2CreatePolygonShape}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param def the memory segment of a {@link b2ShapeDef}
+     * @param polygon the memory segment of a {@link b2Polygon}
+     * @return the memory segment of the resulting {@link b2ShapeId}
+     */
+    public static MemorySegment nCreatePolygonShape(MemorySegment bodyId, MemorySegment def, MemorySegment polygon) {
+        return Box2D_1.b2CreatePolygonShape(Arena.ofAuto(), bodyId, def, polygon);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultChainDef}.
+     * @return the memory segment of a {@link b2ChainDef}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultChainDef() {
+        return Box2D_1.b2DefaultChainDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2CreateChain}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param def the memory segment of a {@link b2ChainDef}, with at least 4 points
+     * @return the memory segment of the resulting {@link b2ChainId}
+     */
+    public static MemorySegment nCreateChain(MemorySegment bodyId, MemorySegment def) {
+        return Box2D_1.b2CreateChain(Arena.ofAuto(), bodyId, def);
+    }
+
+    /**
+     * Native implement of {@code b2DestroyChain}.
+     * @param chainId the memory segment of a {@link b2ChainId}
+     */
+    public static void nDestroyChain(MemorySegment chainId) {
+        Box2D_1.b2DestroyChain(chainId);
+    }
+
+    /**
+     * Native implement of {@code b2Chain_IsValid}.
+     * @param chainId the memory segment of a {@link b2ChainId}
+     * @return true if the chain id is valid
+     */
+    public static boolean nChainIsValid(MemorySegment chainId) {
+        return Box2D_1.b2Chain_IsValid(chainId);
+    }
+
+    /**
+     * Native implement of {@code b2World_RebuildStaticTree}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     */
+    public static void nWorldRebuildStaticTree(MemorySegment worldId) {
+        Box2D_1.b2World_RebuildStaticTree(worldId);
+    }
+
+    /**
+     * Native implement of {@code b2RayCastCircle}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2RayCastInput}, in the shape's local frame
+     * @param circle the memory segment of a {@link b2Circle}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nRayCastCircle(SegmentAllocator allocator, MemorySegment input, MemorySegment circle) {
+        return Box2D_1.b2RayCastCircle(allocator, input, circle);
+    }
+
+    /**
+     * Native implement of {@code b2RayCastCapsule}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2RayCastInput}, in the shape's local frame
+     * @param capsule the memory segment of a {@link b2Capsule}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nRayCastCapsule(SegmentAllocator allocator, MemorySegment input, MemorySegment capsule) {
+        return Box2D_1.b2RayCastCapsule(allocator, input, capsule);
+    }
+
+    /**
+     * Native implement of {@code b2RayCastPolygon}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2RayCastInput}, in the shape's local frame
+     * @param polygon the memory segment of a {@link b2Polygon}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nRayCastPolygon(SegmentAllocator allocator, MemorySegment input, MemorySegment polygon) {
+        return Box2D_1.b2RayCastPolygon(allocator, input, polygon);
+    }
+
+    /**
+     * Native implement of {@code b2RayCastSegment}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2RayCastInput}, in the shape's local frame
+     * @param segment the memory segment of a {@link b2Segment}
+     * @param oneSided true to only hit the segment from its right side
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nRayCastSegment(SegmentAllocator allocator, MemorySegment input, MemorySegment segment, boolean oneSided) {
+        return Box2D_1.b2RayCastSegment(allocator, input, segment, oneSided);
+    }
+
+    /**
+     * Native implement of {@code b2ShapeCastCircle}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2ShapeCastInput}, in the shape's local frame
+     * @param circle the memory segment of a {@link b2Circle}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nShapeCastCircle(SegmentAllocator allocator, MemorySegment input, MemorySegment circle) {
+        return Box2D_1.b2ShapeCastCircle(allocator, input, circle);
+    }
+
+    /**
+     * Native implement of {@code b2ShapeCastCapsule}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2ShapeCastInput}, in the shape's local frame
+     * @param capsule the memory segment of a {@link b2Capsule}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nShapeCastCapsule(SegmentAllocator allocator, MemorySegment input, MemorySegment capsule) {
+        return Box2D_1.b2ShapeCastCapsule(allocator, input, capsule);
+    }
+
+    /**
+     * Native implement of {@code b2ShapeCastSegment}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2ShapeCastInput}, in the shape's local frame
+     * @param segment the memory segment of a {@link b2Segment}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nShapeCastSegment(SegmentAllocator allocator, MemorySegment input, MemorySegment segment) {
+        return Box2D_1.b2ShapeCastSegment(allocator, input, segment);
+    }
+
+    /**
+     * Native implement of {@code b2ShapeCastPolygon}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2ShapeCastInput}, in the shape's local frame
+     * @param polygon the memory segment of a {@link b2Polygon}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nShapeCastPolygon(SegmentAllocator allocator, MemorySegment input, MemorySegment polygon) {
+        return Box2D_1.b2ShapeCastPolygon(allocator, input, polygon);
+    }
+
+    /**
+     * Native implement of {@code b2ShapeCast}.
+     * @param allocator the allocator for the resulting {@link b2CastOutput}
+     * @param input the memory segment of a {@link b2ShapeCastPairInput}
+     * @return the memory segment of the resulting {@link b2CastOutput}
+     */
+    public static MemorySegment nShapeCast(SegmentAllocator allocator, MemorySegment input) {
+        return Box2D_1.b2ShapeCast(allocator, input);
+    }
+
+    /**
+     * Native implement of {@code b2CollideCircles}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param circleA the memory segment of a {@link b2Circle}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param circleB the memory segment of a {@link b2Circle}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideCircles(SegmentAllocator allocator, MemorySegment circleA, MemorySegment xfA, MemorySegment circleB, MemorySegment xfB) {
+        return Box2D_1.b2CollideCircles(allocator, circleA, xfA, circleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideCapsuleAndCircle}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param capsuleA the memory segment of a {@link b2Capsule}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param circleB the memory segment of a {@link b2Circle}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideCapsuleAndCircle(SegmentAllocator allocator, MemorySegment capsuleA, MemorySegment xfA, MemorySegment circleB, MemorySegment xfB) {
+        return Box2D_1.b2CollideCapsuleAndCircle(allocator, capsuleA, xfA, circleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideSegmentAndCircle}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param segmentA the memory segment of a {@link b2Segment}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param circleB the memory segment of a {@link b2Circle}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideSegmentAndCircle(SegmentAllocator allocator, MemorySegment segmentA, MemorySegment xfA, MemorySegment circleB, MemorySegment xfB) {
+        return Box2D_1.b2CollideSegmentAndCircle(allocator, segmentA, xfA, circleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollidePolygonAndCircle}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param polygonA the memory segment of a {@link b2Polygon}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param circleB the memory segment of a {@link b2Circle}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollidePolygonAndCircle(SegmentAllocator allocator, MemorySegment polygonA, MemorySegment xfA, MemorySegment circleB, MemorySegment xfB) {
+        return Box2D_1.b2CollidePolygonAndCircle(allocator, polygonA, xfA, circleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideCapsules}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param capsuleA the memory segment of a {@link b2Capsule}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param capsuleB the memory segment of a {@link b2Capsule}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideCapsules(SegmentAllocator allocator, MemorySegment capsuleA, MemorySegment xfA, MemorySegment capsuleB, MemorySegment xfB) {
+        return Box2D_1.b2CollideCapsules(allocator, capsuleA, xfA, capsuleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideSegmentAndCapsule}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param segmentA the memory segment of a {@link b2Segment}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param capsuleB the memory segment of a {@link b2Capsule}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideSegmentAndCapsule(SegmentAllocator allocator, MemorySegment segmentA, MemorySegment xfA, MemorySegment capsuleB, MemorySegment xfB) {
+        return Box2D_1.b2CollideSegmentAndCapsule(allocator, segmentA, xfA, capsuleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollidePolygonAndCapsule}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param polygonA the memory segment of a {@link b2Polygon}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param capsuleB the memory segment of a {@link b2Capsule}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollidePolygonAndCapsule(SegmentAllocator allocator, MemorySegment polygonA, MemorySegment xfA, MemorySegment capsuleB, MemorySegment xfB) {
+        return Box2D_1.b2CollidePolygonAndCapsule(allocator, polygonA, xfA, capsuleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollidePolygons}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param polygonA the memory segment of a {@link b2Polygon}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param polygonB the memory segment of a {@link b2Polygon}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollidePolygons(SegmentAllocator allocator, MemorySegment polygonA, MemorySegment xfA, MemorySegment polygonB, MemorySegment xfB) {
+        return Box2D_1.b2CollidePolygons(allocator, polygonA, xfA, polygonB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideSegmentAndPolygon}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param segmentA the memory segment of a {@link b2Segment}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param polygonB the memory segment of a {@link b2Polygon}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideSegmentAndPolygon(SegmentAllocator allocator, MemorySegment segmentA, MemorySegment xfA, MemorySegment polygonB, MemorySegment xfB) {
+        return Box2D_1.b2CollideSegmentAndPolygon(allocator, segmentA, xfA, polygonB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideChainSegmentAndCircle}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param segmentA the memory segment of a {@link b2ChainSegment}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param circleB the memory segment of a {@link b2Circle}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideChainSegmentAndCircle(SegmentAllocator allocator, MemorySegment segmentA, MemorySegment xfA, MemorySegment circleB, MemorySegment xfB) {
+        return Box2D_1.b2CollideChainSegmentAndCircle(allocator, segmentA, xfA, circleB, xfB);
+    }
+
+    /**
+     * Native implement of {@code b2CollideChainSegmentAndCapsule}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param segmentA the memory segment of a {@link b2ChainSegment}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param capsuleB the memory segment of a {@link b2Capsule}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @param cache the memory segment of a {@link b2SimplexCache}, warm starting the distance query
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideChainSegmentAndCapsule(SegmentAllocator allocator, MemorySegment segmentA, MemorySegment xfA, MemorySegment capsuleB, MemorySegment xfB, MemorySegment cache) {
+        return Box2D_1.b2CollideChainSegmentAndCapsule(allocator, segmentA, xfA, capsuleB, xfB, cache);
+    }
+
+    /**
+     * Native implement of {@code b2CollideChainSegmentAndPolygon}.
+     * @param allocator the allocator for the resulting {@link b2Manifold}
+     * @param segmentA the memory segment of a {@link b2ChainSegment}
+     * @param xfA the memory segment of the {@link b2Transform} of shape A
+     * @param polygonB the memory segment of a {@link b2Polygon}
+     * @param xfB the memory segment of the {@link b2Transform} of shape B
+     * @param cache the memory segment of a {@link b2SimplexCache}, warm starting the distance query
+     * @return the memory segment of the resulting {@link b2Manifold}
+     */
+    public static MemorySegment nCollideChainSegmentAndPolygon(SegmentAllocator allocator, MemorySegment segmentA, MemorySegment xfA, MemorySegment polygonB, MemorySegment xfB, MemorySegment cache) {
+        return Box2D_1.b2CollideChainSegmentAndPolygon(allocator, segmentA, xfA, polygonB, xfB, cache);
+    }
+
+    /**
+     * Native implement of {@code b2ShapeDistance}.
+     * @param allocator the allocator for the resulting {@link b2DistanceOutput}
+     * @param input the memory segment of a {@link b2DistanceInput}
+     * @param cache the memory segment of a {@link b2SimplexCache}, read to warm start and updated
+     * @param simplexes the memory segment of a {@link b2Simplex} array for debugging, or {@link MemorySegment#NULL}
+     * @param simplexCapacity the capacity of the simplex array
+     * @return the memory segment of the resulting {@link b2DistanceOutput}
+     */
+    public static MemorySegment nShapeDistance(SegmentAllocator allocator, MemorySegment input, MemorySegment cache, MemorySegment simplexes, int simplexCapacity) {
+        return Box2D_1.b2ShapeDistance(allocator, input, cache, simplexes, simplexCapacity);
+    }
+
+    /**
+     * Native implement of {@code b2TimeOfImpact}.
+     * @param allocator the allocator for the resulting {@link b2TOIOutput}
+     * @param input the memory segment of a {@link b2TOIInput}
+     * @return the memory segment of the resulting {@link b2TOIOutput}
+     */
+    public static MemorySegment nTimeOfImpact(SegmentAllocator allocator, MemorySegment input) {
+        return Box2D_1.b2TimeOfImpact(allocator, input);
+    }
+
+    /**
+     * Native implement of {@code b2GetSweepTransform}.
+     * @param allocator the allocator for the resulting {@link b2Transform}
+     * @param sweep the memory segment of a {@link b2Sweep}
+     * @param time the normalized time in {@code [0, 1]}
+     * @return the memory segment of the resulting {@link b2Transform}
+     */
+    public static MemorySegment nGetSweepTransform(SegmentAllocator allocator, MemorySegment sweep, float time) {
+        return Box2D_1.b2GetSweepTransform(allocator, sweep, time);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultExplosionDef}.
+     * @return the memory segment of a {@link b2ExplosionDef}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultExplosionDef() {
+        return Box2D_1.b2DefaultExplosionDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2World_Explode}.
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param explosionDef the memory segment of a {@link b2ExplosionDef}
+     */
+    public static void nWorldExplode(MemorySegment worldId, MemorySegment explosionDef) {
+        Box2D_1.b2World_Explode(worldId, explosionDef);
+    }
+
+    /**
+     * Native implement of {@code b2World_OverlapShape}.
+     * @param allocator the allocator for the resulting {@link b2TreeStats}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param proxy the memory segment of a {@link b2ShapeProxy}, in world space
+     * @param filter the memory segment of a {@link b2QueryFilter}
+     * @param fcn the upcall stub of a {@link b2OverlapResultFcn}
+     * @param context the user context passed to {@code fcn}
+     * @return the memory segment of the resulting {@link b2TreeStats}
+     */
+    public static MemorySegment nWorldOverlapShape(SegmentAllocator allocator, MemorySegment worldId, MemorySegment proxy, MemorySegment filter, MemorySegment fcn, MemorySegment context) {
+        return Box2D_1.b2World_OverlapShape(allocator, worldId, proxy, filter, fcn, context);
+    }
+
+    /**
+     * Native implement of {@code b2Shape_GetBody}.
+     * @param allocator the allocator for the resulting {@link b2BodyId}
+     * @param shapeId the memory segment of a {@link b2ShapeId}
+     * @return the memory segment of the resulting {@link b2BodyId}
+     */
+    public static MemorySegment nShapeGetBody(SegmentAllocator allocator, MemorySegment shapeId) {
+        return Box2D_1.b2Shape_GetBody(allocator, shapeId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_GetType}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return the {@code b2BodyType} of the body
+     */
+    public static int nBodyGetType(MemorySegment bodyId) {
+        return Box2D_1.b2Body_GetType(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_GetPosition}.
+     * @param allocator the allocator for the resulting {@link b2Vec2}
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return the memory segment of the resulting {@link b2Vec2}, the world position of the body origin
+     */
+    public static MemorySegment nBodyGetPosition(SegmentAllocator allocator, MemorySegment bodyId) {
+        return Box2D_1.b2Body_GetPosition(allocator, bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_GetTransform}.
+     * @param allocator the allocator for the resulting {@link b2Transform}
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return the memory segment of the resulting {@link b2Transform}, the world transform of the body origin
+     */
+    public static MemorySegment nBodyGetTransform(SegmentAllocator allocator, MemorySegment bodyId) {
+        return Box2D_1.b2Body_GetTransform(allocator, bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_GetAngularVelocity}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return the angular velocity in radians per second
+     */
+    public static float nBodyGetAngularVelocity(MemorySegment bodyId) {
+        return Box2D_1.b2Body_GetAngularVelocity(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_GetLinearVelocity}.
+     * @param allocator the allocator for the resulting {@link b2Vec2}
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return the memory segment of the resulting {@link b2Vec2}, the velocity of the center of mass
+     */
+    public static MemorySegment nBodyGetLinearVelocity(SegmentAllocator allocator, MemorySegment bodyId) {
+        return Box2D_1.b2Body_GetLinearVelocity(allocator, bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2MakeBox}.
+     * @param allocator the allocator for the resulting {@link b2Polygon}
+     * @param halfWidth the box 1/2 width along the local x-axis
+     * @param halfHeight the box 1/2 height along the local y-axis
+     * @return the memory segment of the resulting {@link b2Polygon}
+     */
+    public static MemorySegment nMakeBox(SegmentAllocator allocator, float halfWidth, float halfHeight) {
+        return Box2D_1.b2MakeBox(allocator, halfWidth, halfHeight);
+    }
+
+    /**
+     * Native implement of {@code b2CreateBody}.
+     * @param allocator the allocator for the resulting {@link b2BodyId}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param def the memory segment of a {@link b2BodyDef}
+     * @return the memory segment of the resulting {@link b2BodyId}
+     */
+    public static MemorySegment nCreateBody(SegmentAllocator allocator, MemorySegment worldId, MemorySegment def) {
+        return Box2D_1.b2CreateBody(allocator, worldId, def);
+    }
+
+    /**
+     * Native implement of {@code b2CreateCircleShape}.
+     * @param allocator the allocator for the resulting {@link b2ShapeId}
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param def the memory segment of a {@link b2ShapeDef}
+     * @param circle the memory segment of a {@link b2Circle}
+     * @return the memory segment of the resulting {@link b2ShapeId}
+     */
+    public static MemorySegment nCreateCircleShape(SegmentAllocator allocator, MemorySegment bodyId, MemorySegment def, MemorySegment circle) {
+        return Box2D_1.b2CreateCircleShape(allocator, bodyId, def, circle);
+    }
+
+    /**
+     * Native implement of {@code b2CreatePolygonShape}.
+     * @param allocator the allocator for the resulting {@link b2ShapeId}
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param def the memory segment of a {@link b2ShapeDef}
+     * @param polygon the memory segment of a {@link b2Polygon}
+     * @return the memory segment of the resulting {@link b2ShapeId}
+     */
+    public static MemorySegment nCreatePolygonShape(SegmentAllocator allocator, MemorySegment bodyId, MemorySegment def, MemorySegment polygon) {
+        return Box2D_1.b2CreatePolygonShape(allocator, bodyId, def, polygon);
+    }
+
+    /**
+     * Native implement of {@code b2DestroyShape}.
+     * @param shapeId the memory segment of a {@link b2ShapeId}
+     * @param updateBodyMass true to recompute the mass of the body
+     */
+    public static void nDestroyShape(MemorySegment shapeId, boolean updateBodyMass) {
+        Box2D_1.b2DestroyShape(shapeId, updateBodyMass);
+    }
+
+    /**
+     * Native implement of {@code b2Shape_IsValid}.
+     * @param shapeId the memory segment of a {@link b2ShapeId}
+     * @return true if the shape id is valid
+     */
+    public static boolean nShapeIsValid(MemorySegment shapeId) {
+        return Box2D_1.b2Shape_IsValid(shapeId);
+    }
+
+    /**
+     * Native implement of {@code b2Shape_SetFilter}.
+     * @param shapeId the memory segment of a {@link b2ShapeId}
+     * @param filter the memory segment of a {@link b2Filter}
+     */
+    public static void nShapeSetFilter(MemorySegment shapeId, MemorySegment filter) {
+        Box2D_1.b2Shape_SetFilter(shapeId, filter);
+    }
+
+    /**
+     * Native implement of {@code b2Body_SetTransform}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param position the memory segment of the {@link b2Vec2} body origin
+     * @param rotation the memory segment of the {@link b2Rot} body rotation
+     */
+    public static void nBodySetTransform(MemorySegment bodyId, MemorySegment position, MemorySegment rotation) {
+        Box2D_1.b2Body_SetTransform(bodyId, position, rotation);
+    }
+
+    /**
+     * Native implement of {@code b2Body_SetLinearVelocity}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param linearVelocity the memory segment of the {@link b2Vec2} velocity of the center of mass
+     */
+    public static void nBodySetLinearVelocity(MemorySegment bodyId, MemorySegment linearVelocity) {
+        Box2D_1.b2Body_SetLinearVelocity(bodyId, linearVelocity);
+    }
+
+    /**
+     * Native implement of {@code b2Body_ApplyLinearImpulseToCenter}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param impulse the memory segment of the {@link b2Vec2} impulse
+     * @param wake true to wake the body
+     */
+    public static void nBodyApplyLinearImpulseToCenter(MemorySegment bodyId, MemorySegment impulse, boolean wake) {
+        Box2D_1.b2Body_ApplyLinearImpulseToCenter(bodyId, impulse, wake);
+    }
+
+    /**
+     * Native implement of {@code b2Body_ApplyAngularImpulse}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param impulse the angular impulse
+     * @param wake true to wake the body
+     */
+    public static void nBodyApplyAngularImpulse(MemorySegment bodyId, float impulse, boolean wake) {
+        Box2D_1.b2Body_ApplyAngularImpulse(bodyId, impulse, wake);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultDistanceJointDef}.
+     * @return the memory segment of a {@link b2DistanceJointDef}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultDistanceJointDef() {
+        return Box2D_1.b2DefaultDistanceJointDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2CreateDistanceJoint}.
+     * @param allocator the allocator for the resulting {@link b2JointId}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param def the memory segment of a {@link b2DistanceJointDef}
+     * @return the memory segment of the resulting {@link b2JointId}
+     */
+    public static MemorySegment nCreateDistanceJoint(SegmentAllocator allocator, MemorySegment worldId, MemorySegment def) {
+        return Box2D_1.b2CreateDistanceJoint(allocator, worldId, def);
+    }
+
+    /**
+     * Native implement of {@code b2DefaultRevoluteJointDef}.
+     * @return the memory segment of a {@link b2RevoluteJointDef}, initialized with Box2D's default values
+     */
+    public static MemorySegment nDefaultRevoluteJointDef() {
+        return Box2D_1.b2DefaultRevoluteJointDef(Arena.ofAuto());
+    }
+
+    /**
+     * Native implement of {@code b2CreateRevoluteJoint}.
+     * @param allocator the allocator for the resulting {@link b2JointId}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param def the memory segment of a {@link b2RevoluteJointDef}
+     * @return the memory segment of the resulting {@link b2JointId}
+     */
+    public static MemorySegment nCreateRevoluteJoint(SegmentAllocator allocator, MemorySegment worldId, MemorySegment def) {
+        return Box2D_1.b2CreateRevoluteJoint(allocator, worldId, def);
+    }
+
+    /**
+     * Native implement of {@code b2DestroyJoint}.
+     * @param jointId the memory segment of a {@link b2JointId}
+     */
+    public static void nDestroyJoint(MemorySegment jointId) {
+        Box2D_1.b2DestroyJoint(jointId);
+    }
+
+    /**
+     * Native implement of {@code b2Joint_IsValid}.
+     * @param jointId the memory segment of a {@link b2JointId}
+     * @return true if the joint id is valid
+     */
+    public static boolean nJointIsValid(MemorySegment jointId) {
+        return Box2D_1.b2Joint_IsValid(jointId);
+    }
+
+    /**
+     * Native implement of {@code b2World_GetProfile}.
+     * @param allocator the allocator for the resulting {@link b2Profile}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return the memory segment of the resulting {@link b2Profile}, the timings of the last step in milliseconds
+     */
+    public static MemorySegment nWorldGetProfile(SegmentAllocator allocator, MemorySegment worldId) {
+        return Box2D_1.b2World_GetProfile(allocator, worldId);
+    }
+
+    /**
+     * Native implement of {@code b2World_GetCounters}.
+     * @param allocator the allocator for the resulting {@link b2Counters}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return the memory segment of the resulting {@link b2Counters}
+     */
+    public static MemorySegment nWorldGetCounters(SegmentAllocator allocator, MemorySegment worldId) {
+        return Box2D_1.b2World_GetCounters(allocator, worldId);
+    }
+
+    /**
+     * Native implement of {@code b2World_OverlapAABB}.
+     * @param allocator the allocator for the resulting {@link b2TreeStats}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @param aabb the memory segment of the {@link b2AABB} to query
+     * @param filter the memory segment of a {@link b2QueryFilter}
+     * @param fcn the memory segment of a {@link b2OverlapResultFcn} upcall stub
+     * @param context the user context passed to the callback
+     * @return the memory segment of the resulting {@link b2TreeStats}
+     */
+    public static MemorySegment nWorldOverlapAABB(SegmentAllocator allocator, MemorySegment worldId, MemorySegment aabb, MemorySegment filter, MemorySegment fcn, MemorySegment context) {
+        return Box2D_1.b2World_OverlapAABB(allocator, worldId, aabb, filter, fcn, context);
+    }
+
+    /**
+     * Native implement of {@code b2Body_IsAwake}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return true if the body is awake
+     */
+    public static boolean nBodyIsAwake(MemorySegment bodyId) {
+        return Box2D_1.b2Body_IsAwake(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_SetAwake}, putting the whole island of the body to sleep when false.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @param awake true to wake the body, false to put it to sleep
+     */
+    public static void nBodySetAwake(MemorySegment bodyId, boolean awake) {
+        Box2D_1.b2Body_SetAwake(bodyId, awake);
+    }
+
+    /**
+     * Native implement of {@code b2Body_IsEnabled}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     * @return true if the body is enabled
+     */
+    public static boolean nBodyIsEnabled(MemorySegment bodyId) {
+        return Box2D_1.b2Body_IsEnabled(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_Disable}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     */
+    public static void nBodyDisable(MemorySegment bodyId) {
+        Box2D_1.b2Body_Disable(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2Body_Enable}.
+     * @param bodyId the memory segment of a {@link b2BodyId}
+     */
+    public static void nBodyEnable(MemorySegment bodyId) {
+        Box2D_1.b2Body_Enable(bodyId);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_Create}.
+     * @param allocator the allocator for the resulting {@link b2DynamicTree}
+     * @return the memory segment of the resulting {@link b2DynamicTree}
+     */
+    public static MemorySegment nDynamicTreeCreate(SegmentAllocator allocator) {
+        return Box2D_1.b2DynamicTree_Create(allocator);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_Destroy}.
+     * @param tree the memory segment of a {@link b2DynamicTree}
+     */
+    public static void nDynamicTreeDestroy(MemorySegment tree) {
+        Box2D_1.b2DynamicTree_Destroy(tree);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_CreateProxy}.
+     * @param tree the memory segment of a {@link b2DynamicTree}
+     * @param aabb the memory segment of the {@link b2AABB} of the proxy
+     * @param categoryBits the category bits of the proxy
+     * @param userData the user data of the proxy
+     * @return the proxy id
+     */
+    public static int nDynamicTreeCreateProxy(MemorySegment tree, MemorySegment aabb, long categoryBits, long userData) {
+        return Box2D_1.b2DynamicTree_CreateProxy(tree, aabb, categoryBits, userData);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_DestroyProxy}.
+     * @param tree the memory segment of a {@link b2DynamicTree}
+     * @param proxyId the proxy id
+     */
+    public static void nDynamicTreeDestroyProxy(MemorySegment tree, int proxyId) {
+        Box2D_1.b2DynamicTree_DestroyProxy(tree, proxyId);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_MoveProxy}.
+     * @param tree the memory segment of a {@link b2DynamicTree}
+     * @param proxyId the proxy id
+     * @param aabb the memory segment of the new {@link b2AABB} of the proxy
+     */
+    public static void nDynamicTreeMoveProxy(MemorySegment tree, int proxyId, MemorySegment aabb) {
+        Box2D_1.b2DynamicTree_MoveProxy(tree, proxyId, aabb);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_Query}.
+     * @param allocator the allocator for the resulting {@link b2TreeStats}
+     * @param tree the memory segment of a {@link b2DynamicTree}
+     * @param aabb the memory segment of the {@link b2AABB} to query
+     * @param maskBits the mask bits matched against the proxy category bits
+     * @param callback the memory segment of a {@link b2TreeQueryCallbackFcn} upcall stub
+     * @param context the user context passed to the callback
+     * @return the memory segment of the resulting {@link b2TreeStats}
+     */
+    public static MemorySegment nDynamicTreeQuery(SegmentAllocator allocator, MemorySegment tree, MemorySegment aabb, long maskBits, MemorySegment callback, MemorySegment context) {
+        return Box2D_1.b2DynamicTree_Query(allocator, tree, aabb, maskBits, callback, context);
+    }
+
+    /**
+     * Native implement of {@code b2DynamicTree_GetProxyCount}.
+     * @param tree the memory segment of a {@link b2DynamicTree}
+     * @return the proxy count
+     */
+    public static int nDynamicTreeGetProxyCount(MemorySegment tree) {
+        return Box2D_1.b2DynamicTree_GetProxyCount(tree);
+    }
+
+    /**
+     * Native implement of {@code b2World_GetBodyEvents}.
+     * @param allocator the allocator for the resulting {@link b2BodyEvents}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return the memory segment of the resulting {@link b2BodyEvents}, valid until the next step
+     */
+    public static MemorySegment nWorldGetBodyEvents(SegmentAllocator allocator, MemorySegment worldId) {
+        return Box2D_1.b2World_GetBodyEvents(allocator, worldId);
+    }
+
+    /**
+     * Native implement of {@code b2World_GetGravity}.
+     * @param allocator the allocator for the resulting {@link b2Vec2}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return the memory segment of the resulting {@link b2Vec2}, the gravity vector
+     */
+    public static MemorySegment nWorldGetGravity(SegmentAllocator allocator, MemorySegment worldId) {
+        return Box2D_1.b2World_GetGravity(allocator, worldId);
+    }
+
+    /**
+     * Native implement of {@code b2Hash}.
+     * @param hash the hash to continue, {@link #nHashInit()} to start a new one
+     * @param data the memory segment of the bytes to hash
+     * @param count the number of bytes to hash
+     * @return the updated hash
+     */
+    public static int nHash(int hash, MemorySegment data, int count) {
+        return Box2D_1.b2Hash(hash, data, count);
+    }
+
+    /**
+     * Native value of {@code B2_HASH_INIT}.
+     * @return the initial hash
+     */
+    public static int nHashInit() {
+        return Box2D_1.B2_HASH_INIT();
+    }
+
+    /**
+     * Native implement of {@code b2World_GetContactEvents}.
+     * @param allocator the allocator for the resulting {@link b2ContactEvents}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return the memory segment of the resulting {@link b2ContactEvents}, valid until the next step
+     */
+    public static MemorySegment nWorldGetContactEvents(SegmentAllocator allocator, MemorySegment worldId) {
+        return Box2D_1.b2World_GetContactEvents(allocator, worldId);
+    }
+
+    /**
+     * Native implement of {@code b2World_GetSensorEvents}.
+     * @param allocator the allocator for the resulting {@link b2SensorEvents}
+     * @param worldId the memory segment of a {@link b2WorldId}
+     * @return the memory segment of the resulting {@link b2SensorEvents}, valid until the next step
+     */
+    public static MemorySegment nWorldGetSensorEvents(SegmentAllocator allocator, MemorySegment worldId) {
+        return Box2D_1.b2World_GetSensorEvents(allocator, worldId);
+    }
 }
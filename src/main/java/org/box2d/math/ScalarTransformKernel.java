@@ -0,0 +1,146 @@
+package org.box2d.math;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Scalar kernels of {@link TransformBatch}, also used for the tails of the vector kernels.
+ * <p>
+ * Every operation follows the evaluation order of Box2D's inline math,
+ * e.g. {@code b2TransformPoint} computes {@code (c * x - s * y) + px}, so results are bit exact.
+ * Ranges are in points, {@code [from, to)}, and interleaved arrays hold {@code x, y} pairs.
+ * </p>
+ */
+final class ScalarTransformKernel {
+    private ScalarTransformKernel() {}
+
+    static void transform(float px, float py, float c, float s, float[] x, float[] y, float[] outX, float[] outY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = x[i];
+            float vy = y[i];
+            outX[i] = (c * vx - s * vy) + px;
+            outY[i] = (s * vx + c * vy) + py;
+        }
+    }
+
+    static void transform(float px, float py, float c, float s, float[] xy, float[] outXY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = xy[2 * i];
+            float vy = xy[2 * i + 1];
+            outXY[2 * i] = (c * vx - s * vy) + px;
+            outXY[2 * i + 1] = (s * vx + c * vy) + py;
+        }
+    }
+
+    static void transform(float px, float py, float c, float s, MemorySegment points, MemorySegment out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i);
+            float vy = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1);
+            out.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i, (c * vx - s * vy) + px);
+            out.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1, (s * vx + c * vy) + py);
+        }
+    }
+
+    static void inverseTransform(float px, float py, float c, float s, float[] x, float[] y, float[] outX, float[] outY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = x[i] - px;
+            float vy = y[i] - py;
+            outX[i] = c * vx + s * vy;
+            outY[i] = -s * vx + c * vy;
+        }
+    }
+
+    static void inverseTransform(float px, float py, float c, float s, float[] xy, float[] outXY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = xy[2 * i] - px;
+            float vy = xy[2 * i + 1] - py;
+            outXY[2 * i] = c * vx + s * vy;
+            outXY[2 * i + 1] = -s * vx + c * vy;
+        }
+    }
+
+    static void inverseTransform(float px, float py, float c, float s, MemorySegment points, MemorySegment out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i) - px;
+            float vy = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1) - py;
+            out.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i, c * vx + s * vy);
+            out.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1, -s * vx + c * vy);
+        }
+    }
+
+    static void rotate(float c, float s, float[] x, float[] y, float[] outX, float[] outY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = x[i];
+            float vy = y[i];
+            outX[i] = c * vx - s * vy;
+            outY[i] = s * vx + c * vy;
+        }
+    }
+
+    static void rotate(float c, float s, float[] xy, float[] outXY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = xy[2 * i];
+            float vy = xy[2 * i + 1];
+            outXY[2 * i] = c * vx - s * vy;
+            outXY[2 * i + 1] = s * vx + c * vy;
+        }
+    }
+
+    static void rotate(float c, float s, MemorySegment points, MemorySegment out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float vx = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i);
+            float vy = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1);
+            out.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i, c * vx - s * vy);
+            out.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1, s * vx + c * vy);
+        }
+    }
+
+    /**
+     * Grow {@code bounds = {minX, minY, maxX, maxY}} by the points in the range.
+     */
+    static void bounds(float[] x, float[] y, int from, int to, float[] bounds) {
+        float minX = bounds[0], minY = bounds[1], maxX = bounds[2], maxY = bounds[3];
+        for (int i = from; i < to; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        bounds[0] = minX;
+        bounds[1] = minY;
+        bounds[2] = maxX;
+        bounds[3] = maxY;
+    }
+
+    static void bounds(float[] xy, int from, int to, float[] bounds) {
+        float minX = bounds[0], minY = bounds[1], maxX = bounds[2], maxY = bounds[3];
+        for (int i = from; i < to; i++) {
+            float vx = xy[2 * i];
+            float vy = xy[2 * i + 1];
+            minX = Math.min(minX, vx);
+            minY = Math.min(minY, vy);
+            maxX = Math.max(maxX, vx);
+            maxY = Math.max(maxY, vy);
+        }
+        bounds[0] = minX;
+        bounds[1] = minY;
+        bounds[2] = maxX;
+        bounds[3] = maxY;
+    }
+
+    static void bounds(MemorySegment points, int from, int to, float[] bounds) {
+        float minX = bounds[0], minY = bounds[1], maxX = bounds[2], maxY = bounds[3];
+        for (int i = from; i < to; i++) {
+            float vx = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i);
+            float vy = points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1);
+            minX = Math.min(minX, vx);
+            minY = Math.min(minY, vy);
+            maxX = Math.max(maxX, vx);
+            maxY = Math.max(maxY, vy);
+        }
+        bounds[0] = minX;
+        bounds[1] = minY;
+        bounds[2] = maxX;
+        bounds[3] = maxY;
+    }
+}
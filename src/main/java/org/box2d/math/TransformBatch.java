@@ -0,0 +1,276 @@
+package org.box2d.math;
+
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * Batch transforms over many points at once, for vertex sets that would otherwise go through
+ * one {@link Vec2} wrapper call per point.
+ * <p>
+ * Points are given either as split arrays ({@code x[]} and {@code y[]}), as interleaved arrays
+ * ({@code x0, y0, x1, y1, ...}) or as a {@code b2Vec2} array segment. Output may alias input for in-place updates.
+ * </p>
+ * <p>
+ * When the {@code jdk.incubator.vector} module is present (run with {@code --add-modules jdk.incubator.vector})
+ * the kernels use the Vector API, otherwise a scalar loop. Both give bit exact results to Box2D's
+ * {@code b2TransformPoint}, {@code b2InvTransformPoint} and {@code b2RotateVector}.
+ * The Vector API can be turned off with the system property {@code box2d.vector=false}.
+ * </p>
+ */
+public final class TransformBatch {
+    private static final boolean Vectorized = detectVectorSupport();
+
+    private static final long TransformX = b2Transform.p$offset() + b2Vec2.x$offset();
+    private static final long TransformY = b2Transform.p$offset() + b2Vec2.y$offset();
+    private static final long TransformC = b2Transform.q$offset() + b2Rot.c$offset();
+    private static final long TransformS = b2Transform.q$offset() + b2Rot.s$offset();
+
+    private TransformBatch() {}
+
+    private static boolean detectVectorSupport() {
+        if (!Boolean.parseBoolean(System.getProperty("box2d.vector", "true"))) return false;
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Check if the batch kernels run on the Vector API.
+     * @return true if vectorized, false if using the scalar fallback
+     */
+    public static boolean isVectorized() {
+        return Vectorized;
+    }
+
+    /**
+     * Transform split points from local to world space, {@code out = q * p + t}.
+     * @param transform the transform
+     * @param x the x coordinates
+     * @param y the y coordinates
+     * @param outX the resulting x coordinates, may be {@code x}
+     * @param outY the resulting y coordinates, may be {@code y}
+     * @param count the number of points
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} points
+     */
+    public static void transform(Transform transform, float[] x, float[] y, float[] outX, float[] outY, int count) {
+        checkSplit(x, y, outX, outY, count);
+        MemorySegment t = transform.segment();
+        float px = t.get(ValueLayout.JAVA_FLOAT, TransformX), py = t.get(ValueLayout.JAVA_FLOAT, TransformY);
+        float c = t.get(ValueLayout.JAVA_FLOAT, TransformC), s = t.get(ValueLayout.JAVA_FLOAT, TransformS);
+        if (Vectorized) VectorTransformKernel.transform(px, py, c, s, x, y, outX, outY, count);
+        else ScalarTransformKernel.transform(px, py, c, s, x, y, outX, outY, 0, count);
+    }
+
+    /**
+     * Transform interleaved points from local to world space, {@code out = q * p + t}.
+     * @param transform the transform
+     * @param xy the interleaved coordinates
+     * @param outXY the resulting interleaved coordinates, may be {@code xy}
+     * @param count the number of points
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} points
+     */
+    public static void transform(Transform transform, float[] xy, float[] outXY, int count) {
+        checkInterleaved(xy, outXY, count);
+        MemorySegment t = transform.segment();
+        float px = t.get(ValueLayout.JAVA_FLOAT, TransformX), py = t.get(ValueLayout.JAVA_FLOAT, TransformY);
+        float c = t.get(ValueLayout.JAVA_FLOAT, TransformC), s = t.get(ValueLayout.JAVA_FLOAT, TransformS);
+        if (Vectorized) VectorTransformKernel.transform(px, py, c, s, xy, outXY, count);
+        else ScalarTransformKernel.transform(px, py, c, s, xy, outXY, 0, count);
+    }
+
+    /**
+     * Transform a {@code b2Vec2} array from local to world space, {@code out = q * p + t}.
+     * @param transform the transform
+     * @param points the memory segment of the points
+     * @param out the memory segment of the results, may be {@code points}
+     * @param count the number of points
+     * @throws IndexOutOfBoundsException if a segment holds fewer than {@code count} points
+     */
+    public static void transform(Transform transform, MemorySegment points, MemorySegment out, int count) {
+        checkSegment(points, out, count);
+        MemorySegment t = transform.segment();
+        float px = t.get(ValueLayout.JAVA_FLOAT, TransformX), py = t.get(ValueLayout.JAVA_FLOAT, TransformY);
+        float c = t.get(ValueLayout.JAVA_FLOAT, TransformC), s = t.get(ValueLayout.JAVA_FLOAT, TransformS);
+        if (Vectorized) VectorTransformKernel.transform(px, py, c, s, points, out, count);
+        else ScalarTransformKernel.transform(px, py, c, s, points, out, 0, count);
+    }
+
+    /**
+     * Transform split points from world to local space, {@code out = q^T * (p - t)}.
+     * @param transform the transform
+     * @param x the x coordinates
+     * @param y the y coordinates
+     * @param outX the resulting x coordinates, may be {@code x}
+     * @param outY the resulting y coordinates, may be {@code y}
+     * @param count the number of points
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} points
+     */
+    public static void inverseTransform(Transform transform, float[] x, float[] y, float[] outX, float[] outY, int count) {
+        checkSplit(x, y, outX, outY, count);
+        MemorySegment t = transform.segment();
+        float px = t.get(ValueLayout.JAVA_FLOAT, TransformX), py = t.get(ValueLayout.JAVA_FLOAT, TransformY);
+        float c = t.get(ValueLayout.JAVA_FLOAT, TransformC), s = t.get(ValueLayout.JAVA_FLOAT, TransformS);
+        if (Vectorized) VectorTransformKernel.inverseTransform(px, py, c, s, x, y, outX, outY, count);
+        else ScalarTransformKernel.inverseTransform(px, py, c, s, x, y, outX, outY, 0, count);
+    }
+
+    /**
+     * Transform interleaved points from world to local space, {@code out = q^T * (p - t)}.
+     * @param transform the transform
+     * @param xy the interleaved coordinates
+     * @param outXY the resulting interleaved coordinates, may be {@code xy}
+     * @param count the number of points
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} points
+     */
+    public static void inverseTransform(Transform transform, float[] xy, float[] outXY, int count) {
+        checkInterleaved(xy, outXY, count);
+        MemorySegment t = transform.segment();
+        float px = t.get(ValueLayout.JAVA_FLOAT, TransformX), py = t.get(ValueLayout.JAVA_FLOAT, TransformY);
+        float c = t.get(ValueLayout.JAVA_FLOAT, TransformC), s = t.get(ValueLayout.JAVA_FLOAT, TransformS);
+        if (Vectorized) VectorTransformKernel.inverseTransform(px, py, c, s, xy, outXY, count);
+        else ScalarTransformKernel.inverseTransform(px, py, c, s, xy, outXY, 0, count);
+    }
+
+    /**
+     * Transform a {@code b2Vec2} array from world to local space, {@code out = q^T * (p - t)}.
+     * @param transform the transform
+     * @param points the memory segment of the points
+     * @param out the memory segment of the results, may be {@code points}
+     * @param count the number of points
+     * @throws IndexOutOfBoundsException if a segment holds fewer than {@code count} points
+     */
+    public static void inverseTransform(Transform transform, MemorySegment points, MemorySegment out, int count) {
+        checkSegment(points, out, count);
+        MemorySegment t = transform.segment();
+        float px = t.get(ValueLayout.JAVA_FLOAT, TransformX), py = t.get(ValueLayout.JAVA_FLOAT, TransformY);
+        float c = t.get(ValueLayout.JAVA_FLOAT, TransformC), s = t.get(ValueLayout.JAVA_FLOAT, TransformS);
+        if (Vectorized) VectorTransformKernel.inverseTransform(px, py, c, s, points, out, count);
+        else ScalarTransformKernel.inverseTransform(px, py, c, s, points, out, 0, count);
+    }
+
+    /**
+     * Rotate split vectors, {@code out = q * v}.
+     * @param rotation the rotation
+     * @param x the x components
+     * @param y the y components
+     * @param outX the resulting x components, may be {@code x}
+     * @param outY the resulting y components, may be {@code y}
+     * @param count the number of vectors
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} vectors
+     */
+    public static void rotate(Rot rotation, float[] x, float[] y, float[] outX, float[] outY, int count) {
+        checkSplit(x, y, outX, outY, count);
+        float c = rotation.c(), s = rotation.s();
+        if (Vectorized) VectorTransformKernel.rotate(c, s, x, y, outX, outY, count);
+        else ScalarTransformKernel.rotate(c, s, x, y, outX, outY, 0, count);
+    }
+
+    /**
+     * Rotate interleaved vectors, {@code out = q * v}.
+     * @param rotation the rotation
+     * @param xy the interleaved components
+     * @param outXY the resulting interleaved components, may be {@code xy}
+     * @param count the number of vectors
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} vectors
+     */
+    public static void rotate(Rot rotation, float[] xy, float[] outXY, int count) {
+        checkInterleaved(xy, outXY, count);
+        float c = rotation.c(), s = rotation.s();
+        if (Vectorized) VectorTransformKernel.rotate(c, s, xy, outXY, count);
+        else ScalarTransformKernel.rotate(c, s, xy, outXY, 0, count);
+    }
+
+    /**
+     * Rotate a {@code b2Vec2} array, {@code out = q * v}.
+     * @param rotation the rotation
+     * @param points the memory segment of the vectors
+     * @param out the memory segment of the results, may be {@code points}
+     * @param count the number of vectors
+     * @throws IndexOutOfBoundsException if a segment holds fewer than {@code count} vectors
+     */
+    public static void rotate(Rot rotation, MemorySegment points, MemorySegment out, int count) {
+        checkSegment(points, out, count);
+        float c = rotation.c(), s = rotation.s();
+        if (Vectorized) VectorTransformKernel.rotate(c, s, points, out, count);
+        else ScalarTransformKernel.rotate(c, s, points, out, 0, count);
+    }
+
+    /**
+     * Compute the bounding box of split points.
+     * @param x the x coordinates
+     * @param y the y coordinates
+     * @param count the number of points
+     * @param out the result {@code {minX, minY, maxX, maxY}}, inverted infinite bounds when {@code count} is 0
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} points, or {@code out} fewer than 4 values
+     */
+    public static float[] bounds(float[] x, float[] y, int count, float[] out) {
+        Objects.checkFromIndexSize(0, count, x.length);
+        Objects.checkFromIndexSize(0, count, y.length);
+        resetBounds(out);
+        if (Vectorized) VectorTransformKernel.bounds(x, y, count, out);
+        else ScalarTransformKernel.bounds(x, y, 0, count, out);
+        return out;
+    }
+
+    /**
+     * Compute the bounding box of interleaved points.
+     * @param xy the interleaved coordinates
+     * @param count the number of points
+     * @param out the result {@code {minX, minY, maxX, maxY}}, inverted infinite bounds when {@code count} is 0
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the array holds fewer than {@code count} points, or {@code out} fewer than 4 values
+     */
+    public static float[] bounds(float[] xy, int count, float[] out) {
+        Objects.checkFromIndexSize(0, 2 * count, xy.length);
+        resetBounds(out);
+        if (Vectorized) VectorTransformKernel.bounds(xy, count, out);
+        else ScalarTransformKernel.bounds(xy, 0, count, out);
+        return out;
+    }
+
+    /**
+     * Compute the bounding box of a {@code b2Vec2} array.
+     * @param points the memory segment of the points
+     * @param count the number of points
+     * @param out the result {@code {minX, minY, maxX, maxY}}, inverted infinite bounds when {@code count} is 0
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the segment holds fewer than {@code count} points, or {@code out} fewer than 4 values
+     */
+    public static float[] bounds(MemorySegment points, int count, float[] out) {
+        Objects.checkFromIndexSize(0, count * b2Vec2.layout().byteSize(), points.byteSize());
+        resetBounds(out);
+        if (Vectorized) VectorTransformKernel.bounds(points, count, out);
+        else ScalarTransformKernel.bounds(points, 0, count, out);
+        return out;
+    }
+
+    private static void resetBounds(float[] out) {
+        Objects.checkFromIndexSize(0, 4, out.length);
+        out[0] = Float.POSITIVE_INFINITY;
+        out[1] = Float.POSITIVE_INFINITY;
+        out[2] = Float.NEGATIVE_INFINITY;
+        out[3] = Float.NEGATIVE_INFINITY;
+    }
+
+    private static void checkSplit(float[] x, float[] y, float[] outX, float[] outY, int count) {
+        Objects.checkFromIndexSize(0, count, x.length);
+        Objects.checkFromIndexSize(0, count, y.length);
+        Objects.checkFromIndexSize(0, count, outX.length);
+        Objects.checkFromIndexSize(0, count, outY.length);
+    }
+
+    private static void checkInterleaved(float[] xy, float[] outXY, int count) {
+        Objects.checkFromIndexSize(0, 2 * count, xy.length);
+        Objects.checkFromIndexSize(0, 2 * count, outXY.length);
+    }
+
+    private static void checkSegment(MemorySegment points, MemorySegment out, int count) {
+        long size = count * b2Vec2.layout().byteSize();
+        Objects.checkFromIndexSize(0, size, points.byteSize());
+        Objects.checkFromIndexSize(0, size, out.byteSize());
+    }
+}
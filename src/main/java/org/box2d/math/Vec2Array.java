@@ -0,0 +1,330 @@
+package org.box2d.math;
+
+import org.box2d.NativeLoader;
+import org.box2d.internal.b2ChainDef;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * Contiguous array of 2D vectors, stored off-heap as one {@link b2Vec2} array segment.
+ * <p>
+ * Point sets can be built once here and handed to native functions taking {@code const b2Vec2*}
+ * (hulls, proxies, chains) without copying each {@link Vec2} into a temporary array.
+ * An owning array grows by doubling in its arena, a view or wrapped segment has a fixed capacity.
+ * Growth moves the data, so segments and views taken earlier keep referring to the old memory.
+ * </p>
+ * Wrapper for native {@link b2Vec2} arrays.
+ */
+public final class Vec2Array {
+    private static final long Stride = b2Vec2.layout().byteSize();
+
+    private final Arena arena;
+    private MemorySegment segment;
+    private int size;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new empty {@link Vec2Array} with the given initial capacity.
+     * @param capacity the number of vectors to reserve
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public Vec2Array(int capacity) {
+        this(Arena.ofAuto(), capacity);
+    }
+
+    /**
+     * Create a new empty {@link Vec2Array} in the given arena, also used when growing.
+     * @param arena the arena to allocate in
+     * @param capacity the number of vectors to reserve
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public Vec2Array(Arena arena, int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        this.arena = arena;
+        this.segment = b2Vec2.allocateArray(Math.max(capacity, 1), arena);
+    }
+
+    /**
+     * Create a new {@link Vec2Array} holding the given interleaved coordinates.
+     * @param xy the interleaved coordinates {@code x0, y0, x1, y1, ...}
+     * @throws IllegalArgumentException if the array length is odd
+     */
+    public Vec2Array(float... xy) {
+        this(xy.length / 2);
+        set(xy);
+    }
+
+    /**
+     * Wrap an existing {@link b2Vec2} array memory segment, with a fixed capacity.
+     * The segment is not owned by this {@link Vec2Array} instance.
+     * @param segment the memory segment to wrap
+     * @param size the number of vectors in use
+     * @throws IndexOutOfBoundsException if the segment holds fewer than {@code size} vectors
+     */
+    public Vec2Array(MemorySegment segment, int size) {
+        Objects.checkFromIndexSize(0, size * Stride, segment.byteSize());
+        this.arena = null;
+        this.segment = segment;
+        this.size = size;
+    }
+
+    /**
+     * Get the number of vectors in this array.
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of vectors this array can hold before growing.
+     * @return the capacity
+     */
+    public int capacity() {
+        return (int) (segment.byteSize() / Stride);
+    }
+
+    /**
+     * Check if this array can grow past its capacity.
+     * @return false for views and wrapped segments
+     */
+    public boolean isGrowable() {
+        return arena != null;
+    }
+
+    /**
+     * Make sure this array can hold the given number of vectors.
+     * @param capacity the required capacity
+     * @return this
+     * @throws IllegalStateException if the array must grow but is not growable
+     */
+    public Vec2Array ensureCapacity(int capacity) {
+        int current = capacity();
+        if (capacity <= current) return this;
+        if (arena == null) throw new IllegalStateException(String.format("Fixed Vec2Array cannot grow from %d to %d", current, capacity));
+        int grown = (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) current << 1, capacity));
+        MemorySegment destination = b2Vec2.allocateArray(grown, arena);
+        MemorySegment.copy(segment, 0L, destination, 0L, size * Stride);
+        segment = destination;
+        return this;
+    }
+
+    /**
+     * Resize this array, new vectors are zeroed.
+     * @param size the new size
+     * @return this
+     * @throws IllegalStateException if the array must grow but is not growable
+     */
+    public Vec2Array resize(int size) {
+        if (size < 0) throw new IllegalArgumentException("Size must not be negative: " + size);
+        ensureCapacity(size);
+        if (size > this.size) segment.asSlice(this.size * Stride, (size - this.size) * Stride).fill((byte) 0);
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Remove every vector, keeping the capacity.
+     * @return this
+     */
+    public Vec2Array clear() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Get the x component of a vector.
+     * @param index the vector index
+     * @return the x component value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float x(int index) {
+        Objects.checkIndex(index, size);
+        return segment.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * index);
+    }
+
+    /**
+     * Get the y component of a vector.
+     * @param index the vector index
+     * @return the y component value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public float y(int index) {
+        Objects.checkIndex(index, size);
+        return segment.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * index + 1);
+    }
+
+    /**
+     * Get a vector of this array.
+     * This returns a wrapper, not a new copy.
+     * @param index the vector index
+     * @return a {@link Vec2} that wrap the vector
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Vec2 get(int index) {
+        Objects.checkIndex(index, size);
+        return new Vec2(b2Vec2.asSlice(segment, index));
+    }
+
+    /**
+     * Set a vector of this array.
+     * @param index the vector index
+     * @param x the x component
+     * @param y the y component
+     * @return this
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Vec2Array set(int index, float x, float y) {
+        Objects.checkIndex(index, size);
+        segment.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * index, x);
+        segment.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * index + 1, y);
+        return this;
+    }
+
+    /**
+     * Append a vector, growing if needed.
+     * @param x the x component
+     * @param y the y component
+     * @return this
+     * @throws IllegalStateException if the array must grow but is not growable
+     */
+    public Vec2Array add(float x, float y) {
+        ensureCapacity(size + 1);
+        segment.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * size, x);
+        segment.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * size + 1, y);
+        size++;
+        return this;
+    }
+
+    /**
+     * Replace the content of this array with the given interleaved coordinates, in one bulk copy.
+     * @param xy the interleaved coordinates {@code x0, y0, x1, y1, ...}
+     * @return this
+     * @throws IllegalArgumentException if the array length is odd
+     * @throws IllegalStateException if the array must grow but is not growable
+     */
+    public Vec2Array set(float[] xy) {
+        if ((xy.length & 1) != 0) throw new IllegalArgumentException("Interleaved coordinates require an even length, got " + xy.length);
+        int count = xy.length / 2;
+        ensureCapacity(count);
+        MemorySegment.copy(xy, 0, segment, ValueLayout.JAVA_FLOAT, 0L, xy.length);
+        size = count;
+        return this;
+    }
+
+    /**
+     * Replace the content of this array with the given split coordinates.
+     * @param x the x coordinates
+     * @param y the y coordinates
+     * @param count the number of vectors
+     * @return this
+     * @throws IndexOutOfBoundsException if an array holds fewer than {@code count} values
+     * @throws IllegalStateException if the array must grow but is not growable
+     */
+    public Vec2Array set(float[] x, float[] y, int count) {
+        Objects.checkFromIndexSize(0, count, x.length);
+        Objects.checkFromIndexSize(0, count, y.length);
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i, x[i]);
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1, y[i]);
+        }
+        size = count;
+        return this;
+    }
+
+    /**
+     * Copy the content of this array into interleaved coordinates, in one bulk copy.
+     * @param out the destination, at least {@code 2 * size()} values
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the destination is too small
+     */
+    public float[] toArray(float[] out) {
+        Objects.checkFromIndexSize(0, 2 * size, out.length);
+        MemorySegment.copy(segment, ValueLayout.JAVA_FLOAT, 0L, out, 0, 2 * size);
+        return out;
+    }
+
+    /**
+     * Copy the content of this array into new interleaved coordinates.
+     * @return the interleaved coordinates
+     */
+    public float[] toArray() {
+        return toArray(new float[2 * size]);
+    }
+
+    /**
+     * Create a view over a range of this array, sharing its memory, with a fixed capacity.
+     * @param from the first vector of the view
+     * @param count the number of vectors of the view
+     * @return a new {@link Vec2Array} view
+     * @throws IndexOutOfBoundsException if the range is out of this array
+     */
+    public Vec2Array view(int from, int count) {
+        Objects.checkFromIndexSize(from, count, size);
+        return new Vec2Array(segment.asSlice(from * Stride, count * Stride), count);
+    }
+
+    /**
+     * Transform every vector of this array in place, see {@link TransformBatch}.
+     * @param transform the transform
+     * @return this
+     */
+    public Vec2Array transform(Transform transform) {
+        TransformBatch.transform(transform, segment, segment, size);
+        return this;
+    }
+
+    /**
+     * Compute the convex hull of this array with {@code b2ComputeHull}, passing the memory directly.
+     * @return the memory segment of the resulting {@code b2Hull}, its {@code count} is 0 when the hull is degenerate
+     * or this array holds more than {@code B2_MAX_POLYGON_VERTICES} points
+     */
+    public MemorySegment computeHull() {
+        return nBox2D.nComputeHull(segment, size);
+    }
+
+    /**
+     * Make a shape proxy of this array with {@code b2MakeProxy}, passing the memory directly.
+     * @param radius the rounding radius of the proxy
+     * @return the memory segment of the resulting {@code b2ShapeProxy}
+     * @throws IllegalStateException if this array holds no point, or more than {@code B2_MAX_POLYGON_VERTICES}
+     */
+    public MemorySegment makeProxy(float radius) {
+        if (size < 1 || size > 8) throw new IllegalStateException("Shape proxy requires 1 to 8 points, got " + size);
+        return nBox2D.nMakeProxy(segment, size, radius);
+    }
+
+    /**
+     * Point the {@code points} and {@code count} of a {@code b2ChainDef} at this array, without copying.
+     * This array must stay reachable, and must not grow, until the chain is created.
+     * @param chainDef the memory segment of the chain definition
+     * @return {@code chainDef}
+     */
+    public MemorySegment toChainDef(MemorySegment chainDef) {
+        b2ChainDef.points(chainDef, segment);
+        b2ChainDef.count(chainDef, size);
+        return chainDef;
+    }
+
+    /**
+     * Get the memory segment of this {@link Vec2Array}, sliced to its size.
+     * @return the underlying {@link b2Vec2} array memory segment
+     */
+    public MemorySegment segment() {
+        return segment.asSlice(0L, size * Stride);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Vec2Array[size=%d, capacity=%d]", size, capacity());
+    }
+}
@@ -0,0 +1,199 @@
+package org.box2d.math;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+/**
+ * Vector API kernels of {@link TransformBatch}, only loaded when {@code jdk.incubator.vector} is available.
+ * <p>
+ * Lanes evaluate the same IEEE operations as {@link ScalarTransformKernel}, so both are bit exact to each other.
+ * Interleaved points are handled as {@code c * v + sign * swap(v)}, where {@code swap} exchanges each x, y pair
+ * and {@code sign} holds {@code -s, s} for a forward rotation. The tails go to the scalar kernel.
+ * </p>
+ */
+final class VectorTransformKernel {
+    private static final VectorSpecies<Float> Species = FloatVector.SPECIES_PREFERRED;
+    private static final VectorShuffle<Float> SwapPairs = VectorShuffle.fromOp(Species, i -> i ^ 1);
+    private static final VectorMask<Float> EvenLanes = VectorMask.fromLong(Species, 0x5555555555555555L);
+    private static final VectorMask<Float> OddLanes = VectorMask.fromLong(Species, 0xAAAAAAAAAAAAAAAAL);
+    private static final ByteOrder Order = ByteOrder.nativeOrder();
+
+    private VectorTransformKernel() {}
+
+    static void transform(float px, float py, float c, float s, float[] x, float[] y, float[] outX, float[] outY, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector vs = FloatVector.broadcast(Species, s);
+        FloatVector vpx = FloatVector.broadcast(Species, px);
+        FloatVector vpy = FloatVector.broadcast(Species, py);
+        int bound = Species.loopBound(count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector vx = FloatVector.fromArray(Species, x, i);
+            FloatVector vy = FloatVector.fromArray(Species, y, i);
+            vc.mul(vx).sub(vs.mul(vy)).add(vpx).intoArray(outX, i);
+            vs.mul(vx).add(vc.mul(vy)).add(vpy).intoArray(outY, i);
+        }
+        ScalarTransformKernel.transform(px, py, c, s, x, y, outX, outY, bound, count);
+    }
+
+    static void transform(float px, float py, float c, float s, float[] xy, float[] outXY, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector sign = FloatVector.broadcast(Species, s).blend(-s, EvenLanes);
+        FloatVector translation = FloatVector.broadcast(Species, px).blend(py, OddLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector v = FloatVector.fromArray(Species, xy, i);
+            vc.mul(v).add(sign.mul(v.rearrange(SwapPairs))).add(translation).intoArray(outXY, i);
+        }
+        ScalarTransformKernel.transform(px, py, c, s, xy, outXY, bound / 2, count);
+    }
+
+    static void transform(float px, float py, float c, float s, MemorySegment points, MemorySegment out, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector sign = FloatVector.broadcast(Species, s).blend(-s, EvenLanes);
+        FloatVector translation = FloatVector.broadcast(Species, px).blend(py, OddLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            long offset = (long) i * Float.BYTES;
+            FloatVector v = FloatVector.fromMemorySegment(Species, points, offset, Order);
+            vc.mul(v).add(sign.mul(v.rearrange(SwapPairs))).add(translation).intoMemorySegment(out, offset, Order);
+        }
+        ScalarTransformKernel.transform(px, py, c, s, points, out, bound / 2, count);
+    }
+
+    static void inverseTransform(float px, float py, float c, float s, float[] x, float[] y, float[] outX, float[] outY, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector vs = FloatVector.broadcast(Species, s);
+        FloatVector vns = FloatVector.broadcast(Species, -s);
+        FloatVector vpx = FloatVector.broadcast(Species, px);
+        FloatVector vpy = FloatVector.broadcast(Species, py);
+        int bound = Species.loopBound(count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector vx = FloatVector.fromArray(Species, x, i).sub(vpx);
+            FloatVector vy = FloatVector.fromArray(Species, y, i).sub(vpy);
+            vc.mul(vx).add(vs.mul(vy)).intoArray(outX, i);
+            vns.mul(vx).add(vc.mul(vy)).intoArray(outY, i);
+        }
+        ScalarTransformKernel.inverseTransform(px, py, c, s, x, y, outX, outY, bound, count);
+    }
+
+    static void inverseTransform(float px, float py, float c, float s, float[] xy, float[] outXY, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector sign = FloatVector.broadcast(Species, -s).blend(s, EvenLanes);
+        FloatVector translation = FloatVector.broadcast(Species, px).blend(py, OddLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector d = FloatVector.fromArray(Species, xy, i).sub(translation);
+            vc.mul(d).add(sign.mul(d.rearrange(SwapPairs))).intoArray(outXY, i);
+        }
+        ScalarTransformKernel.inverseTransform(px, py, c, s, xy, outXY, bound / 2, count);
+    }
+
+    static void inverseTransform(float px, float py, float c, float s, MemorySegment points, MemorySegment out, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector sign = FloatVector.broadcast(Species, -s).blend(s, EvenLanes);
+        FloatVector translation = FloatVector.broadcast(Species, px).blend(py, OddLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            long offset = (long) i * Float.BYTES;
+            FloatVector d = FloatVector.fromMemorySegment(Species, points, offset, Order).sub(translation);
+            vc.mul(d).add(sign.mul(d.rearrange(SwapPairs))).intoMemorySegment(out, offset, Order);
+        }
+        ScalarTransformKernel.inverseTransform(px, py, c, s, points, out, bound / 2, count);
+    }
+
+    static void rotate(float c, float s, float[] x, float[] y, float[] outX, float[] outY, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector vs = FloatVector.broadcast(Species, s);
+        int bound = Species.loopBound(count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector vx = FloatVector.fromArray(Species, x, i);
+            FloatVector vy = FloatVector.fromArray(Species, y, i);
+            vc.mul(vx).sub(vs.mul(vy)).intoArray(outX, i);
+            vs.mul(vx).add(vc.mul(vy)).intoArray(outY, i);
+        }
+        ScalarTransformKernel.rotate(c, s, x, y, outX, outY, bound, count);
+    }
+
+    static void rotate(float c, float s, float[] xy, float[] outXY, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector sign = FloatVector.broadcast(Species, s).blend(-s, EvenLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector v = FloatVector.fromArray(Species, xy, i);
+            vc.mul(v).add(sign.mul(v.rearrange(SwapPairs))).intoArray(outXY, i);
+        }
+        ScalarTransformKernel.rotate(c, s, xy, outXY, bound / 2, count);
+    }
+
+    static void rotate(float c, float s, MemorySegment points, MemorySegment out, int count) {
+        FloatVector vc = FloatVector.broadcast(Species, c);
+        FloatVector sign = FloatVector.broadcast(Species, s).blend(-s, EvenLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            long offset = (long) i * Float.BYTES;
+            FloatVector v = FloatVector.fromMemorySegment(Species, points, offset, Order);
+            vc.mul(v).add(sign.mul(v.rearrange(SwapPairs))).intoMemorySegment(out, offset, Order);
+        }
+        ScalarTransformKernel.rotate(c, s, points, out, bound / 2, count);
+    }
+
+    static void bounds(float[] x, float[] y, int count, float[] bounds) {
+        FloatVector minX = FloatVector.broadcast(Species, bounds[0]);
+        FloatVector minY = FloatVector.broadcast(Species, bounds[1]);
+        FloatVector maxX = FloatVector.broadcast(Species, bounds[2]);
+        FloatVector maxY = FloatVector.broadcast(Species, bounds[3]);
+        int bound = Species.loopBound(count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector vx = FloatVector.fromArray(Species, x, i);
+            FloatVector vy = FloatVector.fromArray(Species, y, i);
+            minX = minX.min(vx);
+            minY = minY.min(vy);
+            maxX = maxX.max(vx);
+            maxY = maxY.max(vy);
+        }
+        bounds[0] = minX.reduceLanes(VectorOperators.MIN);
+        bounds[1] = minY.reduceLanes(VectorOperators.MIN);
+        bounds[2] = maxX.reduceLanes(VectorOperators.MAX);
+        bounds[3] = maxY.reduceLanes(VectorOperators.MAX);
+        ScalarTransformKernel.bounds(x, y, bound, count, bounds);
+    }
+
+    static void bounds(float[] xy, int count, float[] bounds) {
+        FloatVector min = FloatVector.broadcast(Species, bounds[0]).blend(bounds[1], OddLanes);
+        FloatVector max = FloatVector.broadcast(Species, bounds[2]).blend(bounds[3], OddLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector v = FloatVector.fromArray(Species, xy, i);
+            min = min.min(v);
+            max = max.max(v);
+        }
+        reduceInterleaved(min, max, bounds);
+        ScalarTransformKernel.bounds(xy, bound / 2, count, bounds);
+    }
+
+    static void bounds(MemorySegment points, int count, float[] bounds) {
+        FloatVector min = FloatVector.broadcast(Species, bounds[0]).blend(bounds[1], OddLanes);
+        FloatVector max = FloatVector.broadcast(Species, bounds[2]).blend(bounds[3], OddLanes);
+        int bound = Species.loopBound(2 * count);
+        for (int i = 0; i < bound; i += Species.length()) {
+            FloatVector v = FloatVector.fromMemorySegment(Species, points, (long) i * Float.BYTES, Order);
+            min = min.min(v);
+            max = max.max(v);
+        }
+        reduceInterleaved(min, max, bounds);
+        ScalarTransformKernel.bounds(points, bound / 2, count, bounds);
+    }
+
+    private static void reduceInterleaved(FloatVector min, FloatVector max, float[] bounds) {
+        bounds[0] = min.reduceLanes(VectorOperators.MIN, EvenLanes);
+        bounds[1] = min.reduceLanes(VectorOperators.MIN, OddLanes);
+        bounds[2] = max.reduceLanes(VectorOperators.MAX, EvenLanes);
+        bounds[3] = max.reduceLanes(VectorOperators.MAX, OddLanes);
+    }
+}
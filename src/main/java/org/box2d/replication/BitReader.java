@@ -0,0 +1,66 @@
+package org.box2d.replication;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Little endian bit stream reader over a memory segment, the counterpart of {@link BitWriter}.
+ */
+final class BitReader {
+    private MemorySegment segment;
+    private long start;
+    private long offset;
+    private long limit;
+    private long scratch;
+    private int scratchBits;
+
+    void reset(MemorySegment segment, long offset, long limit) {
+        this.segment = segment;
+        start = offset;
+        this.offset = offset;
+        this.limit = limit;
+        scratch = 0L;
+        scratchBits = 0;
+    }
+
+    /**
+     * Read an unsigned value of the given number of bits.
+     * @param bits the number of bits, 0 to 32
+     * @throws IllegalArgumentException if the stream ends first
+     */
+    int read(int bits) {
+        while (scratchBits < bits) {
+            if (offset >= limit) throw new IllegalArgumentException("Truncated snapshot, " + (offset - start) + " bytes");
+            scratch |= (segment.get(ValueLayout.JAVA_BYTE, offset++) & 0xFFL) << scratchBits;
+            scratchBits += 8;
+        }
+        int value = (int) (scratch & ((1L << bits) - 1));
+        scratch >>>= bits;
+        scratchBits -= bits;
+        return value;
+    }
+
+    boolean readBit() {
+        return read(1) != 0;
+    }
+
+    /**
+     * Read a signed value written by {@link BitWriter#writeVarying(int)}.
+     */
+    int readVarying() {
+        int zigzag = switch (read(2)) {
+            case 0 -> 0;
+            case 1 -> read(5);
+            case 2 -> read(12);
+            default -> read(32);
+        };
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Get the number of bytes consumed since the reset, the last partial byte included.
+     */
+    long consumed() {
+        return offset - start;
+    }
+}
@@ -0,0 +1,86 @@
+package org.box2d.replication;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * Little endian bit stream writer into a memory segment, buffering up to 64 bits and storing whole 32 bit words.
+ */
+final class BitWriter {
+    private static final ValueLayout.OfInt Word = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private MemorySegment segment;
+    private long start;
+    private long offset;
+    private long limit;
+    private long scratch;
+    private int scratchBits;
+
+    void reset(MemorySegment segment, long offset, long limit) {
+        this.segment = segment;
+        start = offset;
+        this.offset = offset;
+        this.limit = limit;
+        scratch = 0L;
+        scratchBits = 0;
+    }
+
+    /**
+     * Write the low bits of the value.
+     * @param value the value
+     * @param bits the number of bits, 0 to 32
+     */
+    void write(int value, int bits) {
+        scratch |= (value & ((1L << bits) - 1)) << scratchBits;
+        scratchBits += bits;
+        if (scratchBits >= 32) {
+            if (offset + Integer.BYTES > limit) throw overflow();
+            segment.set(Word, offset, (int) scratch);
+            offset += Integer.BYTES;
+            scratch >>>= 32;
+            scratchBits -= 32;
+        }
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Write a signed value in a size class, 2 bits then 0, 5, 12 or 32 bits of its zigzag encoding.
+     * Small deltas, the common case, take 2 or 7 bits.
+     */
+    void writeVarying(int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        if (zigzag == 0) {
+            write(0, 2);
+        } else if ((zigzag >>> 5) == 0) {
+            write(1 | zigzag << 2, 7);
+        } else if ((zigzag >>> 12) == 0) {
+            write(2 | zigzag << 2, 14);
+        } else {
+            write(3, 2);
+            write(zigzag, 32);
+        }
+    }
+
+    /**
+     * Flush the buffered bits, padding the last byte with zeros.
+     * @return the number of bytes written since the reset
+     */
+    long finish() {
+        while (scratchBits > 0) {
+            if (offset >= limit) throw overflow();
+            segment.set(ValueLayout.JAVA_BYTE, offset++, (byte) scratch);
+            scratch >>>= 8;
+            scratchBits -= 8;
+        }
+        scratchBits = 0;
+        return offset - start;
+    }
+
+    private IndexOutOfBoundsException overflow() {
+        return new IndexOutOfBoundsException("Snapshot does not fit in " + (limit - start) + " bytes");
+    }
+}
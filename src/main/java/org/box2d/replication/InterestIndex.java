@@ -0,0 +1,424 @@
+package org.box2d.replication;
+
+import org.box2d.NativeLoader;
+import org.box2d.dynamics.BodyId;
+import org.box2d.dynamics.World;
+import org.box2d.internal.b2AABB;
+import org.box2d.internal.b2BodyEvents;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2BodyMoveEvent;
+import org.box2d.internal.b2DynamicTree;
+import org.box2d.internal.b2TreeQueryCallbackFcn;
+import org.box2d.internal.b2TreeStats;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Area of interest index deciding which bodies each client receives, with the bodies kept as proxies of a
+ * {@link b2DynamicTree} and every client as a {@link View} rectangle.
+ * <p>
+ * Bodies are identified by their index, the low part of their {@link BodyId}, as in {@link SnapshotEncoder}.
+ * Each proxy holds a box enlarged by the margin, and only moves in the tree once its body leaves that box, so small
+ * motions cost no tree update. {@link #update()} queries the tree once per view, keeps the bodies whose own bounds
+ * overlap the view, and diffs the sorted result against the one of the last update into the bodies that entered
+ * and left it. Views are processed in parallel, as tree queries only read the tree.
+ * </p>
+ * <p>
+ * Moving bodies and views, and updating, must not overlap. Read a view's sets between updates.
+ * </p>
+ */
+public final class InterestIndex implements AutoCloseable {
+    // Below this many views, the update stays on the calling thread.
+    private static final int ParallelThreshold = 8;
+
+    private static final long LowerX = b2AABB.lowerBound$offset() + b2Vec2.x$offset();
+    private static final long LowerY = b2AABB.lowerBound$offset() + b2Vec2.y$offset();
+    private static final long UpperX = b2AABB.upperBound$offset() + b2Vec2.x$offset();
+    private static final long UpperY = b2AABB.upperBound$offset() + b2Vec2.y$offset();
+    private static final long EventSize = b2BodyMoveEvent.layout().byteSize();
+    private static final long EventIndex = b2BodyMoveEvent.bodyId$offset() + b2BodyId.index1$offset();
+    private static final long EventX = b2BodyMoveEvent.transform$offset() + b2Transform.p$offset() + b2Vec2.x$offset();
+    private static final long EventY = b2BodyMoveEvent.transform$offset() + b2Transform.p$offset() + b2Vec2.y$offset();
+
+    private final float margin;
+    private final MemorySegment tree;
+    private final MemorySegment aabb;
+    private final MemorySegment queryFcn;
+    private final SegmentAllocator eventsAllocator;
+
+    // Per body index: tree proxy or -1, bounds center and radius, enlarged box of the proxy.
+    private int[] proxies = new int[64];
+    private float[] xs = new float[64];
+    private float[] ys = new float[64];
+    private float[] radii = new float[64];
+    private float[] fatLowerX = new float[64];
+    private float[] fatLowerY = new float[64];
+    private float[] fatUpperX = new float[64];
+    private float[] fatUpperY = new float[64];
+    private int bodyCount;
+    private long proxyMoves;
+
+    private View[] views = new View[8];
+    private int viewCount;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new empty {@link InterestIndex}.
+     * @param margin the distance a body moves before its proxy moves in the tree
+     * @throws IllegalArgumentException if the margin is negative
+     */
+    public InterestIndex(float margin) {
+        if (!(margin >= 0.0f)) throw new IllegalArgumentException("Margin must not be negative, got " + margin);
+        this.margin = margin;
+        Arena arena = Arena.ofAuto();
+        tree = nBox2D.nDynamicTreeCreate(arena);
+        aabb = arena.allocate(b2AABB.layout());
+        queryFcn = b2TreeQueryCallbackFcn.allocate(this::onQuery, arena);
+        MemorySegment events = arena.allocate(b2BodyEvents.layout());
+        eventsAllocator = (byteSize, byteAlignment) -> events;
+        Arrays.fill(proxies, -1);
+    }
+
+    /**
+     * Add a body, or move it, as a circle bounding its shapes.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @param x the bounds center x coordinate
+     * @param y the bounds center y coordinate
+     * @param radius the bounds radius
+     * @return this
+     */
+    public InterestIndex put(long bodyId, float x, float y, float radius) {
+        set(BodyId.index1(bodyId) - 1, x, y, radius);
+        return this;
+    }
+
+    /**
+     * Move the bodies reported by the body move events of the last step of the given world,
+     * adding the ones not in the index yet with the given radius.
+     * @param world the world, stepped since the last capture
+     * @param radius the bounds radius of new bodies
+     * @return the number of move events read
+     * @throws IllegalStateException if the world is stepping
+     */
+    public int capture(World world, float radius) {
+        if (world.isStepping()) throw new IllegalStateException("World is stepping, wait for the step to complete");
+        MemorySegment events = nBox2D.nWorldGetBodyEvents(eventsAllocator, world.segment());
+        int count = b2BodyEvents.moveCount(events);
+        if (count == 0) return 0;
+        MemorySegment moves = b2BodyEvents.moveEvents(events).reinterpret(count * EventSize);
+        for (int i = 0; i < count; i++) {
+            long offset = i * EventSize;
+            int index = moves.get(ValueLayout.JAVA_INT, offset + EventIndex) - 1;
+            float r = index < proxies.length && proxies[index] >= 0 ? radii[index] : radius;
+            set(index, moves.get(ValueLayout.JAVA_FLOAT, offset + EventX), moves.get(ValueLayout.JAVA_FLOAT, offset + EventY), r);
+        }
+        return count;
+    }
+
+    private void set(int index, float x, float y, float radius) {
+        if (index >= proxies.length) grow(index + 1);
+        xs[index] = x;
+        ys[index] = y;
+        radii[index] = radius;
+        int proxy = proxies[index];
+        if (proxy >= 0 && x - radius >= fatLowerX[index] && y - radius >= fatLowerY[index]
+                && x + radius <= fatUpperX[index] && y + radius <= fatUpperY[index]) {
+            return;
+        }
+        float extent = radius + margin;
+        fatLowerX[index] = x - extent;
+        fatLowerY[index] = y - extent;
+        fatUpperX[index] = x + extent;
+        fatUpperY[index] = y + extent;
+        setAABB(aabb, fatLowerX[index], fatLowerY[index], fatUpperX[index], fatUpperY[index]);
+        if (proxy < 0) {
+            proxies[index] = nBox2D.nDynamicTreeCreateProxy(tree, aabb, 1L, index);
+            bodyCount++;
+        } else {
+            nBox2D.nDynamicTreeMoveProxy(tree, proxy, aabb);
+            proxyMoves++;
+        }
+    }
+
+    /**
+     * Remove a body, e.g. when it is destroyed. Views still holding it report it as left on the next update.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @return true if the body was in the index
+     */
+    public boolean remove(long bodyId) {
+        int index = BodyId.index1(bodyId) - 1;
+        if (index >= proxies.length || proxies[index] < 0) return false;
+        nBox2D.nDynamicTreeDestroyProxy(tree, proxies[index]);
+        proxies[index] = -1;
+        bodyCount--;
+        return true;
+    }
+
+    private void grow(int capacity) {
+        int grown = Math.max(capacity, proxies.length * 2);
+        int old = proxies.length;
+        proxies = Arrays.copyOf(proxies, grown);
+        Arrays.fill(proxies, old, grown, -1);
+        xs = Arrays.copyOf(xs, grown);
+        ys = Arrays.copyOf(ys, grown);
+        radii = Arrays.copyOf(radii, grown);
+        fatLowerX = Arrays.copyOf(fatLowerX, grown);
+        fatLowerY = Arrays.copyOf(fatLowerY, grown);
+        fatUpperX = Arrays.copyOf(fatUpperX, grown);
+        fatUpperY = Arrays.copyOf(fatUpperY, grown);
+    }
+
+    private static void setAABB(MemorySegment aabb, float lowerX, float lowerY, float upperX, float upperY) {
+        aabb.set(ValueLayout.JAVA_FLOAT, LowerX, lowerX);
+        aabb.set(ValueLayout.JAVA_FLOAT, LowerY, lowerY);
+        aabb.set(ValueLayout.JAVA_FLOAT, UpperX, upperX);
+        aabb.set(ValueLayout.JAVA_FLOAT, UpperY, upperY);
+    }
+
+    /**
+     * Create a new view, empty until its rectangle is set and the next update.
+     * @return the view
+     */
+    public View view() {
+        if (viewCount == views.length) views = Arrays.copyOf(views, viewCount * 2);
+        View view = new View(viewCount);
+        views[viewCount++] = view;
+        return view;
+    }
+
+    /**
+     * Remove a view, e.g. when its client disconnects.
+     * @param view the view
+     * @return true if the view belonged to this index
+     */
+    public boolean removeView(View view) {
+        int index = view.index;
+        if (index < 0 || index >= viewCount || views[index] != view) return false;
+        View last = views[--viewCount];
+        views[index] = last;
+        last.index = index;
+        views[viewCount] = null;
+        view.index = -1;
+        return true;
+    }
+
+    /**
+     * Query every view and compute the bodies that entered and left it since the last update.
+     */
+    public void update() {
+        if (viewCount < ParallelThreshold) {
+            for (int i = 0; i < viewCount; i++) views[i].refresh();
+        } else {
+            IntStream.range(0, viewCount).parallel().forEach(i -> views[i].refresh());
+        }
+    }
+
+    // Called on the thread querying the view, the context carries the view index.
+    private boolean onQuery(int proxyId, long userData, MemorySegment context) {
+        View view = views[(int) context.address()];
+        int index = (int) userData;
+        float radius = radii[index];
+        if (xs[index] + radius < view.lowerX || xs[index] - radius > view.upperX
+                || ys[index] + radius < view.lowerY || ys[index] - radius > view.upperY) {
+            return true;
+        }
+        view.add(index);
+        return true;
+    }
+
+    /**
+     * Get the number of bodies in the index.
+     * @return the body count
+     */
+    public int bodyCount() {
+        return bodyCount;
+    }
+
+    /**
+     * Get the number of views.
+     * @return the view count
+     */
+    public int viewCount() {
+        return viewCount;
+    }
+
+    /**
+     * Get the number of proxy moves in the tree so far, each a body leaving its enlarged box.
+     * @return the move count
+     */
+    public long proxyMoves() {
+        return proxyMoves;
+    }
+
+    /**
+     * Release the native tree.
+     */
+    @Override
+    public void close() {
+        nBox2D.nDynamicTreeDestroy(tree);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InterestIndex[bodies=%d, views=%d, margin=%.3f]", bodyCount, viewCount, margin);
+    }
+
+    /**
+     * Rectangle of interest of a client, with the bodies it sees and the changes of the last update,
+     * each as body indices in ascending order.
+     */
+    public final class View {
+        private final MemorySegment aabb;
+        private final SegmentAllocator statsAllocator;
+        private int index;
+        private float lowerX, lowerY, upperX, upperY;
+        private boolean empty = true;
+        private int[] visible = new int[16];
+        private int visibleCount;
+        private int[] next = new int[16];
+        private int nextCount;
+        private int[] entered = new int[16];
+        private int enteredCount;
+        private int[] left = new int[16];
+        private int leftCount;
+
+        private View(int index) {
+            this.index = index;
+            Arena arena = Arena.ofAuto();
+            aabb = arena.allocate(b2AABB.layout());
+            MemorySegment stats = arena.allocate(b2TreeStats.layout());
+            statsAllocator = (byteSize, byteAlignment) -> stats;
+        }
+
+        /**
+         * Set the rectangle of this view, used from the next update.
+         * @param lowerX the lower bound x coordinate
+         * @param lowerY the lower bound y coordinate
+         * @param upperX the upper bound x coordinate
+         * @param upperY the upper bound y coordinate
+         * @return this
+         */
+        public View set(float lowerX, float lowerY, float upperX, float upperY) {
+            this.lowerX = lowerX;
+            this.lowerY = lowerY;
+            this.upperX = upperX;
+            this.upperY = upperY;
+            empty = false;
+            setAABB(aabb, lowerX, lowerY, upperX, upperY);
+            return this;
+        }
+
+        private void refresh() {
+            nextCount = 0;
+            if (!empty) nBox2D.nDynamicTreeQuery(statsAllocator, tree, aabb, -1L, queryFcn, MemorySegment.ofAddress(index));
+            Arrays.sort(next, 0, nextCount);
+
+            // Merge the sorted results of the last and this update.
+            enteredCount = 0;
+            leftCount = 0;
+            int i = 0, j = 0;
+            while (i < visibleCount || j < nextCount) {
+                if (j == nextCount || (i < visibleCount && visible[i] < next[j])) {
+                    if (leftCount == left.length) left = Arrays.copyOf(left, leftCount * 2);
+                    left[leftCount++] = visible[i++];
+                } else if (i == visibleCount || next[j] < visible[i]) {
+                    if (enteredCount == entered.length) entered = Arrays.copyOf(entered, enteredCount * 2);
+                    entered[enteredCount++] = next[j++];
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            int[] swap = visible;
+            visible = next;
+            visibleCount = nextCount;
+            next = swap;
+        }
+
+        private void add(int body) {
+            if (nextCount == next.length) next = Arrays.copyOf(next, nextCount * 2);
+            next[nextCount++] = body;
+        }
+
+        /**
+         * Get the number of bodies in this view after the last update.
+         * @return the visible body count
+         */
+        public int visibleCount() {
+            return visibleCount;
+        }
+
+        /**
+         * Get a body in this view after the last update.
+         * @param i the position, 0 to {@link #visibleCount()} exclusive
+         * @return the body index
+         * @throws IndexOutOfBoundsException if the position is out of range
+         */
+        public int visible(int i) {
+            return visible[Objects.checkIndex(i, visibleCount)];
+        }
+
+        /**
+         * Check if a body was in this view after the last update.
+         * @param body the body index
+         * @return true if visible
+         */
+        public boolean contains(int body) {
+            return Arrays.binarySearch(visible, 0, visibleCount, body) >= 0;
+        }
+
+        /**
+         * Get the number of bodies that entered this view during the last update.
+         * @return the entered body count
+         */
+        public int enteredCount() {
+            return enteredCount;
+        }
+
+        /**
+         * Get a body that entered this view during the last update.
+         * @param i the position, 0 to {@link #enteredCount()} exclusive
+         * @return the body index
+         * @throws IndexOutOfBoundsException if the position is out of range
+         */
+        public int entered(int i) {
+            return entered[Objects.checkIndex(i, enteredCount)];
+        }
+
+        /**
+         * Get the number of bodies that left this view during the last update, removed bodies included.
+         * @return the left body count
+         */
+        public int leftCount() {
+            return leftCount;
+        }
+
+        /**
+         * Get a body that left this view during the last update.
+         * @param i the position, 0 to {@link #leftCount()} exclusive
+         * @return the body index
+         * @throws IndexOutOfBoundsException if the position is out of range
+         */
+        public int left(int i) {
+            return left[Objects.checkIndex(i, leftCount)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("View[(%.3f, %.3f)-(%.3f, %.3f), visible=%d, entered=%d, left=%d]",
+                    lowerX, lowerY, upperX, upperY, visibleCount, enteredCount, leftCount);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.box2d.replication;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Decoder of the snapshots written by {@link SnapshotEncoder}, on the client side.
+ * <p>
+ * The decoder keeps the states of the sequences it received as baselines for the next ones. After decoding a
+ * sequence, acknowledge it to the server, which then encodes against it. The quantization settings and the history
+ * size must match the encoder's. Decoding does not allocate once the body arrays reached the world size, decoding
+ * from a buffer only allocates when given a different buffer than last time.
+ * A decoder is not thread safe.
+ * </p>
+ */
+public final class SnapshotDecoder {
+    private final float positionPrecision;
+    private final int angleBits;
+    private final double angleStep;
+    private final SnapshotFrames frames;
+    private final BitReader reader = new BitReader();
+    private int current = -1;
+    private int[] changed = new int[64];
+    private int changedCount;
+    // Whole view of the last buffer decoded from, reused while callers keep passing the same buffer.
+    private ByteBuffer buffer;
+    private MemorySegment bufferSegment;
+
+    /**
+     * Create a new {@link SnapshotDecoder} keeping {@value SnapshotEncoder#DefaultHistorySize} sequences.
+     * @param positionPrecision the position quantization step of the encoder, in meters
+     * @param angleBits the number of bits of a quantized angle of the encoder
+     * @throws IllegalArgumentException if the precision or the angle bits are out of range
+     */
+    public SnapshotDecoder(float positionPrecision, int angleBits) {
+        this(positionPrecision, angleBits, SnapshotEncoder.DefaultHistorySize);
+    }
+
+    /**
+     * Create a new {@link SnapshotDecoder}.
+     * @param positionPrecision the position quantization step of the encoder, in meters
+     * @param angleBits the number of bits of a quantized angle of the encoder
+     * @param historySize the number of sequences kept as baselines, at least 2
+     * @throws IllegalArgumentException if the precision, the angle bits or the history size are out of range
+     */
+    public SnapshotDecoder(float positionPrecision, int angleBits, int historySize) {
+        if (!(positionPrecision > 0.0f)) throw new IllegalArgumentException("Position precision must be positive, got " + positionPrecision);
+        if (angleBits < 4 || angleBits > 24) throw new IllegalArgumentException("Angle bits must be within [4, 24], got " + angleBits);
+        this.positionPrecision = positionPrecision;
+        this.angleBits = angleBits;
+        angleStep = 2.0 * Math.PI / (1 << angleBits);
+        frames = new SnapshotFrames(historySize, 64);
+    }
+
+    /**
+     * Decode a snapshot from the start of the given segment up to its end.
+     * @param in the segment to read
+     * @return the sequence decoded
+     * @throws IllegalStateException if the snapshot's baseline is no longer held
+     * @throws IllegalArgumentException if the snapshot is truncated
+     */
+    public int decode(MemorySegment in) {
+        return decode(in, 0L, in.byteSize());
+    }
+
+    private int decode(MemorySegment in, long offset, long limit) {
+        reader.reset(in, offset, limit);
+        int sequence = reader.read(32);
+        int baseline = reader.read(32);
+        int base = frames.find(baseline);
+        if (baseline != SnapshotEncoder.NoBaseline && base < 0) {
+            throw new IllegalStateException("Baseline " + baseline + " of sequence " + sequence + " is no longer held");
+        }
+        int slot = frames.slot(sequence);
+        if (slot == base && baseline != sequence) {
+            throw new IllegalStateException("Sequence " + sequence + " would overwrite its baseline " + baseline + ", history too short");
+        }
+        frames.copy(base, slot);
+        frames.sequences[slot] = sequence;
+
+        int shift = 32 - angleBits;
+        int mask = (1 << angleBits) - 1;
+        int index = -1;
+        changedCount = 0;
+        while (reader.readBit()) {
+            index += reader.readVarying() + 1;
+            if (index >= frames.capacity()) frames.ensureCapacity(index + 1);
+            if (changedCount == changed.length) changed = Arrays.copyOf(changed, changedCount * 2);
+            changed[changedCount++] = index;
+            byte[] flags = frames.flags[slot];
+            boolean present = index < frames.extents[slot] && (flags[index] & SnapshotFrames.Present) != 0;
+            if (reader.readBit()) {
+                if (present) flags[index] = 0;
+                continue;
+            }
+            boolean asleep = reader.readBit();
+            int bx = present ? frames.xs[slot][index] : 0;
+            int by = present ? frames.ys[slot][index] : 0;
+            int ba = present ? frames.angles[slot][index] : 0;
+            frames.xs[slot][index] = bx + reader.readVarying();
+            frames.ys[slot][index] = by + reader.readVarying();
+            frames.angles[slot][index] = (ba + (reader.readVarying() << shift >> shift)) & mask;
+            flags[index] = asleep ? SnapshotFrames.Present | SnapshotFrames.Asleep : SnapshotFrames.Present;
+            if (index >= frames.extents[slot]) {
+                // Entries between the old extent and this one may hold stale data of an older frame.
+                Arrays.fill(flags, frames.extents[slot], index, (byte) 0);
+                frames.extents[slot] = index + 1;
+            }
+        }
+        current = slot;
+        return sequence;
+    }
+
+    /**
+     * Decode a snapshot from the given buffer, between its position and its limit, then advance it past the snapshot.
+     * @param in the buffer to read
+     * @return the sequence decoded
+     * @throws IllegalStateException if the snapshot's baseline is no longer held
+     * @throws IllegalArgumentException if the snapshot is truncated
+     * @see #decode(MemorySegment)
+     */
+    public int decode(ByteBuffer in) {
+        if (in != buffer) {
+            bufferSegment = MemorySegment.ofBuffer(in.duplicate().clear());
+            buffer = in;
+        }
+        int sequence = decode(bufferSegment, in.position(), in.limit());
+        in.position(in.position() + (int) reader.consumed());
+        return sequence;
+    }
+
+    /**
+     * Get the last decoded sequence.
+     * @return the sequence number, -1 before the first decode
+     */
+    public int sequence() {
+        return current < 0 ? -1 : frames.sequences[current];
+    }
+
+    /**
+     * Get one past the highest body index the last decoded sequence may hold.
+     * @return the index extent
+     */
+    public int extent() {
+        return current < 0 ? 0 : frames.extents[current];
+    }
+
+    /**
+     * Check if the last decoded sequence holds the body of the given index.
+     * @param index the body index, {@code BodyId.index1(id) - 1}
+     * @return true if present
+     */
+    public boolean contains(int index) {
+        return index >= 0 && index < extent() && (frames.flags[current][index] & SnapshotFrames.Present) != 0;
+    }
+
+    /**
+     * Check if the body of the given index was asleep in the last decoded sequence.
+     * @param index the body index
+     * @return true if present and asleep
+     */
+    public boolean isAsleep(int index) {
+        return contains(index) && (frames.flags[current][index] & SnapshotFrames.Asleep) != 0;
+    }
+
+    /**
+     * Get the dequantized x coordinate of a body in the last decoded sequence.
+     * @param index the body index, which must be present
+     * @return the x coordinate value
+     */
+    public float x(int index) {
+        return frames.xs[current][index] * positionPrecision;
+    }
+
+    /**
+     * Get the dequantized y coordinate of a body in the last decoded sequence.
+     * @param index the body index, which must be present
+     * @return the y coordinate value
+     */
+    public float y(int index) {
+        return frames.ys[current][index] * positionPrecision;
+    }
+
+    /**
+     * Get the dequantized angle of a body in the last decoded sequence.
+     * @param index the body index, which must be present
+     * @return the angle in radians, within {@code [-pi, pi)}
+     */
+    public float angle(int index) {
+        int quantized = frames.angles[current][index] << (32 - angleBits) >> (32 - angleBits);
+        return (float) (quantized * angleStep);
+    }
+
+    /**
+     * Get the number of bodies updated or removed by the last decode.
+     * @return the changed body count
+     */
+    public int changedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Get the index of a body updated or removed by the last decode, in ascending order.
+     * @param i the position in the changes, 0 to {@link #changedCount()} exclusive
+     * @return the body index
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public int changedIndex(int i) {
+        return changed[Objects.checkIndex(i, changedCount)];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnapshotDecoder[sequence=%d, precision=%.6f, angleBits=%d, changed=%d]", sequence(), positionPrecision, angleBits, changedCount);
+    }
+}
@@ -0,0 +1,311 @@
+package org.box2d.replication;
+
+import org.box2d.NativeLoader;
+import org.box2d.dynamics.BodyId;
+import org.box2d.dynamics.World;
+import org.box2d.internal.b2BodyEvents;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2BodyMoveEvent;
+import org.box2d.internal.b2Rot;
+import org.box2d.internal.b2Transform;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encoder of body transform snapshots into a compact bit stream, delta encoded against the snapshot a client last
+ * acknowledged, decoded by {@link SnapshotDecoder}.
+ * <p>
+ * Each frame, {@link #capture(World)} reads the {@code b2BodyMoveEvent}s of the last step, so sleeping bodies cost
+ * nothing, and quantizes their position to the configured precision and their angle to the configured number of bits.
+ * {@link #commit()} then seals the frame as the next sequence, kept in a history of recent sequences.
+ * {@link #encode(int, MemorySegment)} writes, for one client, only the bodies whose quantized state differs from the
+ * sequence that client acknowledged: a body at rest since then, asleep or not, is skipped. Deltas are written in
+ * 2 to 34 bits per component, a handful of bits for the small motions of a frame or two. A body is identified by its
+ * index, the low part of its {@link BodyId}.
+ * </p>
+ * <p>
+ * Capturing, committing and encoding do not allocate once the body arrays reached the world size, encoding into
+ * a buffer only allocates when given a different buffer than last time.
+ * An encoder is not thread safe, but a committed sequence may be encoded for every client from one thread.
+ * </p>
+ */
+public final class SnapshotEncoder {
+    /**
+     * Baseline of a client that acknowledged nothing yet, or whose baseline left the history: every body is sent.
+     */
+    public static final int NoBaseline = -1;
+    /**
+     * Number of sequences kept as baselines by default.
+     */
+    public static final int DefaultHistorySize = 32;
+
+    private static final long EventSize = b2BodyMoveEvent.layout().byteSize();
+    private static final long EventIndex = b2BodyMoveEvent.bodyId$offset() + b2BodyId.index1$offset();
+    private static final long EventX = b2BodyMoveEvent.transform$offset() + b2Transform.p$offset() + b2Vec2.x$offset();
+    private static final long EventY = b2BodyMoveEvent.transform$offset() + b2Transform.p$offset() + b2Vec2.y$offset();
+    private static final long EventCosine = b2BodyMoveEvent.transform$offset() + b2Transform.q$offset() + b2Rot.c$offset();
+    private static final long EventSine = b2BodyMoveEvent.transform$offset() + b2Transform.q$offset() + b2Rot.s$offset();
+    private static final long EventFellAsleep = b2BodyMoveEvent.fellAsleep$offset();
+
+    private final float positionPrecision;
+    private final float inversePrecision;
+    private final int angleBits;
+    private final double angleScale;
+    private final SnapshotFrames frames;
+    private final BitWriter writer = new BitWriter();
+    private final SegmentAllocator eventsAllocator;
+    // Whole view of the last buffer encoded into, reused while callers keep passing the same buffer.
+    private ByteBuffer buffer;
+    private MemorySegment bufferSegment;
+
+    // The frame being captured.
+    private int[] xs;
+    private int[] ys;
+    private int[] angles;
+    private byte[] flags;
+    private int extent;
+    private int sequence = -1;
+    private int lastBodyCount;
+
+    static {
+        if (!NativeLoader.isLoaded()) NativeLoader.load();
+    }
+
+    /**
+     * Create a new {@link SnapshotEncoder} keeping {@value #DefaultHistorySize} sequences.
+     * @param positionPrecision the position quantization step, in meters, e.g. {@code 1/512}
+     * @param angleBits the number of bits of a quantized angle, 4 to 24
+     * @throws IllegalArgumentException if the precision or the angle bits are out of range
+     */
+    public SnapshotEncoder(float positionPrecision, int angleBits) {
+        this(positionPrecision, angleBits, DefaultHistorySize);
+    }
+
+    /**
+     * Create a new {@link SnapshotEncoder}.
+     * @param positionPrecision the position quantization step, in meters, e.g. {@code 1/512}
+     * @param angleBits the number of bits of a quantized angle, 4 to 24
+     * @param historySize the number of sequences kept as baselines, at least 2
+     * @throws IllegalArgumentException if the precision, the angle bits or the history size are out of range
+     */
+    public SnapshotEncoder(float positionPrecision, int angleBits, int historySize) {
+        if (!(positionPrecision > 0.0f)) throw new IllegalArgumentException("Position precision must be positive, got " + positionPrecision);
+        if (angleBits < 4 || angleBits > 24) throw new IllegalArgumentException("Angle bits must be within [4, 24], got " + angleBits);
+        this.positionPrecision = positionPrecision;
+        inversePrecision = 1.0f / positionPrecision;
+        this.angleBits = angleBits;
+        angleScale = (1 << angleBits) / (2.0 * Math.PI);
+        frames = new SnapshotFrames(historySize, 64);
+        xs = new int[64];
+        ys = new int[64];
+        angles = new int[64];
+        flags = new byte[64];
+        MemorySegment events = Arena.ofAuto().allocate(b2BodyEvents.layout());
+        eventsAllocator = (byteSize, byteAlignment) -> events;
+    }
+
+    /**
+     * Update the frame being captured from the body move events of the last step of the given world.
+     * @param world the world, stepped since the last capture
+     * @return the number of move events read
+     * @throws IllegalStateException if the world is stepping
+     */
+    public int capture(World world) {
+        if (world.isStepping()) throw new IllegalStateException("World is stepping, wait for the step to complete");
+        MemorySegment events = nBox2D.nWorldGetBodyEvents(eventsAllocator, world.segment());
+        int count = b2BodyEvents.moveCount(events);
+        if (count == 0) return 0;
+        MemorySegment moves = b2BodyEvents.moveEvents(events).reinterpret(count * EventSize);
+        for (int i = 0; i < count; i++) {
+            long offset = i * EventSize;
+            double angle = Math.atan2(moves.get(ValueLayout.JAVA_FLOAT, offset + EventSine), moves.get(ValueLayout.JAVA_FLOAT, offset + EventCosine));
+            set(moves.get(ValueLayout.JAVA_INT, offset + EventIndex) - 1,
+                    moves.get(ValueLayout.JAVA_FLOAT, offset + EventX), moves.get(ValueLayout.JAVA_FLOAT, offset + EventY),
+                    angle, moves.get(ValueLayout.JAVA_BOOLEAN, offset + EventFellAsleep));
+        }
+        return count;
+    }
+
+    /**
+     * Set the state of a body in the frame being captured, e.g. a body created asleep that never moves.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @param x the position x coordinate
+     * @param y the position y coordinate
+     * @param angle the rotation angle in radians
+     * @param asleep true if the body is asleep
+     * @return this
+     */
+    public SnapshotEncoder put(long bodyId, float x, float y, float angle, boolean asleep) {
+        set(BodyId.index1(bodyId) - 1, x, y, angle, asleep);
+        return this;
+    }
+
+    /**
+     * Remove a destroyed body from the frame being captured.
+     * @param bodyId the packed body id, as in {@link BodyId}
+     * @return this
+     */
+    public SnapshotEncoder remove(long bodyId) {
+        int index = BodyId.index1(bodyId) - 1;
+        if (index < extent) flags[index] = 0;
+        return this;
+    }
+
+    private void set(int index, float x, float y, double angle, boolean asleep) {
+        if (index >= flags.length) grow(index + 1);
+        xs[index] = Math.round(x * inversePrecision);
+        ys[index] = Math.round(y * inversePrecision);
+        angles[index] = (int) Math.round(angle * angleScale) & ((1 << angleBits) - 1);
+        flags[index] = asleep ? SnapshotFrames.Present | SnapshotFrames.Asleep : SnapshotFrames.Present;
+        if (index >= extent) extent = index + 1;
+    }
+
+    private void grow(int capacity) {
+        int grown = Math.max(capacity, flags.length * 2);
+        xs = Arrays.copyOf(xs, grown);
+        ys = Arrays.copyOf(ys, grown);
+        angles = Arrays.copyOf(angles, grown);
+        flags = Arrays.copyOf(flags, grown);
+    }
+
+    /**
+     * Seal the frame being captured as the next sequence. The next frame starts from it.
+     * @return the sequence number
+     */
+    public int commit() {
+        sequence++;
+        int slot = frames.slot(sequence);
+        frames.ensureCapacity(flags.length);
+        System.arraycopy(xs, 0, frames.xs[slot], 0, extent);
+        System.arraycopy(ys, 0, frames.ys[slot], 0, extent);
+        System.arraycopy(angles, 0, frames.angles[slot], 0, extent);
+        System.arraycopy(flags, 0, frames.flags[slot], 0, extent);
+        frames.extents[slot] = extent;
+        frames.sequences[slot] = sequence;
+        return sequence;
+    }
+
+    /**
+     * Encode the last committed sequence for a client into the given segment, from its start.
+     * @param baseline the last sequence acknowledged by the client, or {@link #NoBaseline}
+     * @param out the segment to write into
+     * @return the number of bytes written
+     * @throws IllegalStateException if nothing was committed yet
+     * @throws IndexOutOfBoundsException if the segment is too small
+     */
+    public long encode(int baseline, MemorySegment out) {
+        return encode(baseline, out, 0L, out.byteSize());
+    }
+
+    private long encode(int baseline, MemorySegment out, long offset, long limit) {
+        int current = frames.find(sequence);
+        if (current < 0) throw new IllegalStateException("No sequence committed yet");
+        // A baseline out of the history is as good as none.
+        int base = baseline > sequence ? -1 : frames.find(baseline);
+        writer.reset(out, offset, limit);
+        writer.write(sequence, 32);
+        writer.write(base < 0 ? NoBaseline : baseline, 32);
+
+        int[] cx = frames.xs[current], cy = frames.ys[current], ca = frames.angles[current];
+        byte[] cf = frames.flags[current];
+        int end = frames.extents[current];
+        if (base >= 0) end = Math.max(end, frames.extents[base]);
+        int shift = 32 - angleBits;
+        int previous = -1;
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            byte flag = i < frames.extents[current] ? cf[i] : 0;
+            byte baseFlag = base < 0 || i >= frames.extents[base] ? 0 : frames.flags[base][i];
+            if ((flag & SnapshotFrames.Present) == 0) {
+                if ((baseFlag & SnapshotFrames.Present) == 0) continue;
+                writer.writeBit(true);
+                writer.writeVarying(i - previous - 1);
+                writer.writeBit(true);
+            } else {
+                int bx = 0, by = 0, ba = 0;
+                if ((baseFlag & SnapshotFrames.Present) != 0) {
+                    bx = frames.xs[base][i];
+                    by = frames.ys[base][i];
+                    ba = frames.angles[base][i];
+                    if (baseFlag == flag && bx == cx[i] && by == cy[i] && ba == ca[i]) continue;
+                }
+                writer.writeBit(true);
+                writer.writeVarying(i - previous - 1);
+                writer.writeBit(false);
+                writer.writeBit((flag & SnapshotFrames.Asleep) != 0);
+                writer.writeVarying(cx[i] - bx);
+                writer.writeVarying(cy[i] - by);
+                // Shortest way around the circle, sign extended from the angle bits.
+                writer.writeVarying((ca[i] - ba) << shift >> shift);
+            }
+            previous = i;
+            count++;
+        }
+        writer.writeBit(false);
+        lastBodyCount = count;
+        return writer.finish();
+    }
+
+    /**
+     * Encode the last committed sequence for a client into the given buffer, at its position, then advance it.
+     * @param baseline the last sequence acknowledged by the client, or {@link #NoBaseline}
+     * @param out the buffer to write into
+     * @return the number of bytes written
+     * @throws IllegalStateException if nothing was committed yet
+     * @throws IndexOutOfBoundsException if the buffer has too little room left
+     * @see #encode(int, MemorySegment)
+     */
+    public int encode(int baseline, ByteBuffer out) {
+        if (out != buffer) {
+            bufferSegment = MemorySegment.ofBuffer(out.duplicate().clear());
+            buffer = out;
+        }
+        int written = (int) encode(baseline, bufferSegment, out.position(), out.limit());
+        out.position(out.position() + written);
+        return written;
+    }
+
+    /**
+     * Get the last committed sequence.
+     * @return the sequence number, -1 before the first commit
+     */
+    public int sequence() {
+        return sequence;
+    }
+
+    /**
+     * Get the number of bodies written by the last encoding, removals included.
+     * @return the body count
+     */
+    public int lastBodyCount() {
+        return lastBodyCount;
+    }
+
+    /**
+     * Get the position quantization step.
+     * @return the precision in meters
+     */
+    public float positionPrecision() {
+        return positionPrecision;
+    }
+
+    /**
+     * Get the number of bits of a quantized angle.
+     * @return the angle bits
+     */
+    public int angleBits() {
+        return angleBits;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnapshotEncoder[sequence=%d, precision=%.6f, angleBits=%d, lastBodies=%d]", sequence, positionPrecision, angleBits, lastBodyCount);
+    }
+}
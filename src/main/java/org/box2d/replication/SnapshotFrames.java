@@ -0,0 +1,75 @@
+package org.box2d.replication;
+
+import java.util.Arrays;
+
+/**
+ * Ring of the quantized entity states of the last sequences, shared by {@link SnapshotEncoder} and
+ * {@link SnapshotDecoder} as the baselines deltas are taken against.
+ * Each frame holds column arrays indexed by entity, the body index, and the extent past the last present entity.
+ */
+final class SnapshotFrames {
+    static final byte Present = 1;
+    static final byte Asleep = 2;
+
+    final int[] sequences;
+    final int[] extents;
+    final int[][] xs;
+    final int[][] ys;
+    final int[][] angles;
+    final byte[][] flags;
+
+    SnapshotFrames(int historySize, int capacity) {
+        if (historySize < 2) throw new IllegalArgumentException("History size must be at least 2, got " + historySize);
+        sequences = new int[historySize];
+        Arrays.fill(sequences, -1);
+        extents = new int[historySize];
+        xs = new int[historySize][capacity];
+        ys = new int[historySize][capacity];
+        angles = new int[historySize][capacity];
+        flags = new byte[historySize][capacity];
+    }
+
+    int slot(int sequence) {
+        return Math.floorMod(sequence, sequences.length);
+    }
+
+    /**
+     * Find the slot still holding the given sequence.
+     * @return the slot, or -1 if the sequence is negative or was overwritten
+     */
+    int find(int sequence) {
+        if (sequence < 0) return -1;
+        int slot = slot(sequence);
+        return sequences[slot] == sequence ? slot : -1;
+    }
+
+    int capacity() {
+        return flags[0].length;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= capacity()) return;
+        int grown = Math.max(capacity, capacity() * 2);
+        for (int i = 0; i < sequences.length; i++) {
+            xs[i] = Arrays.copyOf(xs[i], grown);
+            ys[i] = Arrays.copyOf(ys[i], grown);
+            angles[i] = Arrays.copyOf(angles[i], grown);
+            flags[i] = Arrays.copyOf(flags[i], grown);
+        }
+    }
+
+    /**
+     * Copy a frame into another slot, or clear the slot when the source is -1.
+     */
+    void copy(int from, int to) {
+        int extent = from < 0 ? 0 : extents[from];
+        if (from >= 0) {
+            System.arraycopy(xs[from], 0, xs[to], 0, extent);
+            System.arraycopy(ys[from], 0, ys[to], 0, extent);
+            System.arraycopy(angles[from], 0, angles[to], 0, extent);
+            System.arraycopy(flags[from], 0, flags[to], 0, extent);
+        }
+        Arrays.fill(flags[to], extent, Math.max(extent, extents[to]), (byte) 0);
+        extents[to] = extent;
+    }
+}
@@ -123,4 +123,28 @@ class CapsuleTest {
         assertNotEquals(a, c, "different capsules expected not equal");
         assertNotEquals(null, a, "capsule and null expected not equal");
     }
+
+    @Test
+    @DisplayName("Capsule allocation-free queries write into the given outputs")
+    void testAllocationFreeQueries() {
+        Capsule capsule = new Capsule(-1.0f, 0.0f, 1.0f, 0.0f, 0.5f);
+        assertEquals(-1.0f, capsule.center1X(), delta, "center1 x expected -1.0");
+        assertEquals(1.0f, capsule.center2X(), delta, "center2 x expected 1.0");
+        assertEquals(0.0f, capsule.center2Y(), delta, "center2 y expected 0.0");
+        assertTrue(capsule.pointInCapsule(1.2f, 0.0f), "point in the end cap expected inside");
+        assertFalse(capsule.pointInCapsule(0.0f, 1.0f), "point above expected outside");
+
+        MassData mass = new MassData();
+        assertSame(mass, capsule.computeMass(1.0f, mass), "output mass data expected returned");
+        assertEquals(capsule.computeMass(1.0f), mass, "output mass data expected equal to the allocating overload");
+        AABB aabb = new AABB();
+        capsule.computeAABB(new Transform(), aabb);
+        assertEquals(-1.5f, aabb.lowerBoundX(), delta, "lower x expected -1.5");
+        assertEquals(0.5f, aabb.upperBoundY(), delta, "upper y expected 0.5");
+
+        CastOutput output = new CastOutput();
+        assertTrue(capsule.rayCast(0.0f, 2.0f, 0.0f, -4.0f, 1.0f, output), "ray down through the capsule expected to hit");
+        assertEquals(0.5f, output.pointY(), delta, "hit point y expected on the top side");
+        assertEquals(1.0f, output.normalY(), delta, "hit normal expected up");
+    }
 }
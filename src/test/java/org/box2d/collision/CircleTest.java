@@ -90,4 +90,29 @@ class CircleTest {
         assertNotEquals(a, c, "different circles expected not equal");
         assertNotEquals(null, a, "circle and null expected not equal");
     }
+
+    @Test
+    @DisplayName("Circle allocation-free queries write into the given outputs")
+    void testAllocationFreeQueries() {
+        Circle circle = new Circle(1.0f, 2.0f, 0.5f);
+        assertEquals(1.0f, circle.centerX(), delta, "center x expected 1.0");
+        assertEquals(2.0f, circle.centerY(), delta, "center y expected 2.0");
+        assertTrue(circle.pointInCircle(1.2f, 2.0f), "point near center expected inside");
+        assertFalse(circle.pointInCircle(2.0f, 2.0f), "far point expected outside");
+
+        MassData mass = new MassData();
+        assertSame(mass, circle.computeMass(1.0f, mass), "output mass data expected returned");
+        assertEquals(circle.computeMass(1.0f), mass, "output mass data expected equal to the allocating overload");
+        AABB aabb = new AABB();
+        assertSame(aabb, circle.computeAABB(new Transform(), aabb), "output box expected returned");
+        assertEquals(0.5f, aabb.lowerBoundX(), delta, "lower x expected 0.5");
+        assertEquals(2.5f, aabb.upperBoundY(), delta, "upper y expected 2.5");
+
+        CastOutput output = new CastOutput();
+        assertTrue(circle.rayCast(-1.0f, 2.0f, 4.0f, 0.0f, 1.0f, output), "ray through the circle expected to hit");
+        assertEquals(0.5f, output.pointX(), delta, "hit point x expected on the circle's left side");
+        assertEquals(-1.0f, output.normalX(), delta, "hit normal expected to face the ray");
+        assertEquals(0.375f, output.fraction(), delta, "hit fraction expected 1.5 / 4");
+        assertFalse(circle.rayCast(-1.0f, 0.0f, 4.0f, 0.0f, 1.0f, output), "ray below the circle expected to miss");
+    }
 }
@@ -0,0 +1,133 @@
+package org.box2d.collision;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvexDecompositionTest {
+    private static final float delta = 0.0001f;
+
+    private static double area(float[] xy) {
+        double area = 0.0;
+        for (int i = 0, n = xy.length / 2, j = n - 1; i < n; j = i++) area += (double) xy[2 * j] * xy[2 * i + 1] - (double) xy[2 * i] * xy[2 * j + 1];
+        return area / 2.0;
+    }
+
+    private static boolean isConvex(float[] xy) {
+        int n = xy.length / 2;
+        for (int i = 0; i < n; i++) {
+            int a = (i + n - 1) % n, c = (i + 1) % n;
+            double cross = (double) (xy[2 * i] - xy[2 * a]) * (xy[2 * c + 1] - xy[2 * i + 1]) - (double) (xy[2 * i + 1] - xy[2 * a + 1]) * (xy[2 * c] - xy[2 * i]);
+            if (cross < -1.0e-4) return false;
+        }
+        return true;
+    }
+
+    private static void assertValidPieces(List<float[]> pieces, double expectedArea) {
+        double total = 0.0;
+        for (float[] piece : pieces) {
+            assertTrue(piece.length / 2 >= 3 && piece.length / 2 <= Polygon.MaxVertices, "piece expected 3 to 8 vertices");
+            assertTrue(isConvex(piece), "piece expected convex");
+            assertTrue(area(piece) > 0.0, "piece expected counter-clockwise");
+            total += area(piece);
+        }
+        assertEquals(expectedArea, total, 0.001, "pieces expected to cover the outline area");
+    }
+
+    private static float[] wavyCircle(int count, float radius, float amplitude) {
+        float[] xy = new float[2 * count];
+        for (int i = 0; i < count; i++) {
+            double t = 2.0 * Math.PI * i / count;
+            double r = radius + amplitude * Math.sin(12.0 * t);
+            xy[2 * i] = (float) (r * Math.cos(t));
+            xy[2 * i + 1] = (float) (r * Math.sin(t));
+        }
+        return xy;
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition keeps a convex outline in one piece")
+    void testConvex() {
+        List<float[]> pieces = ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f, 0.0f, 1.0f});
+        assertEquals(1, pieces.size(), "square expected one piece");
+        assertValidPieces(pieces, 1.0);
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition splits a concave outline of either winding")
+    void testConcave() {
+        List<float[]> ccw = ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 2.0f, 0.0f, 2.0f, 1.0f, 1.0f, 1.0f, 1.0f, 2.0f, 0.0f, 2.0f});
+        List<float[]> cw = ConvexDecomposition.decompose(new float[] {0.0f, 2.0f, 1.0f, 2.0f, 1.0f, 1.0f, 2.0f, 1.0f, 2.0f, 0.0f, 0.0f, 0.0f});
+        assertEquals(2, ccw.size(), "L shape expected two pieces");
+        assertValidPieces(ccw, 3.0);
+        assertValidPieces(cw, 3.0);
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition handles holes")
+    void testHoles() {
+        float[] outline = {0.0f, 0.0f, 10.0f, 0.0f, 10.0f, 10.0f, 0.0f, 10.0f};
+        assertValidPieces(ConvexDecomposition.decompose(outline, new float[] {4.0f, 4.0f, 6.0f, 4.0f, 6.0f, 6.0f, 4.0f, 6.0f}), 96.0);
+        assertValidPieces(ConvexDecomposition.decompose(outline,
+                new float[] {4.0f, 1.0f, 6.0f, 1.0f, 6.0f, 3.0f, 4.0f, 3.0f},
+                new float[] {4.0f, 6.0f, 6.0f, 6.0f, 6.0f, 8.0f, 4.0f, 8.0f}), 92.0);
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition handles outlines with more than 1000 vertices")
+    void testLargeOutline() {
+        float[] outline = wavyCircle(1200, 10.0f, 2.0f);
+        float[] hole = wavyCircle(100, 3.0f, 0.0f);
+        assertValidPieces(ConvexDecomposition.decompose(outline), area(outline));
+        assertValidPieces(ConvexDecomposition.decompose(outline, hole), area(outline) - area(hole));
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition rejects degenerate input")
+    void testDegenerate() {
+        assertThrows(IllegalArgumentException.class, () -> ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 1.0f, 0.0f, 2.0f, 0.0f}), "collinear outline expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 2.0f, 2.0f, 2.0f, 0.0f, 0.0f, 1.0f}), "self-intersecting outline expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 1.0f, 0.0f, Float.NaN, 1.0f}), "NaN expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 1.0f, 0.0f, 1.0f}), "odd length expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f},
+                new float[] {5.0f, 5.0f, 6.0f, 5.0f, 6.0f, 6.0f}), "hole outside expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> ConvexDecomposition.decompose(2, new float[] {0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f}), "vertex limit below 3 expected to throw");
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition parallel decomposition matches sequential")
+    void testDecomposeAll() {
+        float[] outline = wavyCircle(1200, 10.0f, 2.0f);
+        List<float[]> expected = ConvexDecomposition.decompose(outline);
+        List<float[][]> outlines = new ArrayList<>();
+        for (int i = 0; i < 8; i++) outlines.add(new float[][] {outline});
+        List<List<float[]>> results = ConvexDecomposition.decomposeAll(outlines);
+
+        assertEquals(8, results.size(), "one result expected per outline");
+        for (List<float[]> result : results) {
+            assertEquals(expected.size(), result.size(), "parallel piece count expected equal");
+            for (int i = 0; i < result.size(); i++) assertArrayEquals(expected.get(i), result.get(i), "parallel piece expected equal");
+        }
+    }
+
+    @Test
+    @DisplayName("ConvexDecomposition pieces build polygons, shared through a cache")
+    void testToPolygons() {
+        List<float[]> pieces = ConvexDecomposition.decompose(new float[] {0.0f, 0.0f, 2.0f, 0.0f, 2.0f, 1.0f, 1.0f, 1.0f, 1.0f, 2.0f, 0.0f, 2.0f});
+        List<Polygon> polygons = ConvexDecomposition.toPolygons(pieces, 0.0f);
+        assertEquals(pieces.size(), polygons.size(), "one polygon expected per piece");
+        float mass = 0.0f;
+        for (Polygon polygon : polygons) mass += polygon.computeMass(1.0f).mass();
+        assertEquals(3.0f, mass, delta, "polygon masses expected to sum to the outline area");
+
+        PolygonCache cache = new PolygonCache(8, 0.001f);
+        ConvexDecomposition.toPolygons(pieces, 0.0f, cache);
+        List<Polygon> cached = ConvexDecomposition.toPolygons(pieces, 0.0f, cache);
+        assertEquals(pieces.size(), cached.size(), "one cached polygon expected per piece");
+        assertEquals(pieces.size(), cache.hits(), "second build expected to hit the cache");
+    }
+}
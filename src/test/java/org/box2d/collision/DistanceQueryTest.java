@@ -0,0 +1,47 @@
+package org.box2d.collision;
+
+import org.box2d.math.Transform;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceQueryTest {
+    private static final float delta = 0.001f;
+
+    @Test
+    @DisplayName("DistanceQuery computes the closest points between two proxies")
+    void testCompute() {
+        DistanceQuery query = new DistanceQuery().proxyA(Polygon.box(1.0f, 1.0f)).proxyB(new Circle(0.5f))
+                .transformB(new Transform(4.0f, 0.0f, 0.0f));
+        assertEquals(2.5f, query.compute(), delta, "distance expected 4 - 1 - 0.5");
+        assertEquals(1.0f, query.pointAX(), delta, "closest point on A expected on its right side");
+        assertEquals(3.5f, query.pointBX(), delta, "closest point on B expected on its left side");
+        assertEquals(1.0f, query.normalX(), delta, "normal expected to point from A to B");
+
+        query.useRadii(false);
+        assertEquals(3.0f, query.compute(), delta, "core distance expected to ignore the circle radius");
+        query.useRadii(true).transformB(1.0f, 0.0f, 1.0f, 0.0f);
+        assertEquals(0.0f, query.compute(), delta, "overlapping proxies expected zero distance");
+    }
+
+    @Test
+    @DisplayName("DistanceQuery warm started from a cache table matches the cold result")
+    void testWarmStart() {
+        SimplexCacheTable table = new SimplexCacheTable(4);
+        DistanceQuery query = new DistanceQuery().proxyA(Polygon.box(1.0f, 1.0f)).proxyB(Polygon.box(0.5f, 0.5f));
+        int coldIterations = 0, warmIterations = 0;
+        for (int frame = 0; frame < 20; frame++) {
+            table.advance();
+            float angle = 0.01f * frame;
+            query.transformB(3.0f, 1.2f + 0.01f * frame, (float) Math.cos(angle), (float) Math.sin(angle));
+            float cold = query.compute();
+            coldIterations += query.iterations();
+            float warm = query.compute(table, 1L, 2L);
+            warmIterations += query.iterations();
+            assertEquals(cold, warm, delta, "warm distance expected equal to the cold one");
+        }
+        assertEquals(1, table.size(), "one pair expected cached");
+        assertTrue(warmIterations <= coldIterations, "warm start expected no more iterations, " + warmIterations + " vs " + coldIterations);
+    }
+}
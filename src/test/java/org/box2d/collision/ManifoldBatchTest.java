@@ -0,0 +1,91 @@
+package org.box2d.collision;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ManifoldBatchTest {
+    private static final float delta = 0.0001f;
+
+    private static float[] transforms(float... xy) {
+        float[] out = new float[2 * xy.length];
+        for (int i = 0; i < xy.length / 2; i++) {
+            out[4 * i] = xy[2 * i];
+            out[4 * i + 1] = xy[2 * i + 1];
+            out[4 * i + 2] = 1.0f;
+        }
+        return out;
+    }
+
+    @Test
+    @DisplayName("ManifoldBatch dispatches by shape type and fills the output")
+    void testCollide() {
+        Circle circle = new Circle(0.5f);
+        Polygon box = Polygon.box(0.5f, 0.5f);
+        Segment segment = new Segment(-1.0f, 0.0f, 1.0f, 0.0f);
+        Object[] shapesA = {circle, box, circle, segment, box};
+        Object[] shapesB = {circle, box, box, segment, new Capsule(0.0f, -0.5f, 0.0f, 0.5f, 0.25f)};
+        float[] transformsA = transforms(0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f);
+        float[] transformsB = transforms(0.9f, 0.0f, 0.0f, 0.9f, 0.9f, 0.0f, 0.0f, 0.1f, 10.0f, 0.0f);
+        ManifoldBatch batch = new ManifoldBatch(8);
+
+        assertEquals(3, batch.collide(shapesA, transformsA, shapesB, transformsB, 5), "three touching pairs expected");
+        assertEquals(5, batch.count(), "pair count expected 5");
+        assertEquals(1, batch.pointCount(0), "circles expected one point");
+        assertEquals(1.0f, batch.normalX(0), delta, "circle normal expected to point from A to B");
+        assertEquals(-0.1f, batch.separation(0, 0), delta, "circles expected to overlap by 0.1");
+        assertEquals(2, batch.pointCount(1), "stacked boxes expected two points");
+        assertEquals(1.0f, batch.normalY(1), delta, "box normal expected to point up from A to B");
+        assertEquals(-0.1f, batch.separation(1, 1), delta, "boxes expected to overlap by 0.1");
+        assertEquals(1, batch.pointCount(2), "circle and box expected one point");
+        assertEquals(1.0f, batch.normalX(2), delta, "swapped pair normal expected flipped back from A to B");
+        assertEquals(0, batch.pointCount(3), "segments expected never to collide");
+        assertEquals(0, batch.pointCount(4), "far pair expected no point");
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.pointX(4, 0), "point past the count expected to throw");
+    }
+
+    @Test
+    @DisplayName("ManifoldBatch parallel split matches the sequential output")
+    void testParallel() {
+        int count = 5000;
+        Object[] shapesA = new Object[count], shapesB = new Object[count];
+        float[] transformsA = new float[4 * count], transformsB = new float[4 * count];
+        Object[] shapes = {new Circle(0.5f), Polygon.box(0.5f, 0.5f), new Capsule(-0.5f, 0.0f, 0.5f, 0.0f, 0.25f), new Segment(-1.0f, 0.0f, 1.0f, 0.0f)};
+        for (int i = 0; i < count; i++) {
+            shapesA[i] = shapes[i % 4];
+            shapesB[i] = shapes[(i / 4) % 4];
+            float angle = 0.001f * i;
+            transformsA[4 * i + 2] = 1.0f;
+            transformsB[4 * i] = (float) Math.cos(angle) * (i % 7) * 0.25f;
+            transformsB[4 * i + 1] = (float) Math.sin(angle) * 0.5f;
+            transformsB[4 * i + 2] = (float) Math.cos(angle);
+            transformsB[4 * i + 3] = (float) Math.sin(angle);
+        }
+        ManifoldBatch sequential = new ManifoldBatch(count), parallel = new ManifoldBatch(count);
+        int touching = sequential.collide(shapesA, transformsA, shapesB, transformsB, count);
+        assertTrue(touching > 0, "some pairs expected to touch");
+        assertEquals(touching, parallel.collideParallel(shapesA, transformsA, shapesB, transformsB, count), "parallel touching count expected equal");
+        for (int pair = 0; pair < count; pair++) {
+            assertEquals(sequential.pointCount(pair), parallel.pointCount(pair), "parallel point count expected equal");
+            if (sequential.pointCount(pair) == 0) continue;
+            assertEquals(sequential.normalX(pair), parallel.normalX(pair), "parallel normal expected bit equal");
+            for (int i = 0; i < sequential.pointCount(pair); i++) {
+                assertEquals(sequential.pointX(pair, i), parallel.pointX(pair, i), "parallel point expected bit equal");
+                assertEquals(sequential.separation(pair, i), parallel.separation(pair, i), "parallel separation expected bit equal");
+                assertEquals(sequential.id(pair, i), parallel.id(pair, i), "parallel id expected equal");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ManifoldBatch rejects unsupported shapes and oversized batches")
+    void testInvalid() {
+        ManifoldBatch batch = new ManifoldBatch(1);
+        Object[] circles = {new Circle(1.0f), new Circle(1.0f)};
+        float[] transforms = transforms(0.0f, 0.0f, 0.0f, 0.0f);
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.collide(circles, transforms, circles, transforms, 2), "count past the capacity expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> batch.collide(new Object[] {"circle"}, transforms, circles, transforms, 1), "unsupported shape expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> new ManifoldBatch(0), "zero capacity expected to throw");
+    }
+}
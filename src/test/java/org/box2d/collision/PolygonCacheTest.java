@@ -0,0 +1,65 @@
+package org.box2d.collision;
+
+import org.box2d.math.Vec2Array;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolygonCacheTest {
+    private static final float delta = 0.0001f;
+
+    @Test
+    @DisplayName("PolygonCache shares polygons across winding order and float noise")
+    void testSharing() {
+        PolygonCache cache = new PolygonCache(16, 0.001f);
+        Polygon a = cache.polygon(new float[] {0.0f, 0.0f, 2.0f, 0.0f, 0.0f, 2.0f}, 0.0f);
+        Polygon b = cache.polygon(new float[] {0.0f, 2.0f, 2.00001f, 0.0f, 0.0f, 0.0f}, 0.0f);
+        Polygon c = cache.polygon(new Vec2Array(0.0f, 0.0f, 2.0f, 0.0f, 0.0f, 2.0f), 0.1f);
+
+        assertSame(a, b, "same vertex set expected the same polygon");
+        assertNotSame(a, c, "different radius expected a different polygon");
+        assertEquals(3, a.count(), "triangle expected 3 vertices");
+        assertEquals(0.1f, c.radius(), delta, "radius expected 0.1");
+        assertEquals(1, cache.hits(), "hits expected 1");
+        assertEquals(2, cache.misses(), "misses expected 2");
+        assertEquals(2, cache.size(), "size expected 2");
+    }
+
+    @Test
+    @DisplayName("PolygonCache box shares the entry of its corners")
+    void testBox() {
+        PolygonCache cache = new PolygonCache(16, 0.001f);
+        Polygon box = cache.box(1.0f, 2.0f);
+        Polygon corners = cache.polygon(new float[] {1.0f, 2.0f, -1.0f, 2.0f, -1.0f, -2.0f, 1.0f, -2.0f}, 0.0f);
+        assertSame(box, corners, "box and its corners expected the same polygon");
+        assertEquals(Polygon.box(1.0f, 2.0f), box, "cached box expected equal to a new box");
+    }
+
+    @Test
+    @DisplayName("PolygonCache evicts the least recently used polygon")
+    void testEviction() {
+        PolygonCache cache = new PolygonCache(2, 0.001f);
+        Polygon small = cache.box(1.0f, 1.0f);
+        cache.box(2.0f, 2.0f);
+        cache.box(1.0f, 1.0f);
+        cache.box(3.0f, 3.0f);
+
+        assertEquals(2, cache.size(), "size expected capped at 2");
+        assertEquals(1, cache.evictions(), "evictions expected 1");
+        assertSame(small, cache.box(1.0f, 1.0f), "recently used box expected kept");
+        cache.box(2.0f, 2.0f);
+        assertEquals(4, cache.misses(), "evicted box expected rebuilt");
+        assertEquals(4, small.count(), "evicted polygon expected still usable");
+    }
+
+    @Test
+    @DisplayName("PolygonCache rejects invalid vertex sets")
+    void testInvalid() {
+        PolygonCache cache = new PolygonCache(4, 0.001f);
+        assertThrows(IllegalArgumentException.class, () -> cache.polygon(new float[] {0.0f, 0.0f, 1.0f, 0.0f}, 0.0f), "fewer than 3 points expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> cache.polygon(new float[] {0.0f, 0.0f, 1.0f, 0.0f, 2.0f, 0.0f}, 0.0f), "collinear points expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> new PolygonCache(0, 0.001f), "zero capacity expected to throw");
+        assertEquals(0, cache.size(), "failed builds expected not cached");
+    }
+}
@@ -3,6 +3,7 @@ package org.box2d.collision;
 import org.box2d.math.Rot;
 import org.box2d.math.Transform;
 import org.box2d.math.Vec2;
+import org.box2d.math.Vec2Array;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -68,6 +69,14 @@ class PolygonTest {
         assertThrows(IllegalArgumentException.class, () -> Polygon.fromVertices(new Vec2(0.0f, 0.0f), new Vec2(1.0f, 0.0f)), "fewer than 3 points expected to throw");
     }
 
+    @Test
+    @DisplayName("Polygon from vertex array builds a convex hull")
+    void testFromVertexArray() {
+        Polygon triangle = Polygon.fromVertices(new Vec2Array(0.0f, 0.0f, 2.0f, 0.0f, 0.0f, 2.0f));
+        assertEquals(3, triangle.count(), "triangle expected 3 vertices");
+        assertThrows(IllegalArgumentException.class, () -> Polygon.fromVertices(new Vec2Array(0.0f, 0.0f, 1.0f, 0.0f)), "fewer than 3 points expected to throw");
+    }
+
     @Test
     @DisplayName("Polygon compute mass")
     void testComputeMass() {
@@ -118,4 +127,39 @@ class PolygonTest {
         assertNotEquals(a, c, "different polygons expected not equal");
         assertNotEquals(null, a, "polygon and null expected not equal");
     }
+
+    @Test
+    @DisplayName("Polygon allocation-free queries write into the given outputs")
+    void testAllocationFreeQueries() {
+        Polygon box = Polygon.box(1.0f, 2.0f, new Vec2(1.0f, 0.0f), new Rot());
+        float[] vertices = new float[2 * Polygon.MaxVertices];
+        assertEquals(4, box.vertices(vertices), "box expected 4 vertices");
+        for (int i = 0; i < box.count(); i++) {
+            assertEquals(box.vertex(i).x(), box.vertexX(i), delta, "vertex x expected equal to the copying accessor");
+            assertEquals(box.vertex(i).y(), box.vertexY(i), delta, "vertex y expected equal to the copying accessor");
+            assertEquals(box.vertexX(i), vertices[2 * i], delta, "bulk vertex x expected equal");
+            assertEquals(box.vertexY(i), vertices[2 * i + 1], delta, "bulk vertex y expected equal");
+            assertEquals(1.0f, box.normalX(i) * box.normalX(i) + box.normalY(i) * box.normalY(i), delta, "normal expected unit length");
+        }
+        assertEquals(1.0f, box.centroidX(), delta, "centroid x expected 1.0");
+        assertThrows(IndexOutOfBoundsException.class, () -> box.vertexX(4), "vertex index past count expected to throw");
+        assertThrows(IndexOutOfBoundsException.class, () -> box.vertices(new float[4]), "short array expected to throw");
+        assertTrue(box.pointInPolygon(1.5f, 1.5f), "inner point expected inside");
+        assertFalse(box.pointInPolygon(-0.5f, 0.0f), "outer point expected outside");
+
+        MassData mass = new MassData();
+        assertSame(mass, box.computeMass(1.0f, mass), "output mass data expected returned");
+        assertEquals(8.0f, mass.mass(), delta, "mass expected density * area (1 * 8)");
+        assertEquals(1.0f, mass.centerX(), delta, "center of mass x expected 1.0");
+        AABB aabb = new AABB();
+        box.computeAABB(new Transform(), aabb);
+        assertEquals(0.0f, aabb.lowerBoundX(), delta, "lower x expected 0.0");
+        assertEquals(-2.0f, aabb.lowerBoundY(), delta, "lower y expected -2.0");
+
+        CastOutput output = new CastOutput();
+        assertTrue(box.rayCast(-2.0f, 0.0f, 4.0f, 0.0f, 1.0f, output), "ray through the box expected to hit");
+        assertEquals(0.0f, output.pointX(), delta, "hit point x expected on the left side");
+        assertEquals(0.5f, output.fraction(), delta, "hit fraction expected 2 / 4");
+        assertFalse(box.rayCast(-2.0f, 0.0f, 1.0f, 0.0f, 1.0f, output), "short ray expected to miss");
+    }
 }
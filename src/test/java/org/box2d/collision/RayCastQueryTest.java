@@ -0,0 +1,65 @@
+package org.box2d.collision;
+
+import org.box2d.math.Rot;
+import org.box2d.math.Vec2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RayCastQueryTest {
+    private static final float delta = 0.0001f;
+
+    @Test
+    @DisplayName("RayCastQuery casts against each shape type and exposes the result")
+    void testShapes() {
+        RayCastQuery query = new RayCastQuery().set(-4.0f, 0.0f, 8.0f, 0.0f);
+        assertEquals(1.0f, query.maxFraction(), delta, "max fraction expected to default to 1");
+
+        assertTrue(new Circle(1.0f).rayCast(query), "ray expected to hit the circle");
+        assertEquals(-1.0f, query.pointX(), delta, "circle hit point x expected -1.0");
+        assertEquals(-1.0f, query.normalX(), delta, "circle hit normal expected to face the ray");
+        assertEquals(0.375f, query.fraction(), delta, "circle hit fraction expected 3 / 8");
+
+        assertTrue(new Capsule(0.0f, -1.0f, 0.0f, 1.0f, 0.5f).rayCast(query), "ray expected to hit the capsule");
+        assertEquals(-0.5f, query.pointX(), delta, "capsule hit point x expected -0.5");
+
+        assertTrue(Polygon.box(2.0f, 1.0f).rayCast(query), "ray expected to hit the polygon");
+        assertEquals(-2.0f, query.pointX(), delta, "polygon hit point x expected -2.0");
+
+        Segment wall = new Segment(0.0f, 1.0f, 0.0f, -1.0f);
+        assertTrue(wall.rayCast(query, true), "ray from the right side expected to hit the one-sided segment");
+        assertEquals(0.5f, query.fraction(), delta, "segment hit fraction expected 0.5");
+        query.set(4.0f, 0.0f, -8.0f, 0.0f);
+        assertFalse(wall.rayCast(query, true), "ray from the left side expected to miss the one-sided segment");
+        assertTrue(wall.rayCast(query, false), "ray expected to hit the two-sided segment");
+
+        assertFalse(new Circle(5.0f, 5.0f, 1.0f).rayCast(query), "ray expected to miss the far circle");
+        assertFalse(query.hit(), "query expected to report the miss");
+    }
+
+    @Test
+    @DisplayName("RayCastQuery closest finds the nearest shape in one pass")
+    void testClosest() {
+        Polygon[] boxes = new Polygon[8];
+        for (int i = 0; i < boxes.length; i++) boxes[i] = Polygon.box(0.5f, 0.5f, new Vec2(10.0f - i, (i % 2) * 3.0f), new Rot());
+        RayCastQuery query = new RayCastQuery().set(0.0f, 0.0f, 20.0f, 0.0f).maxFraction(0.9f);
+
+        assertEquals(6, query.closest(boxes), "closest box on the ray expected at x = 4");
+        assertTrue(query.hit(), "closest hit expected reported");
+        assertEquals(3.5f, query.pointX(), delta, "closest hit point x expected 3.5");
+        assertEquals(0.9f, query.maxFraction(), delta, "max fraction expected restored");
+        assertEquals(2, query.closest(boxes, 0, 3), "closest box of the range expected at x = 8");
+        assertEquals(-1, query.closest(boxes, 1, 1), "box off the ray expected to be missed");
+        assertFalse(query.hit(), "miss expected reported");
+        assertThrows(IndexOutOfBoundsException.class, () -> query.closest(boxes, 6, 3), "range past the array expected to throw");
+
+        Circle[] circles = {new Circle(8.0f, 0.0f, 1.0f), new Circle(4.0f, 0.0f, 1.0f), new Circle(4.0f, 0.0f, 1.0f)};
+        assertEquals(1, query.closest(circles), "first of two equally close circles expected");
+        Segment[] walls = {new Segment(5.0f, 1.0f, 5.0f, -1.0f), new Segment(2.0f, -1.0f, 2.0f, 1.0f)};
+        assertEquals(0, query.closest(walls, true), "one-sided closest expected to skip the back facing wall");
+        assertEquals(1, query.closest(walls, false), "two-sided closest expected the nearest wall");
+        Capsule[] capsules = {new Capsule(6.0f, -1.0f, 6.0f, 1.0f, 0.25f)};
+        assertEquals(0, query.closest(capsules), "capsule on the ray expected hit");
+    }
+}
@@ -6,7 +6,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SegmentTest {
     private static final float delta = 0.0001f;
@@ -74,4 +77,24 @@ class SegmentTest {
         assertNotEquals(a, c, "different segments expected not equal");
         assertNotEquals(null, a, "segment and null expected not equal");
     }
+
+    @Test
+    @DisplayName("Segment allocation-free queries write into the given outputs")
+    void testAllocationFreeQueries() {
+        Segment segment = new Segment(-1.0f, 0.0f, 1.0f, 0.0f);
+        assertEquals(-1.0f, segment.point1X(), delta, "point1 x expected -1.0");
+        assertEquals(0.0f, segment.point1Y(), delta, "point1 y expected 0.0");
+        assertEquals(1.0f, segment.point2X(), delta, "point2 x expected 1.0");
+
+        AABB aabb = new AABB();
+        assertSame(aabb, segment.computeAABB(new Transform(), aabb), "output box expected returned");
+        assertEquals(-1.0f, aabb.lowerBoundX(), delta, "lower x expected -1.0");
+        assertEquals(1.0f, aabb.upperBoundX(), delta, "upper x expected 1.0");
+
+        CastOutput output = new CastOutput();
+        assertTrue(segment.rayCast(0.0f, 1.0f, 0.0f, -2.0f, 1.0f, false, output), "two-sided ray from above expected to hit");
+        assertEquals(0.5f, output.fraction(), delta, "hit fraction expected 0.5");
+        assertTrue(segment.rayCast(0.0f, -1.0f, 0.0f, 2.0f, 1.0f, true, output), "one-sided ray from the right side expected to hit");
+        assertFalse(segment.rayCast(0.0f, 1.0f, 0.0f, -2.0f, 1.0f, true, output), "one-sided ray from the left side expected to miss");
+    }
 }
@@ -0,0 +1,44 @@
+package org.box2d.collision;
+
+import org.box2d.math.Transform;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeCastQueryTest {
+    private static final float delta = 0.01f;
+
+    @Test
+    @DisplayName("ShapeCastQuery sweeps a proxy against each shape type")
+    void testShapes() {
+        ShapeCastQuery query = new ShapeCastQuery().proxy(new Circle(-4.0f, 0.0f, 0.5f)).translation(8.0f, 0.0f);
+        assertEquals(1, query.proxyCount(), "circle proxy expected one point");
+
+        assertTrue(new Circle(1.0f).shapeCast(query), "sweep expected to hit the circle");
+        assertEquals(2.5f / 8.0f, query.fraction(), delta, "circle hit fraction expected 2.5 / 8");
+        assertEquals(-1.0f, query.pointX(), delta, "circle hit point expected on its surface");
+
+        assertTrue(Polygon.box(1.0f, 1.0f).shapeCast(query), "sweep expected to hit the polygon");
+        assertEquals(2.5f / 8.0f, query.fraction(), delta, "polygon hit fraction expected 2.5 / 8");
+        assertTrue(new Capsule(0.0f, -1.0f, 0.0f, 1.0f, 1.0f).shapeCast(query), "sweep expected to hit the capsule");
+        assertTrue(new Segment(-1.0f, -1.0f, -1.0f, 1.0f).shapeCast(query), "sweep expected to hit the segment");
+
+        query.proxy(Polygon.box(0.5f, 0.5f)).translation(0.0f, 8.0f);
+        assertEquals(4, query.proxyCount(), "box proxy expected four points");
+        assertFalse(new Circle(4.0f, 0.0f, 1.0f).shapeCast(query), "sweep expected to miss the circle off the path");
+        assertThrows(IllegalArgumentException.class, () -> query.proxy(new float[18], 0.0f), "more than 8 points expected to throw");
+    }
+
+    @Test
+    @DisplayName("ShapeCastQuery sweeps one proxy against another with their transforms")
+    void testPair() {
+        ShapeCastQuery mover = new ShapeCastQuery().proxy(new float[] {-0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f}, 0.0f).translation(10.0f, 0.0f);
+        ShapeCastQuery target = new ShapeCastQuery().proxy(new Segment(0.0f, -2.0f, 0.0f, 2.0f));
+
+        assertTrue(mover.cast(new Transform(-5.0f, 0.0f, 0.0f), target, new Transform(2.0f, 0.0f, 0.0f)), "box sweep expected to hit the wall");
+        assertEquals(0.65f, mover.fraction(), delta, "hit fraction expected (7 - 0.5) / 10");
+        assertEquals(2.0f, mover.pointX(), delta, "hit point expected on the wall in world coordinates");
+        assertFalse(mover.cast(new Transform(-5.0f, 5.0f, 0.0f), target, new Transform(2.0f, 0.0f, 0.0f)), "box sweep above the wall expected to miss");
+    }
+}
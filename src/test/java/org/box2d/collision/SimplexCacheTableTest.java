@@ -0,0 +1,42 @@
+package org.box2d.collision;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimplexCacheTableTest {
+    @Test
+    @DisplayName("SimplexCacheTable keys pairs in order and grows past its expected size")
+    void testPairs() {
+        SimplexCacheTable table = new SimplexCacheTable(2);
+        int capacity = table.capacity();
+        for (long i = 0; i < 100; i++) table.acquire(i, i + 1);
+        assertEquals(100, table.size(), "100 pairs expected");
+        assertTrue(table.capacity() > capacity, "table expected to grow");
+        assertTrue(table.contains(5L, 6L), "pair expected present");
+        assertFalse(table.contains(6L, 5L), "reversed pair expected absent");
+        assertTrue(table.remove(5L, 6L), "present pair expected removed");
+        assertFalse(table.remove(5L, 6L), "removed pair expected absent");
+        for (long i = 0; i < 100; i++) assertEquals(i != 5, table.contains(i, i + 1), "other pairs expected kept after removal");
+        assertEquals(99L * 8L, table.byteSize(), "8 bytes expected per cache");
+    }
+
+    @Test
+    @DisplayName("SimplexCacheTable evicts pairs not queried recently in bulk")
+    void testEvict() {
+        SimplexCacheTable table = new SimplexCacheTable(64);
+        for (long i = 0; i < 64; i++) table.acquire(i, -i);
+        table.advance();
+        for (long i = 0; i < 64; i += 2) table.acquire(i, -i);
+        assertEquals(0, table.evict(2), "pairs queried in the last 2 frames expected kept");
+        assertEquals(32, table.evict(1), "pairs not queried this frame expected evicted");
+        assertEquals(32, table.size(), "half the pairs expected left");
+        for (long i = 0; i < 64; i++) assertEquals(i % 2 == 0, table.contains(i, -i), "only recent pairs expected left");
+        table.advance();
+        table.advance();
+        assertEquals(32, table.evict(1), "stale pairs expected evicted");
+        assertEquals(0, table.size(), "table expected empty");
+        assertThrows(IllegalArgumentException.class, () -> table.evict(0), "zero age expected to throw");
+    }
+}
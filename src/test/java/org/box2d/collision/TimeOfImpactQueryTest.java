@@ -0,0 +1,47 @@
+package org.box2d.collision;
+
+import org.box2d.math.Transform;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOfImpactQueryTest {
+    private static final float delta = 0.01f;
+
+    @Test
+    @DisplayName("TimeOfImpactQuery finds when a fast proxy first touches a still one")
+    void testHit() {
+        TimeOfImpactQuery query = new TimeOfImpactQuery().proxyA(Polygon.box(0.5f, 5.0f)).proxyB(new Circle(0.25f))
+                .sweepA(new Transform(), new Transform())
+                .sweepB(new Transform(-10.0f, 0.0f, 0.0f), new Transform(10.0f, 0.0f, 0.0f));
+        float fraction = query.compute();
+        assertEquals(TimeOfImpactQuery.StateHit, query.state(), "tunnelling circle expected to hit the wall");
+        assertTrue(query.hit(), "hit expected reported");
+        assertEquals(9.25f / 20.0f, fraction, delta, "impact expected after 9.25 of the 20 units");
+
+        Transform at = query.sweepTransformB(fraction, new Transform());
+        assertEquals(-0.75f, at.x(), 0.05f, "circle expected just touching the wall at the time of impact");
+        assertEquals(0.0f, at.y(), delta, "circle expected to stay on its path");
+    }
+
+    @Test
+    @DisplayName("TimeOfImpactQuery reports separated, initially touching and overlapped sweeps")
+    void testStates() {
+        TimeOfImpactQuery query = new TimeOfImpactQuery().proxyA(new Circle(0.5f)).proxyB(new Circle(0.5f))
+                .sweepB(new Transform(0.0f, 5.0f, 0.0f), new Transform(10.0f, 5.0f, 0.0f));
+        query.compute();
+        assertEquals(TimeOfImpactQuery.StateSeparated, query.state(), "parallel sweep expected separated");
+        assertEquals(1.0f, query.fraction(), delta, "separated fraction expected to be the max fraction");
+
+        // Overlap is decided on the core shapes, rounded shapes that overlap at the start are a hit at once.
+        query.sweepB(new Transform(0.5f, 0.0f, 0.0f), new Transform(1.0f, 0.0f, 0.0f));
+        query.compute();
+        assertEquals(TimeOfImpactQuery.StateHit, query.state(), "overlapping radii expected to hit at the start");
+        assertEquals(0.0f, query.fraction(), delta, "overlapping radii expected to hit at fraction 0");
+
+        query.sweepB(new Transform(), new Transform(1.0f, 0.0f, 0.0f));
+        query.compute();
+        assertEquals(TimeOfImpactQuery.StateOverlapped, query.state(), "coincident cores expected overlapped");
+    }
+}
@@ -0,0 +1,90 @@
+package org.box2d.debug;
+
+import org.box2d.dynamics.World;
+import org.box2d.internal.b2BodyDef;
+import org.box2d.internal.b2Polygon;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DebugDrawRecorderTest {
+    // A wide rounded box around the origin and a small sharp box far to the right.
+    private static void createBoxes(World world) {
+        MemorySegment ground = nBox2D.nCreateBody(world.segment(), nBox2D.nDefaultBodyDef());
+        MemorySegment rounded = nBox2D.nMakeBox(20.0f, 0.5f);
+        b2Polygon.radius(rounded, 0.25f);
+        nBox2D.nCreatePolygonShape(ground, nBox2D.nDefaultShapeDef(), rounded);
+        MemorySegment def = nBox2D.nDefaultBodyDef();
+        b2Vec2.x(b2BodyDef.position(def), 50.0f);
+        MemorySegment far = nBox2D.nCreateBody(world.segment(), def);
+        nBox2D.nCreatePolygonShape(far, nBox2D.nDefaultShapeDef(), nBox2D.nMakeBox(0.5f, 0.5f));
+    }
+
+    @Test
+    @DisplayName("DebugDrawRecorder records nothing for an empty world")
+    void testEmptyWorld() {
+        try (World world = new World()) {
+            DebugDrawRecorder recorder = new DebugDrawRecorder().drawJoints(true).drawingBounds(-10.0f, -10.0f, 10.0f, 10.0f);
+            recorder.record(world);
+            assertEquals(0, recorder.lines().count(), "no lines expected");
+            assertEquals(0, recorder.triangles().count(), "no triangles expected");
+            assertEquals(0, recorder.solidCircles().count(), "no solid circles expected");
+            assertEquals(0, recorder.stringCount(), "no strings expected");
+        }
+    }
+
+    @Test
+    @DisplayName("DebugDrawRecorder records the triangles of solid polygons and the corners of rounded ones")
+    void testBodies() {
+        try (World world = new World()) {
+            createBoxes(world);
+            DebugDrawRecorder recorder = new DebugDrawRecorder();
+            recorder.record(world);
+            // Two core triangles per box, plus two per edge of the rounded one.
+            assertEquals(2 + 8 + 2, recorder.triangles().count(), "polygon triangles mismatch");
+            assertEquals(4, recorder.solidCircles().count(), "one cap per rounded corner expected");
+            for (int i = 0; i < 4; i++) {
+                assertEquals(0.25f, recorder.solidCircles().get(i, 2), "corner radius mismatch");
+                assertEquals(20.0f, Math.abs(recorder.solidCircles().get(i, 0)), 1.0e-5f, "corner x mismatch");
+            }
+            float maxX = Float.NEGATIVE_INFINITY;
+            for (int i = 0, n = recorder.triangles().count(); i < n; i++) maxX = Math.max(maxX, recorder.triangles().get(i, 2));
+            assertEquals(50.5f, maxX, 1.0e-5f, "far box expected recorded");
+        }
+    }
+
+    @Test
+    @DisplayName("DebugDrawRecorder drops the shapes and primitives outside its drawing bounds")
+    void testDrawingBounds() {
+        try (World world = new World()) {
+            createBoxes(world);
+            DebugDrawRecorder recorder = new DebugDrawRecorder().drawingBounds(-5.0f, -5.0f, 5.0f, 5.0f);
+            recorder.record(world);
+            // The far box is culled whole, the rounded box keeps its core and its top and bottom edges only.
+            assertEquals(2 + 4, recorder.triangles().count(), "triangles outside the bounds expected dropped");
+            assertEquals(0, recorder.solidCircles().count(), "corners outside the bounds expected dropped");
+            for (int i = 0, n = recorder.triangles().count(); i < n; i++) {
+                for (int v = 0; v < 3; v++) assertTrue(recorder.triangles().get(i, 2 * v) < 21.0f, "far box expected culled");
+            }
+
+            recorder.clearDrawingBounds().record(world);
+            assertEquals(2 + 8 + 2, recorder.triangles().count(), "every triangle expected without bounds");
+            assertEquals(4, recorder.solidCircles().count(), "every corner expected without bounds");
+        }
+    }
+
+    @Test
+    @DisplayName("DebugDrawRecorder buffer layouts")
+    void testLayouts() {
+        DebugDrawRecorder recorder = new DebugDrawRecorder();
+        assertEquals(DebugDrawRecorder.LineFloats, recorder.lines().floatCount(), "line floats mismatch");
+        assertEquals(DebugDrawRecorder.TriangleFloats, recorder.triangles().floatCount(), "triangle floats mismatch");
+        assertEquals((DebugDrawRecorder.CircleFloats + 1) * Float.BYTES, recorder.circles().stride(), "circle stride mismatch");
+        assertNotNull(recorder.segment(), "segment expected not null");
+    }
+}
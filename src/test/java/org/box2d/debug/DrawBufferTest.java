@@ -0,0 +1,39 @@
+package org.box2d.debug;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrawBufferTest {
+    @Test
+    @DisplayName("DrawBuffer grows and keeps records")
+    void testGrowth() {
+        DrawBuffer buffer = new DrawBuffer(2, 1);
+        for (int i = 0; i < 10; i++) {
+            long offset = buffer.append();
+            buffer.put(offset, 0, i);
+            buffer.put(offset, 1, -i);
+            buffer.putColor(offset, 0x100 + i);
+        }
+        assertEquals(10, buffer.count(), "count expected 10");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, buffer.get(i, 0), "field 0 expected kept after growth");
+            assertEquals(-i, buffer.get(i, 1), "field 1 expected kept after growth");
+            assertEquals(0x100 + i, buffer.color(i), "color expected kept after growth");
+        }
+        assertEquals(10 * buffer.stride(), buffer.segment().byteSize(), "segment expected to cover the records");
+    }
+
+    @Test
+    @DisplayName("DrawBuffer clear and bounds checking")
+    void testClear() {
+        DrawBuffer buffer = new DrawBuffer(3, 4);
+        buffer.append();
+        buffer.clear();
+        assertEquals(0, buffer.count(), "count expected 0 after clear");
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0, 0), "cleared record expected to throw");
+        buffer.append();
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0, 3), "field index expected to throw");
+    }
+}
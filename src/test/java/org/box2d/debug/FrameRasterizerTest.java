@@ -0,0 +1,111 @@
+package org.box2d.debug;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameRasterizerTest {
+    private static DrawFrame frame() {
+        DrawBuffer lines = new DrawBuffer(DebugDrawRecorder.LineFloats, 1);
+        long offset = lines.append();
+        lines.put(offset, 0, -5.0f);
+        lines.put(offset, 1, 0.0f);
+        lines.put(offset, 2, 5.0f);
+        lines.put(offset, 3, 0.0f);
+        lines.putColor(offset, 0xFF0000);
+
+        DrawBuffer solidCircles = new DrawBuffer(DebugDrawRecorder.CircleFloats, 1);
+        offset = solidCircles.append();
+        solidCircles.put(offset, 0, 2.5f);
+        solidCircles.put(offset, 1, 2.5f);
+        solidCircles.put(offset, 2, 1.0f);
+        solidCircles.putColor(offset, 0x00FF00);
+
+        return new DrawFrame(lines, new DrawBuffer(DebugDrawRecorder.TriangleFloats, 1), new DrawBuffer(DebugDrawRecorder.CircleFloats, 1),
+                solidCircles, new DrawBuffer(DebugDrawRecorder.PointFloats, 1));
+    }
+
+    @Test
+    @DisplayName("FrameRasterizer paints primitives in image space")
+    void testRender() {
+        FrameRasterizer rasterizer = new FrameRasterizer(100, 100, -5.0f, -5.0f, 5.0f, 5.0f, 0x000000);
+        int[] pixels = rasterizer.render(frame());
+        assertEquals(0xFF0000, pixels[50 * 100 + 10], "horizontal line expected through the middle row");
+        assertEquals(0x00FF00, pixels[25 * 100 + 75], "solid circle expected at the top right quadrant");
+        assertEquals(0x000000, pixels[90 * 100 + 10], "background expected elsewhere");
+    }
+
+    @Test
+    @DisplayName("FrameRasterizer paints circles as ellipses when the view is stretched")
+    void testStretchedCircle() {
+        // 10 pixels per meter horizontally, 2 vertically.
+        FrameRasterizer rasterizer = new FrameRasterizer(100, 20, -5.0f, -5.0f, 5.0f, 5.0f, 0x000000);
+        int[] pixels = rasterizer.render(frame());
+        // The solid circle of radius 1 at (2.5, 2.5) covers 75 +- 10 horizontally and 5 +- 2 vertically.
+        assertEquals(0x00FF00, pixels[5 * 100 + 83], "ellipse expected to span its horizontal radius");
+        assertEquals(0x000000, pixels[5 * 100 + 87], "ellipse expected to end at its horizontal radius");
+        assertEquals(0x00FF00, pixels[6 * 100 + 75], "ellipse expected to span its vertical radius");
+        assertEquals(0x000000, pixels[8 * 100 + 75], "ellipse expected to end at its vertical radius");
+        assertTrue(rasterizer.encodeSvg(frame()).contains("rx=\"10.00\" ry=\"2.00\""), "SVG ellipse radii expected per axis");
+    }
+
+    @Test
+    @DisplayName("FrameRasterizer clips lines reaching far outside the image")
+    void testClippedLine() {
+        DrawBuffer lines = new DrawBuffer(DebugDrawRecorder.LineFloats, 1);
+        long offset = lines.append();
+        lines.put(offset, 0, -1.0e6f);
+        lines.put(offset, 1, -1.0e6f);
+        lines.put(offset, 2, 1.0e6f);
+        lines.put(offset, 3, 1.0e6f);
+        lines.putColor(offset, 0x0000FF);
+        DrawFrame frame = new DrawFrame(lines, new DrawBuffer(DebugDrawRecorder.TriangleFloats, 1), new DrawBuffer(DebugDrawRecorder.CircleFloats, 1),
+                new DrawBuffer(DebugDrawRecorder.CircleFloats, 1), new DrawBuffer(DebugDrawRecorder.PointFloats, 1));
+        FrameRasterizer rasterizer = new FrameRasterizer(100, 100, -5.0f, -5.0f, 5.0f, 5.0f, 0x000000);
+        int[] pixels = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> rasterizer.render(frame), "clipped line expected fast");
+        // The diagonal runs from the bottom left corner to the top right one, within a pixel of the exact line.
+        for (int i = 1; i < 99; i++) {
+            boolean painted = false;
+            for (int row = 98 - i; row <= 100 - i; row++) painted |= pixels[row * 100 + i] == 0x0000FF;
+            assertTrue(painted, "diagonal expected painted at column " + i);
+        }
+        assertEquals(0x000000, pixels[10 * 100 + 10], "background expected off the diagonal");
+    }
+
+    @Test
+    @DisplayName("FrameRasterizer encodes PNG and SVG")
+    void testEncode() {
+        FrameRasterizer rasterizer = new FrameRasterizer(64, 32, -5.0f, -5.0f, 5.0f, 5.0f, 0xFFFFFF);
+        byte[] png = rasterizer.encodePng(frame());
+        assertEquals((byte) 0x89, png[0], "PNG signature expected");
+        assertEquals('P', png[1], "PNG signature expected");
+        assertEquals(64, png[19], "PNG width expected in IHDR");
+        assertEquals(32, png[23], "PNG height expected in IHDR");
+
+        String svg = rasterizer.encodeSvg(frame());
+        assertTrue(svg.startsWith("<svg"), "SVG root expected");
+        assertTrue(svg.contains("<line"), "SVG line expected");
+        assertTrue(svg.contains("#00FF00"), "SVG circle color expected");
+    }
+
+    @Test
+    @DisplayName("FrameRasterizer encodes many frames in order")
+    void testEncodeAll() {
+        FrameRasterizer rasterizer = new FrameRasterizer(16, 16, -5.0f, -5.0f, 5.0f, 5.0f, 0x000000);
+        byte[][] images = rasterizer.encodePngAll(List.of(frame(), frame(), frame()));
+        assertEquals(3, images.length, "one image expected per frame");
+        assertArrayEquals(images[0], images[2], "identical frames expected identical images");
+    }
+
+    @Test
+    @DisplayName("FrameRasterizer rejects invalid configuration")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameRasterizer(0, 10, 0.0f, 0.0f, 1.0f, 1.0f, 0), "zero width expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> new FrameRasterizer(10, 10, 1.0f, 0.0f, 1.0f, 1.0f, 0), "empty view expected to throw");
+        assertThrows(IllegalArgumentException.class, () -> new FrameRasterizer(50_000, 50_000, 0.0f, 0.0f, 1.0f, 1.0f, 0), "overflowing size expected to throw");
+    }
+}
@@ -0,0 +1,101 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityManagerTest {
+    @Test
+    @DisplayName("ActivityManager disables bodies outside the observers and enables them on approach")
+    void testDisable() {
+        try (World world = new World(0.0f, 0.0f); ActivityManager manager = new ActivityManager(world, ActivityManager.FreezeMode.Disable, 5.0f)) {
+            long[] ids = row(world, 100);
+            assertEquals(100, manager.trackRegion(-10.0f, -10.0f, 1000.0f, 10.0f), "every dynamic body expected tracked");
+
+            update(manager, 0.0f, 50.0f);
+            assertEquals(6, manager.activeCount(), "bodies within the radius plus margin expected active");
+            assertEquals(94, manager.frozenCount(), "other bodies expected frozen");
+            assertFalse(nBox2D.nBodyIsEnabled(body(ids[99])), "far body expected disabled");
+            assertTrue(nBox2D.nBodyIsEnabled(body(ids[5])), "near body expected enabled");
+
+            update(manager, 500.0f, 50.0f);
+            assertEquals(11, manager.lastThawed(), "bodies within the new radius expected thawed");
+            assertEquals(6, manager.lastFrozen(), "bodies left behind expected frozen");
+            assertTrue(nBox2D.nBodyIsEnabled(body(ids[55])), "body at the edge expected enabled");
+
+            update(manager, 497.0f, 50.0f);
+            assertFalse(manager.isFrozen(ids[55]), "body within the margin expected to stay active");
+            assertTrue(manager.isFrozen(ids[44]), "body outside the radius expected to stay frozen");
+        }
+    }
+
+    @Test
+    @DisplayName("ActivityManager spreads transitions over updates")
+    void testBudget() {
+        try (World world = new World(0.0f, 0.0f); ActivityManager manager = new ActivityManager(world, ActivityManager.FreezeMode.Disable, 0.0f)) {
+            row(world, 100);
+            manager.trackRegion(-10.0f, -10.0f, 1000.0f, 10.0f);
+            update(manager, -1000.0f, 1.0f);
+            assertEquals(100, manager.frozenCount(), "every body expected frozen without a budget");
+
+            manager.maxTransitions(30);
+            update(manager, 500.0f, 1000.0f);
+            assertEquals(30, manager.lastThawed(), "thaws expected capped by the budget");
+            update(manager, 500.0f, 1000.0f);
+            update(manager, 500.0f, 1000.0f);
+            update(manager, 500.0f, 1000.0f);
+            assertEquals(100, manager.activeCount(), "every body expected active after enough updates");
+            assertEquals(0, manager.thawAll(), "nothing expected left to thaw");
+        }
+    }
+
+    @Test
+    @DisplayName("ActivityManager puts bodies to sleep and discovers bodies near the observers")
+    void testSleep() {
+        try (World world = new World(0.0f, 0.0f); ActivityManager manager = new ActivityManager(world, ActivityManager.FreezeMode.Sleep, 5.0f)) {
+            long[] ids = row(world, 10);
+            update(manager, 0.0f, 20.0f);
+            assertEquals(3, manager.activeCount(), "bodies near the observer expected discovered");
+            assertEquals(0, manager.frozenCount(), "untracked bodies expected left alone");
+
+            assertTrue(manager.track(ids[9]), "far body expected tracked");
+            assertFalse(manager.track(ids[9]), "second track expected ignored");
+            update(manager, 0.0f, 20.0f);
+            assertTrue(manager.isFrozen(ids[9]), "far body expected frozen");
+            assertFalse(nBox2D.nBodyIsAwake(body(ids[9])), "far body expected asleep");
+
+            assertTrue(manager.untrack(ids[9]), "far body expected untracked");
+            assertTrue(nBox2D.nBodyIsAwake(body(ids[9])), "untracked body expected woken");
+            assertEquals(0, manager.frozenCount(), "no body expected frozen");
+        }
+    }
+
+    private static void update(ActivityManager manager, float x, float radius) {
+        manager.update(new float[] {x}, new float[] {0.0f}, new float[] {radius}, 1);
+    }
+
+    private static MemorySegment body(long id) {
+        return BodyId.unpack(id, b2BodyId.allocate(Arena.ofAuto()));
+    }
+
+    // Dynamic unit boxes every 10 meters along the x axis, from the origin.
+    private static long[] row(World world, int count) {
+        WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+        WorldCommandBuffer.Producer producer = buffer.producer(0);
+        for (int i = 0; i < count; i++) {
+            producer.createBody(i, WorldCommandBuffer.DynamicBody, i * 10.0f, 0.0f, 0.0f)
+                    .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+        }
+        long[] ids = new long[count];
+        buffer.drain((tag, id) -> {
+            if (tag >= 0) ids[(int) tag] = id;
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveStepControllerTest {
+    @Test
+    @DisplayName("AdaptiveStepController drops to the fewest sub-steps under a tiny budget")
+    void testDegrade() {
+        try (World world = new World()) {
+            TaskSystemTest.pile(world, 200, (tag, id) -> {});
+            AdaptiveStepController controller = new AdaptiveStepController(world).subSteps(2, 8).budgetMillis(1.0e-6f);
+            assertEquals(8, controller.subStepCount(), "controller expected to start at the most sub-steps");
+            controller.step(1.0f / 60.0f);
+            assertEquals(2, controller.subStepCount(), "sub-steps expected to drop at once to the minimum");
+            assertEquals(1, controller.overrunCount(), "step expected over the budget");
+            assertTrue(controller.lastStepMillis() >= controller.lastSolveMillis(), "solve expected part of the step");
+            assertTrue(controller.contactCount() > 0, "pile expected in contact");
+        }
+    }
+
+    @Test
+    @DisplayName("AdaptiveStepController climbs back one sub-step per step under a large budget")
+    void testRecover() {
+        try (World world = new World()) {
+            TaskSystemTest.pile(world, 50, (tag, id) -> {});
+            AdaptiveStepController controller = new AdaptiveStepController(world).subSteps(1, 1).budgetMillis(1.0e4f);
+            controller.step(1.0f / 60.0f);
+            controller.subSteps(1, 4);
+            assertEquals(1, controller.subStepCount(), "count expected kept when the bounds widen after stepping");
+            for (int expected = 2; expected <= 4; expected++) {
+                controller.step(1.0f / 60.0f);
+                assertEquals(expected, controller.subStepCount(), "sub-steps expected to climb by one");
+            }
+            controller.step(1.0f / 60.0f);
+            assertEquals(4, controller.subStepCount(), "sub-steps expected capped at the maximum");
+            assertEquals(0, controller.overrunCount(), "no step expected over the budget");
+        }
+    }
+
+    @Test
+    @DisplayName("AdaptiveStepController keeps the active workers within bounds")
+    void testWorkers() {
+        try (TaskSystem tasks = new TaskSystem(4)) {
+            try (World world = new World(tasks.install(nBox2D.nDefaultWorldDef()))) {
+                TaskSystemTest.pile(world, 400, (tag, id) -> {});
+                AdaptiveStepController controller = new AdaptiveStepController(world, tasks).workers(1, 3);
+                assertEquals(3, controller.activeWorkers(), "active workers expected clamped to the maximum");
+                assertThrows(IllegalArgumentException.class, () -> controller.workers(1, 5), "bounds beyond the task system expected to throw");
+
+                controller.budgetMillis(1.0e4f);
+                for (int i = 0; i < 100; i++) {
+                    controller.step(1.0f / 60.0f);
+                    assertTrue(controller.activeWorkers() >= 1 && controller.activeWorkers() <= 3, "active workers expected within bounds");
+                }
+                assertEquals(1, controller.activeWorkers(), "workers expected returned when far under budget");
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> new AdaptiveStepController(null).workers(1, 1), "workers without a task system expected to throw");
+    }
+}
@@ -0,0 +1,30 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodyIdTest {
+    @Test
+    @DisplayName("BodyId pack and unpack round trip")
+    void testRoundTrip() {
+        long id = BodyId.pack(98765, 3, 40000);
+        assertEquals(98765, BodyId.index1(id), "index expected 98765");
+        assertEquals(3, BodyId.world0(id), "world expected 3");
+        assertEquals(40000, BodyId.generation(id), "generation expected unsigned 40000");
+
+        MemorySegment segment = BodyId.unpack(id, b2BodyId.allocate(Arena.ofAuto()));
+        assertEquals(id, BodyId.pack(segment), "segment round trip expected identical");
+    }
+
+    @Test
+    @DisplayName("BodyId null id")
+    void testNull() {
+        assertEquals(BodyId.Null, BodyId.pack(0, 0, 0), "zero components expected null id");
+    }
+}
@@ -0,0 +1,49 @@
+package org.box2d.dynamics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedCustomFilterTest {
+    @Test
+    @DisplayName("CachedCustomFilter answers repeated pairs from the cache")
+    void testHits() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedCustomFilter filter = new CachedCustomFilter((a, b) -> {
+            calls.incrementAndGet();
+            return (a + b) % 2 == 0;
+        }, 100);
+        assertEquals(128, filter.capacity(), "capacity expected rounded to a power of two");
+
+        assertTrue(filter.shouldCollide(1L, 3L), "even sum expected to collide");
+        assertTrue(filter.shouldCollide(3L, 1L), "swapped pair expected the same decision");
+        assertFalse(filter.shouldCollide(1L, 2L), "odd sum expected not to collide");
+        assertEquals(2, calls.get(), "delegate expected once per distinct pair");
+        assertEquals(1, filter.hits(), "one hit expected");
+        assertEquals(2, filter.misses(), "two misses expected");
+    }
+
+    @Test
+    @DisplayName("CachedCustomFilter invalidation")
+    void testInvalidate() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedCustomFilter filter = new CachedCustomFilter((a, b) -> {
+            calls.incrementAndGet();
+            return true;
+        }, 64);
+        filter.shouldCollide(1L, 2L);
+        filter.shouldCollide(3L, 4L);
+        filter.invalidate(2L);
+        filter.shouldCollide(1L, 2L);
+        filter.shouldCollide(3L, 4L);
+        assertEquals(3, calls.get(), "only the invalidated pair expected recomputed");
+
+        filter.invalidate();
+        filter.shouldCollide(3L, 4L);
+        assertEquals(4, calls.get(), "full invalidation expected recompute");
+        assertThrows(IllegalArgumentException.class, () -> new CachedCustomFilter((a, b) -> true, 0), "zero capacity expected to throw");
+    }
+}
@@ -0,0 +1,38 @@
+package org.box2d.dynamics;
+
+import org.box2d.collision.Capsule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CharacterMoverTest {
+    private static final float delta = 0.0001f;
+
+    @Test
+    @DisplayName("CharacterMover travels freely in an empty world")
+    void testFreeMove() {
+        try (World world = new World()) {
+            CharacterMover mover = new CharacterMover(world, Capsule.vertical(0.5f, 2.0f));
+            mover.position(1.0f, 2.0f).velocity(3.0f, -1.0f);
+            mover.solveMove(1.0f);
+            assertEquals(4.0f, mover.x(), delta, "x expected start + velocity * dt");
+            assertEquals(1.0f, mover.y(), delta, "y expected start + velocity * dt");
+            assertEquals(0, mover.planeCount(), "no planes expected in an empty world");
+            assertEquals(3.0f, mover.velocityX(), delta, "velocity x expected unclipped");
+            assertEquals(-1.0f, mover.velocityY(), delta, "velocity y expected unclipped");
+        }
+    }
+
+    @Test
+    @DisplayName("CharacterMover rejects invalid settings")
+    void testInvalidSettings() {
+        try (World world = new World()) {
+            Capsule capsule = Capsule.vertical(0.5f, 2.0f);
+            assertThrows(IllegalArgumentException.class, () -> new CharacterMover(world, capsule, 0), "zero plane capacity expected to throw");
+            CharacterMover mover = new CharacterMover(world, capsule);
+            assertThrows(IllegalArgumentException.class, () -> mover.maxIterations(0), "zero iterations expected to throw");
+            assertThrows(IndexOutOfBoundsException.class, () -> mover.planeNormalY(0), "plane index expected out of range");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2JointId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JointIdTest {
+    @Test
+    @DisplayName("JointId pack and unpack round trip")
+    void testRoundTrip() {
+        long id = JointId.pack(4321, 12, 1);
+        assertEquals(4321, JointId.index1(id), "index expected 4321");
+        assertEquals(12, JointId.world0(id), "world expected 12");
+        assertEquals(1, JointId.generation(id), "generation expected 1");
+
+        MemorySegment segment = JointId.unpack(id, b2JointId.allocate(Arena.ofAuto()));
+        assertEquals(id, JointId.pack(segment), "segment round trip expected identical");
+    }
+
+    @Test
+    @DisplayName("JointId null id")
+    void testNull() {
+        assertEquals(JointId.Null, JointId.pack(0, 0, 0), "zero components expected null id");
+    }
+}
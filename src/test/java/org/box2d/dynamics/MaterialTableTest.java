@@ -0,0 +1,50 @@
+package org.box2d.dynamics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaterialTableTest {
+    private static final float delta = 0.0001f;
+
+    @Test
+    @DisplayName("MaterialTable falls back to default mixing")
+    void testDefaultMixing() {
+        MaterialTable table = new MaterialTable(4);
+        assertEquals(0.5f, table.mixFriction(0.25f, 1, 1.0f, 2), delta, "friction expected sqrt(a * b)");
+        assertEquals(0.8f, table.mixRestitution(0.2f, 1, 0.8f, 2), delta, "restitution expected max(a, b)");
+        assertEquals(0.5f, table.mixFriction(0.25f, -1, 1.0f, 99), delta, "out of range ids expected default mixing");
+    }
+
+    @Test
+    @DisplayName("MaterialTable set is symmetric")
+    void testSet() {
+        MaterialTable table = new MaterialTable(4).set(1, 3, 0.9f, 0.1f);
+        assertEquals(0.9f, table.mixFriction(0.0f, 3, 0.0f, 1), delta, "friction expected from table");
+        assertEquals(0.1f, table.mixRestitution(1.0f, 1, 1.0f, 3), delta, "restitution expected from table");
+        assertTrue(Float.isNaN(table.friction(0, 0)), "unset entry expected NaN");
+        assertThrows(IndexOutOfBoundsException.class, () -> table.set(4, 0, 1.0f, 1.0f), "out of range id expected to throw");
+    }
+
+    @Test
+    @DisplayName("MaterialTable replace swaps both matrices")
+    void testReplace() {
+        MaterialTable table = new MaterialTable(2);
+        float[] friction = {0.1f, 0.2f, 0.2f, 0.3f};
+        float[] restitution = {0.4f, 0.5f, 0.5f, 0.6f};
+        table.replace(friction, restitution);
+        friction[0] = 9.0f;
+        assertEquals(0.1f, table.friction(0, 0), delta, "replace expected to copy the arrays");
+        assertEquals(0.6f, table.restitution(1, 1), delta, "restitution expected replaced");
+        assertThrows(IllegalArgumentException.class, () -> table.replace(new float[3], restitution), "wrong size expected to throw");
+    }
+
+    @Test
+    @DisplayName("MaterialTable installs on a world")
+    void testInstall() {
+        try (World world = new World()) {
+            assertDoesNotThrow(() -> world.materialTable(new MaterialTable(60)).materialTable(null), "install and removal expected to succeed");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2ShapeId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeIdTest {
+    @Test
+    @DisplayName("ShapeId pack and unpack round trip")
+    void testRoundTrip() {
+        long id = ShapeId.pack(123456, 7, 65535);
+        assertEquals(123456, ShapeId.index1(id), "index expected 123456");
+        assertEquals(7, ShapeId.world0(id), "world expected 7");
+        assertEquals(65535, ShapeId.generation(id), "generation expected unsigned 65535");
+
+        MemorySegment segment = ShapeId.unpack(id, b2ShapeId.allocate(Arena.ofAuto()));
+        assertEquals(id, ShapeId.pack(segment), "segment round trip expected identical");
+    }
+
+    @Test
+    @DisplayName("ShapeId null id")
+    void testNull() {
+        assertEquals(ShapeId.Null, ShapeId.pack(0, 0, 0), "zero components expected null id");
+    }
+}
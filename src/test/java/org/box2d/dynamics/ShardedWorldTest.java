@@ -0,0 +1,76 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedWorldTest {
+    @Test
+    @DisplayName("ShardedWorld duplicates static geometry into the tiles it overlaps, band included")
+    void testGhostGeometry() {
+        try (ShardedWorld world = new ShardedWorld(0.0f, -10.0f, 0.0f, 0.0f, 10.0f, 2, 2, 1.0f)) {
+            assertEquals(4, world.shardCount(), "four tiles expected");
+            assertEquals(1, world.addStaticBox(2.0f, 2.0f, 0.5f, 0.5f, 0.0f), "box inside a tile expected once");
+            assertEquals(2, world.addStaticBox(9.8f, 2.0f, 0.5f, 0.5f, 0.0f), "box in the band expected in both columns");
+            assertEquals(4, world.addStaticBox(10.0f, 10.0f, 0.5f, 0.5f, 0.0f), "box at the corner expected in every tile");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ShardedWorld(0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 1, 1, 0.0f), "zero tile size expected to throw");
+    }
+
+    @Test
+    @DisplayName("ShardedWorld migrates a body once its bounds leave its tile, keeping its velocity")
+    void testMigration() {
+        try (ShardedWorld world = new ShardedWorld(0.0f, 0.0f, 0.0f, 0.0f, 10.0f, 2, 1, 0.0f)) {
+            int handle = world.createCircle(9.0f, 5.0f, 0.5f, 1.0f);
+            assertEquals(0, world.shardOf(handle), "body expected in the first tile");
+            MemorySegment velocity = b2Vec2.allocate(Arena.ofAuto());
+            b2Vec2.x(velocity, 10.0f);
+            nBox2D.nBodySetLinearVelocity(body(world.bodyId(handle)), velocity);
+
+            int steps = 0;
+            while (world.shardOf(handle) == 0 && steps++ < 60) world.step(1.0f / 60.0f, 4);
+            assertEquals(1, world.shardOf(handle), "body expected migrated to the second tile");
+            assertEquals(1, world.totalMigrations(), "one migration expected");
+            assertEquals(0, world.bodyCount(0), "first tile expected empty");
+            assertEquals(1, world.bodyCount(1), "second tile expected to own the body");
+            assertTrue(world.x(handle) > 10.5f && world.x(handle) < 10.8f, "position expected carried over");
+            MemorySegment carried = nBox2D.nBodyGetLinearVelocity(Arena.ofAuto(), body(world.bodyId(handle)));
+            assertEquals(10.0f, b2Vec2.x(carried), 1.0e-4f, "velocity expected carried over");
+
+            world.destroyBody(handle);
+            assertEquals(0, world.bodyCount(), "no body expected left");
+            assertThrows(IllegalArgumentException.class, () -> world.shardOf(handle), "destroyed handle expected to throw");
+        }
+    }
+
+    @Test
+    @DisplayName("ShardedWorld steps its tiles in parallel with bodies resting on shared ground")
+    void testParallelStep() {
+        try (ShardedWorld world = new ShardedWorld(0.0f, -10.0f, 0.0f, 0.0f, 10.0f, 4, 1, 1.0f);
+             ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            assertEquals(4, world.addStaticBox(20.0f, 0.0f, 20.0f, 0.5f, 0.0f), "ground expected in every tile");
+            int[] handles = new int[40];
+            for (int i = 0; i < handles.length; i++) handles[i] = world.createBox(0.5f + i, 3.0f, 0.0f, 0.4f, 0.4f, 1.0f);
+            for (int s = 0; s < 4; s++) assertEquals(10, world.bodyCount(s), "bodies expected spread over the tiles");
+
+            for (int i = 0; i < 120; i++) world.step(1.0f / 60.0f, 4, executor);
+            for (int handle : handles) {
+                assertEquals(0.9f, world.y(handle), 0.05f, "body expected resting on the ground");
+            }
+            assertEquals(0, world.totalMigrations(), "resting bodies expected not to migrate");
+        }
+    }
+
+    private static MemorySegment body(long id) {
+        return BodyId.unpack(id, b2BodyId.allocate(Arena.ofAuto()));
+    }
+}
@@ -0,0 +1,62 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSystemTest {
+    @Test
+    @DisplayName("TaskSystem validates its worker counts")
+    void testWorkerCounts() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskSystem(0), "zero workers expected to throw");
+        try (TaskSystem tasks = new TaskSystem(4)) {
+            assertEquals(4, tasks.activeWorkers(), "every worker expected active by default");
+            assertEquals(2, tasks.activeWorkers(2).activeWorkers(), "active worker count expected updated");
+            assertThrows(IllegalArgumentException.class, () -> tasks.activeWorkers(0), "zero active workers expected to throw");
+            assertThrows(IllegalArgumentException.class, () -> tasks.activeWorkers(5), "more active workers than workers expected to throw");
+        }
+    }
+
+    @Test
+    @DisplayName("TaskSystem steps a world identically with any number of active workers")
+    void testDeterminism() {
+        float[] single = simulate(1);
+        assertTrue(single[1] < 22.5f, "pile expected to fall");
+        for (int active : new int[] {2, 4}) {
+            assertArrayEquals(single, simulate(active), "result with " + active + " active workers expected identical");
+        }
+    }
+
+    static float[] simulate(int activeWorkers) {
+        try (TaskSystem tasks = new TaskSystem(4).activeWorkers(activeWorkers)) {
+            long[] last = new long[1];
+            try (World world = new World(tasks.install(nBox2D.nDefaultWorldDef()))) {
+                pile(world, 400, (tag, id) -> last[0] = id);
+                for (int i = 0; i < 120; i++) world.step(1.0f / 60.0f, 4);
+                MemorySegment position = nBox2D.nBodyGetPosition(Arena.ofAuto(), BodyId.unpack(last[0], b2BodyId.allocate(Arena.ofAuto())));
+                return new float[] {b2Vec2.x(position), b2Vec2.y(position)};
+            }
+        }
+    }
+
+    static void pile(World world, int count, WorldCommandBuffer.CreationListener listener) {
+        WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+        WorldCommandBuffer.Producer producer = buffer.producer(0);
+        producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                .createBox(-1, WorldCommandBuffer.LastBody, 50.0f, 1.0f, 0.0f);
+        for (int i = 0; i < count; i++) {
+            producer.createBody(i, WorldCommandBuffer.DynamicBody, (i % 20) * 1.1f - 11.0f, 2.0f + (i / 20) * 1.1f, 0.0f)
+                    .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+        }
+        buffer.drain((tag, id) -> {
+            if (tag == count - 1) listener.created(tag, id);
+        });
+    }
+}
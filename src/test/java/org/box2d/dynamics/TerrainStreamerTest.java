@@ -0,0 +1,117 @@
+package org.box2d.dynamics;
+
+import org.box2d.collision.Capsule;
+import org.box2d.collision.Polygon;
+import org.box2d.math.Rot;
+import org.box2d.math.Vec2;
+import org.box2d.math.Vec2Array;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TerrainStreamerTest {
+    private static final float chunkSize = 10.0f;
+
+    // A closed chain along the chunk border and a ground slab at its bottom.
+    private static TerrainChunk chunk(int chunkX, int chunkY) {
+        float x0 = chunkX * chunkSize, y0 = chunkY * chunkSize;
+        Vec2Array border = new Vec2Array(x0, y0, x0 + chunkSize, y0, x0 + chunkSize, y0 + chunkSize, x0, y0 + chunkSize);
+        Polygon ground = Polygon.box(chunkSize / 2.0f, 0.5f, new Vec2(x0 + chunkSize / 2.0f, y0 + 0.5f), new Rot());
+        return new TerrainChunk().addChain(border, true).addPolygon(ground);
+    }
+
+    private static void drain(TerrainStreamer streamer) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (streamer.pendingLoadCount() > 0 || streamer.pendingUnloadCount() > 0) {
+            streamer.apply(Long.MAX_VALUE);
+            if (System.nanoTime() > deadline) fail("streaming expected to finish within 5 seconds");
+            Thread.sleep(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("TerrainStreamer loads chunks around a region and unloads them when it moves")
+    void testLoadUnload() throws InterruptedException {
+        try (World world = new World(); TerrainStreamer streamer = new TerrainStreamer(world, TerrainStreamerTest::chunk, chunkSize, 1, 64)) {
+            streamer.update(5.0f, 5.0f);
+            assertEquals(9, streamer.pendingLoadCount(), "3x3 chunks expected requested");
+            drain(streamer);
+            assertEquals(9, streamer.loadedCount(), "3x3 chunks expected loaded");
+            assertTrue(streamer.isLoaded(-1, -1), "corner chunk expected loaded");
+            assertTrue(streamer.rebuildCount() >= 1, "static tree expected rebuilt after the batch");
+
+            streamer.update(25.0f, 5.0f);
+            drain(streamer);
+            assertEquals(9, streamer.loadedCount(), "3x3 chunks expected loaded after moving");
+            assertFalse(streamer.isLoaded(0, 0), "chunk left behind expected unloaded");
+            assertTrue(streamer.isLoaded(3, 1), "chunk ahead expected loaded");
+        }
+    }
+
+    @Test
+    @DisplayName("TerrainStreamer bounds the number of chunks to the closest ones")
+    void testChunkLimit() throws InterruptedException {
+        try (World world = new World(); TerrainStreamer streamer = new TerrainStreamer(world, TerrainStreamerTest::chunk, chunkSize, 2, 5)) {
+            streamer.update(5.0f, 5.0f, 1000.0f, 1000.0f);
+            assertEquals(5, streamer.pendingLoadCount(), "requests expected capped at 5");
+            drain(streamer);
+            assertEquals(5, streamer.loadedCount(), "loaded chunks expected capped at 5");
+            assertTrue(streamer.isLoaded(0, 0), "region chunk expected loaded first");
+            assertTrue(streamer.isLoaded(100, 100), "second region chunk expected loaded first");
+        }
+    }
+
+    @Test
+    @DisplayName("TerrainStreamer applies one chunk per call on a zero budget")
+    void testBudget() throws InterruptedException {
+        try (World world = new World(); TerrainStreamer streamer = new TerrainStreamer(world, TerrainStreamerTest::chunk, chunkSize, 1, 64)) {
+            streamer.update(5.0f, 5.0f);
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            int calls = 0;
+            while (streamer.loadedCount() < 9) {
+                int applied = streamer.apply(0L);
+                assertTrue(applied <= 1, "at most one chunk expected per zero budget apply");
+                if (applied == 1) calls++;
+                if (System.nanoTime() > deadline) fail("streaming expected to finish within 5 seconds");
+                Thread.sleep(1L);
+            }
+            assertEquals(9, calls, "one apply expected per chunk");
+        }
+    }
+
+    @Test
+    @DisplayName("TerrainStreamer geometry collides once loaded")
+    void testCollision() throws InterruptedException {
+        try (World world = new World(); TerrainStreamer streamer = new TerrainStreamer(world, TerrainStreamerTest::chunk, chunkSize, 0, 4)) {
+            CharacterMover mover = new CharacterMover(world, Capsule.vertical(0.5f, 2.0f));
+            mover.position(5.0f, 2.05f).velocity(0.0f, -10.0f);
+            streamer.update(5.0f, 5.0f);
+            drain(streamer);
+            mover.solveMove(1.0f / 60.0f);
+            assertTrue(mover.planeCount() > 0, "mover expected to touch the streamed ground");
+            assertTrue(mover.y() > 1.95f, "mover expected to stop on top of the ground");
+        }
+    }
+
+    @Test
+    @DisplayName("TerrainStreamer counts failed loads and retries them")
+    void testFailure() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ChunkSource flaky = (chunkX, chunkY) -> {
+            if (calls.getAndIncrement() == 0) throw new IllegalStateException("first load fails");
+            return chunk(chunkX, chunkY);
+        };
+        try (World world = new World(); TerrainStreamer streamer = new TerrainStreamer(world, flaky, chunkSize, 0, 4)) {
+            streamer.update(5.0f, 5.0f);
+            drain(streamer);
+            assertEquals(1, streamer.failureCount(), "failure expected counted");
+            assertEquals(0, streamer.loadedCount(), "failed chunk expected not loaded");
+            streamer.update(5.0f, 5.0f);
+            drain(streamer);
+            assertEquals(1, streamer.loadedCount(), "chunk expected loaded on retry");
+        }
+    }
+}
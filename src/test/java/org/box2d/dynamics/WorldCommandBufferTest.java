@@ -0,0 +1,175 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2JointId;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldCommandBufferTest {
+    @Test
+    @DisplayName("WorldCommandBuffer drains producers in id order")
+    void testProducerOrder() {
+        try (World world = new World()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer second = buffer.producer(7);
+            WorldCommandBuffer.Producer first = buffer.producer(3);
+            second.createBody(70, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f);
+            first.createBody(30, WorldCommandBuffer.StaticBody, 1.0f, 0.0f, 0.0f)
+                    .createBody(31, WorldCommandBuffer.StaticBody, 2.0f, 0.0f, 0.0f);
+
+            List<Long> tags = new ArrayList<>();
+            assertEquals(3, buffer.drain((tag, id) -> tags.add(tag)), "three commands expected applied");
+            assertEquals(List.of(30L, 31L, 70L), tags, "producer 3 expected before producer 7, each in enqueue order");
+            assertEquals(2, first.sequence(), "first producer sequence expected 2");
+            assertEquals(0, buffer.drain(), "second drain expected empty");
+            assertThrows(IllegalArgumentException.class, () -> buffer.producer(3), "duplicate producer id expected to throw");
+        }
+    }
+
+    @Test
+    @DisplayName("WorldCommandBuffer creates shapes and joints on the last body and applies impulses")
+    void testLastBody() {
+        try (World world = new World(0.0f, 0.0f)) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            long[] ids = new long[4];
+            producer.createBody(0, WorldCommandBuffer.DynamicBody, 0.0f, 0.0f, 0.0f)
+                    .createBox(1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f)
+                    .applyLinearImpulse(WorldCommandBuffer.LastBody, 2.0f, 0.0f)
+                    .createBody(2, WorldCommandBuffer.DynamicBody, 3.0f, 0.0f, 0.0f)
+                    .createCircle(3, WorldCommandBuffer.LastBody, 0.0f, 0.0f, 0.5f, 1.0f);
+            assertEquals(5, buffer.drain((tag, id) -> ids[(int) tag] = id), "five commands expected applied");
+
+            MemorySegment body = BodyId.unpack(ids[0], b2BodyId.allocate(Arena.ofAuto()));
+            assertTrue(nBox2D.nBodyIsValid(body), "created body expected valid");
+            assertTrue(b2Vec2.x(nBox2D.nBodyGetLinearVelocity(Arena.ofAuto(), body)) > 0.0f, "impulse expected applied to the boxed body");
+
+            producer.createDistanceJoint(0, ids[0], ids[2], 0.0f, 0.0f, 0.0f, 0.0f, 3.0f);
+            long[] joint = new long[1];
+            buffer.drain((tag, id) -> joint[0] = id);
+            assertTrue(nBox2D.nJointIsValid(JointId.unpack(joint[0], b2JointId.allocate(Arena.ofAuto()))), "joint expected valid");
+        }
+    }
+
+    @Test
+    @DisplayName("WorldCommandBuffer skips commands on destroyed bodies")
+    void testSkipInvalid() {
+        try (World world = new World()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            producer.createBody(0, WorldCommandBuffer.DynamicBody, 0.0f, 0.0f, 0.0f)
+                    .destroyBody(WorldCommandBuffer.LastBody)
+                    .applyLinearImpulse(WorldCommandBuffer.LastBody, 1.0f, 0.0f)
+                    .destroyBody(WorldCommandBuffer.LastBody);
+            assertEquals(2, buffer.drain(), "creation and first destruction expected applied");
+            assertEquals(2, buffer.skippedCount(), "commands on the destroyed body expected skipped");
+        }
+    }
+
+    // Create a dynamic box, returning its body id and shape id.
+    private static long[] createBox(WorldCommandBuffer buffer, WorldCommandBuffer.Producer producer) {
+        long[] ids = new long[2];
+        producer.createBody(0, WorldCommandBuffer.DynamicBody, 0.0f, 0.0f, 0.0f)
+                .createBox(1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+        buffer.drain((tag, id) -> ids[(int) tag] = id);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("WorldCommandBuffer skips and counts destruction of destroyed shapes")
+    void testSkipInvalidShape() {
+        try (World world = new World()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            long shape = createBox(buffer, producer)[1];
+            producer.destroyShape(shape).destroyShape(shape);
+            assertEquals(1, buffer.drain(), "first destruction expected applied");
+            assertEquals(1, buffer.skippedCount(), "second destruction expected skipped");
+        }
+    }
+
+    @Test
+    @DisplayName("WorldCommandBuffer skips and counts filters of destroyed shapes")
+    void testSkipInvalidFilter() {
+        try (World world = new World()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            long shape = createBox(buffer, producer)[1];
+            producer.setFilter(shape, 2L, World.DefaultMaskBits, 0).destroyShape(shape).setFilter(shape, 4L, World.DefaultMaskBits, 0);
+            assertEquals(2, buffer.drain(), "filter and destruction expected applied");
+            assertEquals(1, buffer.skippedCount(), "filter of the destroyed shape expected skipped");
+        }
+    }
+
+    @Test
+    @DisplayName("WorldCommandBuffer skips and counts destruction of destroyed joints")
+    void testSkipInvalidJoint() {
+        try (World world = new World()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            long bodyA = createBox(buffer, producer)[0];
+            long bodyB = createBox(buffer, producer)[0];
+            long[] joint = new long[1];
+            producer.createRevoluteJoint(0, bodyA, bodyB, 0.0f, 0.0f, 0.0f, 0.0f);
+            buffer.drain((tag, id) -> joint[0] = id);
+            producer.destroyJoint(joint[0]).destroyJoint(joint[0]);
+            assertEquals(1, buffer.drain(), "first destruction expected applied");
+            assertEquals(1, buffer.skippedCount(), "second destruction expected skipped");
+        }
+    }
+
+    @Test
+    @DisplayName("WorldCommandBuffer keeps per producer order under concurrent producers and drains")
+    void testStress() throws Exception {
+        int producerCount = 32;
+        int commandCount = 2000;
+        try (World world = new World(); ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producerCount; p++) {
+                WorldCommandBuffer.Producer producer = buffer.producer(p);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < commandCount; i++) {
+                        producer.createBody((long) producer.id() * commandCount + i, WorldCommandBuffer.StaticBody, i, 0.0f, 0.0f);
+                    }
+                    return null;
+                }));
+            }
+
+            long[] last = new long[producerCount];
+            Arrays.fill(last, -1L);
+            int[] received = new int[1];
+            boolean[] ordered = {true};
+            WorldCommandBuffer.CreationListener listener = (tag, id) -> {
+                int p = (int) (tag / commandCount);
+                if (tag <= last[p]) ordered[0] = false;
+                last[p] = tag;
+                received[0]++;
+            };
+            start.countDown();
+            while (!futures.stream().allMatch(Future::isDone)) buffer.drain(listener);
+            for (Future<?> future : futures) future.get();
+            buffer.drain(listener);
+
+            assertEquals(producerCount * commandCount, received[0], "every command expected applied exactly once");
+            assertEquals(producerCount * commandCount, buffer.appliedCount(), "applied count expected to match");
+            assertTrue(ordered[0], "each producer expected applied in enqueue order");
+        }
+    }
+}
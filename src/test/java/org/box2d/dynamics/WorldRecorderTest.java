@@ -0,0 +1,115 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2WorldId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldRecorderTest {
+    private static final int Steps = 90;
+
+    // Record a pile hit by impulses and an explosion, returning the digest of every step.
+    private static int[] record(Path directory, long fileSize) {
+        int[] digests = new int[Steps];
+        try (World world = new World(0.0f, -10.0f)) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            try (WorldRecorder recorder = new WorldRecorder(world, buffer, directory, fileSize)) {
+                producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                        .createBox(-1, WorldCommandBuffer.LastBody, 50.0f, 1.0f, 0.0f);
+                for (int i = 0; i < 100; i++) {
+                    producer.createBody(i, WorldCommandBuffer.DynamicBody, (i % 10) * 1.1f - 5.0f, 2.0f + (i / 10) * 1.1f, 0.0f)
+                            .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+                }
+                for (int i = 0; i < Steps; i++) {
+                    if (i % 10 == 5) producer.applyLinearImpulse(WorldCommandBuffer.LastBody, 2.0f, 5.0f);
+                    if (i == 30) recorder.explode(0.0f, 1.0f, 3.0f, 1.0f, 5.0f, World.DefaultMaskBits);
+                    buffer.drain();
+                    digests[i] = recorder.step(1.0f / 60.0f, 4);
+                }
+                assertEquals(Steps, recorder.stepCount(), "every step expected journaled");
+            }
+        }
+        return digests;
+    }
+
+    @Test
+    @DisplayName("WorldReplayer reproduces the recorded digests across rotated files")
+    void testReplay(@TempDir Path directory) {
+        int[] digests = record(directory, 4096);
+        assertTrue(Files.exists(WorldRecorder.file(directory, 1)), "small journal files expected rotated");
+        try (WorldReplayer replayer = new WorldReplayer(directory)) {
+            for (int i = 0; i < Steps; i++) {
+                assertTrue(replayer.step(), "step " + i + " expected replayed");
+                assertEquals(digests[i], replayer.lastDigest(), "digest of step " + i + " expected recorded");
+            }
+            assertFalse(replayer.step(), "journal expected ended");
+            assertTrue(replayer.isEnded(), "replayer expected ended");
+        }
+    }
+
+    @Test
+    @DisplayName("WorldReplayer replays ids of every kind while the recorded world is still open")
+    void testReplayWhileOpen(@TempDir Path directory) {
+        try (World world = new World(0.0f, -10.0f)) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            try (WorldRecorder recorder = new WorldRecorder(world, buffer, directory, 1 << 20)) {
+                long[] ids = new long[20];
+                producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                        .createBox(-1, WorldCommandBuffer.LastBody, 50.0f, 1.0f, 0.0f);
+                for (int i = 0; i < 10; i++) {
+                    producer.createBody(i, WorldCommandBuffer.DynamicBody, i * 1.1f - 5.0f, 2.0f, 0.0f)
+                            .createBox(10 + i, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+                }
+                buffer.drain((tag, id) -> {
+                    if (tag >= 0) ids[(int) tag] = id;
+                });
+                long[] joint = new long[1];
+                producer.createRevoluteJoint(0, ids[0], ids[1], 0.55f, 0.0f, -0.55f, 0.0f);
+                buffer.drain((tag, id) -> joint[0] = id);
+
+                producer.destroyBody(ids[9]).destroyShape(ids[18]).setFilter(ids[17], 2L, 2L, 0)
+                        .applyLinearImpulse(ids[2], 0.0f, 5.0f).destroyJoint(joint[0]);
+                buffer.drain();
+                assertEquals(0, buffer.skippedCount(), "every command expected applied when recorded");
+                for (int i = 0; i < 30; i++) recorder.step(1.0f / 60.0f, 4);
+
+                try (WorldReplayer replayer = new WorldReplayer(directory)) {
+                    assertNotEquals(b2WorldId.index1(world.segment()), b2WorldId.index1(replayer.world().segment()), "replayed world expected at another index");
+                    assertEquals(30, replayer.run(), "every step expected replayed");
+                    assertEquals(recorder.lastDigest(), replayer.lastDigest(), "digest expected to match the open world");
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("WorldReplayer detects a journal that no longer matches the simulation")
+    void testDivergence(@TempDir Path directory) throws IOException {
+        record(directory, 1 << 20);
+        assertFalse(Files.exists(WorldRecorder.file(directory, 1)), "whole journal expected in the first file");
+        // Nudge the y coordinate of the last body created, its F1 field.
+        Path path = WorldRecorder.file(directory, 0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE); Arena arena = Arena.ofConfined()) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0L, Files.size(path), arena);
+            long offset = 201 * WorldCommandBuffer.RecordSize;
+            assertEquals(1, file.get(ValueLayout.JAVA_INT, offset + WorldCommandBuffer.Op), "record expected the last body creation");
+            file.set(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F1, file.get(ValueLayout.JAVA_FLOAT, offset + WorldCommandBuffer.F1) + 0.01f);
+        }
+        try (WorldReplayer replayer = new WorldReplayer(directory)) {
+            assertThrows(IllegalStateException.class, replayer::run, "modified journal expected to diverge");
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package org.box2d.dynamics;
+
+import org.box2d.internal.b2BodyDef;
+import org.box2d.internal.b2ShapeDef;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldTest {
+    @Test
+    @DisplayName("World is valid until closed")
+    void testLifecycle() {
+        World world = new World();
+        assertTrue(world.isValid(), "new world expected valid");
+        world.step(1.0f / 60.0f, 4);
+        world.close();
+        assertFalse(world.isValid(), "closed world expected invalid");
+        assertDoesNotThrow(world::close, "closing twice expected to do nothing");
+    }
+
+    @Test
+    @DisplayName("World memory segment access")
+    void testMemSeg() {
+        try (World world = new World(0.0f, -9.8f)) {
+            assertNotNull(world.segment(), "segment expected not null");
+        }
+    }
+
+    @Test
+    @DisplayName("World explode pushes nearby dynamic bodies away")
+    void testExplode() {
+        try (World world = new World(0.0f, 0.0f)) {
+            MemorySegment near = box(world, 2.0f, 0.0f, true);
+            MemorySegment far = box(world, 20.0f, 0.0f, true);
+            world.explode(0.0f, 0.0f, 3.0f, 1.0f, 10.0f);
+            assertTrue(velocityX(near) > 0.0f, "near body expected pushed along +x");
+            assertEquals(0.0f, velocityX(far), 0.0f, "far body expected untouched");
+        }
+    }
+
+    @Test
+    @DisplayName("World explodeAll merges duplicates and reports each affected body once")
+    void testExplodeAll() {
+        try (World world = new World(0.0f, 0.0f)) {
+            MemorySegment right = box(world, 2.0f, 0.0f, true);
+            MemorySegment left = box(world, -2.0f, 0.0f, true);
+            box(world, 20.0f, 0.0f, true);
+            box(world, 0.0f, -2.0f, false);
+
+            float[] xs = {0.0f, 0.0f, 0.0f, 1.0f};
+            float[] ys = {0.0f, 0.0f, 0.0f, 0.0f};
+            float[] radii = {3.0f, 3.0f, 3.0f, 3.0f};
+            List<Long> affected = new ArrayList<>();
+            assertEquals(2, world.explodeAll(xs, ys, radii, 4, 1.0f, 10.0f, affected::add), "duplicates expected merged");
+
+            assertEquals(2, affected.size(), "only the two near dynamic bodies expected");
+            assertTrue(affected.contains(BodyId.pack(right)), "right body expected reported");
+            assertTrue(affected.contains(BodyId.pack(left)), "left body expected reported");
+            assertTrue(affected.get(0) < affected.get(1), "bodies expected in ascending id order");
+            assertTrue(velocityX(right) > 0.0f, "right body expected pushed along +x");
+            assertTrue(velocityX(left) < 0.0f, "left body expected pushed along -x");
+
+            float[] impulses = {5.0f, 5.0f, 5.0f, 5.0f};
+            assertEquals(1, world.explodeAll(xs, ys, radii, impulses, 4, 1.0f, 1.5f, World.DefaultMaskBits, null),
+                    "centers within the merge distance expected merged");
+        }
+    }
+
+    @Test
+    @DisplayName("World explodeAll rejects invalid arguments")
+    void testExplodeAllInvalid() {
+        try (World world = new World()) {
+            float[] values = new float[2];
+            assertThrows(IndexOutOfBoundsException.class, () -> world.explodeAll(values, values, values, 3, 1.0f, 1.0f, null),
+                    "count past the arrays expected to throw");
+            assertThrows(IllegalArgumentException.class, () -> world.explodeAll(values, values, values, values, 2, 1.0f, -1.0f, World.DefaultMaskBits, null),
+                    "negative merge distance expected to throw");
+        }
+    }
+
+    @Test
+    @DisplayName("World stepAsync runs the step on a platform thread")
+    void testStepAsync() throws Exception {
+        try (World world = new World()) {
+            touchingPair(world);
+            AtomicReference<Thread> stepThread = new AtomicReference<>();
+            world.preSolve((shapeIdA, shapeIdB, manifold) -> {
+                stepThread.set(Thread.currentThread());
+                return true;
+            });
+            Thread caller = Thread.ofVirtual().start(() -> world.stepAsync(1.0f / 60.0f, 4).join());
+            caller.join();
+            assertNotNull(stepThread.get(), "pre-solve expected called during the step");
+            assertFalse(stepThread.get().isVirtual(), "step expected on a platform thread");
+            assertTrue(stepThread.get().getName().startsWith("box2d-step-"), "step expected on the step executor");
+            assertFalse(world.isStepping(), "world expected idle after the step");
+        }
+    }
+
+    @Test
+    @DisplayName("World rejects operations during an async step and runs deferred ones after it")
+    void testRejectDuringStep() throws Exception {
+        try (World world = new World(); World other = new World()) {
+            touchingPair(world);
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            world.preSolve((shapeIdA, shapeIdB, manifold) -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            });
+            CompletableFuture<Void> step = world.stepAsync(1.0f / 60.0f, 4);
+            entered.await();
+
+            assertTrue(world.isStepping(), "world expected stepping");
+            assertThrows(IllegalStateException.class, () -> world.step(1.0f / 60.0f, 4), "sync step expected rejected");
+            assertThrows(IllegalStateException.class, () -> world.stepAsync(1.0f / 60.0f, 4), "second async step expected rejected");
+            assertThrows(IllegalStateException.class, () -> world.explode(0.0f, 0.0f, 1.0f, 1.0f, 1.0f), "explosion expected rejected");
+            assertThrows(IllegalStateException.class, () -> new WorldCommandBuffer(world).drain(), "command drain expected rejected");
+            assertThrows(IllegalStateException.class, () -> World.stepAll(List.of(other, world), 1.0f / 60.0f, 4), "stepAll expected rejected");
+            assertFalse(other.isStepping(), "started world expected awaited before stepAll throws");
+
+            CompletableFuture<Void> deferred = step.thenRun(() -> world.explode(0.0f, 0.0f, 1.0f, 1.0f, 1.0f));
+            release.countDown();
+            step.join();
+            assertDoesNotThrow(deferred::join, "deferred explosion expected to run after the step");
+            assertFalse(world.isStepping(), "world expected idle after the step");
+        }
+    }
+
+    @Test
+    @DisplayName("World close waits for a step submitted but not yet running")
+    void testCloseDuringSubmit() throws Exception {
+        World world = new World();
+        box(world, 0.0f, 0.0f, true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Thread> closer = new AtomicReference<>();
+        // Close from another thread while the step is handed over, and only run the step once close is waiting.
+        CompletableFuture<Void> step = world.stepAsync(1.0f / 60.0f, 4, task -> {
+            Thread thread = Thread.ofPlatform().start(() -> {
+                try {
+                    world.close();
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            closer.set(thread);
+            while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TERMINATED) Thread.onSpinWait();
+            Thread.ofPlatform().start(task);
+        });
+        step.join();
+        closer.get().join();
+        assertNull(failure.get(), "close expected to wait for the step instead of failing");
+        assertFalse(nBox2D.nWorldIsValid(world.segment()), "world expected destroyed after the step");
+    }
+
+    @Test
+    @DisplayName("World stepAll steps every world")
+    void testStepAll() {
+        try (World first = new World(); World second = new World()) {
+            MemorySegment a = box(first, 0.0f, 0.0f, true);
+            MemorySegment b = box(second, 0.0f, 0.0f, true);
+            World.stepAll(List.of(first, second), 1.0f / 60.0f, 4);
+            assertTrue(b2Vec2.y(nBox2D.nBodyGetLinearVelocity(Arena.ofAuto(), a)) < 0.0f, "first world expected stepped");
+            assertTrue(b2Vec2.y(nBox2D.nBodyGetLinearVelocity(Arena.ofAuto(), b)) < 0.0f, "second world expected stepped");
+        }
+    }
+
+    @Test
+    @DisplayName("World pinning diagnostics: sync step pins a parking virtual thread, stepAsync does not")
+    void testPinning() throws Exception {
+        // JFR jdk.VirtualThreadPinned replaces -Djdk.tracePinnedThreads, it is recorded when a virtual thread
+        // parks while it cannot unmount, e.g. inside an upcall from native code.
+        try (World world = new World()) {
+            touchingPair(world);
+            world.preSolve((shapeIdA, shapeIdB, manifold) -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            });
+            assertTrue(pinnedEvents(() -> world.step(1.0f / 60.0f, 1)) > 0, "sync step from a virtual thread expected pinned");
+            assertEquals(0, pinnedEvents(() -> world.stepAsync(1.0f / 60.0f, 1).join()), "awaiting stepAsync expected not pinned");
+        }
+    }
+
+    private static long pinnedEvents(Runnable task) throws Exception {
+        Path file = Files.createTempFile("box2d-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            Thread.ofVirtual().start(task).join();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .count();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void touchingPair(World world) {
+        MemorySegment shapeDef = nBox2D.nDefaultShapeDef();
+        b2ShapeDef.enablePreSolveEvents(shapeDef, true);
+        MemorySegment ground = nBox2D.nCreateBody(world.segment(), nBox2D.nDefaultBodyDef());
+        nBox2D.nCreatePolygonShape(ground, shapeDef, nBox2D.nMakeBox(5.0f, 0.5f));
+        MemorySegment def = nBox2D.nDefaultBodyDef();
+        b2BodyDef.type(def, 2);
+        b2Vec2.y(b2BodyDef.position(def), 0.9f);
+        MemorySegment body = nBox2D.nCreateBody(world.segment(), def);
+        nBox2D.nCreatePolygonShape(body, shapeDef, nBox2D.nMakeBox(0.5f, 0.5f));
+    }
+
+    private static MemorySegment box(World world, float x, float y, boolean dynamic) {
+        MemorySegment def = nBox2D.nDefaultBodyDef();
+        if (dynamic) b2BodyDef.type(def, 2);
+        b2Vec2.x(b2BodyDef.position(def), x);
+        b2Vec2.y(b2BodyDef.position(def), y);
+        MemorySegment bodyId = nBox2D.nCreateBody(world.segment(), def);
+        nBox2D.nCreatePolygonShape(bodyId, nBox2D.nDefaultShapeDef(), nBox2D.nMakeBox(0.5f, 0.5f));
+        return bodyId;
+    }
+
+    private static float velocityX(MemorySegment bodyId) {
+        return b2Vec2.x(nBox2D.nBodyGetLinearVelocity(Arena.ofAuto(), bodyId));
+    }
+}
@@ -0,0 +1,90 @@
+package org.box2d.events;
+
+import org.box2d.dynamics.World;
+import org.box2d.dynamics.WorldCommandBuffer;
+import org.box2d.internal.b2ContactBeginTouchEvent;
+import org.box2d.internal.b2ContactHitEvent;
+import org.box2d.internal.b2ShapeId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactEventLogTest {
+    @Test
+    @DisplayName("ContactEventLogReader reads back the begin touch events of a falling pile")
+    void testCapture(@TempDir Path directory) {
+        Path path = directory.resolve("contacts.log");
+        try (World world = new World(0.0f, -10.0f);
+             ContactEventLog log = new ContactEventLog(path, 1 << 20);
+             ContactEventLogReader reader = new ContactEventLogReader(path)) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world).contactEvents(true);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                    .createBox(-1, WorldCommandBuffer.LastBody, 50.0f, 1.0f, 0.0f);
+            for (int i = 0; i < 20; i++) {
+                producer.createBody(i, WorldCommandBuffer.DynamicBody, i * 1.5f - 15.0f, 3.0f, 0.0f)
+                        .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+            }
+            buffer.drain();
+            for (int i = 0; i < 60; i++) {
+                world.step(1.0f / 60.0f, 4);
+                log.capture(world);
+            }
+            assertEquals(60, log.step(), "every step expected captured");
+            assertTrue(log.eventCount() >= 20, "every box expected to touch the ground");
+
+            long[] begins = new long[1];
+            int frames = reader.poll((type, step, events, count) -> {
+                assertTrue(step < 60, "step expected within the captured ones");
+                if (type != ContactEventLog.BeginTouch) return;
+                begins[0] += count;
+                assertEquals(count * b2ContactBeginTouchEvent.layout().byteSize(), events.byteSize(), "frame expected to hold the whole array");
+                MemorySegment shapeA = b2ContactBeginTouchEvent.shapeIdA(events);
+                assertTrue(b2ShapeId.index1(shapeA) > 0, "shape id expected copied");
+            }, Integer.MAX_VALUE);
+            assertTrue(frames > 0, "frames expected read");
+            assertTrue(begins[0] >= 20, "begin touch events expected read");
+            assertEquals(0, reader.lostCount(), "nothing expected lost");
+            assertEquals(0, reader.backlog(), "reader expected caught up");
+        }
+    }
+
+    @Test
+    @DisplayName("ContactEventLogReader counts the events overwritten before it read them")
+    void testOverrun(@TempDir Path directory) {
+        Path path = directory.resolve("hits.log");
+        long hitSize = b2ContactHitEvent.layout().byteSize();
+        MemorySegment hits = Arena.ofAuto().allocate(hitSize * 64);
+        for (int i = 0; i < 64; i++) hits.set(ValueLayout.JAVA_FLOAT, i * hitSize + b2ContactHitEvent.approachSpeed$offset(), i);
+        try (ContactEventLog log = new ContactEventLog(path, 4096);
+             ContactEventLogReader reader = new ContactEventLogReader(path)) {
+            long[] read = new long[1];
+            ContactEventLogReader.Handler handler = (type, step, events, count) -> {
+                assertEquals(ContactEventLog.Hit, type, "only hit frames expected");
+                for (int i = 0; i < count; i++) {
+                    assertEquals(i, events.get(ValueLayout.JAVA_FLOAT, i * hitSize + b2ContactHitEvent.approachSpeed$offset()), "events expected intact");
+                }
+                read[0] += count;
+            };
+            for (int i = 0; i < 1000; i++) {
+                log.append(ContactEventLog.Hit, hits, 1 + i % 7);
+                // The reader falls behind every so often.
+                if (i % 50 < 10) reader.poll(handler, 4);
+            }
+            reader.poll(handler, Integer.MAX_VALUE);
+            assertTrue(reader.lostCount() > 0, "slow reader expected to lose events");
+            assertTrue(reader.overrunCount() > 0, "slow reader expected lapped");
+            assertEquals(log.eventCount(), read[0] + reader.lostCount(), "every event expected read or counted lost");
+
+            assertEquals(0, log.append(ContactEventLog.Hit, hits, 1000), "frame larger than the ring expected dropped");
+            assertEquals(1000, reader.droppedCount(), "dropped events expected reported");
+        }
+    }
+}
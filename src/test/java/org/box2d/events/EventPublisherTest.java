@@ -0,0 +1,299 @@
+package org.box2d.events;
+
+import org.box2d.dynamics.BodyId;
+import org.box2d.dynamics.ShapeId;
+import org.box2d.dynamics.World;
+import org.box2d.dynamics.WorldCommandBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPublisherTest {
+    // Subscriber recording the steps and move positions of the chunks it receives.
+    private static final class Recorder implements Flow.Subscriber<EventChunk> {
+        final List<long[]> chunks = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long initialDemand;
+        final long delayNanos;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        Recorder(long initialDemand, long delayNanos) {
+            this.initialDemand = initialDemand;
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(EventChunk chunk) {
+            int moves = chunk.count(EventChunk.BodyMove);
+            chunks.add(new long[]{chunk.firstStep(), chunk.lastStep(), moves, chunk.count(EventChunk.ContactBegin),
+                    moves > 0 ? (long) chunk.moveX(0) : -1L});
+            if (delayNanos > 0) LockSupport.parkNanos(delayNanos);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        long events() {
+            long total = 0;
+            for (long[] chunk : chunks) total += chunk[2] + chunk[3];
+            return total;
+        }
+    }
+
+    // A chunk of one step, with one move of the given body and some begin touch events.
+    private static EventChunk chunk(EventPublisher publisher, long step, long body, int contacts) {
+        EventChunk chunk = publisher.chunk();
+        chunk.reset(step);
+        chunk.setMove(chunk.reserve(EventChunk.BodyMove, 1), body, step, 0.0f, 0.0f, false);
+        chunk.reserve(EventChunk.ContactBegin, contacts);
+        for (int i = 0; i < contacts; i++) chunk.setShapes(EventChunk.ContactBegin, i, i, i + 1);
+        return chunk;
+    }
+
+    @Test
+    @DisplayName("EventPublisher delivers the begin touch and move events of a falling pile")
+    void testCapture() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (World world = new World(0.0f, -10.0f);
+             EventPublisher publisher = new EventPublisher(executor, 256)) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world).contactEvents(true);
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            producer.createBody(-1, WorldCommandBuffer.StaticBody, 0.0f, 0.0f, 0.0f)
+                    .createBox(-1, WorldCommandBuffer.LastBody, 50.0f, 1.0f, 0.0f);
+            for (int i = 0; i < 20; i++) {
+                producer.createBody(i, WorldCommandBuffer.DynamicBody, i * 1.5f - 15.0f, 3.0f, 0.0f)
+                        .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+            }
+            buffer.drain();
+
+            long[] begins = new long[1];
+            long[] moves = new long[1];
+            CountDownLatch done = new CountDownLatch(1);
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(EventChunk chunk) {
+                    begins[0] += chunk.count(EventChunk.ContactBegin);
+                    for (int i = 0; i < chunk.count(EventChunk.ContactBegin); i++) {
+                        assertTrue(ShapeId.index1(chunk.shapeIdA(EventChunk.ContactBegin, i)) > 0, "shape id expected copied");
+                    }
+                    moves[0] += chunk.count(EventChunk.BodyMove);
+                    for (int i = 0; i < chunk.count(EventChunk.BodyMove); i++) {
+                        assertTrue(BodyId.index1(chunk.moveBodyId(i)) > 0, "body id expected copied");
+                        assertTrue(chunk.moveY(i) < 3.5f, "boxes expected to fall");
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+            long captured = 0;
+            for (int i = 0; i < 60; i++) {
+                world.step(1.0f / 60.0f, 4);
+                captured += publisher.capture(world);
+            }
+            publisher.close();
+            assertTrue(done.await(10, TimeUnit.SECONDS), "subscriber expected completed");
+            assertTrue(begins[0] >= 20, "every box expected to touch the ground");
+            assertTrue(moves[0] >= 20 * 10, "moving boxes expected reported");
+            assertEquals(captured, begins[0] + moves[0], "only begin touch and move events expected");
+            assertEquals(0, publisher.droppedCount(), "nothing expected dropped");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("EventPublisher returns chunks to the pool after onNext unless retained, and fails throwing subscribers")
+    void testRelease() {
+        // Delivers inline, so chunks are back in the pool as soon as publish returns.
+        Executor executor = Runnable::run;
+        try (EventPublisher publisher = new EventPublisher(executor, 4)) {
+            List<EventChunk> retained = new ArrayList<>();
+            List<Throwable> errors = new ArrayList<>();
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(EventChunk chunk) {
+                    if (chunk.firstStep() == 0) retained.add(chunk.retain());
+                    if (chunk.firstStep() == 2) throw new IllegalStateException("subscriber failure");
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    errors.add(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            for (int step = 0; step < 3; step++) publisher.publish(chunk(publisher, step, 7, 1));
+            assertEquals(1, errors.size(), "throwing subscriber expected to get onError");
+            assertEquals("subscriber failure", errors.get(0).getMessage(), "onNext failure expected passed to onError");
+            assertEquals(0, publisher.subscriberCount(), "throwing subscriber expected cancelled");
+            assertEquals(2, publisher.allocatedCount(), "retained chunk expected kept out of the pool");
+
+            for (int step = 3; step < 5; step++) publisher.publish(chunk(publisher, step, 7, 1));
+            assertEquals(2, publisher.allocatedCount(), "chunk delivered to the throwing subscriber expected released");
+            assertEquals(0, retained.get(0).firstStep(), "retained chunk expected intact");
+            retained.get(0).release();
+            assertThrows(IllegalStateException.class, retained.get(0)::release, "chunk expected released once");
+        }
+    }
+
+    @Test
+    @DisplayName("Overflow.DropOldest keeps the newest chunks of a subscriber without demand")
+    void testDropOldest() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (EventPublisher publisher = new EventPublisher(executor, 4)) {
+            Recorder recorder = new Recorder(0, 0);
+            publisher.subscribe(recorder);
+            for (int step = 0; step < 10; step++) publisher.publish(chunk(publisher, step, 7, 1));
+            assertEquals(6, publisher.droppedCount(), "overflowing chunks expected dropped");
+
+            recorder.subscription.request(100);
+            publisher.close();
+            assertTrue(recorder.done.await(10, TimeUnit.SECONDS), "subscriber expected completed");
+            assertNull(recorder.error, "no error expected");
+            assertEquals(4, recorder.chunks.size(), "a full buffer expected delivered");
+            for (int i = 0; i < 4; i++) assertEquals(6 + i, recorder.chunks.get(i)[0], "newest chunks expected in order");
+            assertEquals(5, publisher.allocatedCount(), "dropped chunks expected recycled");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Overflow.Coalesce merges late chunks, keeping every contact and the latest move of each body")
+    void testCoalesce() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (EventPublisher publisher = new EventPublisher(executor, 2, EventPublisher.Overflow.Coalesce, 0, TimeUnit.NANOSECONDS)) {
+            Recorder first = new Recorder(0, 0);
+            Recorder second = new Recorder(0, 0);
+            publisher.subscribe(first);
+            publisher.subscribe(second);
+            assertEquals(2, publisher.subscriberCount(), "both subscribers expected registered");
+            for (int step = 0; step < 10; step++) publisher.publish(chunk(publisher, step, 7, 2));
+
+            first.subscription.request(100);
+            second.subscription.request(100);
+            publisher.close();
+            for (Recorder recorder : List.of(first, second)) {
+                assertTrue(recorder.done.await(10, TimeUnit.SECONDS), "subscriber expected completed");
+                assertEquals(2, recorder.chunks.size(), "a full buffer expected delivered");
+                assertArrayEquals(new long[]{0, 0, 1, 2, 0}, recorder.chunks.get(0), "first chunk expected untouched");
+                assertArrayEquals(new long[]{1, 9, 1, 18, 9}, recorder.chunks.get(1), "later chunks expected merged into the last");
+            }
+            assertEquals(0, publisher.droppedCount(), "nothing expected dropped");
+            assertEquals(16, publisher.coalescedCount(), "eight chunks expected merged per subscriber");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Overflow.Block holds the publisher back to the pace of its subscriber")
+    void testBlock() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (EventPublisher publisher = new EventPublisher(executor, 2, EventPublisher.Overflow.Block, 10, TimeUnit.SECONDS)) {
+            Recorder recorder = new Recorder(Long.MAX_VALUE, TimeUnit.MILLISECONDS.toNanos(2));
+            publisher.subscribe(recorder);
+            long start = System.nanoTime();
+            for (int step = 0; step < 50; step++) publisher.publish(chunk(publisher, step, 7, 0));
+            long elapsed = System.nanoTime() - start;
+            publisher.close();
+            assertTrue(recorder.done.await(10, TimeUnit.SECONDS), "subscriber expected completed");
+            assertEquals(50, recorder.chunks.size(), "every chunk expected delivered");
+            assertEquals(0, publisher.droppedCount(), "nothing expected dropped");
+            assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(40), "publisher expected blocked by the slow subscriber");
+            assertTrue(publisher.allocatedCount() <= 4, "chunks expected pooled, got " + publisher.allocatedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("EventPublisher keeps its chunk allocations bounded with a subscriber at half the publishing rate")
+    void testSlowSubscriber() {
+        // Deliveries only run when the test says so, the subscriber takes one chunk every other step.
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        Runnable runTasks = () -> {
+            for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) task.run();
+        };
+        try (EventPublisher publisher = new EventPublisher(tasks::add, 8)) {
+            Recorder recorder = new Recorder(0, 0);
+            publisher.subscribe(recorder);
+            runTasks.run();
+            long events = 0;
+            for (int step = 0; step < 100; step++) {
+                EventChunk chunk = chunk(publisher, step, 7, 999);
+                events += chunk.eventCount();
+                publisher.publish(chunk);
+                if (step % 2 == 1) recorder.subscription.request(1);
+                runTasks.run();
+            }
+            assertEquals(100_000, events, "100k events expected published");
+            assertEquals(50, recorder.chunks.size(), "one chunk expected delivered every other step");
+            assertEquals(43, publisher.droppedCount(), "chunks beyond the buffer expected dropped");
+            assertTrue(publisher.allocatedCount() <= 8 + 2, "allocations expected bounded by the buffer, got " + publisher.allocatedCount());
+
+            recorder.subscription.request(Long.MAX_VALUE);
+            publisher.close();
+            runTasks.run();
+            assertEquals(0, recorder.done.getCount(), "subscriber expected completed");
+            assertNull(recorder.error, "no error expected");
+            assertEquals(100, recorder.chunks.size() + publisher.droppedCount(), "every chunk expected delivered or dropped");
+            assertEquals(recorder.chunks.size() * 1000L, recorder.events(), "delivered chunks expected complete");
+
+            Recorder late = new Recorder(0, 0);
+            publisher.subscribe(late);
+            runTasks.run();
+            assertEquals(0, late.done.getCount(), "subscriber of a closed publisher expected completed");
+            assertEquals(0, publisher.subscriberCount(), "completed subscribers expected removed");
+        }
+    }
+}
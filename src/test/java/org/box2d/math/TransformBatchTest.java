@@ -0,0 +1,149 @@
+package org.box2d.math;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TransformBatchTest {
+    private static final float delta = 0.0001f;
+    // Not a multiple of any vector length, so tails are covered.
+    private static final int count = 1037;
+
+    private static float[] randomFloats(int length, long seed) {
+        Random random = new Random(seed);
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) values[i] = (random.nextFloat() - 0.5f) * 200.0f;
+        return values;
+    }
+
+    private static float[] interleave(float[] x, float[] y) {
+        float[] xy = new float[2 * x.length];
+        for (int i = 0; i < x.length; i++) {
+            xy[2 * i] = x[i];
+            xy[2 * i + 1] = y[i];
+        }
+        return xy;
+    }
+
+    @Test
+    @DisplayName("TransformBatch transform matches b2TransformPoint bit for bit")
+    void testTransformMatchesReference() {
+        Transform t = new Transform(3.5f, -2.25f, 0.7f);
+        float px = t.x(), py = t.y(), c = t.rotation().c(), s = t.rotation().s();
+        float[] x = randomFloats(count, 1L), y = randomFloats(count, 2L);
+        float[] outX = new float[count], outY = new float[count];
+        TransformBatch.transform(t, x, y, outX, outY, count);
+
+        float[] xy = interleave(x, y);
+        float[] outXY = new float[2 * count];
+        TransformBatch.transform(t, xy, outXY, count);
+
+        for (int i = 0; i < count; i++) {
+            float ex = (c * x[i] - s * y[i]) + px;
+            float ey = (s * x[i] + c * y[i]) + py;
+            assertEquals(Float.floatToRawIntBits(ex), Float.floatToRawIntBits(outX[i]), "x expected bit exact at " + i);
+            assertEquals(Float.floatToRawIntBits(ey), Float.floatToRawIntBits(outY[i]), "y expected bit exact at " + i);
+            assertEquals(Float.floatToRawIntBits(ex), Float.floatToRawIntBits(outXY[2 * i]), "interleaved x expected bit exact at " + i);
+            assertEquals(Float.floatToRawIntBits(ey), Float.floatToRawIntBits(outXY[2 * i + 1]), "interleaved y expected bit exact at " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("TransformBatch inverse transform matches b2InvTransformPoint and undoes transform")
+    void testInverseTransform() {
+        Transform t = new Transform(-1.0f, 4.0f, -2.1f);
+        float px = t.x(), py = t.y(), c = t.rotation().c(), s = t.rotation().s();
+        float[] xy = interleave(randomFloats(count, 3L), randomFloats(count, 4L));
+        float[] local = new float[2 * count];
+        TransformBatch.inverseTransform(t, xy, local, count);
+
+        for (int i = 0; i < count; i++) {
+            float vx = xy[2 * i] - px;
+            float vy = xy[2 * i + 1] - py;
+            assertEquals(Float.floatToRawIntBits(c * vx + s * vy), Float.floatToRawIntBits(local[2 * i]), "x expected bit exact at " + i);
+            assertEquals(Float.floatToRawIntBits(-s * vx + c * vy), Float.floatToRawIntBits(local[2 * i + 1]), "y expected bit exact at " + i);
+        }
+
+        float[] world = new float[2 * count];
+        TransformBatch.transform(t, local, world, count);
+        for (int i = 0; i < 2 * count; i++) assertEquals(xy[i], world[i], 0.001f, "round trip expected original value at " + i);
+    }
+
+    @Test
+    @DisplayName("TransformBatch rotate on segment matches split arrays and works in place")
+    void testRotateSegmentInPlace() {
+        Rot q = new Rot(1.1f);
+        float[] x = randomFloats(count, 5L), y = randomFloats(count, 6L);
+        float[] outX = new float[count], outY = new float[count];
+        TransformBatch.rotate(q, x, y, outX, outY, count);
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment points = arena.allocateFrom(ValueLayout.JAVA_FLOAT, interleave(x, y));
+            TransformBatch.rotate(q, points, points, count);
+            for (int i = 0; i < count; i++) {
+                assertEquals(Float.floatToRawIntBits(outX[i]), Float.floatToRawIntBits(points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i)), "x expected bit exact at " + i);
+                assertEquals(Float.floatToRawIntBits(outY[i]), Float.floatToRawIntBits(points.getAtIndex(ValueLayout.JAVA_FLOAT, 2L * i + 1)), "y expected bit exact at " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("TransformBatch vector kernels match scalar kernels bit for bit")
+    void testVectorMatchesScalar() {
+        assumeTrue(TransformBatch.isVectorized(), "jdk.incubator.vector not available");
+        float px = 12.5f, py = -0.75f, c = (float) Math.cos(0.3), s = (float) Math.sin(0.3);
+        float[] xy = interleave(randomFloats(count, 7L), randomFloats(count, 8L));
+        float[] vector = new float[2 * count], scalar = new float[2 * count];
+
+        VectorTransformKernel.transform(px, py, c, s, xy, vector, count);
+        ScalarTransformKernel.transform(px, py, c, s, xy, scalar, 0, count);
+        assertArrayEquals(scalar, vector, "transform expected identical results");
+
+        VectorTransformKernel.inverseTransform(px, py, c, s, xy, vector, count);
+        ScalarTransformKernel.inverseTransform(px, py, c, s, xy, scalar, 0, count);
+        assertArrayEquals(scalar, vector, "inverse transform expected identical results");
+
+        VectorTransformKernel.rotate(c, s, xy, vector, count);
+        ScalarTransformKernel.rotate(c, s, xy, scalar, 0, count);
+        assertArrayEquals(scalar, vector, "rotate expected identical results");
+    }
+
+    @Test
+    @DisplayName("TransformBatch bounds encloses every point")
+    void testBounds() {
+        float[] x = randomFloats(count, 9L), y = randomFloats(count, 10L);
+        x[517] = -150.0f;
+        y[1036] = 175.0f;
+        float[] split = TransformBatch.bounds(x, y, count, new float[4]);
+        float[] interleaved = TransformBatch.bounds(interleave(x, y), count, new float[4]);
+
+        assertEquals(-150.0f, split[0], delta, "minX expected -150.0");
+        assertEquals(175.0f, split[3], delta, "maxY expected 175.0");
+        assertArrayEquals(split, interleaved, "interleaved bounds expected equal to split bounds");
+        for (int i = 0; i < count; i++) {
+            assertTrue(x[i] >= split[0] && x[i] <= split[2], "x expected inside bounds at " + i);
+            assertTrue(y[i] >= split[1] && y[i] <= split[3], "y expected inside bounds at " + i);
+        }
+
+        float[] empty = TransformBatch.bounds(x, y, 0, new float[4]);
+        assertEquals(Float.POSITIVE_INFINITY, empty[0], "empty minX expected +infinity");
+        assertEquals(Float.NEGATIVE_INFINITY, empty[2], "empty maxX expected -infinity");
+    }
+
+    @Test
+    @DisplayName("TransformBatch rejects counts larger than the arrays")
+    void testCountValidation() {
+        Transform t = new Transform();
+        float[] small = new float[4];
+        assertThrows(IndexOutOfBoundsException.class, () -> TransformBatch.transform(t, small, small, small, small, 5), "split expected out of bounds");
+        assertThrows(IndexOutOfBoundsException.class, () -> TransformBatch.transform(t, small, small, 3), "interleaved expected out of bounds");
+        assertThrows(IndexOutOfBoundsException.class, () -> TransformBatch.bounds(small, 2, new float[3]), "bounds output expected out of bounds");
+    }
+}
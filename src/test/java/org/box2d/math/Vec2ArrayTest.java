@@ -0,0 +1,95 @@
+package org.box2d.math;
+
+import org.box2d.internal.b2ChainDef;
+import org.box2d.internal.b2Hull;
+import org.box2d.internal.b2ShapeProxy;
+import org.box2d.internal.b2Vec2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec2ArrayTest {
+    private static final float delta = 0.0001f;
+
+    @Test
+    @DisplayName("Vec2Array bulk set and toArray round trip")
+    void testBulkSet() {
+        float[] xy = {1.0f, 2.0f, 3.0f, 4.0f, 5.0f, 6.0f};
+        Vec2Array array = new Vec2Array(xy);
+        assertEquals(3, array.size(), "size expected 3");
+        assertEquals(3.0f, array.x(1), delta, "x(1) expected 3.0");
+        assertEquals(6.0f, array.y(2), delta, "y(2) expected 6.0");
+        assertArrayEquals(xy, array.toArray(), "toArray expected the original coordinates");
+
+        array.set(new float[] {-1.0f, -2.0f}, new float[] {7.0f, 8.0f}, 2);
+        assertEquals(2, array.size(), "size expected 2 after split set");
+        assertEquals(-2.0f, array.x(1), delta, "x(1) expected -2.0");
+        assertEquals(8.0f, array.y(1), delta, "y(1) expected 8.0");
+        assertThrows(IllegalArgumentException.class, () -> array.set(new float[3]), "odd length expected to throw");
+    }
+
+    @Test
+    @DisplayName("Vec2Array grows and keeps its content")
+    void testGrowth() {
+        Vec2Array array = new Vec2Array(2);
+        for (int i = 0; i < 100; i++) array.add(i, -i);
+        assertEquals(100, array.size(), "size expected 100");
+        assertTrue(array.capacity() >= 100, "capacity expected at least 100");
+        assertEquals(42.0f, array.x(42), delta, "x(42) expected 42.0");
+        assertEquals(-99.0f, array.y(99), delta, "y(99) expected -99.0");
+        assertEquals(100 * b2Vec2.layout().byteSize(), array.segment().byteSize(), "segment expected sliced to size");
+
+        array.resize(102);
+        assertEquals(0.0f, array.x(101), delta, "resized vector expected zero");
+        assertThrows(IndexOutOfBoundsException.class, () -> array.x(102), "index past size expected to throw");
+    }
+
+    @Test
+    @DisplayName("Vec2Array view shares memory and cannot grow")
+    void testView() {
+        Vec2Array array = new Vec2Array(0.0f, 0.0f, 1.0f, 1.0f, 2.0f, 2.0f, 3.0f, 3.0f);
+        Vec2Array view = array.view(1, 2);
+        assertEquals(2, view.size(), "view size expected 2");
+        assertFalse(view.isGrowable(), "view expected not growable");
+
+        view.set(0, 10.0f, 20.0f);
+        assertEquals(10.0f, array.x(1), delta, "write through view expected visible in array");
+        array.get(2).set(30.0f, 40.0f);
+        assertEquals(40.0f, view.y(1), delta, "write through wrapper expected visible in view");
+        assertThrows(IllegalStateException.class, () -> view.add(5.0f, 5.0f), "growing a view expected to throw");
+    }
+
+    @Test
+    @DisplayName("Vec2Array passes its memory to hull, proxy and chain definition")
+    void testNativePassing() {
+        Vec2Array square = new Vec2Array(-1.0f, -1.0f, 1.0f, -1.0f, 1.0f, 1.0f, -1.0f, 1.0f, 0.0f, 0.0f);
+        MemorySegment hull = square.computeHull();
+        assertEquals(4, b2Hull.count(hull), "hull expected to drop the interior point");
+
+        MemorySegment proxy = square.view(0, 4).makeProxy(0.5f);
+        assertEquals(4, b2ShapeProxy.count(proxy), "proxy count expected 4");
+        assertEquals(0.5f, b2ShapeProxy.radius(proxy), delta, "proxy radius expected 0.5");
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment def = b2ChainDef.allocate(arena);
+            square.toChainDef(def);
+            assertEquals(5, b2ChainDef.count(def), "chain count expected 5");
+            assertEquals(square.segment().address(), b2ChainDef.points(def).address(), "chain points expected to reference the array memory");
+        }
+    }
+
+    @Test
+    @DisplayName("Vec2Array transform in place")
+    void testTransform() {
+        Vec2Array array = new Vec2Array(1.0f, 0.0f, 0.0f, 1.0f);
+        array.transform(new Transform(2.0f, 3.0f, (float) Math.PI / 2.0f));
+        assertEquals(2.0f, array.x(0), delta, "x(0) expected 2.0");
+        assertEquals(4.0f, array.y(0), delta, "y(0) expected 4.0");
+        assertEquals(1.0f, array.x(1), delta, "x(1) expected 1.0");
+        assertEquals(3.0f, array.y(1), delta, "y(1) expected 3.0");
+    }
+}
@@ -0,0 +1,102 @@
+package org.box2d.replication;
+
+import org.box2d.dynamics.BodyId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestIndexTest {
+    @Test
+    @DisplayName("InterestIndex reports bodies entering and leaving a view")
+    void testEnterLeave() {
+        try (InterestIndex index = new InterestIndex(0.5f)) {
+            index.put(BodyId.pack(1, 0, 0), 0.0f, 0.0f, 0.5f)
+                    .put(BodyId.pack(2, 0, 0), 5.0f, 0.0f, 0.5f)
+                    .put(BodyId.pack(3, 0, 0), 50.0f, 0.0f, 0.5f);
+            InterestIndex.View view = index.view().set(-10.0f, -10.0f, 10.0f, 10.0f);
+            index.update();
+            assertEquals(2, view.visibleCount(), "two bodies expected visible");
+            assertEquals(2, view.enteredCount(), "two bodies expected entered");
+            assertEquals(0, view.entered(0), "entered bodies expected in index order");
+            assertEquals(1, view.entered(1), "entered bodies expected in index order");
+
+            index.update();
+            assertEquals(0, view.enteredCount() + view.leftCount(), "unchanged view expected no changes");
+
+            index.put(BodyId.pack(2, 0, 0), 30.0f, 0.0f, 0.5f).put(BodyId.pack(3, 0, 0), 9.0f, 0.0f, 0.5f);
+            index.update();
+            assertEquals(1, view.enteredCount(), "one body expected entered");
+            assertEquals(2, view.entered(0), "moved in body expected entered");
+            assertEquals(1, view.leftCount(), "one body expected left");
+            assertEquals(1, view.left(0), "moved out body expected left");
+
+            assertTrue(index.remove(BodyId.pack(1, 0, 0)), "removed body expected in the index");
+            index.update();
+            assertEquals(1, view.leftCount(), "removed body expected left");
+            assertFalse(view.contains(0), "removed body expected not visible");
+            assertTrue(view.contains(2), "remaining body expected visible");
+        }
+    }
+
+    @Test
+    @DisplayName("InterestIndex only moves proxies leaving their enlarged box")
+    void testMargin() {
+        try (InterestIndex index = new InterestIndex(1.0f)) {
+            index.put(BodyId.pack(1, 0, 0), 0.0f, 0.0f, 0.5f);
+            for (int i = 1; i <= 9; i++) index.put(BodyId.pack(1, 0, 0), 0.1f * i, 0.0f, 0.5f);
+            assertEquals(0, index.proxyMoves(), "small motions expected no proxy moves");
+            index.put(BodyId.pack(1, 0, 0), 1.5f, 0.0f, 0.5f);
+            assertEquals(1, index.proxyMoves(), "leaving the enlarged box expected a proxy move");
+
+            InterestIndex.View view = index.view().set(1.8f, -1.0f, 3.0f, 1.0f);
+            index.update();
+            assertEquals(1, view.visibleCount(), "body bounds overlapping the view expected visible");
+            index.put(BodyId.pack(1, 0, 0), 1.2f, 0.0f, 0.5f);
+            index.update();
+            assertEquals(1, view.leftCount(), "body whose enlarged box still overlaps expected left");
+        }
+    }
+
+    @Test
+    @DisplayName("InterestIndex parallel update matches a brute force scan")
+    void testParallel() {
+        Random random = new Random(7);
+        int bodies = 2000;
+        float[] xs = new float[bodies], ys = new float[bodies];
+        try (InterestIndex index = new InterestIndex(0.25f)) {
+            InterestIndex.View[] views = new InterestIndex.View[64];
+            float[][] rects = new float[views.length][];
+            for (int v = 0; v < views.length; v++) views[v] = index.view();
+            for (int tick = 0; tick < 5; tick++) {
+                for (int i = 0; i < bodies; i++) {
+                    xs[i] = tick == 0 ? random.nextFloat() * 200.0f : xs[i] + random.nextFloat() - 0.5f;
+                    ys[i] = tick == 0 ? random.nextFloat() * 200.0f : ys[i] + random.nextFloat() - 0.5f;
+                    index.put(BodyId.pack(i + 1, 0, 0), xs[i], ys[i], 0.5f);
+                }
+                for (int v = 0; v < views.length; v++) {
+                    float x = random.nextFloat() * 180.0f, y = random.nextFloat() * 180.0f;
+                    rects[v] = new float[] { x, y, x + 20.0f, y + 20.0f };
+                    views[v].set(x, y, x + 20.0f, y + 20.0f);
+                }
+                index.update();
+                for (int v = 0; v < views.length; v++) {
+                    float[] r = rects[v];
+                    int expected = 0;
+                    for (int i = 0; i < bodies; i++) {
+                        boolean inside = xs[i] + 0.5f >= r[0] && xs[i] - 0.5f <= r[2] && ys[i] + 0.5f >= r[1] && ys[i] - 0.5f <= r[3];
+                        if (inside) expected++;
+                        assertEquals(inside, views[v].contains(i), "view " + v + " expected to match the scan for body " + i);
+                    }
+                    assertEquals(expected, views[v].visibleCount(), "view " + v + " expected the scanned count");
+                }
+            }
+
+            assertTrue(index.removeView(views[0]), "view expected removed");
+            assertFalse(index.removeView(views[0]), "removed view expected not removed twice");
+            assertEquals(views.length - 1, index.viewCount(), "view count expected decremented");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.box2d.replication;
+
+import org.box2d.dynamics.BodyId;
+import org.box2d.dynamics.World;
+import org.box2d.dynamics.WorldCommandBuffer;
+import org.box2d.internal.b2BodyId;
+import org.box2d.internal.b2Vec2;
+import org.box2d.internal.nBox2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotEncoderTest {
+    private static final float Precision = 1.0f / 512.0f;
+    private static final int AngleBits = 12;
+
+    @Test
+    @DisplayName("SnapshotEncoder round trips quantized bodies without a baseline")
+    void testFull() {
+        SnapshotEncoder encoder = new SnapshotEncoder(Precision, AngleBits);
+        SnapshotDecoder decoder = new SnapshotDecoder(Precision, AngleBits);
+        encoder.put(BodyId.pack(1, 0, 0), 1.25f, -3.5f, 0.5f, false)
+                .put(BodyId.pack(5, 0, 0), 1000.0f, 20.0f, -3.0f, true)
+                .put(BodyId.pack(300, 0, 0), -0.001f, 0.0f, 3.1f, false);
+        assertEquals(0, encoder.commit(), "first sequence expected 0");
+
+        MemorySegment buffer = Arena.ofAuto().allocate(1024);
+        long size = encoder.encode(SnapshotEncoder.NoBaseline, buffer);
+        assertEquals(3, encoder.lastBodyCount(), "every body expected written");
+        assertEquals(0, decoder.decode(buffer.asSlice(0, size)), "decoded sequence expected 0");
+        assertEquals(3, decoder.changedCount(), "three bodies expected changed");
+        assertEquals(4, decoder.changedIndex(1), "changes expected in index order");
+
+        assertTrue(decoder.contains(0) && decoder.contains(4) && decoder.contains(299), "bodies expected present");
+        assertFalse(decoder.contains(1), "missing body expected absent");
+        assertEquals(1000.0f, decoder.x(4), Precision, "x expected within precision");
+        assertEquals(-3.5f, decoder.y(0), Precision, "y expected within precision");
+        assertEquals(-3.0f, decoder.angle(4), 2.0 * Math.PI / (1 << AngleBits), "angle expected within precision");
+        assertEquals(3.1f, decoder.angle(299), 2.0 * Math.PI / (1 << AngleBits), "angle near pi expected within precision");
+        assertTrue(decoder.isAsleep(4), "sleep state expected carried");
+    }
+
+    @Test
+    @DisplayName("SnapshotEncoder only writes bodies changed since the acknowledged baseline")
+    void testDelta() {
+        SnapshotEncoder encoder = new SnapshotEncoder(Precision, AngleBits);
+        SnapshotDecoder decoder = new SnapshotDecoder(Precision, AngleBits);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        for (int i = 1; i <= 1000; i++) encoder.put(BodyId.pack(i, 0, 0), i, 0.0f, 0.0f, false);
+        encoder.commit();
+        int full = encoder.encode(SnapshotEncoder.NoBaseline, buffer);
+        decoder.decode(buffer.flip());
+
+        encoder.put(BodyId.pack(10, 0, 0), 10.01f, 0.02f, 0.1f, false).remove(BodyId.pack(20, 0, 0));
+        encoder.commit();
+        int delta = encoder.encode(0, buffer.clear());
+        assertEquals(2, encoder.lastBodyCount(), "moved and removed bodies expected written");
+        assertTrue(delta < full / 100, "delta expected far smaller than the full snapshot, got " + delta + " of " + full);
+
+        assertEquals(1, decoder.decode(buffer.flip()), "decoded sequence expected 1");
+        assertEquals(0, buffer.remaining(), "buffer expected consumed");
+        assertEquals(10.01f, decoder.x(9), Precision, "moved body expected updated");
+        assertFalse(decoder.contains(19), "removed body expected absent");
+        assertEquals(500.0f, decoder.x(499), Precision, "unchanged body expected kept from the baseline");
+
+        SnapshotDecoder late = new SnapshotDecoder(Precision, AngleBits);
+        assertThrows(IllegalStateException.class, () -> late.decode(MemorySegment.ofBuffer(buffer.rewind())), "missing baseline expected to throw");
+
+        buffer.clear().position(3);
+        int again = encoder.encode(SnapshotEncoder.NoBaseline, buffer);
+        assertEquals(3 + again, buffer.position(), "buffer expected advanced past the snapshot");
+        assertEquals(1, late.decode(buffer.flip().position(3)), "snapshot at a buffer offset expected decoded");
+        assertEquals(999, late.changedCount(), "every remaining body expected decoded");
+        buffer.clear().position(3).limit(19);
+        assertThrows(IndexOutOfBoundsException.class, () -> encoder.encode(SnapshotEncoder.NoBaseline, buffer), "snapshot past the limit expected to throw");
+    }
+
+    @Test
+    @DisplayName("SnapshotEncoder captures the body move events of a world")
+    void testCapture() {
+        try (World world = new World()) {
+            WorldCommandBuffer buffer = new WorldCommandBuffer(world);
+            long[] ids = new long[10];
+            WorldCommandBuffer.Producer producer = buffer.producer(0);
+            for (int i = 0; i < ids.length; i++) {
+                producer.createBody(i, WorldCommandBuffer.DynamicBody, i * 2.0f, 10.0f, 0.0f)
+                        .createBox(-1, WorldCommandBuffer.LastBody, 0.5f, 0.5f, 1.0f);
+            }
+            buffer.drain((tag, id) -> {
+                if (tag >= 0) ids[(int) tag] = id;
+            });
+
+            SnapshotEncoder encoder = new SnapshotEncoder(Precision, AngleBits);
+            SnapshotDecoder decoder = new SnapshotDecoder(Precision, AngleBits);
+            MemorySegment out = Arena.ofAuto().allocate(4096);
+            int acknowledged = SnapshotEncoder.NoBaseline;
+            for (int frame = 0; frame < 30; frame++) {
+                world.step(1.0f / 60.0f, 4);
+                assertEquals(ids.length, encoder.capture(world), "every falling body expected to move");
+                encoder.commit();
+                acknowledged = decoder.decode(out.asSlice(0, encoder.encode(acknowledged, out)));
+            }
+            for (long id : ids) {
+                MemorySegment position = nBox2D.nBodyGetPosition(Arena.ofAuto(), BodyId.unpack(id, b2BodyId.allocate(Arena.ofAuto())));
+                int index = BodyId.index1(id) - 1;
+                assertEquals(b2Vec2.x(position), decoder.x(index), Precision, "decoded x expected to match the body");
+                assertEquals(b2Vec2.y(position), decoder.y(index), Precision, "decoded y expected to match the body");
+            }
+        }
+    }
+}